@@ -0,0 +1,96 @@
+package com.example.demo.Service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminders spread over two days on a one-second wheel, a fifth of them cancelled and
+ * a fifth moved, then the clock advanced in one-minute steps until all have fired.
+ * The same workload on a PriorityQueue (the usual DelayQueue/ScheduledExecutorService
+ * structure, cancelled entries left in the heap until they surface) for comparison.
+ * Lives in the Service package because the wheel is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class HierarchicalTimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1_000;
+    private static final long SPAN_MILLIS = 48 * 3_600_000L;
+    private static final long STEP_MILLIS = 60_000;
+    private static final long MOVE_MILLIS = 3 * 3_600_000L;
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    @Param({"500000"})
+    private int reminders;
+
+    private long[] deadlines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        deadlines = new long[reminders];
+        for (int i = 0; i < reminders; i++) {
+            deadlines[i] = START_MILLIS + random.nextLong(SPAN_MILLIS);
+        }
+    }
+
+    @Benchmark
+    public long timingWheel() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, START_MILLIS);
+        List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>(reminders);
+        for (int i = 0; i < reminders; i++) {
+            timeouts.add(wheel.add(deadlines[i], i));
+        }
+        for (int i = 0; i + 1 < reminders; i += 5) {
+            wheel.cancel(timeouts.get(i));
+            // Moved to a later time, as a reschedule does
+            wheel.cancel(timeouts.get(i + 1));
+            timeouts.set(i + 1, wheel.add(deadlines[i + 1] + MOVE_MILLIS, i + 1));
+        }
+
+        long fired = 0;
+        for (long now = START_MILLIS; wheel.size() > 0; now += STEP_MILLIS) {
+            for (int i : wheel.advanceTo(now)) {
+                fired += i;
+            }
+        }
+        return fired;
+    }
+
+    @Benchmark
+    public long priorityQueue() {
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> entries = new ArrayList<>(reminders);
+        for (int i = 0; i < reminders; i++) {
+            long[] entry = {deadlines[i], i};
+            entries.add(entry);
+            queue.add(entry);
+        }
+        for (int i = 0; i + 1 < reminders; i += 5) {
+            // Cancelled lazily, PriorityQueue.remove(Object) is a linear scan
+            entries.get(i)[1] = -1;
+            entries.get(i + 1)[1] = -1;
+            queue.add(new long[] {deadlines[i + 1] + MOVE_MILLIS, i + 1});
+        }
+
+        long fired = 0;
+        for (long now = START_MILLIS; !queue.isEmpty(); now += STEP_MILLIS) {
+            while (!queue.isEmpty() && queue.peek()[0] <= now) {
+                long[] entry = queue.poll();
+                if (entry[1] >= 0) {
+                    fired += entry[1];
+                }
+            }
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.benchmark;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory H2 databases in MySQL mode for the repository benchmarks, with the tables
+ * Hibernate would create for them. One connection is kept open, as a pool would, so
+ * connecting is not measured. Absolute numbers are far better than a networked MySQL
+ * server, so compare the paths within a benchmark rather than the timings.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {}
+
+    static JdbcTemplate open(String name) {
+        return new JdbcTemplate(new SingleConnectionDataSource(
+            "jdbc:h2:mem:" + name + ";MODE=MySQL;NON_KEYWORDS=TIMESTAMP;DB_CLOSE_DELAY=-1", "sa", "", true));
+    }
+
+    static void close(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("SHUTDOWN");
+        ((SingleConnectionDataSource) jdbcTemplate.getDataSource()).destroy();
+    }
+
+    static void createVitalSigns(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS vital_signs");
+        jdbcTemplate.execute("CREATE TABLE vital_signs (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "patient_id VARCHAR(255) NOT NULL, doctor_id VARCHAR(255) NOT NULL, timestamp TIMESTAMP, " +
+            "body_temperature DOUBLE, pulse_rate INT, respiratory_rate INT, systolic INT, diastolic INT, " +
+            "category VARCHAR(32), oxygen_saturation DOUBLE, height DOUBLE, weight DOUBLE, " +
+            "pain_level TINYINT, status VARCHAR(16) NOT NULL, feedback_id BIGINT, prescription_id BIGINT)");
+    }
+
+    static void createReadings(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS vital_readings");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS vital_rollups");
+        jdbcTemplate.execute("CREATE TABLE vital_readings (patient_id VARCHAR(36) NOT NULL, " +
+            "recorded_at TIMESTAMP NOT NULL, body_temperature DOUBLE, pulse_rate INT, respiratory_rate INT, " +
+            "systolic INT, diastolic INT, oxygen_saturation DOUBLE, pain_level INT, vital_signs_id BIGINT NOT NULL, " +
+            "PRIMARY KEY (patient_id, recorded_at, vital_signs_id))");
+        jdbcTemplate.execute("CREATE TABLE vital_rollups (patient_id VARCHAR(36) NOT NULL, " +
+            "resolution VARCHAR(8) NOT NULL, bucket_start TIMESTAMP NOT NULL, reading_count BIGINT, " +
+            "min_temperature DOUBLE, max_temperature DOUBLE, sum_temperature DOUBLE, " +
+            "min_pulse INT, max_pulse INT, sum_pulse BIGINT, " +
+            "min_respiratory INT, max_respiratory INT, sum_respiratory BIGINT, " +
+            "min_systolic INT, max_systolic INT, sum_systolic BIGINT, " +
+            "min_diastolic INT, max_diastolic INT, sum_diastolic BIGINT, " +
+            "min_oxygen DOUBLE, max_oxygen DOUBLE, sum_oxygen DOUBLE, " +
+            "PRIMARY KEY (patient_id, resolution, bucket_start))");
+    }
+
+    /**
+     * One reading a minute from start, values derived from the reading's position
+     */
+    static void loadReadings(JdbcTemplate jdbcTemplate, String patientId, LocalDateTime start, int readings) {
+        int batch = 10_000;
+        for (int offset = 0; offset < readings; offset += batch) {
+            int from = offset;
+            int size = Math.min(batch, readings - offset);
+            jdbcTemplate.batchUpdate("INSERT INTO vital_readings VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int n = from + i;
+                        ps.setString(1, patientId);
+                        ps.setTimestamp(2, Timestamp.valueOf(start.plusMinutes(n)));
+                        ps.setDouble(3, 36.0 + (n % 30) / 10.0);
+                        ps.setInt(4, 60 + n % 40);
+                        ps.setInt(5, 12 + n % 8);
+                        ps.setInt(6, 110 + n % 50);
+                        ps.setInt(7, 70 + n % 20);
+                        ps.setDouble(8, 92.0 + n % 8);
+                        ps.setInt(9, n % 6);
+                        ps.setLong(10, n);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                });
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Service.CSVProcessingService;
+import com.example.demo.Service.ParallelRecordProcessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV ingestion through the chunked parallel parser used by the upload jobs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CsvParsingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private byte[] csv;
+    private ParallelRecordProcessor recordProcessor;
+    private CSVProcessingService csvProcessingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csv = VitalsDatasets.csv(rows);
+        recordProcessor = new ParallelRecordProcessor(0, 64);
+        csvProcessingService = new CSVProcessingService(recordProcessor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recordProcessor.shutdown();
+    }
+
+    @Benchmark
+    public int parseCSVInChunks(Blackhole blackhole) throws IOException {
+        return csvProcessingService.parseCSVInChunks(new ByteArrayInputStream(csv), 2000,
+                (chunk, firstRowNumber) -> blackhole.consume(chunk));
+    }
+}
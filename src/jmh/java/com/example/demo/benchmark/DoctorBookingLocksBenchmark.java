@@ -0,0 +1,67 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Service.DoctorBookingLocks;
+import com.example.demo.respository.DoctorRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Booking transactions racing for DoctorBookingLocks: each operation takes the lock of
+ * one of the doctors inside a transaction, does a fixed amount of work standing in for
+ * the availability check and insert, and completes the transaction. With a single
+ * stripe every doctor queues behind the others; with the default 256 bookings for
+ * different doctors proceed in parallel. The doctor row lock is a no-op here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Threads(8)
+public class DoctorBookingLocksBenchmark {
+
+    private static final int DOCTORS = 8;
+
+    @Param({"1", "256"})
+    private int stripes;
+
+    @Param({"1000"})
+    private int workTokens;
+
+    private DoctorBookingLocks locks;
+    private String[] doctorIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class, withSettings().stubOnly());
+        locks = new DoctorBookingLocks(doctorRepository, stripes, Duration.ofSeconds(30));
+        doctorIds = new String[DOCTORS];
+        for (int i = 0; i < DOCTORS; i++) {
+            doctorIds[i] = "doctor-" + i;
+        }
+    }
+
+    @Benchmark
+    public void book() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            locks.lock(doctorIds[ThreadLocalRandom.current().nextInt(DOCTORS)]);
+            Blackhole.consumeCPU(workTokens);
+        } finally {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
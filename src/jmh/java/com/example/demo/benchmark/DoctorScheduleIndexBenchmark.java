@@ -0,0 +1,172 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Models.Appointment;
+import com.example.demo.Service.DoctorScheduleIndex;
+import com.example.demo.respository.AppointmentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One day's availability for a doctor with a dense six-month calendar (about 90% of
+ * the 9-17 half-hour slots booked, one in eight of those cancelled): the old scan of
+ * every candidate slot against the day's appointments, with and without the
+ * per-request query, against DoctorScheduleIndex once its months are loaded.
+ * Each invocation looks up the next day of the calendar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DoctorScheduleIndexBenchmark {
+
+    private static final String DOCTOR_ID = "doctor-1";
+    private static final int MONTHS = 6;
+
+    private JdbcTemplate jdbcTemplate;
+    private DoctorScheduleIndex index;
+    private Map<LocalDate, List<Appointment>> bookedByDay;
+    private List<LocalDate> days;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate firstDay = LocalDate.of(2030, 1, 1);
+        LocalDate lastDay = firstDay.plusMonths(MONTHS);
+        List<Appointment> calendar = denseCalendar(firstDay, lastDay);
+
+        days = new ArrayList<>();
+        for (LocalDate day = firstDay; day.isBefore(lastDay); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        bookedByDay = calendar.stream()
+            .filter(a -> a.getStatus() != Appointment.Status.CANCELLED)
+            .collect(Collectors.groupingBy(a -> a.getStartTime().toLocalDate()));
+
+        AppointmentRepository repository = mock(AppointmentRepository.class);
+        when(repository.findByDoctorUserIdAndStartTimeBetween(anyString(), any(), any()))
+            .thenAnswer(invocation -> {
+                LocalDateTime from = invocation.getArgument(1);
+                LocalDateTime to = invocation.getArgument(2);
+                return calendar.stream()
+                    .filter(a -> !a.getStartTime().isBefore(from) && !a.getStartTime().isAfter(to))
+                    .collect(Collectors.toList());
+            });
+        index = new DoctorScheduleIndex(repository, Duration.ofDays(1));
+        days.forEach(day -> index.isFree(DOCTOR_ID, day.atStartOfDay(), day.atStartOfDay().plusMinutes(1), null));
+
+        // In-memory H2 stands in for the per-request findByDoctorIdAndDate round trip
+        jdbcTemplate = BenchmarkDatabase.open("doctor_schedule");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS appointments");
+        jdbcTemplate.execute("CREATE TABLE appointments (id BIGINT PRIMARY KEY, doctor_id VARCHAR(36), " +
+            "start_time TIMESTAMP, end_time TIMESTAMP, status VARCHAR(16))");
+        jdbcTemplate.execute("CREATE INDEX idx_appointments_doctor_start ON appointments (doctor_id, start_time)");
+        jdbcTemplate.batchUpdate("INSERT INTO appointments VALUES (?, ?, ?, ?, ?)", calendar.stream()
+            .map(a -> new Object[] {a.getId(), DOCTOR_ID, Timestamp.valueOf(a.getStartTime()),
+                Timestamp.valueOf(a.getEndTime()), a.getStatus().name()})
+            .collect(Collectors.toList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.close(jdbcTemplate);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> queryAndScan() {
+        LocalDate day = nextDay();
+        List<Appointment> booked = jdbcTemplate.query("SELECT start_time, end_time FROM appointments " +
+                "WHERE doctor_id = ? AND start_time >= ? AND start_time < ? AND status <> 'CANCELLED'",
+            (rs, row) -> new Appointment(null, null, rs.getTimestamp(1).toLocalDateTime(),
+                rs.getTimestamp(2).toLocalDateTime(), null, null),
+            DOCTOR_ID, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        return scan(day, booked);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> scanOnly() {
+        LocalDate day = nextDay();
+        return scan(day, bookedByDay.getOrDefault(day, List.of()));
+    }
+
+    @Benchmark
+    public List<LocalDateTime> index() {
+        List<LocalDateTime> available = new ArrayList<>();
+        for (LocalDateTime start : candidates(nextDay())) {
+            if (index.isFree(DOCTOR_ID, start, start.plusMinutes(30), null)) {
+                available.add(start);
+            }
+        }
+        return available;
+    }
+
+    private LocalDate nextDay() {
+        LocalDate day = days.get(next);
+        next = (next + 1) % days.size();
+        return day;
+    }
+
+    // The old calculateAvailableSlots, given what findByDoctorIdAndDate returned for the day
+    private static List<LocalDateTime> scan(LocalDate day, List<Appointment> booked) {
+        List<LocalDateTime> available = new ArrayList<>();
+        for (LocalDateTime start : candidates(day)) {
+            LocalDateTime end = start.plusMinutes(30);
+            boolean free = booked.stream()
+                .noneMatch(a -> start.isBefore(a.getEndTime()) && end.isAfter(a.getStartTime()));
+            if (free) {
+                available.add(start);
+            }
+        }
+        return available;
+    }
+
+    private static List<LocalDateTime> candidates(LocalDate day) {
+        List<LocalDateTime> candidates = new ArrayList<>();
+        for (LocalTime slot = LocalTime.of(9, 0); slot.isBefore(LocalTime.of(17, 0)); slot = slot.plusMinutes(30)) {
+            if (slot.getHour() != 13) {
+                candidates.add(LocalDateTime.of(day, slot));
+            }
+        }
+        return candidates;
+    }
+
+    private static List<Appointment> denseCalendar(LocalDate firstDay, LocalDate lastDay) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Appointment> calendar = new ArrayList<>();
+        long id = 1;
+        for (LocalDate day = firstDay; day.isBefore(lastDay); day = day.plusDays(1)) {
+            for (LocalTime slot = LocalTime.of(9, 0); slot.isBefore(LocalTime.of(17, 0)); slot = slot.plusMinutes(30)) {
+                if (random.nextInt(10) == 0) {
+                    continue;
+                }
+                LocalDateTime start = LocalDateTime.of(day, slot);
+                Appointment appointment = new Appointment(null, null, start, start.plusMinutes(30), "checkup",
+                    Appointment.Location.IN_PERSON);
+                ReflectionTestUtils.setField(appointment, "id", id++);
+                appointment.setStatus(random.nextInt(8) == 0 ? Appointment.Status.CANCELLED
+                    : Appointment.Status.CONFIRMED);
+                calendar.add(appointment);
+            }
+        }
+        return calendar;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Models.DoctorWorkingHours;
+import com.example.demo.Models.WorkingHoursOverride;
+import com.example.demo.Service.DoctorWorkingHoursService;
+import com.example.demo.Service.WorkingDay;
+import com.example.demo.respository.DoctorWorkingHoursRepository;
+import com.example.demo.respository.WorkingHoursOverrideRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Slot starts for one doctor and day, for doctors whose templates all differ (shifts,
+ * breaks and slot lengths per day of the week, plus dated exceptions): working the
+ * slots out from the template on every request against the compiled WorkingDay of
+ * DoctorWorkingHoursService, loaded through stubbed repositories. Each invocation
+ * looks up the next doctor and day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DoctorWorkingHoursBenchmark {
+
+    private static final int DAYS = 60;
+    private static final int[] SLOT_MINUTES = {10, 15, 20, 30, 45};
+
+    @Param({"300"})
+    private int doctors;
+
+    private DoctorWorkingHoursService service;
+    private List<Lookup> lookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.of(2030, 1, 7);
+        List<String> doctorIds = new ArrayList<>();
+        Map<String, DoctorWorkingHours> templates = new HashMap<>();
+        Map<String, List<WorkingHoursOverride>> overrides = new HashMap<>();
+        for (int i = 0; i < doctors; i++) {
+            String doctorId = "doctor-" + i;
+            doctorIds.add(doctorId);
+            templates.put(doctorId, randomTemplate(doctorId, random));
+            overrides.put(doctorId, randomOverrides(doctorId, today, random));
+        }
+
+        DoctorWorkingHoursRepository workingHoursRepository = mock(DoctorWorkingHoursRepository.class,
+            withSettings().stubOnly());
+        when(workingHoursRepository.findById(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(templates.get(invocation.<String>getArgument(0))));
+        when(workingHoursRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<DoctorWorkingHours> found = new ArrayList<>();
+            invocation.<Iterable<String>>getArgument(0).forEach(id -> found.add(templates.get(id)));
+            return found;
+        });
+        WorkingHoursOverrideRepository overrideRepository = mock(WorkingHoursOverrideRepository.class,
+            withSettings().stubOnly());
+        when(overrideRepository.findByDoctorIdAndDateGreaterThanEqualOrderByDateAsc(anyString(), any()))
+            .thenAnswer(invocation -> overrides.get(invocation.<String>getArgument(0)));
+        when(overrideRepository.findByDoctorIdInAndDateGreaterThanEqual(any(), any())).thenAnswer(invocation ->
+            invocation.<Collection<String>>getArgument(0).stream()
+                .flatMap(id -> overrides.get(id).stream())
+                .collect(Collectors.toList()));
+        service = new DoctorWorkingHoursService(workingHoursRepository, overrideRepository, List.of("09:00-17:00"),
+            List.of("13:00-14:00"), Duration.ofMinutes(30), Duration.ofDays(1));
+        service.preload(doctorIds);
+
+        lookups = new ArrayList<>();
+        for (String doctorId : doctorIds) {
+            DoctorWorkingHours template = templates.get(doctorId);
+            for (int d = 0; d < DAYS; d++) {
+                lookups.add(new Lookup(doctorId, today.plusDays(d), template.getPeriods(), overrides.get(doctorId),
+                    template.getSlotMinutes()));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<LocalDateTime> fromTemplate() {
+        Lookup lookup = nextLookup();
+        return interpretedSlotStarts(openMinutes(lookup.periods, lookup.overrides, lookup.date),
+            lookup.slotMinutes, lookup.date);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> compiled() {
+        Lookup lookup = nextLookup();
+        WorkingDay workingDay = service.workingDay(lookup.doctorId, lookup.date);
+        return workingDay.slotStarts(lookup.date, workingDay.getSlotDuration());
+    }
+
+    private Lookup nextLookup() {
+        Lookup lookup = lookups.get(next);
+        next = (next + 1) % lookups.size();
+        return lookup;
+    }
+
+    // One or two shifts a day with up to two breaks in each, a day off now and then
+    private static DoctorWorkingHours randomTemplate(String doctorId, SplittableRandom random) {
+        List<DoctorWorkingHours.Period> periods = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (random.nextInt(7) == 0) {
+                continue;
+            }
+            int start = 6 * 60 + 15 * random.nextInt(16);
+            for (int s = 1 + random.nextInt(2); s > 0; s--) {
+                int end = Math.min(start + 180 + 15 * random.nextInt(13), 24 * 60 - 1);
+                periods.add(period(day, DoctorWorkingHours.Kind.SHIFT, start, end));
+                for (int b = random.nextInt(3); b > 0; b--) {
+                    int breakStart = start + 60 + 5 * random.nextInt(24);
+                    periods.add(period(day, DoctorWorkingHours.Kind.BREAK, breakStart,
+                        breakStart + 10 + 5 * random.nextInt(10)));
+                }
+                start = Math.min(end + 30 + 15 * random.nextInt(8), 22 * 60);
+            }
+        }
+        return new DoctorWorkingHours(doctorId, SLOT_MINUTES[random.nextInt(SLOT_MINUTES.length)], periods);
+    }
+
+    // A few days off, shortened days and extra hours over the coming weeks
+    private static List<WorkingHoursOverride> randomOverrides(String doctorId, LocalDate today,
+                                                              SplittableRandom random) {
+        List<WorkingHoursOverride> overrides = new ArrayList<>();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            LocalDate date = today.plusDays(random.nextInt(DAYS));
+            int start = 7 * 60 + 15 * random.nextInt(40);
+            LocalTime from = LocalTime.MIN.plusMinutes(start);
+            LocalTime to = LocalTime.MIN.plusMinutes(Math.min(start + 30 + 15 * random.nextInt(12), 24 * 60 - 1));
+            switch (random.nextInt(3)) {
+                case 0 -> overrides.add(new WorkingHoursOverride(doctorId, date, WorkingHoursOverride.Kind.CLOSED,
+                    null, null, "Day off"));
+                case 1 -> overrides.add(new WorkingHoursOverride(doctorId, date, WorkingHoursOverride.Kind.CLOSED,
+                    from, to, "Training"));
+                default -> overrides.add(new WorkingHoursOverride(doctorId, date, WorkingHoursOverride.Kind.OPEN,
+                    from, to, "Extra clinic"));
+            }
+        }
+        return overrides;
+    }
+
+    private static DoctorWorkingHours.Period period(DayOfWeek day, DoctorWorkingHours.Kind kind, int from, int to) {
+        return new DoctorWorkingHours.Period(day, kind, LocalTime.MIN.plusMinutes(from), LocalTime.MIN.plusMinutes(to));
+    }
+
+    // The template read directly: shifts, less breaks, plus extra hours, less time off
+    private static boolean[] openMinutes(List<DoctorWorkingHours.Period> periods,
+                                         List<WorkingHoursOverride> overrides, LocalDate date) {
+        boolean[] open = new boolean[24 * 60];
+        for (DoctorWorkingHours.Kind kind : DoctorWorkingHours.Kind.values()) {
+            for (DoctorWorkingHours.Period period : periods) {
+                if (period.getDayOfWeek() == date.getDayOfWeek() && period.getKind() == kind) {
+                    Arrays.fill(open, minute(period.getStartTime()), minute(period.getEndTime()),
+                        kind == DoctorWorkingHours.Kind.SHIFT);
+                }
+            }
+        }
+        for (WorkingHoursOverride.Kind kind : new WorkingHoursOverride.Kind[] {
+                WorkingHoursOverride.Kind.OPEN, WorkingHoursOverride.Kind.CLOSED}) {
+            for (WorkingHoursOverride override : overrides) {
+                if (!override.getDate().equals(date) || override.getKind() != kind) {
+                    continue;
+                }
+                if (override.isWholeDay()) {
+                    Arrays.fill(open, kind == WorkingHoursOverride.Kind.OPEN);
+                } else {
+                    Arrays.fill(open, minute(override.getStartTime()), minute(override.getEndTime()),
+                        kind == WorkingHoursOverride.Kind.OPEN);
+                }
+            }
+        }
+        return open;
+    }
+
+    // A slot every slotMinutes from the start of each open stretch, as long as it fits
+    private static List<LocalDateTime> interpretedSlotStarts(boolean[] open, int slotMinutes, LocalDate date) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        int stretchStart = -1;
+        for (int minute = 0; minute < open.length; minute++) {
+            if (!open[minute]) {
+                stretchStart = -1;
+                continue;
+            }
+            if (stretchStart < 0) {
+                stretchStart = minute;
+            }
+            if ((minute - stretchStart) % slotMinutes == 0 && minute + slotMinutes <= open.length
+                    && allOpen(open, minute, minute + slotMinutes)) {
+                starts.add(date.atStartOfDay().plusMinutes(minute));
+            }
+        }
+        return starts;
+    }
+
+    private static boolean allOpen(boolean[] open, int from, int to) {
+        for (int minute = from; minute < to; minute++) {
+            if (!open[minute]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int minute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record Lookup(String doctorId, LocalDate date, List<DoctorWorkingHours.Period> periods,
+                          List<WorkingHoursOverride> overrides, int slotMinutes) {}
+}
@@ -0,0 +1,164 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Service.SmtpDeliveryEngine;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One SMTP session per message (JavaMailSender.send) against SmtpDeliveryEngine's
+ * pooled connections, delivering the same messages to a local fake SMTP server. The
+ * server delays its greeting to stand in for the TCP + STARTTLS + AUTH cost of a real session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SmtpDeliveryBenchmark {
+
+    private static final int CONCURRENCY = 4;
+    private static final int MESSAGES_PER_CONNECTION = 100;
+    private static final int BATCH = 50;
+
+    @Param({"200"})
+    private int messages;
+
+    @Param({"10"})
+    private int handshakeMillis;
+
+    private FakeSmtpServer server;
+    private JavaMailSenderImpl mailSender;
+    private SmtpDeliveryEngine engine;
+    private List<MimeMessage> outgoing;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, MessagingException {
+        server = new FakeSmtpServer(handshakeMillis);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.getPort());
+        engine = new SmtpDeliveryEngine(mailSender, "benchmark", CONCURRENCY, MESSAGES_PER_CONNECTION,
+            Duration.ofSeconds(30));
+
+        outgoing = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("noreply@healthcare.test");
+            helper.setTo("patient" + i + "@healthcare.test");
+            helper.setSubject("Your Vital Signs Have Been Recorded");
+            helper.setText("<p>We received " + i + " records.</p>", true);
+            outgoing.add(message);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        engine.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public int sessionPerMessage() {
+        for (MimeMessage message : outgoing) {
+            mailSender.send(message);
+        }
+        return outgoing.size();
+    }
+
+    @Benchmark
+    public int pooledDelivery() {
+        int delivered = 0;
+        for (int from = 0; from < outgoing.size(); from += BATCH) {
+            delivered += engine.deliver(outgoing.subList(from, Math.min(outgoing.size(), from + BATCH))).size();
+        }
+        return delivered;
+    }
+
+    /**
+     * Minimal SMTP server that accepts everything
+     */
+    private static final class FakeSmtpServer {
+        private final ServerSocket serverSocket;
+        private final ExecutorService sessions = Executors.newCachedThreadPool();
+        private final int handshakeMillis;
+
+        FakeSmtpServer(int handshakeMillis) throws IOException {
+            this.handshakeMillis = handshakeMillis;
+            this.serverSocket = new ServerSocket(0);
+            sessions.submit(this::acceptLoop);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+            sessions.shutdownNow();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    sessions.submit(() -> session(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void session(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 OutputStream out = socket.getOutputStream()) {
+                Thread.sleep(handshakeMillis);
+                reply(out, "220 fake ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // discard message body
+                            }
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // client went away
+            }
+        }
+
+        private void reply(OutputStream out, String response) throws IOException {
+            out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.DashboardVitalsDto;
+import com.example.demo.respository.VitalDashboardRepository;
+import com.example.demo.respository.VitalRollupRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request dashboard latency for a patient with minute-level readings: the previous
+ * four-query path (count, latest, previous, raw 7-day window) against
+ * VitalDashboardRepository's single snapshot query. SampleTime reports the p50/p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class VitalDashboardBenchmark {
+
+    private static final String PATIENT_ID = "bench-patient";
+    private static final int MAX_RAW_POINTS = 500;
+
+    @Param({"10000", "1000000"})
+    private int readings;
+
+    private JdbcTemplate jdbcTemplate;
+    private VitalDashboardRepository dashboardRepository;
+    private LocalDateTime windowStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jdbcTemplate = BenchmarkDatabase.open("vital_dashboard");
+        BenchmarkDatabase.createReadings(jdbcTemplate);
+
+        LocalDateTime end = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime start = end.minusMinutes(readings);
+        BenchmarkDatabase.loadReadings(jdbcTemplate, PATIENT_ID, start, readings);
+        VitalRollupRepository rollupRepository = new VitalRollupRepository(jdbcTemplate);
+        rollupRepository.refreshHourly(PATIENT_ID, start.minusHours(1), end.plusHours(1));
+        rollupRepository.refreshDaily(PATIENT_ID, start.minusDays(1), end.plusDays(1));
+
+        dashboardRepository = new VitalDashboardRepository(jdbcTemplate);
+        windowStart = end.minusDays(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.close(jdbcTemplate);
+    }
+
+    // The shape of the old getDashboardData: separate count, latest, previous and raw trend queries
+    @Benchmark
+    public void fourQueries(Blackhole blackhole) {
+        blackhole.consume(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM vital_readings WHERE patient_id = ?", Long.class, PATIENT_ID));
+        blackhole.consume(jdbcTemplate.queryForList(
+            "SELECT * FROM vital_readings WHERE patient_id = ? ORDER BY recorded_at DESC LIMIT 1", PATIENT_ID));
+        blackhole.consume(jdbcTemplate.queryForList(
+            "SELECT * FROM vital_readings WHERE patient_id = ? ORDER BY recorded_at DESC LIMIT 1 OFFSET 1", PATIENT_ID));
+        blackhole.consume(jdbcTemplate.queryForList(
+            "SELECT * FROM vital_readings WHERE patient_id = ? AND recorded_at >= ? ORDER BY recorded_at",
+            PATIENT_ID, Timestamp.valueOf(windowStart)));
+    }
+
+    @Benchmark
+    public DashboardVitalsDto snapshotQuery() {
+        return dashboardRepository.findSnapshot(PATIENT_ID, windowStart, MAX_RAW_POINTS);
+    }
+}
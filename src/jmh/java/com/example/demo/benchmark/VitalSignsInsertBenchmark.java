@@ -0,0 +1,98 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.respository.VitalSignsBatchRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing an uploaded file's vitals: one INSERT and key fetch per row, which is what
+ * saveAll does with IDENTITY ids, against VitalSignsBatchRepository's JDBC batches.
+ * The table is emptied before every invocation. In-memory H2 has no network round
+ * trip for the batches to save, so the gap only shows against MySQL, where the driver
+ * rewrites each batch into multi-row INSERTs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class VitalSignsInsertBenchmark {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO vital_signs (patient_id, doctor_id, timestamp, body_temperature, pulse_rate, " +
+        "respiratory_rate, systolic, diastolic, category, oxygen_saturation, height, weight, " +
+        "pain_level, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private JdbcTemplate jdbcTemplate;
+    private VitalSignsBatchRepository batchRepository;
+    private List<VitalSigns> vitals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jdbcTemplate = BenchmarkDatabase.open("vital_signs_insert");
+        BenchmarkDatabase.createVitalSigns(jdbcTemplate);
+        batchRepository = new VitalSignsBatchRepository(jdbcTemplate, 500);
+
+        Patient patient = new Patient();
+        Doctor doctor = new Doctor();
+        vitals = VitalsDatasets.vitals(rows);
+        for (VitalSigns vital : vitals) {
+            vital.setPatient(patient);
+            vital.setDoctor(doctor);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE TABLE vital_signs");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.close(jdbcTemplate);
+    }
+
+    @Benchmark
+    public int insertRowAtATime() {
+        for (VitalSigns vital : vitals) {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, vital.getPatient().getUserId());
+                ps.setString(2, vital.getDoctor().getUserId());
+                ps.setTimestamp(3, Timestamp.valueOf(vital.getTimestamp()));
+                ps.setDouble(4, vital.getBodyTemperature());
+                ps.setInt(5, vital.getPulseRate());
+                ps.setInt(6, vital.getRespiratoryRate());
+                ps.setInt(7, vital.getBloodPressure().getSystolic());
+                ps.setInt(8, vital.getBloodPressure().getDiastolic());
+                ps.setString(9, vital.getBloodPressure().getCategory().name());
+                ps.setDouble(10, vital.getOxygenSaturation());
+                ps.setObject(11, vital.getHeight());
+                ps.setObject(12, vital.getWeight());
+                ps.setInt(13, vital.getPainLevel().ordinal());
+                ps.setString(14, vital.getStatus().name());
+                return ps;
+            }, new GeneratedKeyHolder());
+        }
+        return vitals.size();
+    }
+
+    @Benchmark
+    public int insertInBatches() {
+        return batchRepository.insertAll(vitals);
+    }
+}
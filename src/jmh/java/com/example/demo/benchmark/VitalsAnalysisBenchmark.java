@@ -0,0 +1,79 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Models.VitalAlert;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.Service.VitalThresholdRules;
+import com.example.demo.Service.VitalTimeSeriesService;
+import com.example.demo.dto.VitalSeries;
+import com.example.demo.dto.VitalTrendsDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-reading work done during ingestion and on the dashboard: threshold evaluation
+ * (the replacement for checkForAlerts/isCriticalCondition), alert message rendering,
+ * trend DTO building (the replacement for processTrendData) and blood pressure
+ * categorisation. Each benchmark processes the whole dataset once per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class VitalsAnalysisBenchmark {
+
+    private static final int MAX_ALERTS = 5;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private List<VitalSigns> vitals;
+    private VitalSeries series;
+    private int[][] bloodPressures;
+    private VitalThresholdRules rules;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vitals = VitalsDatasets.vitals(rows);
+        series = VitalsDatasets.series(rows);
+        bloodPressures = VitalsDatasets.bloodPressures(rows);
+        rules = VitalThresholdRules.DEFAULTS;
+    }
+
+    @Benchmark
+    public int evaluateThresholds() {
+        int critical = 0;
+        for (VitalSigns vital : vitals) {
+            if (VitalAlert.isCritical(rules.evaluate(vital))) {
+                critical++;
+            }
+        }
+        return critical;
+    }
+
+    @Benchmark
+    public void evaluateAndDescribeAlerts(Blackhole blackhole) {
+        for (VitalSigns vital : vitals) {
+            int mask = rules.evaluate(vital);
+            if (VitalAlert.hasWarnings(mask)) {
+                blackhole.consume(VitalAlert.describe(mask, vital, MAX_ALERTS));
+            }
+        }
+    }
+
+    @Benchmark
+    public VitalTrendsDto buildTrends() {
+        return VitalTimeSeriesService.toTrends(series);
+    }
+
+    @Benchmark
+    public void bloodPressureCategory(Blackhole blackhole) {
+        for (int[] pair : bloodPressures) {
+            blackhole.consume(new VitalSigns.BloodPressure(pair[0], pair[1]).getCategory());
+        }
+    }
+}
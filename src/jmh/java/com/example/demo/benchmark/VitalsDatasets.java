@@ -0,0 +1,123 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.dto.VitalSeries;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic vitals used by the benchmarks: one reading per minute from
+ * 2020-01-01, with roughly one row in ten outside the default alert thresholds so the
+ * alert paths are exercised as well as the happy path.
+ */
+final class VitalsDatasets {
+
+    static final String CSV_HEADER =
+        "timestamp,bodyTemperature,pulseRate,respiratoryRate,systolicBP,diastolicBP,oxygenSaturation,height,weight,painLevel\n";
+
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final long SEED = 42L;
+
+    private VitalsDatasets() {}
+
+    static byte[] csv(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder csv = new StringBuilder(CSV_HEADER.length() + rows * 72);
+        csv.append(CSV_HEADER);
+        for (int i = 0; i < rows; i++) {
+            Row row = Row.next(random);
+            csv.append(START.plusMinutes(i)).append(',')
+               .append(row.temperature).append(',')
+               .append(row.pulse).append(',')
+               .append(row.respiratory).append(',')
+               .append(row.systolic).append(',')
+               .append(row.diastolic).append(',')
+               .append(row.oxygen).append(',')
+               .append(row.height).append(',')
+               .append(row.weight).append(',')
+               .append(row.painLevel.name()).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static List<VitalSigns> vitals(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<VitalSigns> vitals = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Row row = Row.next(random);
+            VitalSigns vital = new VitalSigns();
+            vital.setTimestamp(START.plusMinutes(i));
+            vital.setBodyTemperature(row.temperature);
+            vital.setPulseRate(row.pulse);
+            vital.setRespiratoryRate(row.respiratory);
+            vital.setBloodPressure(new VitalSigns.BloodPressure(row.systolic, row.diastolic));
+            vital.setOxygenSaturation(row.oxygen);
+            vital.setHeight(row.height);
+            vital.setWeight(row.weight);
+            vital.setPainLevel(row.painLevel);
+            vitals.add(vital);
+        }
+        return vitals;
+    }
+
+    static VitalSeries series(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        VitalSeries series = new VitalSeries(rows);
+        long start = START.toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < rows; i++) {
+            Row row = Row.next(random);
+            series.append(start + i * 60L, row.temperature, row.pulse, row.respiratory,
+                    row.systolic, row.diastolic, row.oxygen, row.painLevel.ordinal());
+        }
+        return series;
+    }
+
+    /**
+     * Systolic/diastolic pairs spread across every BloodPressure category
+     */
+    static int[][] bloodPressures(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[][] pairs = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            int diastolic = random.nextInt(50, 130);
+            pairs[i] = new int[] {diastolic + random.nextInt(20, 80), diastolic};
+        }
+        return pairs;
+    }
+
+    private static final class Row {
+        double temperature;
+        int pulse;
+        int respiratory;
+        int systolic;
+        int diastolic;
+        double oxygen;
+        double height;
+        double weight;
+        VitalSigns.PainLevel painLevel;
+
+        static Row next(SplittableRandom random) {
+            Row row = new Row();
+            boolean abnormal = random.nextInt(10) == 0;
+            row.temperature = round1(abnormal ? random.nextDouble(34.5, 40.0) : random.nextDouble(36.1, 37.5));
+            row.pulse = abnormal ? random.nextInt(40, 140) : random.nextInt(55, 95);
+            row.respiratory = random.nextInt(12, 22);
+            row.diastolic = abnormal ? random.nextInt(55, 125) : random.nextInt(65, 85);
+            row.systolic = row.diastolic + (abnormal ? random.nextInt(30, 80) : random.nextInt(35, 50));
+            row.oxygen = round1(abnormal ? random.nextDouble(86.0, 95.0) : random.nextDouble(95.0, 100.0));
+            row.height = round1(random.nextDouble(150.0, 195.0));
+            row.weight = round1(random.nextDouble(50.0, 110.0));
+            row.painLevel = VitalSigns.PainLevel.values()[random.nextInt(VitalSigns.PainLevel.values().length)];
+            return row;
+        }
+
+        private static double round1(double value) {
+            return Math.round(value * 10.0) / 10.0;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.Configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Bounded pool for background vitals uploads. Submissions beyond the queue
+     * capacity are rejected rather than piling up on the heap.
+     */
+    @Bean(name = "vitalsUploadExecutor")
+    public ThreadPoolTaskExecutor vitalsUploadExecutor(
+            @Value("${app.vitals.upload.workers:2}") int workers,
+            @Value("${app.vitals.upload.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("vitals-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -73,9 +73,13 @@ public class SecurityConfig implements ApplicationContextAware {
                     "/", "/login", "/register", "/register/**", "/verify-email", "/check-email","/api/**",
                     "/password-reset/**", "/css/**", "/js/**", "/images/**", "/webjars/**", "/error/**"
                 ).permitAll()
+                // Calendar clients cannot sign in; feed URLs carry their own secret token
+                .requestMatchers("/calendar/**").permitAll()
                 .requestMatchers("/patient/**").hasAuthority("ROLE_PATIENT")
                 .requestMatchers("/doctor/**").hasAuthority("ROLE_DOCTOR")
                 .requestMatchers("/admin/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
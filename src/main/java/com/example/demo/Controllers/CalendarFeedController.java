@@ -0,0 +1,74 @@
+package com.example.demo.Controllers;
+
+import com.example.demo.Models.CalendarFeed;
+import com.example.demo.Models.User;
+import com.example.demo.Service.CalendarFeedService;
+import com.example.demo.Service.UserService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarFeedService calendarFeedService;
+    private final UserService userService;
+
+    public CalendarFeedController(CalendarFeedService calendarFeedService, UserService userService) {
+        this.calendarFeedService = calendarFeedService;
+        this.userService = userService;
+    }
+
+    // Subscription URL of the signed-in doctor's or patient's appointment calendar
+    @GetMapping({"/doctor/calendar/feed", "/patient/calendar/feed"})
+    public ResponseEntity<Map<String, String>> getFeedUrl(Authentication authentication) {
+        User user = userService.findByEmail(authentication.getName());
+        return ResponseEntity.ok(Map.of("url", calendarFeedService.feedUrl(calendarFeedService.feedFor(user))));
+    }
+
+    @PostMapping({"/doctor/calendar/feed/rotate", "/patient/calendar/feed/rotate"})
+    public ResponseEntity<Map<String, String>> rotateFeedUrl(Authentication authentication) {
+        User user = userService.findByEmail(authentication.getName());
+        return ResponseEntity.ok(Map.of("url", calendarFeedService.feedUrl(calendarFeedService.rotate(user))));
+    }
+
+    /**
+     * The calendar itself, authenticated by the token in its URL. Unchanged feeds
+     * answer If-None-Match / If-Modified-Since with 304; since=<X-Sync-Token of an
+     * earlier response> returns only the events changed after it.
+     */
+    @GetMapping("/calendar/{token}.ics")
+    public ResponseEntity<StreamingResponseBody> getFeed(@PathVariable String token,
+                                                         @RequestParam(required = false) String since,
+                                                         WebRequest request) {
+        Optional<CalendarFeed> feed = calendarFeedService.findActiveFeed(token);
+        if (feed.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        CalendarFeedService.Snapshot snapshot = calendarFeedService.snapshot(feed.get(), since);
+        long lastModified = snapshot.lastModified() == null ? -1 : snapshot.lastModified().toEpochMilli();
+        // Sets the ETag and Last-Modified headers, and the 304 status when the client's copy is current
+        if (request.checkNotModified(snapshot.etag(), lastModified)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+            .contentType(TEXT_CALENDAR)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"appointments.ics\"")
+            .header("X-Sync-Token", snapshot.nextSyncToken())
+            .body(out -> calendarFeedService.write(snapshot, out));
+    }
+}
@@ -5,12 +5,15 @@ import java.time.LocalDate;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 
+import com.example.demo.Models.Doctor;
 import com.example.demo.Service.AppointmentService;
+import com.example.demo.Service.AvailabilitySearchService;
+import com.example.demo.dto.AvailabilitySearchResultDto;
 
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
-import java.time.Duration;
 
 
 
@@ -19,9 +22,12 @@ import java.time.Duration;
 public class DoctorApiController {
     
     private final AppointmentService appointmentService;
+    private final AvailabilitySearchService availabilitySearchService;
     
-    public DoctorApiController(AppointmentService appointmentService) {
+    public DoctorApiController(AppointmentService appointmentService,
+                               AvailabilitySearchService availabilitySearchService) {
         this.appointmentService = appointmentService;
+        this.availabilitySearchService = availabilitySearchService;
     }
    @GetMapping("/{doctorId}/availability")
 public ResponseEntity<Map<String, Object>> getDoctorAvailability(
@@ -34,13 +40,25 @@ public ResponseEntity<Map<String, Object>> getDoctorAvailability(
         date = LocalDate.now();
     }
 
-    Duration parsedDuration = Duration.ofMinutes(30);
-
+    // Slots are as long as the doctor's working hours say
     Map<String, Object> availability = appointmentService.getDoctorAvailability(
-        doctorId, date, parsedDuration, excludeAppointmentId
+        doctorId, date, null, excludeAppointmentId
     );
 
     return ResponseEntity.ok(availability);
 }
 
+    // Earliest free slots over a date range, for the given doctors or every active doctor
+    @GetMapping("/availability/search")
+    public ResponseEntity<AvailabilitySearchResultDto> searchAvailability(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> doctorId,
+            @RequestParam(required = false) Doctor.Specialization specialization,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+
+        return ResponseEntity.ok(availabilitySearchService.search(from, to, doctorId, specialization, limit, cursor));
+    }
+
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.demo.Controllers;
 
 import com.example.demo.Models.*;
 import com.example.demo.Service.*;
+import com.example.demo.dto.DoctorDashboardStatsDto;
 import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -10,6 +11,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 
@@ -18,20 +22,23 @@ import java.util.List;
 public class DoctorDashboardController {
 
     private final AppointmentService appointmentService;
-    private final PatientService patientService;
     private final AlertService alertService;
     private final UserService userService;
+    private final DoctorDashboardStatsService dashboardStatsService;
+    private final DoctorWorkingHoursService workingHoursService;
     
 
     @Autowired
     public DoctorDashboardController(AppointmentService appointmentService,
-                                   PatientService patientService,
                                    AlertService alertService,
-                                   UserService userService) {
+                                   UserService userService,
+                                   DoctorDashboardStatsService dashboardStatsService,
+                                   DoctorWorkingHoursService workingHoursService) {
         this.appointmentService = appointmentService;
-        this.patientService = patientService;
         this.alertService = alertService;
         this.userService = userService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.workingHoursService = workingHoursService;
     }
 
     @GetMapping
@@ -48,10 +55,11 @@ public class DoctorDashboardController {
         initializeDoctorRelationships(doctor);
         model.addAttribute("doctor", doctor);
         
-        // Handle alerts
-        List<Alert> criticalAlerts = alertService.getAllAlertsforDoctor(doctor.getUserId());
-        if (!criticalAlerts.isEmpty()) {
-            model.addAttribute("emergencyAlert", criticalAlerts.get(0));
+        // The most recent alert is shown as the emergency banner
+        List<Alert> recentAlerts = alertService.getRecentAlertsForDoctor(doctor.getUserId(), 5);
+        recentAlerts.forEach(this::initializeAlertRelationships);
+        if (!recentAlerts.isEmpty()) {
+            model.addAttribute("emergencyAlert", recentAlerts.get(0));
         }
 
         // Handle upcoming appointment
@@ -63,30 +71,39 @@ public class DoctorDashboardController {
 
         // Handle today's appointments
         List<Appointment> todaysAppointments = appointmentService.getTodaysAppointments(doctor.getUserId());
+        // The schedule spans today's working hours, stretched to any appointment outside them
+        WorkingDay workingDay = workingHoursService.workingDay(doctor.getUserId(), LocalDate.now());
+        LocalTime scheduleStart = workingDay.getStart();
+        LocalTime scheduleEnd = workingDay.getEnd();
         for (Appointment appointment : todaysAppointments) {
-    appointment.calculatePixelOffset();
-}
+            LocalTime start = appointment.getStartTime().toLocalTime();
+            LocalTime end = appointment.getEndTime().toLocalDate().isAfter(LocalDate.now())
+                ? LocalTime.MAX : appointment.getEndTime().toLocalTime();
+            scheduleStart = scheduleStart == null || start.isBefore(scheduleStart) ? start : scheduleStart;
+            scheduleEnd = scheduleEnd == null || end.isAfter(scheduleEnd) ? end : scheduleEnd;
+        }
+        if (scheduleStart != null) {
+            LocalTime scheduleTop = scheduleStart.truncatedTo(ChronoUnit.HOURS);
+            for (Appointment appointment : todaysAppointments) {
+                appointment.calculatePixelOffset(scheduleTop);
+            }
+            int lastHour = scheduleEnd.getMinute() > 0 || scheduleEnd.getSecond() > 0
+                ? scheduleEnd.getHour() + 1 : scheduleEnd.getHour();
+            // One hour of margin on either side, as the hard-coded 8-18 labels had around 9-17
+            model.addAttribute("scheduleFirstHour", Math.max(0, scheduleTop.getHour() - 1));
+            model.addAttribute("scheduleLastHour", Math.min(24, lastHour + 1));
+        }
         todaysAppointments.forEach(this::initializeAppointmentRelationships);
         model.addAttribute("todaysAppointments", todaysAppointments);
         
-        // Add counts for dashboard cards
-        model.addAttribute("vitalsRequestsCount", patientService.getPendingVitalsRequestsCount(doctor.getUserId()));
-        model.addAttribute("appointmentRequestsCount", appointmentService.getPendingRequestsCount(doctor.getUserId()));
-        model.addAttribute("upcomingAppointmentsCount", appointmentService.getUpcomingAppointmentsCount(doctor.getUserId()));
-        model.addAttribute("telemedicineSessionsCount", appointmentService.getTodayTelemedicineSessionsCount(doctor.getUserId()));
-        model.addAttribute("RequestedCriticalAlertCount", alertService.getRequestedCriticalAlerts(doctor.getUserId()).size());
-        
-        // Add stats
-        model.addAttribute("stats", new DoctorStats(
-            patientService.getPatientCountForDoctor(doctor.getUserId()),
-            appointmentService.getTodaysAppointmentsCount(doctor.getUserId()),
-            appointmentService.getAverageWaitTime(doctor.getUserId()),
-            alertService.getAllAlertsforDoctor(doctor.getUserId()).size()
-        ));
-        
-        // Add recent alerts
-        List<Alert> recentAlerts = alertService.getRecentAlertsForDoctor(doctor.getUserId(), 5);
-        recentAlerts.forEach(this::initializeAlertRelationships);
+        // Add counts for dashboard cards, all from one aggregate query
+        DoctorDashboardStatsDto stats = dashboardStatsService.getDashboardStats(doctor.getUserId());
+        model.addAttribute("vitalsRequestsCount", stats.getVitalsRequests());
+        model.addAttribute("appointmentRequestsCount", stats.getAppointmentRequests());
+        model.addAttribute("upcomingAppointmentsCount", stats.getUpcomingAppointments());
+        model.addAttribute("telemedicineSessionsCount", stats.getTelemedicineSessionsToday());
+        model.addAttribute("RequestedCriticalAlertCount", stats.getUnacknowledgedAlerts());
+        model.addAttribute("stats", stats);
         model.addAttribute("recentAlerts", recentAlerts);
         
         return "doctor/dashboard";
@@ -118,25 +135,4 @@ public class DoctorDashboardController {
             Hibernate.initialize(alert.getDoctor());
         }
     }
-
-    // Inner class to hold the stats data
-    public static class DoctorStats {
-        private final int totalPatients;
-        private final int appointmentsToday;
-        private final int avgWaitTime;
-        private final int emergencyAlertsCount;
-
-        public DoctorStats(int totalPatients, int appointmentsToday, int avgWaitTime, int emergencyAlertsCount) {
-            this.totalPatients = totalPatients;
-            this.appointmentsToday = appointmentsToday;
-            this.avgWaitTime = avgWaitTime;
-            this.emergencyAlertsCount = emergencyAlertsCount;
-        }
-
-        // Getters
-        public int getTotalPatients() { return totalPatients; }
-        public int getAppointmentsToday() { return appointmentsToday; }
-        public int getAvgWaitTime() { return avgWaitTime; }
-        public int getEmergencyAlertsCount() { return emergencyAlertsCount; }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.example.demo.Controllers;
+
+import com.example.demo.Models.User;
+import com.example.demo.Service.DoctorWorkingHoursService;
+import com.example.demo.Service.UserService;
+import com.example.demo.dto.WorkingHoursDto;
+import com.example.demo.dto.WorkingHoursOverrideDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * The signed-in doctor's weekly working hours and the dated exceptions to them
+ */
+@RestController
+@RequestMapping("/doctor/working-hours")
+public class DoctorWorkingHoursController {
+
+    private final DoctorWorkingHoursService workingHoursService;
+    private final UserService userService;
+
+    public DoctorWorkingHoursController(DoctorWorkingHoursService workingHoursService, UserService userService) {
+        this.workingHoursService = workingHoursService;
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public ResponseEntity<WorkingHoursDto> getWorkingHours(Authentication authentication) {
+        return ResponseEntity.ok(workingHoursService.getWorkingHours(doctorId(authentication)));
+    }
+
+    @PutMapping
+    public ResponseEntity<WorkingHoursDto> saveWorkingHours(Authentication authentication,
+                                                            @RequestBody WorkingHoursDto workingHours) {
+        return ResponseEntity.ok(workingHoursService.saveWorkingHours(doctorId(authentication), workingHours));
+    }
+
+    @GetMapping("/exceptions")
+    public ResponseEntity<List<WorkingHoursOverrideDto>> getExceptions(Authentication authentication) {
+        return ResponseEntity.ok(workingHoursService.getOverrides(doctorId(authentication)));
+    }
+
+    @PostMapping("/exceptions")
+    public ResponseEntity<WorkingHoursOverrideDto> addException(Authentication authentication,
+                                                                @RequestBody WorkingHoursOverrideDto exception) {
+        return ResponseEntity.ok(workingHoursService.addOverride(doctorId(authentication), exception));
+    }
+
+    @DeleteMapping("/exceptions/{id}")
+    public ResponseEntity<Void> deleteException(Authentication authentication, @PathVariable Long id) {
+        workingHoursService.deleteOverride(doctorId(authentication), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private String doctorId(Authentication authentication) {
+        User user = userService.findByEmail(authentication.getName());
+        return user.getUserId();
+    }
+}
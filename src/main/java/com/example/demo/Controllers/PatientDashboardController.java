@@ -5,13 +5,16 @@ import com.example.demo.Models.Admin;
 import com.example.demo.Models.Alert;
 import com.example.demo.Models.Doctor;
 import com.example.demo.Models.Patient;
-import com.example.demo.Models.SystemLog;
+import com.example.demo.Models.VitalsUploadJob;
+import com.example.demo.Exceptions.ResourceNotFoundException;
 import com.example.demo.Service.UserService;
 import com.example.demo.Service.VitalSignsService;
+import com.example.demo.Service.VitalsUploadJobService;
 import com.example.demo.dto.CSVUploadResponse;
 import com.example.demo.dto.DashboardVitalsDto;
 import com.example.demo.dto.DoctorDTO;
 import com.example.demo.dto.VitalTrendsDto;
+import com.example.demo.dto.VitalsUploadJobDto;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -21,6 +24,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +73,9 @@ public class PatientDashboardController {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private VitalsUploadJobService vitalsUploadJobService;
+
 
     public PatientDashboardController(
             VitalSignsService vitalSignsService,
@@ -193,10 +200,10 @@ public String showDashboard(Model model, Authentication authentication) {
     }
 
 
-    // Handle CSV upload
+    // Handle CSV upload: queue a background job and return its id straight away
     @PostMapping("/uploadVital/csv")
     @ResponseBody
-    public ResponseEntity<CSVUploadResponse> uploadVitalsCSV(
+    public ResponseEntity<?> uploadVitalsCSV(
             @RequestParam("csvFile") MultipartFile file,
             @RequestParam("doctorId") String doctorId,  // <-- Add this line
             Authentication authentication) {
@@ -221,17 +228,19 @@ public String showDashboard(Model model, Authentication authentication) {
             String patientId = patient.getUserId();
                     Optional<Admin> admin = userService.findAdminForUser(patient);
 
-            CSVUploadResponse response = vitalSignsService.processCSV(file, patientId,doctorId, admin.get());
+            VitalsUploadJob job = vitalsUploadJobService.submit(file, patientId, doctorId, admin.get());
 
-            if (response.isSuccess()) {
-               
-                logService.createLog(admin.get(), "vitals Uploaded:"+ patientId, SystemLog.Severity.INFO);
-                return ResponseEntity.ok(response);
-            } else {
-                   logService.createLog(admin.get(), "vitals Failed:"+ patientId, SystemLog.Severity.ERROR);
-                return ResponseEntity.unprocessableEntity().body(response);
-            }
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/patient/dashboard/uploadVital/jobs/" + job.getId())
+                    .body(VitalsUploadJobDto.from(job));
 
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                    new CSVUploadResponse(false, 0, 0, 1,
+                            "Upload queue is full",
+                            List.of("Too many uploads are being processed, please try again shortly"),
+                            file.getOriginalFilename())
+            );
         } catch (Exception e) {
 
             return ResponseEntity.internalServerError().body(
@@ -243,6 +252,58 @@ public String showDashboard(Model model, Authentication authentication) {
         }
     }
 
+    // Poll the progress of a background upload
+    @GetMapping("/uploadVital/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<VitalsUploadJobDto> getUploadJob(@PathVariable Long jobId, Authentication authentication) {
+        Patient patient = patientRepository.findByEmail(authentication.getName())
+            .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        try {
+            return ResponseEntity.ok(VitalsUploadJobDto.from(vitalsUploadJobService.getJob(jobId, patient.getUserId())));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/uploadVital/jobs")
+    @ResponseBody
+    public List<VitalsUploadJobDto> getRecentUploadJobs(Authentication authentication) {
+        Patient patient = patientRepository.findByEmail(authentication.getName())
+            .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        return vitalsUploadJobService.getRecentJobs(patient.getUserId()).stream()
+            .map(VitalsUploadJobDto::from)
+            .toList();
+    }
+
+    @PostMapping("/uploadVital/jobs/{jobId}/cancel")
+    @ResponseBody
+    public ResponseEntity<VitalsUploadJobDto> cancelUploadJob(@PathVariable Long jobId, Authentication authentication) {
+        Patient patient = patientRepository.findByEmail(authentication.getName())
+            .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        try {
+            return ResponseEntity.ok(VitalsUploadJobDto.from(vitalsUploadJobService.cancel(jobId, patient.getUserId())));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Trend series for the charts; long ranges are served from hourly/daily rollups
+    @GetMapping("/vitals/trends")
+    @ResponseBody
+    public ResponseEntity<?> getVitalTrends(@RequestParam(defaultValue = "7") int days,
+                                            @RequestParam(defaultValue = "AUTO") String resolution,
+                                            @RequestParam(defaultValue = "0") int maxPoints,
+                                            Authentication authentication) {
+        Patient patient = patientRepository.findByEmail(authentication.getName())
+            .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        try {
+            return ResponseEntity.ok(vitalSignsService.getTrends(patient.getUserId(),
+                    Math.max(1, Math.min(days, 3650)), resolution, Math.min(maxPoints, 5000)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Provide downloadable CSV template
     @GetMapping("/templates/VitalSignsCSV.csv")
     public ResponseEntity<Resource> downloadTemplate() {
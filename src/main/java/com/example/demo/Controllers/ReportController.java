@@ -2,6 +2,7 @@ package com.example.demo.Controllers;
 
 import com.example.demo.Models.*;
 import com.example.demo.Service.ReportService;
+import com.example.demo.Service.TemplateRenderer;
 import com.example.demo.Service.UserService;
 import com.example.demo.respository.ReportRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +19,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.xhtmlrenderer.pdf.ITextRenderer;
 
 import java.io.ByteArrayOutputStream;
@@ -30,16 +30,16 @@ public class ReportController {
 
     private final ReportService reportService;
     private final ReportRepository reportRepository;
-    private final SpringTemplateEngine templateEngine;
+    private final TemplateRenderer templateRenderer;
     private final UserService userService;
 
     @Autowired
     public ReportController(ReportService reportService, 
                           ReportRepository reportRepository,
-                          SpringTemplateEngine templateEngine, UserService userService) {
+                          TemplateRenderer templateRenderer, UserService userService) {
         this.reportService = reportService;
         this.reportRepository = reportRepository;
-        this.templateEngine = templateEngine;
+        this.templateRenderer = templateRenderer;
         this.userService=userService;
     }
 
@@ -169,7 +169,7 @@ public String viewReports(Authentication authentication, Model model) {
         context.setVariable("prescription", prescription);
         context.setVariable("feedback", feedback);
         
-        return templateEngine.process("pdf/vital-report-full", context);
+        return templateRenderer.render("pdf/vital-report-full", context);
     }
 
     private String generateAppointmentReportHtml(Report report, 
@@ -186,7 +186,7 @@ public String viewReports(Authentication authentication, Model model) {
         context.setVariable("prescription", prescription);
         context.setVariable("feedback", feedback);
         
-        return templateEngine.process("pdf/appointment-report-full", context);
+        return templateRenderer.render("pdf/appointment-report-full", context);
     }
 
     private byte[] generatePdfFromHtml(String htmlContent) {
@@ -263,6 +263,6 @@ private String generateAlertReportHtml(Report report,
     context.setVariable("prescription", prescription);
     context.setVariable("feedback", feedback);
     
-    return templateEngine.process("pdf/alert-report-full", context);
+    return templateRenderer.render("pdf/alert-report-full", context);
 }
 }
\ No newline at end of file
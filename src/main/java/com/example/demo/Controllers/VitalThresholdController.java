@@ -0,0 +1,80 @@
+package com.example.demo.Controllers;
+
+import com.example.demo.Models.VitalThresholds;
+import com.example.demo.Service.PatientService;
+import com.example.demo.Service.UserService;
+import com.example.demo.Service.VitalThresholdService;
+import com.example.demo.respository.PatientRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/doctor/api/patients/{patientId}/vital-thresholds")
+public class VitalThresholdController {
+
+    private final VitalThresholdService thresholdService;
+    private final PatientRepository patientRepository;
+    private final PatientService patientService;
+    private final UserService userService;
+
+    public VitalThresholdController(VitalThresholdService thresholdService, PatientRepository patientRepository,
+                                    PatientService patientService, UserService userService) {
+        this.thresholdService = thresholdService;
+        this.patientRepository = patientRepository;
+        this.patientService = patientService;
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getThresholds(@PathVariable String patientId, Authentication authentication) {
+        ResponseEntity<?> denied = checkAccess(patientId, authentication);
+        if (denied != null) {
+            return denied;
+        }
+        return ResponseEntity.ok(thresholdService.getThresholds(patientId));
+    }
+
+    @PutMapping
+    public ResponseEntity<?> updateThresholds(@PathVariable String patientId,
+                                              @RequestBody VitalThresholds thresholds,
+                                              Authentication authentication) {
+        ResponseEntity<?> denied = checkAccess(patientId, authentication);
+        if (denied != null) {
+            return denied;
+        }
+        try {
+            return ResponseEntity.ok(thresholdService.updateThresholds(patientId, thresholds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> resetThresholds(@PathVariable String patientId, Authentication authentication) {
+        ResponseEntity<?> denied = checkAccess(patientId, authentication);
+        if (denied != null) {
+            return denied;
+        }
+        thresholdService.resetThresholds(patientId);
+        return ResponseEntity.ok(thresholdService.getThresholds(patientId));
+    }
+
+    /**
+     * Only the patient's own doctors may see or change their alert thresholds
+     */
+    private ResponseEntity<?> checkAccess(String patientId, Authentication authentication) {
+        if (patientRepository.findByUserId(patientId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String doctorId = userService.findByEmail(authentication.getName()).getUserId();
+        if (!patientService.isPatientOfDoctor(patientId, doctorId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("error", "You are not assigned to this patient"));
+        }
+        return null;
+    }
+}
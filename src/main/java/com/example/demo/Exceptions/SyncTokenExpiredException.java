@@ -0,0 +1,16 @@
+package com.example.demo.Exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A calendar sync token that can no longer be answered incrementally (HTTP 410);
+ * the client has to fetch the full feed again
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class SyncTokenExpiredException extends RuntimeException {
+
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
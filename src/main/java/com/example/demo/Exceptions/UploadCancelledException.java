@@ -0,0 +1,7 @@
+package com.example.demo.Exceptions;
+
+public class UploadCancelledException extends RuntimeException {
+    public UploadCancelledException(String message) {
+        super(message);
+    }
+}
@@ -8,7 +8,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointments_status_start", columnList = "status, start_time"),
+    // Cover the calendar feeds' count/last-change checks and their incremental queries
+    @Index(name = "idx_appointments_doctor_calendar", columnList = "doctor_id, start_time, updated_at"),
+    @Index(name = "idx_appointments_patient_calendar", columnList = "patient_id, start_time, updated_at")
+})
 public class Appointment {
 
   @Id
@@ -159,9 +164,10 @@ private Long id;
     ONLINE
 }
 
-public void calculatePixelOffset() {
+// scheduleStart is the time at the top of the day's schedule, the doctor's first working hour
+public void calculatePixelOffset(LocalTime scheduleStart) {
     if (this.startTime != null) {
-        LocalTime baseTime = LocalTime.of(9, 0); // Start of schedule
+        LocalTime baseTime = scheduleStart;
         LocalTime start = this.startTime.toLocalTime();
 
         int minutesSinceStart = (int) Duration.between(baseTime, start).toMinutes();
@@ -0,0 +1,55 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A doctor's or patient's subscribable appointment calendar. Calendar clients
+ * cannot log in, so the feed URL carries this random token instead; rotating it
+ * revokes every copy of the old URL. resetAt is set when the owner's appointments
+ * were deleted outright, which incremental syncs cannot express.
+ */
+@Entity
+@Table(name = "calendar_feeds", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_calendar_feed_token", columnNames = "token")
+})
+public class CalendarFeed {
+
+    public enum OwnerType { DOCTOR, PATIENT }
+
+    @Id
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OwnerType ownerType;
+
+    @Column(nullable = false, length = 64)
+    private String token;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime resetAt;
+
+    public CalendarFeed() {}
+
+    public CalendarFeed(String userId, OwnerType ownerType, String token) {
+        this.userId = userId;
+        this.ownerType = ownerType;
+        this.token = token;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getUserId() { return userId; }
+    public OwnerType getOwnerType() { return ownerType; }
+    public String getToken() { return token; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getResetAt() { return resetAt; }
+
+    // Setters
+    public void setToken(String token) { this.token = token; }
+}
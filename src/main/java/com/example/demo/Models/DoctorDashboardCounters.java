@@ -0,0 +1,56 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Running dashboard counts for one doctor. Write paths add deltas to the row in
+ * their own transaction, the reconciliation job periodically resets it from the
+ * source tables.
+ */
+@Entity
+@Table(name = "doctor_dashboard_counters")
+public class DoctorDashboardCounters {
+
+    @Id
+    @Column(name = "doctor_id", length = 36)
+    private String doctorId;
+
+    // Vitals readings still REQUESTED
+    private long pendingVitalsRequests;
+
+    // Appointments SCHEDULED or RESCHEDULED, waiting for the doctor
+    private long pendingAppointmentRequests;
+
+    private long unacknowledgedAlerts;
+
+    private long totalAlerts;
+
+    // Distinct patients with a confirmed appointment or a requested vitals reading
+    private long patients;
+
+    private LocalDateTime reconciledAt;
+
+    public DoctorDashboardCounters() {}
+
+    public DoctorDashboardCounters(String doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    // Getters
+    public String getDoctorId() { return doctorId; }
+    public long getPendingVitalsRequests() { return pendingVitalsRequests; }
+    public long getPendingAppointmentRequests() { return pendingAppointmentRequests; }
+    public long getUnacknowledgedAlerts() { return unacknowledgedAlerts; }
+    public long getTotalAlerts() { return totalAlerts; }
+    public long getPatients() { return patients; }
+    public LocalDateTime getReconciledAt() { return reconciledAt; }
+
+    // Setters
+    public void setPendingVitalsRequests(long pendingVitalsRequests) { this.pendingVitalsRequests = pendingVitalsRequests; }
+    public void setPendingAppointmentRequests(long pendingAppointmentRequests) { this.pendingAppointmentRequests = pendingAppointmentRequests; }
+    public void setUnacknowledgedAlerts(long unacknowledgedAlerts) { this.unacknowledgedAlerts = unacknowledgedAlerts; }
+    public void setTotalAlerts(long totalAlerts) { this.totalAlerts = totalAlerts; }
+    public void setPatients(long patients) { this.patients = patients; }
+    public void setReconciledAt(LocalDateTime reconciledAt) { this.reconciledAt = reconciledAt; }
+}
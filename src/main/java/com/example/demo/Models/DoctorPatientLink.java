@@ -0,0 +1,51 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+
+/**
+ * Why a patient counts towards a doctor's patient total: the number of their
+ * confirmed appointments and of their vitals readings still waiting for review.
+ * The link is dropped once both reach zero.
+ */
+@Entity
+@Table(name = "doctor_patient_links", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_doctor_patient_link", columnNames = {"doctor_id", "patient_id"})
+})
+public class DoctorPatientLink {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false, length = 36)
+    private String doctorId;
+
+    @Column(name = "patient_id", nullable = false, length = 36)
+    private String patientId;
+
+    private long confirmedAppointments;
+
+    private long requestedVitals;
+
+    public DoctorPatientLink() {}
+
+    public DoctorPatientLink(String doctorId, String patientId) {
+        this.doctorId = doctorId;
+        this.patientId = patientId;
+    }
+
+    public boolean isActive() {
+        return confirmedAppointments > 0 || requestedVitals > 0;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getDoctorId() { return doctorId; }
+    public String getPatientId() { return patientId; }
+    public long getConfirmedAppointments() { return confirmedAppointments; }
+    public long getRequestedVitals() { return requestedVitals; }
+
+    // Setters
+    public void setConfirmedAppointments(long confirmedAppointments) { this.confirmedAppointments = confirmedAppointments; }
+    public void setRequestedVitals(long requestedVitals) { this.requestedVitals = requestedVitals; }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A doctor's weekly availability template: the shifts worked and the breaks taken
+ * on each day of the week, and the length of a bookable slot. Doctors without one
+ * work the default hours from app.appointments.working-hours. Dated exceptions to
+ * the template are WorkingHoursOverride rows.
+ */
+@Entity
+@Table(name = "doctor_working_hours")
+public class DoctorWorkingHours {
+
+    @Id
+    @Column(name = "doctor_id", length = 36)
+    private String doctorId;
+
+    @Column(name = "slot_minutes", nullable = false)
+    private int slotMinutes;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(
+        name = "doctor_working_periods",
+        joinColumns = @JoinColumn(name = "doctor_id", referencedColumnName = "doctor_id")
+    )
+    private List<Period> periods = new ArrayList<>();
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public DoctorWorkingHours() {}
+
+    public DoctorWorkingHours(String doctorId, int slotMinutes, List<Period> periods) {
+        this.doctorId = doctorId;
+        this.slotMinutes = slotMinutes;
+        this.periods = new ArrayList<>(periods);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public enum Kind {
+        SHIFT, BREAK
+    }
+
+    /**
+     * A shift or break on one day of the week, [startTime, endTime)
+     */
+    @Embeddable
+    public static class Period {
+        @Enumerated(EnumType.STRING)
+        @Column(name = "day_of_week", nullable = false, length = 10)
+        private DayOfWeek dayOfWeek;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "kind", nullable = false, length = 10)
+        private Kind kind;
+
+        @Column(name = "start_time", nullable = false)
+        private LocalTime startTime;
+
+        @Column(name = "end_time", nullable = false)
+        private LocalTime endTime;
+
+        public Period() {}
+
+        public Period(DayOfWeek dayOfWeek, Kind kind, LocalTime startTime, LocalTime endTime) {
+            this.dayOfWeek = dayOfWeek;
+            this.kind = kind;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+        public Kind getKind() { return kind; }
+        public LocalTime getStartTime() { return startTime; }
+        public LocalTime getEndTime() { return endTime; }
+    }
+
+    // Getters
+    public String getDoctorId() { return doctorId; }
+    public int getSlotMinutes() { return slotMinutes; }
+    public List<Period> getPeriods() { return periods; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // Setters
+    public void setSlotMinutes(int slotMinutes) {
+        this.slotMinutes = slotMinutes;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void setPeriods(List<Period> periods) {
+        this.periods.clear();
+        this.periods.addAll(periods);
+        this.updatedAt = LocalDateTime.now();
+    }
+}
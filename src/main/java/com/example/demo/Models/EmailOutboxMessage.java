@@ -0,0 +1,125 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A rendered email waiting in the outbox. Rows are written in the caller's
+ * transaction and delivered later by EmailOutboxDispatcher, so a rolled back
+ * business operation never sends mail and a slow SMTP server never blocks it.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_lane_due", columnList = "status, lane, next_attempt_at")
+})
+public class EmailOutboxMessage {
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        DEAD
+    }
+
+    /**
+     * Delivery lane; each lane is drained by its own dispatcher thread and SMTP connections
+     */
+    public enum Lane {
+        EMERGENCY,
+        ROUTINE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // NotificationChannel name the message is delivered through
+    @Column(nullable = false, columnDefinition = "VARCHAR(20) NOT NULL DEFAULT 'email'")
+    private String channel = "email";
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Column(name = "template_name", length = 100)
+    private String templateName;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20) NOT NULL DEFAULT 'ROUTINE'")
+    private Lane lane = Lane.ROUTINE;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime claimedAt;
+    private LocalDateTime sentAt;
+
+    public EmailOutboxMessage() {}
+
+    public EmailOutboxMessage(String recipient, String subject, String templateName, String body, Lane lane) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.templateName = templateName;
+        this.body = body;
+        this.lane = lane;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public void setChannel(String channel) { this.channel = channel; }
+
+    public void markSent(LocalDateTime now) {
+        this.status = Status.SENT;
+        this.attempts++;
+        this.sentAt = now;
+        this.lastError = null;
+    }
+
+    /**
+     * Record a failed attempt, either rescheduling it or moving it to the dead letter state
+     */
+    public void markFailed(String error, LocalDateTime nextAttemptAt) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        if (nextAttemptAt == null) {
+            this.status = Status.DEAD;
+        } else {
+            this.status = Status.PENDING;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getChannel() { return channel; }
+    public String getRecipient() { return recipient; }
+    public String getSubject() { return subject; }
+    public String getTemplateName() { return templateName; }
+    public String getBody() { return body; }
+    public Status getStatus() { return status; }
+    public Lane getLane() { return lane; }
+    public int getAttempts() { return attempts; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public LocalDateTime getSentAt() { return sentAt; }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A vitals notification held back so that several events for the same recipient
+ * can be sent as one digest. Written in the upload transaction and removed once
+ * NotificationCoalescer has queued the resulting email.
+ */
+@Entity
+@Table(name = "pending_notifications", indexes = {
+    @Index(name = "idx_pending_notification_recipient", columnList = "recipient"),
+    @Index(name = "idx_pending_notification_due", columnList = "due_at")
+})
+public class PendingNotification {
+
+    public enum Kind {
+        UPLOAD_CONFIRMATION(false),
+        DOCTOR_UPLOAD(false),
+        PATIENT_CRITICAL(true),
+        DOCTOR_CRITICAL(true),
+        EMERGENCY_CONTACT_CRITICAL(true);
+
+        private final boolean critical;
+
+        Kind(boolean critical) {
+            this.critical = critical;
+        }
+
+        public boolean isCritical() {
+            return critical;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private Kind kind;
+
+    private String recipientName;
+
+    private String patientName;
+
+    private int recordsCount;
+
+    private int criticalCount;
+
+    // Alert groups as JSON, only set for critical kinds
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String alerts;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    public PendingNotification() {}
+
+    public PendingNotification(String recipient, Kind kind, LocalDateTime createdAt, LocalDateTime dueAt) {
+        this.recipient = recipient;
+        this.kind = kind;
+        this.createdAt = createdAt;
+        this.dueAt = dueAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getRecipient() { return recipient; }
+    public Kind getKind() { return kind; }
+    public String getRecipientName() { return recipientName; }
+    public String getPatientName() { return patientName; }
+    public int getRecordsCount() { return recordsCount; }
+    public int getCriticalCount() { return criticalCount; }
+    public String getAlerts() { return alerts; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getDueAt() { return dueAt; }
+
+    // Setters
+    public void setRecipientName(String recipientName) { this.recipientName = recipientName; }
+    public void setPatientName(String patientName) { this.patientName = patientName; }
+    public void setRecordsCount(int recordsCount) { this.recordsCount = recordsCount; }
+    public void setCriticalCount(int criticalCount) { this.criticalCount = criticalCount; }
+    public void setAlerts(String alerts) { this.alerts = alerts; }
+}
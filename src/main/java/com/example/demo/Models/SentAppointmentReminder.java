@@ -0,0 +1,51 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that the reminder at offsetSeconds before an appointment's start went out.
+ * The unique key makes sending a reminder claim it, so a reminder fires once even
+ * when several nodes or a restart schedule it again. The start time is part of the
+ * key, so a rescheduled and re-confirmed appointment gets its reminders again.
+ */
+@Entity
+@Table(name = "appointment_reminders_sent", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_appointment_reminder_sent",
+                      columnNames = {"appointment_id", "appointment_start", "offset_seconds"})
+})
+public class SentAppointmentReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "appointment_start", nullable = false)
+    private LocalDateTime appointmentStart;
+
+    @Column(name = "offset_seconds", nullable = false)
+    private long offsetSeconds;
+
+    @Column(nullable = false)
+    private LocalDateTime sentAt;
+
+    public SentAppointmentReminder() {}
+
+    public SentAppointmentReminder(Long appointmentId, LocalDateTime appointmentStart, long offsetSeconds) {
+        this.appointmentId = appointmentId;
+        this.appointmentStart = appointmentStart;
+        this.offsetSeconds = offsetSeconds;
+        this.sentAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getAppointmentId() { return appointmentId; }
+    public LocalDateTime getAppointmentStart() { return appointmentStart; }
+    public long getOffsetSeconds() { return offsetSeconds; }
+    public LocalDateTime getSentAt() { return sentAt; }
+}
@@ -0,0 +1,104 @@
+package com.example.demo.Models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alert codes produced by threshold evaluation. A reading's alerts are carried as an
+ * int bitmask (one bit per constant) and only turned into text when an email or the
+ * dashboard needs it.
+ */
+public enum VitalAlert {
+    HIGH_SYSTOLIC(false),
+    HIGH_DIASTOLIC(false),
+    ELEVATED_HEART_RATE(false),
+    LOW_HEART_RATE(false),
+    LOW_OXYGEN_SATURATION(false),
+    HIGH_TEMPERATURE(false),
+    LOW_TEMPERATURE(false),
+    SEVERE_PAIN(false),
+    CRITICAL_SYSTOLIC(true),
+    CRITICAL_DIASTOLIC(true),
+    CRITICAL_PULSE(true),
+    CRITICAL_TEMPERATURE(true),
+    CRITICAL_OXYGEN_SATURATION(true);
+
+    private static final VitalAlert[] VALUES = values();
+    public static final int CRITICAL_MASK;
+    public static final int WARNING_MASK;
+
+    static {
+        int critical = 0;
+        int warning = 0;
+        for (VitalAlert alert : VALUES) {
+            if (alert.critical) {
+                critical |= alert.bit();
+            } else {
+                warning |= alert.bit();
+            }
+        }
+        CRITICAL_MASK = critical;
+        WARNING_MASK = warning;
+    }
+
+    private final boolean critical;
+
+    VitalAlert(boolean critical) {
+        this.critical = critical;
+    }
+
+    public boolean isCritical() { return critical; }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isSet(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static boolean isCritical(int mask) {
+        return (mask & CRITICAL_MASK) != 0;
+    }
+
+    public static boolean hasWarnings(int mask) {
+        return (mask & WARNING_MASK) != 0;
+    }
+
+    /**
+     * Render the warning alerts in a mask as patient-facing messages, at most limit of them
+     */
+    public static List<String> describe(int mask, VitalMeasurements vital, int limit) {
+        List<String> messages = new ArrayList<>();
+        for (VitalAlert alert : VALUES) {
+            if (messages.size() >= limit) {
+                break;
+            }
+            if (!alert.critical && alert.isSet(mask)) {
+                messages.add(alert.describe(vital));
+            }
+        }
+        return messages;
+    }
+
+    public String describe(VitalMeasurements vital) {
+        return switch (this) {
+            case HIGH_SYSTOLIC -> "High systolic blood pressure (" + vital.getBloodPressure().getSystolic() + " mmHg)";
+            case HIGH_DIASTOLIC -> "High diastolic blood pressure (" + vital.getBloodPressure().getDiastolic() + " mmHg)";
+            case CRITICAL_SYSTOLIC ->
+                "Critical systolic blood pressure (" + vital.getBloodPressure().getSystolic() + " mmHg)";
+            case CRITICAL_DIASTOLIC ->
+                "Critical diastolic blood pressure (" + vital.getBloodPressure().getDiastolic() + " mmHg)";
+            case ELEVATED_HEART_RATE -> "Elevated heart rate (" + vital.getPulseRate() + " bpm)";
+            case LOW_HEART_RATE -> "Low heart rate (" + vital.getPulseRate() + " bpm)";
+            case CRITICAL_PULSE -> "Critical heart rate (" + vital.getPulseRate() + " bpm)";
+            case LOW_OXYGEN_SATURATION -> String.format("Low oxygen saturation (%.1f%%)", vital.getOxygenSaturation());
+            case CRITICAL_OXYGEN_SATURATION ->
+                String.format("Critical oxygen saturation (%.1f%%)", vital.getOxygenSaturation());
+            case HIGH_TEMPERATURE -> String.format("High temperature (%.1f°C)", vital.getBodyTemperature());
+            case LOW_TEMPERATURE -> String.format("Low temperature (%.1f°C)", vital.getBodyTemperature());
+            case CRITICAL_TEMPERATURE -> String.format("Critical temperature (%.1f°C)", vital.getBodyTemperature());
+            case SEVERE_PAIN -> "Severe pain reported";
+        };
+    }
+}
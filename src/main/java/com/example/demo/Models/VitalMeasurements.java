@@ -0,0 +1,17 @@
+package com.example.demo.Models;
+
+import java.time.LocalDateTime;
+
+/**
+ * The measured values of one reading, shared by the VitalSigns entity and the
+ * lightweight dashboard projection so alert rules can run against either.
+ */
+public interface VitalMeasurements {
+    LocalDateTime getTimestamp();
+    double getBodyTemperature();
+    int getPulseRate();
+    int getRespiratoryRate();
+    VitalSigns.BloodPressure getBloodPressure();
+    double getOxygenSaturation();
+    VitalSigns.PainLevel getPainLevel();
+}
@@ -0,0 +1,79 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Narrow time-series copy of a vital reading. The primary key is (patient_id,
+ * recorded_at, vital_signs_id), so InnoDB stores each patient's readings contiguously
+ * in time order and range scans never touch the wide vital_signs rows or their joins.
+ * The vital_signs id keeps readings that share a timestamp apart, one row per source row.
+ * Rows are written by VitalReadingRepository; this mapping only declares the table.
+ */
+@Entity
+@Table(name = "vital_readings")
+@IdClass(VitalReading.Key.class)
+public class VitalReading {
+
+    @Id
+    @Column(name = "patient_id", length = 36)
+    private String patientId;
+
+    @Id
+    @Column(name = "recorded_at")
+    private LocalDateTime recordedAt;
+
+    @Id
+    @Column(name = "vital_signs_id")
+    private Long vitalSignsId;
+
+    private double bodyTemperature;
+    private int pulseRate;
+    private int respiratoryRate;
+    private int systolic;
+    private int diastolic;
+    private double oxygenSaturation;
+    private int painLevel;
+
+    public VitalReading() {}
+
+    public String getPatientId() { return patientId; }
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public Long getVitalSignsId() { return vitalSignsId; }
+    public double getBodyTemperature() { return bodyTemperature; }
+    public int getPulseRate() { return pulseRate; }
+    public int getRespiratoryRate() { return respiratoryRate; }
+    public int getSystolic() { return systolic; }
+    public int getDiastolic() { return diastolic; }
+    public double getOxygenSaturation() { return oxygenSaturation; }
+    public int getPainLevel() { return painLevel; }
+
+    public static class Key implements Serializable {
+        private String patientId;
+        private LocalDateTime recordedAt;
+        private Long vitalSignsId;
+
+        public Key() {}
+
+        public Key(String patientId, LocalDateTime recordedAt, Long vitalSignsId) {
+            this.patientId = patientId;
+            this.recordedAt = recordedAt;
+            this.vitalSignsId = vitalSignsId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(patientId, key.patientId) && Objects.equals(recordedAt, key.recordedAt)
+                && Objects.equals(vitalSignsId, key.vitalSignsId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(patientId, recordedAt, vitalSignsId);
+        }
+    }
+}
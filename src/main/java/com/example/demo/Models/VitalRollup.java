@@ -0,0 +1,98 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Pre-aggregated vital readings for one patient over an hour or a day. Averages are
+ * kept as sums so a bucket can be recomputed or merged without losing precision.
+ * Rows are maintained by VitalRollupRepository; this mapping only declares the table.
+ */
+@Entity
+@Table(name = "vital_rollups")
+@IdClass(VitalRollup.Key.class)
+public class VitalRollup {
+
+    public enum Resolution {
+        HOUR(3600),
+        DAY(86400);
+
+        private final long seconds;
+
+        Resolution(long seconds) {
+            this.seconds = seconds;
+        }
+
+        public long getSeconds() { return seconds; }
+    }
+
+    @Id
+    @Column(name = "patient_id", length = 36)
+    private String patientId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private Resolution resolution;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    private long readingCount;
+
+    private double minTemperature;
+    private double maxTemperature;
+    private double sumTemperature;
+    private int minPulse;
+    private int maxPulse;
+    private long sumPulse;
+    private int minRespiratory;
+    private int maxRespiratory;
+    private long sumRespiratory;
+    private int minSystolic;
+    private int maxSystolic;
+    private long sumSystolic;
+    private int minDiastolic;
+    private int maxDiastolic;
+    private long sumDiastolic;
+    private double minOxygen;
+    private double maxOxygen;
+    private double sumOxygen;
+
+    public VitalRollup() {}
+
+    public String getPatientId() { return patientId; }
+    public Resolution getResolution() { return resolution; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public long getReadingCount() { return readingCount; }
+
+    public static class Key implements Serializable {
+        private String patientId;
+        private Resolution resolution;
+        private LocalDateTime bucketStart;
+
+        public Key() {}
+
+        public Key(String patientId, Resolution resolution, LocalDateTime bucketStart) {
+            this.patientId = patientId;
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(patientId, key.patientId) && resolution == key.resolution
+                && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(patientId, resolution, bucketStart);
+        }
+    }
+}
@@ -5,7 +5,7 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-public class VitalSigns {
+public class VitalSigns implements VitalMeasurements {
 
     public enum Status {
         REQUESTED,   // Not yet reviewed by a doctor
@@ -119,6 +119,10 @@ public class VitalSigns {
     public Prescription getPrescription() { return prescription; }
 
     // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public void setDoctor(Doctor doctor) {
         this.doctor = Objects.requireNonNull(doctor, "Doctor cannot be null");
     }
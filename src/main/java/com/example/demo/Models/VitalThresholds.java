@@ -0,0 +1,142 @@
+package com.example.demo.Models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-patient alert thresholds. A patient without a row uses the defaults below,
+ * which are the limits the platform has always applied.
+ */
+@Entity
+@Table(name = "vital_thresholds")
+@JsonIgnoreProperties(value = {"id", "patientId", "updatedAt"}, allowGetters = true)
+public class VitalThresholds {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false, unique = true)
+    private String patientId;
+
+    // Warning thresholds (shown on the dashboard and in alert emails)
+    private int systolicHigh = 140;
+    private int diastolicHigh = 90;
+    private int pulseHigh = 100;
+    private int pulseLow = 50;
+    private double oxygenLow = 92.0;
+    private double temperatureHigh = 38.0;
+    private double temperatureLow = 36.0;
+
+    @Enumerated(EnumType.STRING)
+    private VitalSigns.PainLevel painLevelAlert = VitalSigns.PainLevel.SEVERE;
+
+    // Critical thresholds (trigger emergency notifications)
+    private int criticalSystolicHigh = 180;
+    private int criticalSystolicLow = 90;
+    private int criticalDiastolicHigh = 120;
+    private int criticalDiastolicLow = 60;
+    private int criticalPulseHigh = 120;
+    private int criticalPulseLow = 50;
+    private double criticalTemperatureHigh = 39.0;
+    private double criticalTemperatureLow = 35.0;
+    private double criticalOxygenLow = 90.0;
+
+    private LocalDateTime updatedAt;
+
+    public VitalThresholds() {}
+
+    public VitalThresholds(String patientId) {
+        this.patientId = patientId;
+    }
+
+    /**
+     * Copy every threshold value from another instance, leaving id and patient untouched
+     */
+    public void copyThresholdsFrom(VitalThresholds other) {
+        this.systolicHigh = other.systolicHigh;
+        this.diastolicHigh = other.diastolicHigh;
+        this.pulseHigh = other.pulseHigh;
+        this.pulseLow = other.pulseLow;
+        this.oxygenLow = other.oxygenLow;
+        this.temperatureHigh = other.temperatureHigh;
+        this.temperatureLow = other.temperatureLow;
+        this.painLevelAlert = other.painLevelAlert;
+        this.criticalSystolicHigh = other.criticalSystolicHigh;
+        this.criticalSystolicLow = other.criticalSystolicLow;
+        this.criticalDiastolicHigh = other.criticalDiastolicHigh;
+        this.criticalDiastolicLow = other.criticalDiastolicLow;
+        this.criticalPulseHigh = other.criticalPulseHigh;
+        this.criticalPulseLow = other.criticalPulseLow;
+        this.criticalTemperatureHigh = other.criticalTemperatureHigh;
+        this.criticalTemperatureLow = other.criticalTemperatureLow;
+        this.criticalOxygenLow = other.criticalOxygenLow;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Reject threshold sets whose low and high limits are inverted
+     */
+    public void validate() {
+        if (pulseLow >= pulseHigh) {
+            throw new IllegalArgumentException("Pulse low threshold must be below the high threshold");
+        }
+        if (temperatureLow >= temperatureHigh) {
+            throw new IllegalArgumentException("Temperature low threshold must be below the high threshold");
+        }
+        if (criticalSystolicLow >= criticalSystolicHigh || criticalDiastolicLow >= criticalDiastolicHigh) {
+            throw new IllegalArgumentException("Critical blood pressure low thresholds must be below the high thresholds");
+        }
+        if (criticalPulseLow >= criticalPulseHigh) {
+            throw new IllegalArgumentException("Critical pulse low threshold must be below the high threshold");
+        }
+        if (criticalTemperatureLow >= criticalTemperatureHigh) {
+            throw new IllegalArgumentException("Critical temperature low threshold must be below the high threshold");
+        }
+        if (painLevelAlert == null) {
+            throw new IllegalArgumentException("Pain level alert threshold must be specified");
+        }
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getPatientId() { return patientId; }
+    public int getSystolicHigh() { return systolicHigh; }
+    public int getDiastolicHigh() { return diastolicHigh; }
+    public int getPulseHigh() { return pulseHigh; }
+    public int getPulseLow() { return pulseLow; }
+    public double getOxygenLow() { return oxygenLow; }
+    public double getTemperatureHigh() { return temperatureHigh; }
+    public double getTemperatureLow() { return temperatureLow; }
+    public VitalSigns.PainLevel getPainLevelAlert() { return painLevelAlert; }
+    public int getCriticalSystolicHigh() { return criticalSystolicHigh; }
+    public int getCriticalSystolicLow() { return criticalSystolicLow; }
+    public int getCriticalDiastolicHigh() { return criticalDiastolicHigh; }
+    public int getCriticalDiastolicLow() { return criticalDiastolicLow; }
+    public int getCriticalPulseHigh() { return criticalPulseHigh; }
+    public int getCriticalPulseLow() { return criticalPulseLow; }
+    public double getCriticalTemperatureHigh() { return criticalTemperatureHigh; }
+    public double getCriticalTemperatureLow() { return criticalTemperatureLow; }
+    public double getCriticalOxygenLow() { return criticalOxygenLow; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // Setters
+    public void setSystolicHigh(int systolicHigh) { this.systolicHigh = systolicHigh; }
+    public void setDiastolicHigh(int diastolicHigh) { this.diastolicHigh = diastolicHigh; }
+    public void setPulseHigh(int pulseHigh) { this.pulseHigh = pulseHigh; }
+    public void setPulseLow(int pulseLow) { this.pulseLow = pulseLow; }
+    public void setOxygenLow(double oxygenLow) { this.oxygenLow = oxygenLow; }
+    public void setTemperatureHigh(double temperatureHigh) { this.temperatureHigh = temperatureHigh; }
+    public void setTemperatureLow(double temperatureLow) { this.temperatureLow = temperatureLow; }
+    public void setPainLevelAlert(VitalSigns.PainLevel painLevelAlert) { this.painLevelAlert = painLevelAlert; }
+    public void setCriticalSystolicHigh(int criticalSystolicHigh) { this.criticalSystolicHigh = criticalSystolicHigh; }
+    public void setCriticalSystolicLow(int criticalSystolicLow) { this.criticalSystolicLow = criticalSystolicLow; }
+    public void setCriticalDiastolicHigh(int criticalDiastolicHigh) { this.criticalDiastolicHigh = criticalDiastolicHigh; }
+    public void setCriticalDiastolicLow(int criticalDiastolicLow) { this.criticalDiastolicLow = criticalDiastolicLow; }
+    public void setCriticalPulseHigh(int criticalPulseHigh) { this.criticalPulseHigh = criticalPulseHigh; }
+    public void setCriticalPulseLow(int criticalPulseLow) { this.criticalPulseLow = criticalPulseLow; }
+    public void setCriticalTemperatureHigh(double criticalTemperatureHigh) { this.criticalTemperatureHigh = criticalTemperatureHigh; }
+    public void setCriticalTemperatureLow(double criticalTemperatureLow) { this.criticalTemperatureLow = criticalTemperatureLow; }
+    public void setCriticalOxygenLow(double criticalOxygenLow) { this.criticalOxygenLow = criticalOxygenLow; }
+}
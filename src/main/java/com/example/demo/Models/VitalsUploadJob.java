@@ -0,0 +1,110 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "vitals_upload_jobs", indexes = {
+    @Index(name = "idx_upload_job_patient", columnList = "patient_id")
+})
+public class VitalsUploadJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private String patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private String doctorId;
+
+    private String fileName;
+
+    private long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.QUEUED;
+
+    private boolean cancelRequested;
+
+    private int chunksProcessed;
+    private int recordsProcessed;
+    private int recordsSaved;
+    private int recordsFailed;
+    private int totalRecords;
+
+    @Column(length = 1000)
+    private String message;
+
+    // Row-numbered validation errors, newline separated
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String errors;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Refreshed by the instance holding the job, jobs with an old heartbeat are abandoned
+    private LocalDateTime heartbeatAt;
+
+    public VitalsUploadJob() {}
+
+    public VitalsUploadJob(String patientId, String doctorId, String fileName, long fileSize) {
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.createdAt = LocalDateTime.now();
+        this.heartbeatAt = createdAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getPatientId() { return patientId; }
+    public String getDoctorId() { return doctorId; }
+    public String getFileName() { return fileName; }
+    public long getFileSize() { return fileSize; }
+    public Status getStatus() { return status; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public int getChunksProcessed() { return chunksProcessed; }
+    public int getRecordsProcessed() { return recordsProcessed; }
+    public int getRecordsSaved() { return recordsSaved; }
+    public int getRecordsFailed() { return recordsFailed; }
+    public int getTotalRecords() { return totalRecords; }
+    public String getMessage() { return message; }
+    public String getErrors() { return errors; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+
+    // Setters
+    public void setStatus(Status status) { this.status = status; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+    public void setChunksProcessed(int chunksProcessed) { this.chunksProcessed = chunksProcessed; }
+    public void setRecordsProcessed(int recordsProcessed) { this.recordsProcessed = recordsProcessed; }
+    public void setRecordsSaved(int recordsSaved) { this.recordsSaved = recordsSaved; }
+    public void setRecordsFailed(int recordsFailed) { this.recordsFailed = recordsFailed; }
+    public void setTotalRecords(int totalRecords) { this.totalRecords = totalRecords; }
+    public void setMessage(String message) { this.message = message; }
+    public void setErrors(String errors) { this.errors = errors; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
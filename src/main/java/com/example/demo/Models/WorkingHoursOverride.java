@@ -0,0 +1,65 @@
+package com.example.demo.Models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An exception to a doctor's weekly template on one date. CLOSED takes time off
+ * (the whole day when no times are given), OPEN adds hours on top of the template.
+ */
+@Entity
+@Table(name = "doctor_working_hours_overrides", indexes = {
+    @Index(name = "idx_working_hours_override_doctor_date", columnList = "doctor_id, date")
+})
+public class WorkingHoursOverride {
+
+    public enum Kind { CLOSED, OPEN }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false, length = 36)
+    private String doctorId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Kind kind;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    @Column(length = 255)
+    private String reason;
+
+    public WorkingHoursOverride() {}
+
+    public WorkingHoursOverride(String doctorId, LocalDate date, Kind kind, LocalTime startTime, LocalTime endTime,
+                                String reason) {
+        this.doctorId = doctorId;
+        this.date = date;
+        this.kind = kind;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.reason = reason;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getDoctorId() { return doctorId; }
+    public LocalDate getDate() { return date; }
+    public Kind getKind() { return kind; }
+    public LocalTime getStartTime() { return startTime; }
+    public LocalTime getEndTime() { return endTime; }
+    public String getReason() { return reason; }
+
+    public boolean isWholeDay() {
+        return startTime == null || endTime == null;
+    }
+}
@@ -11,12 +11,12 @@ import com.example.demo.respository.AlertRepository;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -24,11 +24,14 @@ public class AlertService {
 
     private final AlertRepository alertRepository;
     private final UserService userService;
+    private final DashboardCounterService counterService;
 
     @Autowired
-    public AlertService(AlertRepository alertRepository, UserService userService) {
+    public AlertService(AlertRepository alertRepository, UserService userService,
+                        DashboardCounterService counterService) {
         this.alertRepository = alertRepository;
         this.userService = userService;
+        this.counterService = counterService;
     }
 
 
@@ -39,10 +42,7 @@ public class AlertService {
 
 
     public List<Alert> getRecentAlertsForDoctor(String doctorId, int limit) {
-        return alertRepository.findAllAlertsByDoctorUserIdOrderedByTimestamp(doctorId)
-                .stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return alertRepository.findByDoctorUserIdOrderByTimestampDesc(doctorId, PageRequest.of(0, limit));
     }
 
     // Additional useful methods
@@ -52,7 +52,9 @@ public class AlertService {
 
 
     public Alert createAlert(Alert alert) {
-        return alertRepository.save(alert);
+        Alert saved = alertRepository.save(alert);
+        counterService.alertCreated(saved);
+        return saved;
     }
 
    
@@ -70,22 +72,30 @@ public List<Alert> getActiveAlertsForDoctor(String doctorUsername) {
 
     public Alert acknowledgeAlert(Long alertId)  {
         Alert alert = alertRepository.findById(alertId).get();
-        
+
+        // Only the request whose UPDATE flips the flag adjusts the counter
+        int acknowledged = alertRepository.acknowledgeAll(List.of(alertId));
+        if (acknowledged > 0 && alert.getDoctor() != null) {
+            counterService.alertsAcknowledged(alert.getDoctor().getUserId(), acknowledged);
+        }
         alert.setAcknowledged(true);
-        return alertRepository.save(alert);
+        return alert;
     }
 
  
     public int acknowledgeAllAlertsForDoctor(String doctorUsername) {
        
            Doctor doctor = (Doctor) userService.findByEmail(doctorUsername);
-        List<Alert> alerts = alertRepository.findByDoctorAndAcknowledgedFalse(doctor);
-        alerts.forEach(alert -> {
-            alert.setAcknowledged(true);
-        });
-        
-        alertRepository.saveAll(alerts);
-        return alerts.size();
+        List<Long> alertIds = alertRepository.findByDoctorAndAcknowledgedFalse(doctor).stream()
+            .map(Alert::getId)
+            .toList();
+        if (alertIds.isEmpty()) {
+            return 0;
+        }
+
+        int acknowledged = alertRepository.acknowledgeAll(alertIds);
+        counterService.alertsAcknowledged(doctor.getUserId(), acknowledged);
+        return acknowledged;
     }
 
    
@@ -98,7 +108,9 @@ public List<Alert> getActiveAlertsForDoctor(String doctorUsername) {
         alert.setTimestamp(LocalDateTime.now());
         alert.setAcknowledged(false);
         
-        return alertRepository.save(alert);
+        Alert saved = alertRepository.save(alert);
+        counterService.alertCreated(saved);
+        return saved;
     }
   
 
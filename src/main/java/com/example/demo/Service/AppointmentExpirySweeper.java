@@ -0,0 +1,114 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.EmailException;
+import com.example.demo.Models.Appointment;
+import com.example.demo.respository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cancels appointments whose start time passed while they were still waiting for
+ * the doctor (SCHEDULED or RESCHEDULED). Each batch locks the stale rows, cancels
+ * them with one UPDATE and queues the patients' cancellation emails on the outbox
+ * in the same transaction, so the email is delivered asynchronously and only if
+ * the cancellation commits. Appointments that went stale longer ago than
+ * notify-within (e.g. the backlog on first deploy) are cancelled silently.
+ */
+@Component
+public class AppointmentExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentExpirySweeper.class);
+
+    static final String EXPIRY_REASON = "No response from doctor";
+    private static final List<Appointment.Status> AWAITING_DOCTOR =
+            List.of(Appointment.Status.SCHEDULED, Appointment.Status.RESCHEDULED);
+
+    private final AppointmentRepository appointmentRepository;
+    private final EmailService emailService;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final DashboardCounterService counterService;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+    private final Duration notifyWithin;
+
+    public AppointmentExpirySweeper(AppointmentRepository appointmentRepository,
+                                    EmailService emailService,
+                                    DoctorScheduleIndex scheduleIndex,
+                                    DashboardCounterService counterService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.appointments.expiry.batch-size:500}") int batchSize,
+                                    @Value("${app.appointments.expiry.notify-within:7d}") Duration notifyWithin) {
+        this.appointmentRepository = appointmentRepository;
+        this.emailService = emailService;
+        this.scheduleIndex = scheduleIndex;
+        this.counterService = counterService;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.notifyWithin = notifyWithin;
+    }
+
+    @Scheduled(fixedDelayString = "${app.appointments.expiry.poll-interval-ms:60000}",
+               initialDelayString = "${app.appointments.expiry.initial-delay-ms:30000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int expired;
+        do {
+            expired = batchTransaction.execute(status -> expireBatch(now));
+            total += expired;
+        } while (expired == batchSize);
+
+        if (total > 0) {
+            log.info("Cancelled {} appointments that started without a response from the doctor", total);
+        }
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<Long> ids = appointmentRepository.lockStaleIds(AWAITING_DOCTOR, now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Appointment> appointments = appointmentRepository.findWithParticipantsByIdIn(ids);
+        appointmentRepository.cancelAll(ids, AWAITING_DOCTOR, EXPIRY_REASON, now);
+
+        LocalDateTime notifyAfter = now.minus(notifyWithin);
+        Map<String, Integer> cancelledPerDoctor = new HashMap<>();
+        for (Appointment appointment : appointments) {
+            scheduleIndex.appointmentChanged(appointment.getDoctor().getUserId(), appointment.getId(),
+                    appointment.getStartTime(), appointment.getEndTime(), Appointment.Status.CANCELLED);
+            cancelledPerDoctor.merge(appointment.getDoctor().getUserId(), 1, Integer::sum);
+
+            if (appointment.getStartTime().isAfter(notifyAfter)) {
+                notifyPatient(appointment);
+            }
+        }
+        counterService.appointmentRequestsCancelled(cancelledPerDoctor);
+        return ids.size();
+    }
+
+    private void notifyPatient(Appointment appointment) {
+        try {
+            emailService.sendAppointmentCancellationNotification(
+                    appointment.getPatient().getEmail(),
+                    appointment.getPatient().getFullName(),
+                    appointment.getDoctor().getFullName(),
+                    appointment.getStartTime(),
+                    EXPIRY_REASON);
+        } catch (EmailException e) {
+            log.error("Failed to queue expiry notice for appointment {}: {}", appointment.getId(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.EmailException;
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.SentAppointmentReminder;
+import com.example.demo.Utils.TransactionCallbacks;
+import com.example.demo.respository.AppointmentRepository;
+import com.example.demo.respository.SentAppointmentReminderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Emails patients a reminder at each configured offset before a confirmed
+ * appointment. Confirmed appointments are loaded into an in-memory timing wheel
+ * one slice at a time (once per load interval, lookahead ahead of the furthest
+ * offset), so the appointments table is not polled every minute; a ticker thread
+ * advances the wheel and sends what falls due. Confirming, rescheduling,
+ * cancelling and completing replace an appointment's timers once the transaction
+ * commits. Before sending, each reminder is checked against the appointment's
+ * current row, which drops reminders made stale by other nodes or bulk deletes,
+ * and claimed in appointment_reminders_sent, so it goes out at most once.
+ * Reminders missed while the application was down are sent on startup if they
+ * fell due within late-grace.
+ */
+@Component
+public class AppointmentReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentReminderScheduler.class);
+    private static final int DISPATCH_CHUNK = 200;
+
+    private final AppointmentRepository appointmentRepository;
+    private final SentAppointmentReminderRepository sentReminderRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate reminderTransaction;
+    private final List<Duration> offsets;
+    private final Duration lookahead;
+    private final long tickMillis;
+    private final long lateGraceMillis;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ScheduledExecutorService ticker;
+
+    // Guarded by this
+    private final HierarchicalTimingWheel<Reminder> wheel;
+    private final Map<Long, List<HierarchicalTimingWheel.Timeout<Reminder>>> timeoutsByAppointment = new HashMap<>();
+    private LocalDateTime loadedThrough;
+
+    public AppointmentReminderScheduler(AppointmentRepository appointmentRepository,
+                                        SentAppointmentReminderRepository sentReminderRepository,
+                                        EmailService emailService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.appointments.reminders.offsets:24h,1h}") List<Duration> offsets,
+                                        @Value("${app.appointments.reminders.lookahead:2h}") Duration lookahead,
+                                        @Value("${app.appointments.reminders.late-grace:15m}") Duration lateGrace,
+                                        @Value("${app.appointments.reminders.tick-ms:1000}") long tickMillis) {
+        if (offsets.isEmpty() || offsets.stream().anyMatch(offset -> offset.isNegative() || offset.isZero())) {
+            throw new IllegalArgumentException("app.appointments.reminders.offsets must be positive durations");
+        }
+        this.appointmentRepository = appointmentRepository;
+        this.sentReminderRepository = sentReminderRepository;
+        this.emailService = emailService;
+        this.reminderTransaction = new TransactionTemplate(transactionManager);
+        this.reminderTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Earliest reminder first
+        this.offsets = offsets.stream().distinct().sorted(Comparator.reverseOrder()).toList();
+        this.lookahead = lookahead;
+        this.tickMillis = Math.max(10, tickMillis);
+        this.lateGraceMillis = lateGrace.toMillis();
+        this.wheel = new HierarchicalTimingWheel<>(this.tickMillis, System.currentTimeMillis());
+        if (this.offsets.get(0).plus(lookahead).toMillis() >= wheel.rangeMillis()) {
+            throw new IllegalArgumentException("Reminder offsets plus lookahead exceed the timing wheel's range of "
+                    + Duration.ofMillis(wheel.rangeMillis()));
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "appointment-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Record a confirmed, moved or re-statused appointment. Inside a transaction the
+     * change is applied after commit, so a rollback never leaves a reminder behind.
+     */
+    public void appointmentChanged(Appointment appointment) {
+        Long appointmentId = appointment.getId();
+        LocalDateTime start = appointment.getStartTime();
+        boolean confirmed = appointment.getStatus() == Appointment.Status.CONFIRMED;
+        TransactionCallbacks.afterCommit(() -> apply(appointmentId, start, confirmed));
+    }
+
+    /**
+     * Load the confirmed appointments that now come within reach of the furthest
+     * offset plus lookahead. The first run, at startup, loads the whole window.
+     */
+    @Scheduled(fixedDelayString = "${app.appointments.reminders.load-interval-ms:3600000}")
+    public void loadUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.plus(offsets.get(0)).plus(lookahead);
+        LocalDateTime from;
+        synchronized (this) {
+            from = loadedThrough == null ? now : loadedThrough;
+            if (!to.isAfter(from)) {
+                return;
+            }
+            // Advanced before querying, so a confirmation committing meanwhile is either
+            // in the query's results or scheduled by its own afterCommit
+            loadedThrough = to;
+        }
+
+        List<Object[]> rows;
+        try {
+            rows = appointmentRepository.findUpcomingAppointmentsForReminder(from, to);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (to.equals(loadedThrough)) {
+                    loadedThrough = from;
+                }
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            long nowMillis = System.currentTimeMillis();
+            for (Object[] row : rows) {
+                reschedule((Long) row[0], (LocalDateTime) row[1], nowMillis);
+            }
+            log.info("Loaded {} confirmed appointments starting up to {}, {} reminders pending",
+                    rows.size(), to, wheel.size());
+        }
+
+        reminderTransaction.executeWithoutResult(status -> sentReminderRepository.deleteByAppointmentStartBefore(now));
+    }
+
+    private synchronized void apply(Long appointmentId, LocalDateTime start, boolean confirmed) {
+        cancel(appointmentId);
+        // Appointments beyond the loaded window are picked up by their slice's load
+        if (confirmed && loadedThrough != null && !start.isAfter(loadedThrough)) {
+            reschedule(appointmentId, start, System.currentTimeMillis());
+        }
+    }
+
+    // Replaces the appointment's timers with one per offset still ahead, plus the latest missed one within late-grace
+    private void reschedule(Long appointmentId, LocalDateTime start, long nowMillis) {
+        cancel(appointmentId);
+        if (toMillis(start) <= nowMillis) {
+            return;
+        }
+
+        List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = new ArrayList<>(offsets.size());
+        Duration latestMissed = null;
+        for (Duration offset : offsets) {
+            long fireAt = toMillis(start.minus(offset));
+            if (fireAt > nowMillis) {
+                timeouts.add(wheel.add(fireAt, new Reminder(appointmentId, start, offset)));
+            } else if (nowMillis - fireAt <= lateGraceMillis) {
+                latestMissed = offset;
+            } else {
+                latestMissed = null;
+            }
+        }
+        if (latestMissed != null) {
+            timeouts.add(wheel.add(nowMillis, new Reminder(appointmentId, start, latestMissed)));
+        }
+        if (!timeouts.isEmpty()) {
+            timeoutsByAppointment.put(appointmentId, timeouts);
+        }
+    }
+
+    private void cancel(Long appointmentId) {
+        List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = timeoutsByAppointment.remove(appointmentId);
+        if (timeouts != null) {
+            timeouts.forEach(wheel::cancel);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Reminder> due;
+            synchronized (this) {
+                due = wheel.advanceTo(System.currentTimeMillis());
+                for (Reminder reminder : due) {
+                    List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts =
+                            timeoutsByAppointment.get(reminder.appointmentId());
+                    if (timeouts != null) {
+                        timeouts.removeIf(timeout -> !timeout.isPending());
+                        if (timeouts.isEmpty()) {
+                            timeoutsByAppointment.remove(reminder.appointmentId());
+                        }
+                    }
+                }
+            }
+            for (int from = 0; from < due.size(); from += DISPATCH_CHUNK) {
+                dispatch(due.subList(from, Math.min(from + DISPATCH_CHUNK, due.size())));
+            }
+        } catch (RuntimeException e) {
+            // Keep ticking; an exception would cancel the scheduled task
+            log.error("Appointment reminder dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void dispatch(List<Reminder> reminders) {
+        Map<Long, Appointment> appointments = appointmentRepository.findWithParticipantsByIdIn(
+                        reminders.stream().map(Reminder::appointmentId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Reminder reminder : reminders) {
+            Appointment appointment = appointments.get(reminder.appointmentId());
+            if (appointment == null || appointment.getStatus() != Appointment.Status.CONFIRMED
+                    || !appointment.getStartTime().equals(reminder.start()) || !appointment.getStartTime().isAfter(now)) {
+                log.debug("Dropped stale {} reminder for appointment {}", reminder.offset(), reminder.appointmentId());
+                continue;
+            }
+            send(appointment, reminder.offset());
+        }
+    }
+
+    private void send(Appointment appointment, Duration offset) {
+        try {
+            reminderTransaction.executeWithoutResult(status -> {
+                if (sentReminderRepository.existsByAppointmentIdAndAppointmentStartAndOffsetSeconds(
+                        appointment.getId(), appointment.getStartTime(), offset.toSeconds())) {
+                    log.debug("{} reminder for appointment {} was already sent", offset, appointment.getId());
+                    return;
+                }
+                // Unique key, so of two nodes racing past the check only one sends
+                sentReminderRepository.saveAndFlush(new SentAppointmentReminder(
+                        appointment.getId(), appointment.getStartTime(), offset.toSeconds()));
+                emailService.sendAppointmentReminder(
+                        appointment.getPatient().getEmail(),
+                        appointment.getPatient().getFullName(),
+                        appointment.getDoctor().getFullName(),
+                        appointment.getStartTime(),
+                        Duration.between(appointment.getStartTime(), appointment.getEndTime()),
+                        appointment.getLocation().name(),
+                        appointment.getZoomLink());
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("{} reminder for appointment {} was already sent", offset, appointment.getId());
+        } catch (EmailException e) {
+            log.error("Failed to queue {} reminder for appointment {}: {}", offset, appointment.getId(),
+                    e.getMessage(), e);
+        }
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private record Reminder(Long appointmentId, LocalDateTime start, Duration offset) {}
+}
@@ -37,13 +37,25 @@ public class AppointmentService {
     private static final Logger log = LoggerFactory.getLogger(PatientAppointmentController.class);
     private final EmailService emailService;
     private final UserService userService;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final DoctorBookingLocks bookingLocks;
+    private final DashboardCounterService counterService;
+    private final AppointmentReminderScheduler reminderScheduler;
+    private final DoctorWorkingHoursService workingHoursService;
 
     @Autowired
     public AppointmentService(AppointmentRepository appointmentRepository, EmailService emailService,
-    UserService userService) {
+    UserService userService, DoctorScheduleIndex scheduleIndex, DoctorBookingLocks bookingLocks,
+    DashboardCounterService counterService, AppointmentReminderScheduler reminderScheduler,
+    DoctorWorkingHoursService workingHoursService) {
         this.appointmentRepository = appointmentRepository;
         this.emailService = emailService;
         this.userService=userService;
+        this.scheduleIndex = scheduleIndex;
+        this.bookingLocks = bookingLocks;
+        this.counterService = counterService;
+        this.reminderScheduler = reminderScheduler;
+        this.workingHoursService = workingHoursService;
  
     }
 
@@ -52,12 +64,12 @@ public class AppointmentService {
         LocalDateTime startTime = appointmentRequest.getDateTime();
      
 
-        // Create a Duration of 30 minutes
-        Duration duration = Duration.ofMinutes(30);
+        // One slot of the doctor's working hours that day
+        Duration duration = workingHoursService.workingDay(doctor.getUserId(), startTime.toLocalDate()).getSlotDuration();
 
         LocalDateTime endTime = startTime.plus(duration);
         
-        validateAppointmentTime(startTime, endTime);
+        validateAppointmentTime(doctor.getUserId(), startTime, endTime);
         checkDoctorAvailability(doctor, startTime, endTime);
         
         Appointment appointment = new Appointment(
@@ -69,7 +81,9 @@ public class AppointmentService {
             appointmentRequest.getLocation()
         );
         
-        appointmentRepository.save(appointment);
+        Appointment savedAppointment = appointmentRepository.save(appointment);
+        scheduleIndex.appointmentChanged(savedAppointment);
+        counterService.appointmentStatusChanged(savedAppointment, null);
         sendAppointmentConfirmationEmails(
             patient, 
             doctor, 
@@ -108,12 +122,9 @@ public class AppointmentService {
         }
     }
 
-    private void validateAppointmentTime(LocalDateTime startTime, LocalDateTime endTime) {
-        int startHour = startTime.getHour();
-        int endHour = endTime.getHour();
-        
-        if (startHour < 9 || endHour > 17 || (endHour == 17 && endTime.getMinute() > 0)) {
-            throw new IllegalArgumentException("Appointments must be scheduled between 9AM and 5PM");
+    private void validateAppointmentTime(String doctorId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!workingHoursService.workingDay(doctorId, startTime.toLocalDate()).covers(startTime, endTime)) {
+            throw new IllegalArgumentException("Appointments must be scheduled within the doctor's working hours");
         }
         
         if (startTime.isBefore(LocalDateTime.now())) {
@@ -122,10 +133,29 @@ public class AppointmentService {
     }
 
     private void checkDoctorAvailability(Doctor doctor, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Appointment> existingAppointments = appointmentRepository
-                .findOverlappingAppointments(doctor, startTime, endTime);
-        
-        if (!existingAppointments.isEmpty()) {
+        checkDoctorAvailability(doctor, startTime, endTime, null);
+    }
+
+    private void checkDoctorAvailability(Doctor doctor, LocalDateTime startTime, LocalDateTime endTime,
+                                         Long excludeAppointmentId) {
+        // Taken slots are turned away before queueing for the doctor's lock
+        if (!scheduleIndex.isFree(doctor.getUserId(), startTime, endTime, excludeAppointmentId)) {
+            throw new IllegalArgumentException("Doctor is not available at the selected time");
+        }
+
+        // Held until commit, so no other booking for this doctor can pass this check in the meantime
+        bookingLocks.lock(doctor.getUserId());
+
+        if (!scheduleIndex.isFree(doctor.getUserId(), startTime, endTime, excludeAppointmentId)) {
+            throw new IllegalArgumentException("Doctor is not available at the selected time");
+        }
+
+        // The index may not have seen a booking made on another instance yet
+        boolean bookedElsewhere = appointmentRepository.findOverlappingAppointments(doctor, startTime, endTime)
+                .stream()
+                .anyMatch(existing -> !existing.getId().equals(excludeAppointmentId));
+        if (bookedElsewhere) {
+            scheduleIndex.invalidate(doctor.getUserId());
             throw new IllegalArgumentException("Doctor is not available at the selected time");
         }
     }
@@ -222,10 +252,14 @@ log.info("Current status before cancellation: {}", appointment.getStatus());
             throw new BadRequestException("Appointment cannot be cancelled as it's within 24 hours");
         }
         
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.CANCELLED);
         appointment.setCancellationReason(reason);
         appointment.setUpdatedAt(LocalDateTime.now());
         appointmentRepository.save(appointment);
+        scheduleIndex.appointmentChanged(appointment);
+        counterService.appointmentStatusChanged(appointment, previousStatus);
+        reminderScheduler.appointmentChanged(appointment);
           log.info("Status after cancellation: {}", appointment.getStatus());
         
         try {
@@ -249,9 +283,10 @@ log.info("Current status before cancellation: {}", appointment.getStatus());
         Duration duration = Duration.between(appointment.getStartTime(), appointment.getEndTime());
         LocalDateTime newEndTime = newDateTime.plus(duration);
         
-        validateAppointmentTime(newDateTime, newEndTime);
-        checkDoctorAvailability(appointment.getDoctor(), newDateTime, newEndTime);
+        validateAppointmentTime(appointment.getDoctor().getUserId(), newDateTime, newEndTime);
+        checkDoctorAvailability(appointment.getDoctor(), newDateTime, newEndTime, appointmentId);
         
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStartTime(newDateTime);
         appointment.setEndTime(newEndTime);
         appointment.setLocation(newLocation);
@@ -259,6 +294,9 @@ log.info("Current status before cancellation: {}", appointment.getStatus());
         appointment.setUpdatedAt(LocalDateTime.now());
         log.info("rescheduled successfully");
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        scheduleIndex.appointmentChanged(savedAppointment);
+        counterService.appointmentStatusChanged(savedAppointment, previousStatus);
+        reminderScheduler.appointmentChanged(savedAppointment);
         log.info("sending email");
         sendRescheduleConfirmation(savedAppointment);
         
@@ -280,27 +318,14 @@ log.info("Current status before cancellation: {}", appointment.getStatus());
          throw new ResourceNotFoundException("Appointment not found");
     }}
 
-    public boolean isTimeSlotAvailable(Long doctorId, LocalDateTime dateTime, 
+    public boolean isTimeSlotAvailable(String doctorId, LocalDateTime dateTime,
                                     Duration duration, Long excludeAppointmentId) {
         LocalDateTime endTime = dateTime.plus(duration);
-        
-        boolean hasOverlap = appointmentRepository.existsOverlappingAppointments(
-            doctorId, 
-            dateTime, 
-            endTime, 
-            excludeAppointmentId
-        );
-        
-        LocalTime start = dateTime.toLocalTime();
-        LocalTime end = endTime.toLocalTime();
-        
-        boolean withinWorkingHours = !start.isBefore(LocalTime.of(9, 0)) && 
-                                   !end.isAfter(LocalTime.of(17, 0));
-        
-        boolean notDuringLunch = start.isAfter(LocalTime.of(14, 0)) || 
-                               end.isBefore(LocalTime.of(13, 0));
-        
-        return !hasOverlap && withinWorkingHours && notDuringLunch;
+
+        boolean withinWorkingHours = workingHoursService.workingDay(doctorId, dateTime.toLocalDate())
+                .covers(dateTime, endTime);
+
+        return withinWorkingHours && scheduleIndex.isFree(doctorId, dateTime, endTime, excludeAppointmentId);
     }
 
 
@@ -310,32 +335,24 @@ log.info("Current status before cancellation: {}", appointment.getStatus());
 
 
 
+    /**
+     * Booked and free slots of the doctor on a date, and the breaks in between. A null
+     * duration means one slot of the doctor's working hours.
+     */
     public Map<String, Object> getDoctorAvailability(String doctorId, LocalDate date, 
                                                  Duration duration, String excludeAppointmentId) {
-    // Fetch appointments for the doctor on the given date
-    List<Appointment> appointments = appointmentRepository
-        .findByDoctorIdAndDate(doctorId, date, null);
-        log.info("booked appointmetns"+ appointments.size());
-
-    // Exclude the appointment if the ID is provided
-    if (excludeAppointmentId != null && !excludeAppointmentId.isBlank()) {
-        appointments = appointments.stream()
-            .filter(app -> !app.getId().equals(excludeAppointmentId))
-            .collect(Collectors.toList());
-    }
+    Long excludeId = parseAppointmentId(excludeAppointmentId);
+    WorkingDay workingDay = workingHoursService.workingDay(doctorId, date);
+    Duration slotDuration = duration != null ? duration : workingDay.getSlotDuration();
 
-    // Build the list of occupied time slots
-    List<TimeSlotDto> occupiedSlots = appointments.stream()
-        .map(app -> new TimeSlotDto(app.getStartTime(), app.getEndTime()))
+    // Booked appointments for the doctor on the given date, from the schedule index
+    List<TimeSlotDto> occupiedSlots = scheduleIndex.bookedOn(doctorId, date, excludeId).stream()
+        .map(entry -> new TimeSlotDto(entry.getStart(), entry.getEnd()))
         .collect(Collectors.toList());
-
-    // Add the lunch break as an occupied slot
-    LocalDateTime lunchStart = LocalDateTime.of(date, LocalTime.of(13, 0));
-    LocalDateTime lunchEnd = LocalDateTime.of(date, LocalTime.of(14, 0));
-    occupiedSlots.add(new TimeSlotDto(lunchStart, lunchEnd));
+        log.info("booked appointmetns"+ occupiedSlots.size());
 
     // Calculate available slots
-    List<TimeSlotDto> availableSlots = calculateAvailableSlots(date, duration, occupiedSlots);
+    List<TimeSlotDto> availableSlots = calculateAvailableSlots(doctorId, date, slotDuration, excludeId);
     log.info("occupied" +occupiedSlots.size());
     log.info("avaliable" +availableSlots.size());
 
@@ -343,49 +360,42 @@ log.info("Current status before cancellation: {}", appointment.getStatus());
     Map<String, Object> response = new HashMap<>();
     response.put("occupiedSlots", occupiedSlots);
     response.put("availableSlots", availableSlots);
+    response.put("breakSlots", workingDay.breaks(date));
+    response.put("slotMinutes", slotDuration.toMinutes());
+    response.put("dayOff", workingDay.isClosed());
     return response;
 }
 
 
-    private List<TimeSlotDto> calculateAvailableSlots(LocalDate date, Duration duration, 
-                                                    List<TimeSlotDto> occupiedSlots) {
+    private List<TimeSlotDto> calculateAvailableSlots(String doctorId, LocalDate date, Duration duration,
+                                                    Long excludeAppointmentId) {
         List<TimeSlotDto> availableSlots = new ArrayList<>();
-        LocalTime slotStart = LocalTime.of(9, 0);
-        LocalTime end = LocalTime.of(17, 0);
-        
-        while (slotStart.plus(duration).isBefore(end) || slotStart.plus(duration).equals(end)) {
-            if (slotStart.equals(LocalTime.of(13, 0))) {
-                slotStart = LocalTime.of(14, 0);
-                continue;
+        for (LocalDateTime candidateStart : getSlotStarts(doctorId, date, duration)) {
+            LocalDateTime candidateEnd = candidateStart.plus(duration);
+            if (scheduleIndex.isFree(doctorId, candidateStart, candidateEnd, excludeAppointmentId)) {
+                availableSlots.add(new TimeSlotDto(candidateStart, candidateEnd));
             }
-            
-            LocalTime currentStart = slotStart;
-            LocalTime slotEnd = currentStart.plus(duration);
-            
-            boolean isAvailable = occupiedSlots.stream()
-                .noneMatch(occupied -> isOverlapping(
-                    LocalDateTime.of(date, currentStart),
-                    LocalDateTime.of(date, slotEnd),
-                    occupied.getStartDateTime(),
-                    occupied.getEndDateTime()
-                ));
-            
-            if (isAvailable) {
-                availableSlots.add(new TimeSlotDto(
-                    LocalDateTime.of(date, currentStart),
-                    LocalDateTime.of(date, slotEnd)
-                ));
-            }
-            
-            slotStart = slotStart.plusMinutes(30);
         }
-        
         return availableSlots;
     }
 
-    private boolean isOverlapping(LocalDateTime start1, LocalDateTime end1, 
-                                LocalDateTime start2, LocalDateTime end2) {
-        return start1.isBefore(end2) && end1.isAfter(start2);
+    /**
+     * Starts of the doctor's slots on a date in time order whose slot of the given
+     * duration lies within the doctor's working hours
+     */
+    public List<LocalDateTime> getSlotStarts(String doctorId, LocalDate date, Duration duration) {
+        return workingHoursService.workingDay(doctorId, date).slotStarts(date, duration);
+    }
+
+    private Long parseAppointmentId(String appointmentId) {
+        if (appointmentId == null || appointmentId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(appointmentId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     private void sendCancellationNotification(Appointment appointment) {
@@ -433,29 +443,13 @@ log.info("Current status before cancellation: {}", appointment.getStatus());
     }
 
 
+// Past appointments still awaiting the doctor are cancelled by AppointmentExpirySweeper, not here
 public List<Appointment> getPatientAppointments(String userId) {
-    LocalDateTime now = LocalDateTime.now();
-
-    // Fetch all relevant appointments (past + future)
-    List<Appointment> allAppointments = appointmentRepository.findByPatientUserIdAndStatusIn(
+    return appointmentRepository.findByPatientUserIdAndStatusInAndStartTimeAfter(
         userId,
-        List.of(Appointment.Status.SCHEDULED, Appointment.Status.RESCHEDULED)
+        List.of(Appointment.Status.SCHEDULED, Appointment.Status.RESCHEDULED),
+        LocalDateTime.now()
     );
-
-    List<Appointment> futureAppointments = new ArrayList<>();
-
-    for (Appointment appointment : allAppointments) {
-        if (appointment.getStartTime().isAfter(now)) {
-            futureAppointments.add(appointment);
-        } else {
-            // Cancel past appointment
-            appointment.setStatus(Appointment.Status.CANCELLED);
-            appointment.setCancellationReason("No response from doctor");
-            appointmentRepository.save(appointment); // persist the change
-        }
-    }
-
-    return futureAppointments;
 }
 
 
@@ -497,26 +491,12 @@ public List<Appointment> getPatientAppointments(String userId) {
 
 
    public List<Appointment> getAppointmentsByDoctorAndLocation(String doctorId, Appointment.Location location) {
-    List<Appointment> allAppointments = appointmentRepository.findByDoctorUserIdAndLocationOrderByStartTimeAsc(doctorId, location);
-    LocalDateTime now = LocalDateTime.now();
-
-    List<Appointment> validAppointments = new ArrayList<>();
-
-    for (Appointment appointment : allAppointments) {
-        if (appointment.getStartTime().isAfter(now)) {
-            Appointment.Status status = appointment.getStatus();
-            if (status == Appointment.Status.SCHEDULED || status == Appointment.Status.RESCHEDULED) {
-                validAppointments.add(appointment);
-            }
-        } else {
-            // Cancel past appointment
-            appointment.setStatus(Appointment.Status.CANCELLED);
-            appointment.setCancellationReason("No response from doctor");
-            appointmentRepository.save(appointment);
-        }
-    }
-
-    return validAppointments;
+    return appointmentRepository.findByDoctorUserIdAndLocationAndStatusInAndStartTimeAfterOrderByStartTimeAsc(
+        doctorId,
+        location,
+        List.of(Appointment.Status.SCHEDULED, Appointment.Status.RESCHEDULED),
+        LocalDateTime.now()
+    );
 }
 
 
@@ -532,16 +512,22 @@ public void confirmAppointment(Long appointmentId, String doctorId, String zoomL
         throw new AppointmentException("You are not authorized to confirm this appointment");
     }
     
-    // Check if doctor is available during this time slot
-    List<Appointment> overlappingAppointments = appointmentRepository
-        .findOverlappingAppointmentsForConfirmation(
-            appointment.getDoctor(),
+    // Check if doctor is available during this time slot, holding the doctor's schedule until commit
+    bookingLocks.lock(doctorId);
+    boolean overlapsConfirmed = scheduleIndex.hasConfirmedOverlap(
+            doctorId,
             appointment.getStartTime(),
             appointment.getEndTime(),
             appointmentId // exclude current appointment from availability check
-        );
+        )
+        || !appointmentRepository.findOverlappingAppointmentsForConfirmation(
+            appointment.getDoctor(),
+            appointment.getStartTime(),
+            appointment.getEndTime(),
+            appointmentId
+        ).isEmpty();
     
-    if (!overlappingAppointments.isEmpty()) {
+    if (overlapsConfirmed) {
         throw new AppointmentException("Doctor is not available at the selected time slot");
     }
     
@@ -549,11 +535,15 @@ public void confirmAppointment(Long appointmentId, String doctorId, String zoomL
         throw new AppointmentException("Zoom link is required for online appointments");
     }
     
+    Appointment.Status previousStatus = appointment.getStatus();
     appointment.setStatus(Appointment.Status.CONFIRMED);
     appointment.setZoomLink(zoomLink);
     appointment.setUpdatedAt(LocalDateTime.now());
     
     appointmentRepository.save(appointment);
+    scheduleIndex.appointmentChanged(appointment);
+    counterService.appointmentStatusChanged(appointment, previousStatus);
+    reminderScheduler.appointmentChanged(appointment);
     
     // Send confirmation email
     emailService.sendAppointmentConfirmationByDoctor(
@@ -581,9 +571,13 @@ public void confirmAppointment(Long appointmentId, String doctorId, String zoomL
             throw new AppointmentException("Cancellation reason is required");
         }
         
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.CANCELLED);
         appointment.setCancellationReason(cancellationReason);
         appointmentRepository.save(appointment);
+        scheduleIndex.appointmentChanged(appointment);
+        counterService.appointmentStatusChanged(appointment, previousStatus);
+        reminderScheduler.appointmentChanged(appointment);
         emailService.sendAppointmentCancellationByDoctor(
             appointment.getPatient().getEmail(),
             appointment.getPatient().getFirstName() + " " + appointment.getPatient().getLastName(),
@@ -619,9 +613,12 @@ public List<Appointment> getFutureOnlineAppointments(Doctor doctor, LocalDateTim
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
+        Appointment.Status previousStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.COMPLETED);
         Appointment savedAppointment = appointmentRepository.save(appointment);
-
+        scheduleIndex.appointmentChanged(savedAppointment);
+        counterService.appointmentStatusChanged(savedAppointment, previousStatus);
+        reminderScheduler.appointmentChanged(savedAppointment);
 
         return savedAppointment;
     }
@@ -0,0 +1,207 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.BadRequestException;
+import com.example.demo.Models.Doctor;
+import com.example.demo.dto.AvailabilitySearchResultDto;
+import com.example.demo.dto.AvailableSlotDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the earliest free slots across a date range and one, several or all active
+ * doctors. Slots are produced in (start time, doctor id) order by walking the union
+ * of the doctors' slot grids for each day once, asking each doctor's working day
+ * whether a slot starts there and the schedule index whether it is free, so a
+ * page never needs the whole range. Paging is keyset based: the cursor is the
+ * last slot handed out.
+ */
+@Service
+public class AvailabilitySearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilitySearchService.class);
+
+    private final DoctorService doctorService;
+    private final DoctorWorkingHoursService workingHoursService;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final int maxRangeDays;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final long timeBudgetNanos;
+
+    public AvailabilitySearchService(DoctorService doctorService,
+                                     DoctorWorkingHoursService workingHoursService,
+                                     DoctorScheduleIndex scheduleIndex,
+                                     @Value("${app.appointments.search.max-range-days:90}") int maxRangeDays,
+                                     @Value("${app.appointments.search.default-limit:20}") int defaultLimit,
+                                     @Value("${app.appointments.search.max-limit:100}") int maxLimit,
+                                     @Value("${app.appointments.search.time-budget:300ms}") Duration timeBudget) {
+        this.doctorService = doctorService;
+        this.workingHoursService = workingHoursService;
+        this.scheduleIndex = scheduleIndex;
+        this.maxRangeDays = maxRangeDays;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.timeBudgetNanos = timeBudget.toNanos();
+    }
+
+    /**
+     * Search [from, to] for free slots. doctorIds and specialization narrow the
+     * active doctors searched, both are optional.
+     */
+    public AvailabilitySearchResultDto search(LocalDate from, LocalDate to, Collection<String> doctorIds,
+                                              Doctor.Specialization specialization, Integer limit, String cursor) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        LocalDateTime now = LocalDateTime.now();
+
+        LocalDate firstDay = from != null ? from : now.toLocalDate();
+        LocalDate lastDay = to != null ? to : firstDay.plusDays(13);
+        if (lastDay.isBefore(firstDay)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(firstDay, lastDay) >= maxRangeDays) {
+            throw new BadRequestException("Search range is limited to " + maxRangeDays + " days");
+        }
+        int pageSize = limit != null ? limit : defaultLimit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit);
+        }
+
+        List<Doctor> doctors = doctorService.findAllDoctors().stream()
+            .filter(doctor -> doctorIds == null || doctorIds.isEmpty() || doctorIds.contains(doctor.getUserId()))
+            .filter(doctor -> specialization == null || specialization == doctor.getSpecialization())
+            .sorted(Comparator.comparing(Doctor::getUserId))
+            .collect(Collectors.toList());
+        if (doctors.isEmpty()) {
+            return new AvailabilitySearchResultDto(List.of(), null, true);
+        }
+        List<String> ids = doctors.stream().map(Doctor::getUserId).collect(Collectors.toList());
+        workingHoursService.preload(ids);
+
+        SlotKey after = decodeCursor(cursor);
+        LocalDate day = firstDay;
+        if (after != null && after.start.toLocalDate().isAfter(day)) {
+            day = after.start.toLocalDate();
+        }
+        if (day.isBefore(now.toLocalDate())) {
+            day = now.toLocalDate();
+        }
+
+        String lastDoctorId = ids.get(ids.size() - 1);
+        List<AvailableSlotDto> slots = new ArrayList<>();
+        YearMonth preloaded = null;
+        for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            if (!YearMonth.from(day).equals(preloaded)) {
+                preloaded = YearMonth.from(day);
+                scheduleIndex.preload(ids, preloaded);
+            }
+
+            WorkingDay[] workingDays = new WorkingDay[doctors.size()];
+            for (int i = 0; i < doctors.size(); i++) {
+                workingDays[i] = workingHoursService.workingDay(ids.get(i), day);
+            }
+
+            for (int minute = nextSlotStart(workingDays, 0); minute >= 0; minute = nextSlotStart(workingDays, minute + 1)) {
+                LocalDateTime start = day.atStartOfDay().plusMinutes(minute);
+                // Rows the cursor has already covered are skipped before the budget check,
+                // so a resumed search always gets past the row it stopped on
+                if (!start.isAfter(now) || (after != null && !after.isBefore(start, lastDoctorId))) {
+                    continue;
+                }
+                for (int i = 0; i < doctors.size(); i++) {
+                    Doctor doctor = doctors.get(i);
+                    if (!workingDays[i].isSlotStart(minute)
+                            || (after != null && !after.isBefore(start, doctor.getUserId()))) {
+                        continue;
+                    }
+                    LocalDateTime end = start.plusMinutes(workingDays[i].getSlotMinutes());
+                    if (!scheduleIndex.isFree(doctor.getUserId(), start, end, null)) {
+                        continue;
+                    }
+                    if (slots.size() == pageSize) {
+                        // One more slot exists, so hand out a cursor for the next page
+                        AvailableSlotDto last = slots.get(slots.size() - 1);
+                        return new AvailabilitySearchResultDto(slots,
+                            encodeCursor(last.getStartDateTime(), last.getDoctorId()), true);
+                    }
+                    slots.add(new AvailableSlotDto(doctor.getUserId(), doctor.getFullName(),
+                        doctor.getSpecialization().name(), start, end));
+                }
+
+                if (System.nanoTime() > deadline) {
+                    // Everything up to this slot row has been searched, resume after its last doctor
+                    log.debug("Availability search stopped at {} after its time budget, {} slots found", start, slots.size());
+                    return new AvailabilitySearchResultDto(slots, encodeCursor(start, lastDoctorId), false);
+                }
+            }
+        }
+        return new AvailabilitySearchResultDto(slots, null, true);
+    }
+
+    // Earliest minute at or after from where a slot of any of the doctors starts, -1 if none
+    private static int nextSlotStart(WorkingDay[] workingDays, int from) {
+        int next = -1;
+        for (WorkingDay workingDay : workingDays) {
+            int start = workingDay.nextSlotStart(from);
+            if (start >= 0 && (next < 0 || start < next)) {
+                next = start;
+                if (next == from) {
+                    break;
+                }
+            }
+        }
+        return next;
+    }
+
+    private static String encodeCursor(LocalDateTime start, String doctorId) {
+        String raw = start + "|" + doctorId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SlotKey decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new SlotKey(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    private static final class SlotKey {
+        private final LocalDateTime start;
+        private final String doctorId;
+
+        SlotKey(LocalDateTime start, String doctorId) {
+            this.start = start;
+            this.doctorId = doctorId;
+        }
+
+        // Slot order is start time, then doctor id
+        boolean isBefore(LocalDateTime otherStart, String otherDoctorId) {
+            int byStart = start.compareTo(otherStart);
+            return byStart < 0 || (byStart == 0 && doctorId.compareTo(otherDoctorId) < 0);
+        }
+    }
+}
@@ -20,36 +20,87 @@ public class CSVProcessingService {
         "systolicBP", "diastolicBP", "oxygenSaturation", "painLevel"
     );
 
-    public List<VitalSigns> parseCSV(InputStream inputStream) throws IOException {
+    private final ParallelRecordProcessor recordProcessor;
+
+    public CSVProcessingService(ParallelRecordProcessor recordProcessor) {
+        this.recordProcessor = recordProcessor;
+    }
+
+    /**
+     * Callback receiving parsed records one chunk at a time
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+        void onChunk(List<VitalSigns> chunk, int firstRowNumber);
+    }
+
+    /**
+     * Streams the CSV and hands parsed records to the handler in chunks of at most
+     * chunkSize, so only a single chunk is held in memory at any time. Records are
+     * tokenized sequentially, then each chunk is converted in parallel; the first
+     * failing line in file order is reported.
+     * Returns the total number of records parsed.
+     */
+    public int parseCSVInChunks(InputStream inputStream, int chunkSize, ChunkHandler handler) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-             CSVParser parser = CSVParser.parse(reader, CSVFormat.DEFAULT
-                 .withFirstRecordAsHeader()
-                 .withIgnoreHeaderCase()
-                 .withTrim()
-                 .withIgnoreEmptyLines())) {
-            
+             CSVParser parser = openParser(reader)) {
+
             validateHeaders(parser.getHeaderMap().keySet());
-            List<VitalSigns> vitals = new ArrayList<>();
-            int lineNumber = 1; // Header is line 1
+            List<CSVRecord> pending = new ArrayList<>(chunkSize);
+            int recordCount = 0;
+            int chunkFirstRow = 1;
 
             for (CSVRecord record : parser) {
-                lineNumber++;
-                try {
-                    VitalSigns vital = parseRecord(record);
-                    vitals.add(vital);
-                } catch (Exception e) {
-                    String errorMsg = String.format("Error in line %d: %s", lineNumber, e.getMessage());
-                    logger.error(errorMsg);
-                    throw new CSVParseException(errorMsg, e);
+                pending.add(record);
+                recordCount++;
+
+                if (pending.size() == chunkSize) {
+                    handler.onChunk(parseChunk(pending, chunkFirstRow), chunkFirstRow);
+                    pending = new ArrayList<>(chunkSize);
+                    chunkFirstRow = recordCount + 1;
                 }
             }
-            
-            if (vitals.isEmpty()) {
+
+            if (!pending.isEmpty()) {
+                handler.onChunk(parseChunk(pending, chunkFirstRow), chunkFirstRow);
+            }
+
+            if (recordCount == 0) {
                 throw new CSVParseException("CSV file contains no valid data");
             }
-            
-            return vitals;
+
+            return recordCount;
+        }
+    }
+
+    private CSVParser openParser(Reader reader) throws IOException {
+        return CSVParser.parse(reader, CSVFormat.DEFAULT
+            .withFirstRecordAsHeader()
+            .withIgnoreHeaderCase()
+            .withTrim()
+            .withIgnoreEmptyLines());
+    }
+
+    private List<VitalSigns> parseChunk(List<CSVRecord> records, int firstRowNumber) {
+        List<ParallelRecordProcessor.Outcome<VitalSigns>> outcomes =
+            recordProcessor.mapInOrder(records, this::parseRecord);
+
+        List<VitalSigns> vitals = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            ParallelRecordProcessor.Outcome<VitalSigns> outcome = outcomes.get(i);
+            if (outcome.isFailure()) {
+                int lineNumber = firstRowNumber + i + 1; // Header is line 1
+                String errorMsg = String.format("Error in line %d: %s", lineNumber, outcome.getError().getMessage());
+                logger.error(errorMsg);
+                throw new CSVParseException(errorMsg, outcome.getError());
+            }
+            vitals.add(outcome.getValue());
         }
+        return vitals;
     }
 
     private VitalSigns parseRecord(CSVRecord record) {
@@ -0,0 +1,278 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.SyncTokenExpiredException;
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.CalendarFeed;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.Utils.ICalendarWriter;
+import com.example.demo.dto.CalendarEventDto;
+import com.example.demo.dto.CalendarFeedStateDto;
+import com.example.demo.respository.AppointmentRepository;
+import com.example.demo.respository.CalendarFeedRepository;
+import com.example.demo.respository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * iCalendar feeds of a doctor's or patient's appointments from past-days ago on.
+ * A feed is streamed page by page from a keyset-paginated projection query. Its
+ * state (number of appointments in the window and their latest change) comes from
+ * one aggregate query on the calendar index and is used as the ETag, so a client
+ * polling an unchanged feed gets a 304 without the feed being rendered.
+ * Every response carries a sync token; passing it back returns only the events
+ * changed since, cancelled ones included, overlapping by sync-overlap to cover
+ * transactions that committed late. Tokens issued before some of the owner's
+ * appointments were deleted are refused, as deletions cannot be sent as changes.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final int PAGE_SIZE = 500;
+    private static final String PRODUCT_ID = "-//Remote HealthCare Management System//Appointments//EN";
+    private static final String SYNC_TOKEN_VERSION = "1";
+    private static final LocalDateTime EVERYTHING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final Collection<Appointment.Status> LISTED =
+        EnumSet.complementOf(EnumSet.of(Appointment.Status.CANCELLED));
+    private static final Collection<Appointment.Status> ALL = EnumSet.allOf(Appointment.Status.class);
+
+    private final CalendarFeedRepository feedRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final SecureRandom random = new SecureRandom();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final String baseUrl;
+    private final String uidDomain;
+    private final int pastDays;
+    private final Duration syncOverlap;
+    private final Duration refreshInterval;
+
+    public CalendarFeedService(CalendarFeedRepository feedRepository,
+                               AppointmentRepository appointmentRepository,
+                               UserRepository userRepository,
+                               @Value("${app.base-url}") String baseUrl,
+                               @Value("${app.calendar.feed.past-days:90}") int pastDays,
+                               @Value("${app.calendar.feed.sync-overlap:5m}") Duration syncOverlap,
+                               @Value("${app.calendar.feed.refresh-interval:15m}") Duration refreshInterval) {
+        this.feedRepository = feedRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.userRepository = userRepository;
+        this.baseUrl = baseUrl;
+        this.uidDomain = Optional.ofNullable(URI.create(baseUrl).getHost()).orElse("localhost");
+        this.pastDays = pastDays;
+        this.syncOverlap = syncOverlap;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * The user's feed, created on first request
+     */
+    public CalendarFeed feedFor(User user) {
+        return feedRepository.findById(user.getUserId()).orElseGet(() -> {
+            try {
+                return feedRepository.saveAndFlush(new CalendarFeed(user.getUserId(), ownerType(user), newToken()));
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently by another request
+                return feedRepository.findById(user.getUserId()).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    /**
+     * Give the user's feed a new URL; the old one stops working
+     */
+    @Transactional
+    public CalendarFeed rotate(User user) {
+        CalendarFeed feed = feedFor(user);
+        feed.setToken(newToken());
+        return feedRepository.save(feed);
+    }
+
+    public String feedUrl(CalendarFeed feed) {
+        return baseUrl + "/calendar/" + feed.getToken() + ".ics";
+    }
+
+    /**
+     * The feed behind a URL token, if its owner's account is still active
+     */
+    public Optional<CalendarFeed> findActiveFeed(String token) {
+        return feedRepository.findByToken(token)
+            .filter(feed -> userRepository.findById(feed.getUserId()).map(User::isActive).orElse(false));
+    }
+
+    /**
+     * Appointments of these users were deleted, inside the caller's transaction
+     */
+    @Transactional
+    public void appointmentsDeleted(Collection<String> userIds) {
+        if (!userIds.isEmpty()) {
+            feedRepository.markReset(userIds, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * What a request for the feed returns: everything, or the changes since syncToken when given
+     */
+    public Snapshot snapshot(CalendarFeed feed, String syncToken) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = LocalDate.now().minusDays(pastDays).atStartOfDay();
+        LocalDateTime changedSince = syncToken == null ? null : changedSince(feed, syncToken);
+
+        CalendarFeedStateDto state = feed.getOwnerType() == CalendarFeed.OwnerType.DOCTOR
+            ? appointmentRepository.findDoctorCalendarState(feed.getUserId(), windowStart)
+            : appointmentRepository.findPatientCalendarState(feed.getUserId(), windowStart);
+        Instant lastModified = state.getLastModified() == null ? null : state.getLastModified().atZone(zone).toInstant();
+
+        String etag = "W/\"" + state.getEvents() + "-" + (lastModified == null ? 0 : lastModified.toEpochMilli())
+            + "-" + windowStart.toLocalDate() + (syncToken == null ? "" : "-" + syncToken) + "\"";
+        return new Snapshot(feed, windowStart, changedSince, etag, lastModified, syncToken(now));
+    }
+
+    /**
+     * Stream the snapshot's events as an iCalendar document
+     */
+    public void write(Snapshot snapshot, OutputStream out) throws IOException {
+        CalendarFeed feed = snapshot.feed();
+        boolean doctorFeed = feed.getOwnerType() == CalendarFeed.OwnerType.DOCTOR;
+        Collection<Appointment.Status> statuses = snapshot.changedSince() == null ? LISTED : ALL;
+        LocalDateTime changedSince = snapshot.changedSince() == null ? EVERYTHING : snapshot.changedSince();
+
+        ICalendarWriter ics = new ICalendarWriter(out);
+        ics.begin("VCALENDAR")
+            .raw("VERSION", "2.0")
+            .raw("PRODID", PRODUCT_ID)
+            .raw("CALSCALE", "GREGORIAN")
+            .raw("METHOD", "PUBLISH")
+            .text("X-WR-CALNAME", doctorFeed ? "Patient appointments" : "My appointments")
+            .raw("REFRESH-INTERVAL;VALUE=DURATION", refreshInterval.toString())
+            .raw("X-PUBLISHED-TTL", refreshInterval.toString());
+
+        LocalDateTime afterStart = snapshot.windowStart();
+        Long afterId = -1L;
+        List<CalendarEventDto> page;
+        do {
+            PageRequest pageRequest = PageRequest.of(0, PAGE_SIZE);
+            page = doctorFeed
+                ? appointmentRepository.findDoctorCalendarEvents(feed.getUserId(), statuses, changedSince,
+                    afterStart, afterId, pageRequest)
+                : appointmentRepository.findPatientCalendarEvents(feed.getUserId(), statuses, changedSince,
+                    afterStart, afterId, pageRequest);
+            for (CalendarEventDto event : page) {
+                writeEvent(ics, event, doctorFeed);
+            }
+            if (!page.isEmpty()) {
+                afterStart = page.get(page.size() - 1).getStartTime();
+                afterId = page.get(page.size() - 1).getId();
+            }
+            // Send each page as it is rendered
+            ics.flush();
+        } while (page.size() == PAGE_SIZE);
+
+        ics.end("VCALENDAR");
+        ics.flush();
+    }
+
+    private void writeEvent(ICalendarWriter ics, CalendarEventDto event, boolean doctorFeed) throws IOException {
+        Instant updated = event.getUpdatedAt().atZone(zone).toInstant();
+        boolean online = event.getLocation() == Appointment.Location.ONLINE;
+        boolean hasLink = event.getZoomLink() != null && !event.getZoomLink().isBlank();
+
+        StringBuilder description = new StringBuilder();
+        if (event.getReason() != null && !event.getReason().isBlank()) {
+            description.append("Reason: ").append(event.getReason());
+        }
+        if (hasLink) {
+            description.append(description.length() > 0 ? "\n" : "").append("Join: ").append(event.getZoomLink());
+        }
+
+        ics.begin("VEVENT")
+            .raw("UID", "appointment-" + event.getId() + "@" + uidDomain)
+            .dateTime("DTSTAMP", updated)
+            .dateTime("LAST-MODIFIED", updated)
+            .dateTime("DTSTART", event.getStartTime().atZone(zone).toInstant())
+            .dateTime("DTEND", event.getEndTime().atZone(zone).toInstant())
+            .text("SUMMARY", doctorFeed
+                ? "Appointment with " + event.getPatientName()
+                : "Appointment with Dr. " + event.getDoctorName())
+            .text("LOCATION", online ? (hasLink ? event.getZoomLink() : "Online") : "In person")
+            .text("DESCRIPTION", description.length() > 0 ? description.toString() : null)
+            .raw("STATUS", status(event.getStatus()))
+            .end("VEVENT");
+    }
+
+    private static String status(Appointment.Status status) {
+        return switch (status) {
+            case CONFIRMED, COMPLETED -> "CONFIRMED";
+            case CANCELLED -> "CANCELLED";
+            default -> "TENTATIVE";
+        };
+    }
+
+    private String syncToken(LocalDateTime issuedAt) {
+        String token = SYNC_TOKEN_VERSION + ":" + issuedAt.atZone(zone).toInstant().toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The change time a sync token asks for, minus the overlap for late commits
+    private LocalDateTime changedSince(CalendarFeed feed, String syncToken) {
+        LocalDateTime issuedAt;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(syncToken), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 2 || !SYNC_TOKEN_VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unknown sync token version");
+            }
+            issuedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[1])), zone);
+        } catch (IllegalArgumentException e) {
+            throw new SyncTokenExpiredException("Invalid sync token, fetch the full calendar");
+        }
+
+        LocalDateTime changedSince = issuedAt.minus(syncOverlap);
+        if (feed.getResetAt() != null && !feed.getResetAt().isBefore(changedSince)) {
+            throw new SyncTokenExpiredException("Appointments were removed since this sync token, fetch the full calendar");
+        }
+        return changedSince;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static CalendarFeed.OwnerType ownerType(User user) {
+        if (user instanceof Doctor) {
+            return CalendarFeed.OwnerType.DOCTOR;
+        }
+        if (user instanceof Patient) {
+            return CalendarFeed.OwnerType.PATIENT;
+        }
+        throw new IllegalArgumentException("Only doctors and patients have appointment calendars");
+    }
+
+    /**
+     * A feed request resolved against the database: what to stream and its cache validators.
+     * changedSince is null for the full feed.
+     */
+    public record Snapshot(CalendarFeed feed, LocalDateTime windowStart, LocalDateTime changedSince,
+                           String etag, Instant lastModified, String nextSyncToken) {}
+}
@@ -0,0 +1,159 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.EmailOutboxMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in email channel for load tests and offline development. Messages are kept in
+ * a bounded in-memory buffer and optionally written to a directory instead of being
+ * sent. Latency per batch (connection setup) and per message (SMTP DATA), plus a
+ * transient failure rate, can be injected to approximate a real mail server.
+ * Enabled with app.notifications.email.transport=capture.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.email.transport", havingValue = "capture")
+public class CapturingNotificationChannel implements NotificationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapturingNotificationChannel.class);
+
+    private final int maxMessages;
+    private final Path directory;
+    private final Duration batchLatency;
+    private final Duration messageLatency;
+    private final double failureRate;
+    private final Deque<CapturedMessage> captured = new ArrayDeque<>();
+    private final AtomicLong capturedCount = new AtomicLong();
+
+    public CapturingNotificationChannel(@Value("${app.notifications.capture.max-messages:10000}") int maxMessages,
+                                        @Value("${app.notifications.capture.directory:}") String directory,
+                                        @Value("${app.notifications.capture.batch-latency:0ms}") Duration batchLatency,
+                                        @Value("${app.notifications.capture.message-latency:0ms}") Duration messageLatency,
+                                        @Value("${app.notifications.capture.failure-rate:0}") double failureRate) throws IOException {
+        this.maxMessages = Math.max(0, maxMessages);
+        this.directory = StringUtils.hasText(directory) ? Files.createDirectories(Path.of(directory)) : null;
+        this.batchLatency = batchLatency;
+        this.messageLatency = messageLatency;
+        this.failureRate = failureRate;
+        logger.warn("Email delivery is captured, not sent (directory: {})", this.directory);
+    }
+
+    @Override
+    public String getName() {
+        return EMAIL;
+    }
+
+    @Override
+    public List<DeliveryResult> deliver(EmailOutboxMessage.Lane lane, List<EmailOutboxMessage> messages) {
+        pause(batchLatency);
+        List<DeliveryResult> results = new ArrayList<>(messages.size());
+        for (EmailOutboxMessage message : messages) {
+            pause(messageLatency);
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                results.add(DeliveryResult.failed(new IllegalStateException("Injected delivery failure"), false));
+                continue;
+            }
+            capture(new CapturedMessage(message.getId(), lane, message.getRecipient(), message.getSubject(),
+                                        message.getBody(), LocalDateTime.now()));
+            results.add(DeliveryResult.sent());
+        }
+        return results;
+    }
+
+    /**
+     * Most recent captured messages, oldest first
+     */
+    public synchronized List<CapturedMessage> getCaptured() {
+        return new ArrayList<>(captured);
+    }
+
+    public long getCapturedCount() {
+        return capturedCount.get();
+    }
+
+    public synchronized void clear() {
+        captured.clear();
+        capturedCount.set(0);
+    }
+
+    private void capture(CapturedMessage message) {
+        synchronized (this) {
+            if (maxMessages > 0) {
+                if (captured.size() == maxMessages) {
+                    captured.removeFirst();
+                }
+                captured.addLast(message);
+            }
+        }
+        capturedCount.incrementAndGet();
+        if (directory != null) {
+            write(message);
+        }
+    }
+
+    private void write(CapturedMessage message) {
+        String content = "To: " + message.getRecipient() + "\n"
+            + "Subject: " + message.getSubject() + "\n"
+            + "Lane: " + message.getLane() + "\n\n"
+            + message.getBody();
+        try {
+            Files.writeString(directory.resolve(message.getOutboxId() + ".eml"), content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not write captured email {}: {}", message.getOutboxId(), e.getMessage());
+        }
+    }
+
+    private void pause(Duration latency) {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class CapturedMessage {
+        private final Long outboxId;
+        private final EmailOutboxMessage.Lane lane;
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final LocalDateTime capturedAt;
+
+        CapturedMessage(Long outboxId, EmailOutboxMessage.Lane lane, String recipient, String subject,
+                        String body, LocalDateTime capturedAt) {
+            this.outboxId = outboxId;
+            this.lane = lane;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.capturedAt = capturedAt;
+        }
+
+        public Long getOutboxId() { return outboxId; }
+        public EmailOutboxMessage.Lane getLane() { return lane; }
+        public String getRecipient() { return recipient; }
+        public String getSubject() { return subject; }
+        public String getBody() { return body; }
+        public LocalDateTime getCapturedAt() { return capturedAt; }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Alert;
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.DoctorDashboardCounters;
+import com.example.demo.Models.DoctorPatientLink;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.respository.AlertRepository;
+import com.example.demo.respository.AppointmentRepository;
+import com.example.demo.respository.DoctorDashboardCountersRepository;
+import com.example.demo.respository.DoctorPatientLinkRepository;
+import com.example.demo.respository.VitalSignsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Per-doctor dashboard counters (pending vitals and appointment requests, alerts,
+ * patients) kept up to date by the write paths instead of being recounted on every
+ * page load. Each change adds its deltas to the doctor's counters row inside the
+ * changing transaction, so a rollback undoes it too. That update also locks the
+ * row until commit, which serialises the doctor's per-patient link updates.
+ * A doctor's row is created from the source tables the first time it is read,
+ * changes made before that are already in the tables. A scheduled job recomputes
+ * every row to repair drift, e.g. from writes that raced the row's creation.
+ */
+@Service
+public class DashboardCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounterService.class);
+    private static final int RECONCILE_PAGE_SIZE = 200;
+
+    private final DoctorDashboardCountersRepository countersRepository;
+    private final DoctorPatientLinkRepository linkRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final VitalSignsRepository vitalSignsRepository;
+    private final AlertRepository alertRepository;
+    private final TransactionTemplate ownTransaction;
+
+    public DashboardCounterService(DoctorDashboardCountersRepository countersRepository,
+                                   DoctorPatientLinkRepository linkRepository,
+                                   AppointmentRepository appointmentRepository,
+                                   VitalSignsRepository vitalSignsRepository,
+                                   AlertRepository alertRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.countersRepository = countersRepository;
+        this.linkRepository = linkRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.vitalSignsRepository = vitalSignsRepository;
+        this.alertRepository = alertRepository;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The doctor's counters, computed from the source tables on first use
+     */
+    public DoctorDashboardCounters get(String doctorId) {
+        return countersRepository.findById(doctorId).orElseGet(() -> {
+            try {
+                return ownTransaction.execute(status -> recompute(doctorId, true));
+            } catch (DataIntegrityViolationException e) {
+                // Another request created the row first, read it outside our own snapshot
+                return ownTransaction.execute(status -> countersRepository.findById(doctorId).orElseThrow(() -> e));
+            }
+        });
+    }
+
+    /**
+     * An appointment moved from previous (null when it was just booked) to its current status
+     */
+    @Transactional
+    public void appointmentStatusChanged(Appointment appointment, Appointment.Status previous) {
+        Appointment.Status current = appointment.getStatus();
+        if (previous == current) {
+            return;
+        }
+        apply(appointment.getDoctor().getUserId(), appointment.getPatient().getUserId(),
+            0, awaitingDoctor(current) - awaitingDoctor(previous), 0, 0,
+            confirmed(current) - confirmed(previous), 0);
+    }
+
+    /**
+     * Appointments still awaiting the doctor that were cancelled in bulk, as a count per doctor
+     */
+    @Transactional
+    public void appointmentRequestsCancelled(Map<String, Integer> cancelledPerDoctor) {
+        // Always lock counter rows in doctor id order, so two bulk updates cannot deadlock
+        for (String doctorId : new TreeSet<>(cancelledPerDoctor.keySet())) {
+            apply(doctorId, null, 0, -cancelledPerDoctor.get(doctorId), 0, 0, 0, 0);
+        }
+    }
+
+    @Transactional
+    public void vitalsStored(String doctorId, String patientId, Collection<VitalSigns> vitals) {
+        long requested = vitals.stream().filter(vital -> vital.getStatus() == VitalSigns.Status.REQUESTED).count();
+        apply(doctorId, patientId, requested, 0, 0, 0, 0, requested);
+    }
+
+    /**
+     * A vitals reading went from REQUESTED to REVIEWED
+     */
+    @Transactional
+    public void vitalsReviewed(String doctorId, String patientId) {
+        apply(doctorId, patientId, -1, 0, 0, 0, 0, -1);
+    }
+
+    @Transactional
+    public void alertCreated(Alert alert) {
+        if (alert.getDoctor() == null) {
+            return;
+        }
+        apply(alert.getDoctor().getUserId(), null, 0, 0, alert.isAcknowledged() ? 0 : 1, 1, 0, 0);
+    }
+
+    @Transactional
+    public void alertsAcknowledged(String doctorId, int count) {
+        apply(doctorId, null, 0, 0, -count, 0, 0, 0);
+    }
+
+    /**
+     * Recompute these doctors' counters inside the caller's transaction, for changes
+     * too broad to express as deltas (e.g. deleting a patient's appointments)
+     */
+    @Transactional
+    public void recompute(Collection<String> doctorIds) {
+        for (String doctorId : new TreeSet<>(doctorIds)) {
+            recompute(doctorId, false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.counters.reconcile-interval-ms:900000}",
+               initialDelayString = "${app.dashboard.counters.reconcile-initial-delay-ms:120000}")
+    public void reconcileAll() {
+        String after = "";
+        int reconciled = 0;
+        List<String> doctorIds;
+        do {
+            doctorIds = countersRepository.findDoctorIdsAfter(after, PageRequest.of(0, RECONCILE_PAGE_SIZE));
+            for (String doctorId : doctorIds) {
+                ownTransaction.executeWithoutResult(status -> recompute(doctorId, false));
+                reconciled++;
+            }
+            if (!doctorIds.isEmpty()) {
+                after = doctorIds.get(doctorIds.size() - 1);
+            }
+        } while (doctorIds.size() == RECONCILE_PAGE_SIZE);
+
+        log.debug("Reconciled dashboard counters of {} doctors", reconciled);
+    }
+
+    private void apply(String doctorId, String patientId, long pendingVitals, long pendingAppointments,
+                       long unacknowledgedAlerts, long totalAlerts, long confirmedAppointments, long requestedVitals) {
+        if (doctorId == null || (pendingVitals == 0 && pendingAppointments == 0 && unacknowledgedAlerts == 0
+                && totalAlerts == 0 && confirmedAppointments == 0 && requestedVitals == 0)) {
+            return;
+        }
+        if (countersRepository.add(doctorId, pendingVitals, pendingAppointments, unacknowledgedAlerts,
+                totalAlerts, 0) == 0) {
+            // No row yet, it is computed from the tables on first read
+            return;
+        }
+        if (patientId == null || (confirmedAppointments == 0 && requestedVitals == 0)) {
+            return;
+        }
+
+        DoctorPatientLink link = linkRepository.findByDoctorIdAndPatientId(doctorId, patientId)
+            .orElseGet(() -> new DoctorPatientLink(doctorId, patientId));
+        boolean wasActive = link.isActive();
+        link.setConfirmedAppointments(Math.max(0, link.getConfirmedAppointments() + confirmedAppointments));
+        link.setRequestedVitals(Math.max(0, link.getRequestedVitals() + requestedVitals));
+
+        if (link.isActive()) {
+            linkRepository.save(link);
+        } else if (link.getId() != null) {
+            linkRepository.delete(link);
+        }
+        if (link.isActive() != wasActive) {
+            countersRepository.add(doctorId, 0, 0, 0, 0, link.isActive() ? 1 : -1);
+        }
+    }
+
+    // Locks the doctor's row and resets it and the doctor's patient links from the source tables
+    private DoctorDashboardCounters recompute(String doctorId, boolean createIfMissing) {
+        DoctorDashboardCounters counters = countersRepository.lockByDoctorId(doctorId).orElse(null);
+        if (counters == null) {
+            if (!createIfMissing) {
+                return null;
+            }
+            counters = new DoctorDashboardCounters(doctorId);
+        }
+
+        Map<String, DoctorPatientLink> links = new HashMap<>();
+        for (Object[] row : appointmentRepository.countConfirmedByPatient(doctorId)) {
+            links.computeIfAbsent((String) row[0], patientId -> new DoctorPatientLink(doctorId, patientId))
+                .setConfirmedAppointments((Long) row[1]);
+        }
+        long pendingVitals = 0;
+        for (Object[] row : vitalSignsRepository.countByPatientForDoctorAndStatus(doctorId, VitalSigns.Status.REQUESTED)) {
+            links.computeIfAbsent((String) row[0], patientId -> new DoctorPatientLink(doctorId, patientId))
+                .setRequestedVitals((Long) row[1]);
+            pendingVitals += (Long) row[1];
+        }
+        long patients = links.size();
+
+        for (DoctorPatientLink existing : linkRepository.findByDoctorId(doctorId)) {
+            DoctorPatientLink expected = links.remove(existing.getPatientId());
+            if (expected == null) {
+                linkRepository.delete(existing);
+            } else {
+                existing.setConfirmedAppointments(expected.getConfirmedAppointments());
+                existing.setRequestedVitals(expected.getRequestedVitals());
+            }
+        }
+        linkRepository.saveAll(links.values());
+
+        long pendingAppointments = appointmentRepository.countByDoctorUserIdAndStatusIn(doctorId,
+            List.of(Appointment.Status.SCHEDULED, Appointment.Status.RESCHEDULED));
+        long unacknowledgedAlerts = alertRepository.countByDoctorUserIdAndAcknowledgedFalse(doctorId);
+        long totalAlerts = alertRepository.countByDoctorUserId(doctorId);
+
+        if (counters.getReconciledAt() != null && (counters.getPendingVitalsRequests() != pendingVitals
+                || counters.getPendingAppointmentRequests() != pendingAppointments
+                || counters.getUnacknowledgedAlerts() != unacknowledgedAlerts
+                || counters.getTotalAlerts() != totalAlerts || counters.getPatients() != patients)) {
+            log.warn("Dashboard counters of doctor {} had drifted: vitals {}->{}, appointments {}->{}, " +
+                    "unacknowledged alerts {}->{}, alerts {}->{}, patients {}->{}", doctorId,
+                counters.getPendingVitalsRequests(), pendingVitals,
+                counters.getPendingAppointmentRequests(), pendingAppointments,
+                counters.getUnacknowledgedAlerts(), unacknowledgedAlerts,
+                counters.getTotalAlerts(), totalAlerts, counters.getPatients(), patients);
+        }
+
+        counters.setPendingVitalsRequests(pendingVitals);
+        counters.setPendingAppointmentRequests(pendingAppointments);
+        counters.setUnacknowledgedAlerts(unacknowledgedAlerts);
+        counters.setTotalAlerts(totalAlerts);
+        counters.setPatients(patients);
+        counters.setReconciledAt(LocalDateTime.now());
+        return countersRepository.save(counters);
+    }
+
+    private static long awaitingDoctor(Appointment.Status status) {
+        return status == Appointment.Status.SCHEDULED || status == Appointment.Status.RESCHEDULED ? 1 : 0;
+    }
+
+    private static long confirmed(Appointment.Status status) {
+        return status == Appointment.Status.CONFIRMED ? 1 : 0;
+    }
+}
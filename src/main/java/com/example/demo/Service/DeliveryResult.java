@@ -0,0 +1,32 @@
+package com.example.demo.Service;
+
+/**
+ * Outcome of handing one outbox message to a notification channel
+ */
+public final class DeliveryResult {
+
+    private static final DeliveryResult SENT = new DeliveryResult(null, false);
+
+    private final Exception error;
+    private final boolean permanent;
+
+    private DeliveryResult(Exception error, boolean permanent) {
+        this.error = error;
+        this.permanent = permanent;
+    }
+
+    public static DeliveryResult sent() {
+        return SENT;
+    }
+
+    /**
+     * @param permanent true if retrying cannot succeed, e.g. a rejected address
+     */
+    public static DeliveryResult failed(Exception error, boolean permanent) {
+        return new DeliveryResult(error, permanent);
+    }
+
+    public boolean isSent() { return error == null; }
+    public Exception getError() { return error; }
+    public boolean isPermanent() { return permanent; }
+}
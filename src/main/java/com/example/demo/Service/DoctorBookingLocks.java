@@ -0,0 +1,61 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.AppointmentException;
+import com.example.demo.Utils.TransactionCallbacks;
+import com.example.demo.respository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialises schedule writes per doctor so the availability check and the insert
+ * of a booking, reschedule or confirmation cannot interleave with another one for
+ * the same doctor. Doctors hash onto a fixed set of lock stripes, bookings for
+ * doctors on different stripes run fully in parallel. The stripe is held until
+ * the transaction completes, after DoctorScheduleIndex has applied the change,
+ * and the doctor's row is locked as well so other instances wait too.
+ */
+@Component
+public class DoctorBookingLocks {
+
+    private final DoctorRepository doctorRepository;
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+
+    public DoctorBookingLocks(DoctorRepository doctorRepository,
+                              @Value("${app.appointments.booking.lock-stripes:256}") int stripes,
+                              @Value("${app.appointments.booking.lock-timeout:5s}") Duration timeout) {
+        this.doctorRepository = doctorRepository;
+        this.stripes = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Lock the doctor's schedule until the current transaction commits or rolls back
+     */
+    public void lock(String doctorId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Doctor schedule locks must be taken inside a transaction");
+        }
+
+        ReentrantLock stripe = stripes[Math.floorMod(doctorId.hashCode(), stripes.length)];
+        try {
+            if (!stripe.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new AppointmentException("The doctor's schedule is busy, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppointmentException("Interrupted while waiting for the doctor's schedule");
+        }
+
+        TransactionCallbacks.afterCompletion(stripe::unlock);
+        doctorRepository.lockByUserId(doctorId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.Service;
+
+import com.example.demo.dto.DoctorDashboardStatsDto;
+import com.example.demo.respository.AppointmentRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Counts for the doctor dashboard cards. Running totals are read from the doctor's
+ * counters row, the figures that depend on the time of day come from a single
+ * aggregate query over today's and upcoming appointments.
+ */
+@Service
+public class DoctorDashboardStatsService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final DashboardCounterService counterService;
+
+    public DoctorDashboardStatsService(AppointmentRepository appointmentRepository,
+                                       DashboardCounterService counterService) {
+        this.appointmentRepository = appointmentRepository;
+        this.counterService = counterService;
+    }
+
+    public DoctorDashboardStatsDto getDashboardStats(String doctorId) {
+        LocalDate today = LocalDate.now();
+        return appointmentRepository.computeScheduleStats(doctorId, LocalDateTime.now(),
+                today.atStartOfDay(), today.atTime(LocalTime.MAX))
+            .withCounters(counterService.get(doctorId));
+    }
+}
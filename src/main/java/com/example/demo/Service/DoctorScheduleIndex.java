@@ -0,0 +1,380 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Appointment;
+import com.example.demo.Utils.TransactionCallbacks;
+import com.example.demo.respository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of every doctor's appointments, used for availability and
+ * overlap checks instead of querying the appointments table per request.
+ * Each day is a minute-resolution bitmap of the time taken by non-cancelled
+ * appointments. A doctor's months are loaded lazily from the database and
+ * reloaded after the configured TTL, which also picks up writes made by other
+ * nodes. Local changes are applied once the surrounding transaction commits.
+ */
+@Component
+public class DoctorScheduleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorScheduleIndex.class);
+
+    private static final int PRELOAD_CHUNK = 500;
+
+    private final AppointmentRepository appointmentRepository;
+    private final long ttlNanos;
+    private final Map<String, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+
+    public DoctorScheduleIndex(AppointmentRepository appointmentRepository,
+                               @Value("${app.appointments.schedule-index.ttl:10m}") Duration ttl) {
+        this.appointmentRepository = appointmentRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * True if no non-cancelled appointment of the doctor overlaps [start, end),
+     * ignoring excludeAppointmentId (the appointment being moved) when given
+     */
+    public boolean isFree(String doctorId, LocalDateTime start, LocalDateTime end, Long excludeAppointmentId) {
+        DoctorSchedule schedule = schedule(doctorId);
+        synchronized (schedule) {
+            for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+                ensureLoaded(schedule, YearMonth.from(date));
+                DaySchedule day = schedule.days.get(date);
+                if (day != null && day.isBusy(firstMinute(date, start), lastMinute(date, end), excludeAppointmentId)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * True if a confirmed appointment other than excludeAppointmentId overlaps [start, end)
+     */
+    public boolean hasConfirmedOverlap(String doctorId, LocalDateTime start, LocalDateTime end,
+                                       Long excludeAppointmentId) {
+        DoctorSchedule schedule = schedule(doctorId);
+        synchronized (schedule) {
+            for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+                ensureLoaded(schedule, YearMonth.from(date));
+                DaySchedule day = schedule.days.get(date);
+                if (day == null) {
+                    continue;
+                }
+                for (Entry entry : day.entries) {
+                    if (entry.status == Appointment.Status.CONFIRMED && !entry.isAppointment(excludeAppointmentId)
+                            && entry.start.isBefore(end) && entry.end.isAfter(start)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Non-cancelled appointments of the doctor that start on the given date, ordered by start time
+     */
+    public List<Entry> bookedOn(String doctorId, LocalDate date, Long excludeAppointmentId) {
+        DoctorSchedule schedule = schedule(doctorId);
+        synchronized (schedule) {
+            ensureLoaded(schedule, YearMonth.from(date));
+            DaySchedule day = schedule.days.get(date);
+            List<Entry> booked = new ArrayList<>();
+            if (day != null) {
+                for (Entry entry : day.entries) {
+                    if (entry.blocksTime() && entry.start.toLocalDate().equals(date)
+                            && !entry.isAppointment(excludeAppointmentId)) {
+                        booked.add(entry);
+                    }
+                }
+                booked.sort((a, b) -> a.start.compareTo(b.start));
+            }
+            return booked;
+        }
+    }
+
+    /**
+     * Record a booked, moved or re-statused appointment. Inside a transaction the
+     * change is applied after commit, so a rollback never leaks into the index.
+     */
+    public void appointmentChanged(Appointment appointment) {
+        appointmentChanged(appointment.getDoctor().getUserId(), appointment.getId(), appointment.getStartTime(),
+                appointment.getEndTime(), appointment.getStatus());
+    }
+
+    /**
+     * Same as appointmentChanged(Appointment), for bulk updates that bypass the entity
+     */
+    public void appointmentChanged(String doctorId, Long appointmentId, LocalDateTime start, LocalDateTime end,
+                                   Appointment.Status status) {
+        Entry entry = new Entry(appointmentId, start, end, status);
+        TransactionCallbacks.afterCommit(() -> apply(doctorId, entry));
+    }
+
+    /**
+     * Load one month for many doctors with a single query, so a search across all
+     * doctors does not pay one round trip per doctor. Doctors whose schedule
+     * changed while the query ran are left to the regular per-doctor load.
+     */
+    public void preload(Collection<String> doctorIds, YearMonth month) {
+        Map<String, Long> pending = new HashMap<>();
+        for (String doctorId : doctorIds) {
+            DoctorSchedule schedule = schedule(doctorId);
+            synchronized (schedule) {
+                if (!schedule.isFresh(month, System.nanoTime(), ttlNanos)) {
+                    pending.put(doctorId, schedule.changes);
+                }
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Entry>> rowsByDoctor = new HashMap<>();
+        List<String> ids = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < ids.size(); from += PRELOAD_CHUNK) {
+            List<Object[]> rows = appointmentRepository.findScheduleRows(
+                    ids.subList(from, Math.min(ids.size(), from + PRELOAD_CHUNK)),
+                    month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+            for (Object[] row : rows) {
+                rowsByDoctor.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add(new Entry(
+                        (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3], (Appointment.Status) row[4]));
+            }
+        }
+
+        long now = System.nanoTime();
+        for (Map.Entry<String, Long> doctor : pending.entrySet()) {
+            DoctorSchedule schedule = schedule(doctor.getKey());
+            synchronized (schedule) {
+                if (schedule.changes != doctor.getValue() || schedule.isFresh(month, now, ttlNanos)) {
+                    continue;
+                }
+                if (schedule.loadedMonths.containsKey(month)) {
+                    schedule.removeMonth(month);
+                }
+                rowsByDoctor.getOrDefault(doctor.getKey(), List.of()).forEach(schedule::add);
+                schedule.loadedMonths.put(month, now);
+            }
+        }
+        log.debug("Preloaded {} for {} doctors", month, pending.size());
+    }
+
+    /**
+     * Drop everything cached for a doctor, the next lookup reloads from the database
+     */
+    public void invalidate(String doctorId) {
+        schedules.remove(doctorId);
+    }
+
+    /**
+     * For bulk deletes that leave no entity to pass to appointmentChanged. The doctors
+     * are dropped again after commit, a lookup in between may have reloaded the old rows.
+     */
+    public void appointmentsDeleted(Collection<String> doctorIds) {
+        doctorIds.forEach(this::invalidate);
+        TransactionCallbacks.afterCommit(() -> doctorIds.forEach(this::invalidate));
+    }
+
+    void apply(String doctorId, Entry entry) {
+        DoctorSchedule schedule = schedules.get(doctorId);
+        if (schedule == null) {
+            return;
+        }
+        synchronized (schedule) {
+            schedule.remove(entry.appointmentId);
+            // Months that are not loaded yet will read this change from the database
+            if (schedule.loadedMonths.containsKey(YearMonth.from(entry.start))) {
+                schedule.add(entry);
+            }
+            schedule.changes++;
+        }
+    }
+
+    private DoctorSchedule schedule(String doctorId) {
+        return schedules.computeIfAbsent(doctorId, DoctorSchedule::new);
+    }
+
+    // Called with the schedule's monitor held, so concurrent changes wait for the load to finish
+    private void ensureLoaded(DoctorSchedule schedule, YearMonth month) {
+        long now = System.nanoTime();
+        if (schedule.isFresh(month, now, ttlNanos)) {
+            return;
+        }
+        if (schedule.loadedMonths.containsKey(month)) {
+            schedule.removeMonth(month);
+        }
+
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        List<Appointment> appointments = appointmentRepository
+                .findByDoctorUserIdAndStartTimeBetween(schedule.doctorId, from, to);
+        for (Appointment appointment : appointments) {
+            // Between is inclusive, the first minute of next month belongs to that month
+            if (appointment.getStartTime().isBefore(to)) {
+                schedule.add(new Entry(appointment.getId(), appointment.getStartTime(),
+                        appointment.getEndTime(), appointment.getStatus()));
+            }
+        }
+        schedule.loadedMonths.put(month, now);
+        log.debug("Loaded {} appointments of doctor {} for {}", appointments.size(), schedule.doctorId, month);
+    }
+
+    private static int firstMinute(LocalDate date, LocalDateTime start) {
+        return start.isBefore(date.atStartOfDay()) ? 0 : minuteOfDay(start.toLocalTime());
+    }
+
+    // Exclusive, so an appointment ending at 10:00 leaves the 10:00 minute free
+    private static int lastMinute(LocalDate date, LocalDateTime end) {
+        return end.isBefore(date.plusDays(1).atStartOfDay()) ? minuteOfDay(end.toLocalTime()) : MinuteBitmap.MINUTES_PER_DAY;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * One appointment as seen by the index
+     */
+    public static final class Entry {
+        private final Long appointmentId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Appointment.Status status;
+
+        Entry(Long appointmentId, LocalDateTime start, LocalDateTime end, Appointment.Status status) {
+            this.appointmentId = appointmentId;
+            this.start = start;
+            this.end = end;
+            this.status = status;
+        }
+
+        public Long getAppointmentId() { return appointmentId; }
+        public LocalDateTime getStart() { return start; }
+        public LocalDateTime getEnd() { return end; }
+        public Appointment.Status getStatus() { return status; }
+
+        boolean isAppointment(Long id) {
+            return id != null && id.equals(appointmentId);
+        }
+
+        boolean blocksTime() {
+            return status != Appointment.Status.CANCELLED;
+        }
+    }
+
+    private static final class DoctorSchedule {
+        private final String doctorId;
+        private final Map<YearMonth, Long> loadedMonths = new HashMap<>();
+        private final Map<Long, Entry> entriesById = new HashMap<>();
+        private final TreeMap<LocalDate, DaySchedule> days = new TreeMap<>();
+        // Bumped on every applied change, lets preload spot a query that raced with one
+        private long changes;
+
+        DoctorSchedule(String doctorId) {
+            this.doctorId = doctorId;
+        }
+
+        boolean isFresh(YearMonth month, long now, long ttlNanos) {
+            Long loadedAt = loadedMonths.get(month);
+            return loadedAt != null && now - loadedAt < ttlNanos;
+        }
+
+        void add(Entry entry) {
+            entriesById.put(entry.appointmentId, entry);
+            for (LocalDate date = entry.start.toLocalDate(); date.atStartOfDay().isBefore(entry.end);
+                 date = date.plusDays(1)) {
+                days.computeIfAbsent(date, DaySchedule::new).add(entry,
+                        firstMinute(date, entry.start), lastMinute(date, entry.end));
+            }
+        }
+
+        void remove(Long appointmentId) {
+            Entry entry = entriesById.remove(appointmentId);
+            if (entry == null) {
+                return;
+            }
+            for (LocalDate date = entry.start.toLocalDate(); date.atStartOfDay().isBefore(entry.end);
+                 date = date.plusDays(1)) {
+                DaySchedule day = days.get(date);
+                if (day != null && day.remove(entry)) {
+                    days.remove(date);
+                }
+            }
+        }
+
+        void removeMonth(YearMonth month) {
+            List<Long> stale = new ArrayList<>();
+            for (Entry entry : entriesById.values()) {
+                if (YearMonth.from(entry.start).equals(month)) {
+                    stale.add(entry.appointmentId);
+                }
+            }
+            stale.forEach(this::remove);
+            loadedMonths.remove(month);
+        }
+    }
+
+    /**
+     * The appointments touching one day and a bitmap with one bit per busy minute
+     */
+    private static final class DaySchedule {
+        private final LocalDate date;
+        private final List<Entry> entries = new ArrayList<>(4);
+        private final long[] busy = MinuteBitmap.newDay();
+
+        DaySchedule(LocalDate date) {
+            this.date = date;
+        }
+
+        void add(Entry entry, int from, int to) {
+            entries.add(entry);
+            if (entry.blocksTime()) {
+                MinuteBitmap.setRange(busy, from, to);
+            }
+        }
+
+        // Overlapping appointments share bits, so the bitmap is rebuilt from what is left
+        boolean remove(Entry entry) {
+            entries.remove(entry);
+            rebuild(busy, null);
+            return entries.isEmpty();
+        }
+
+        boolean isBusy(int from, int to, Long excludeAppointmentId) {
+            long[] bits = busy;
+            if (excludeAppointmentId != null
+                    && entries.stream().anyMatch(entry -> entry.isAppointment(excludeAppointmentId))) {
+                bits = MinuteBitmap.newDay();
+                rebuild(bits, excludeAppointmentId);
+            }
+            return MinuteBitmap.anySet(bits, from, to);
+        }
+
+        private void rebuild(long[] bits, Long excludeAppointmentId) {
+            Arrays.fill(bits, 0L);
+            for (Entry entry : entries) {
+                if (entry.blocksTime() && !entry.isAppointment(excludeAppointmentId)) {
+                    MinuteBitmap.setRange(bits, firstMinute(date, entry.start), lastMinute(date, entry.end));
+                }
+            }
+        }
+    }
+}
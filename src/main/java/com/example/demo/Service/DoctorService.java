@@ -52,6 +52,12 @@ public class DoctorService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private DoctorScheduleIndex scheduleIndex;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
     public List<Doctor> findAllDoctors() {
@@ -111,9 +117,12 @@ public class DoctorService {
                 .findByDoctorAndStartTimeAfter(doctor, LocalDateTime.now());
 
         for (Appointment appointment : futureAppointments) {
+            Appointment.Status previousStatus = appointment.getStatus();
             appointment.setStatus(Appointment.Status.CANCELLED);
             appointment.setCancellationReason("Doctor no longer available");
             appointmentRepository.save(appointment);
+            counterService.appointmentStatusChanged(appointment, previousStatus);
+            scheduleIndex.appointmentChanged(appointment);
 
             emailService.sendAppointmentCancellationNotification(
                     appointment.getPatient().getEmail(),
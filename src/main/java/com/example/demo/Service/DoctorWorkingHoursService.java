@@ -0,0 +1,336 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.BadRequestException;
+import com.example.demo.Exceptions.ResourceNotFoundException;
+import com.example.demo.Models.DoctorWorkingHours;
+import com.example.demo.Models.WorkingHoursOverride;
+import com.example.demo.Utils.TransactionCallbacks;
+import com.example.demo.dto.WorkingHoursDto;
+import com.example.demo.dto.WorkingHoursOverrideDto;
+import com.example.demo.respository.DoctorWorkingHoursRepository;
+import com.example.demo.respository.WorkingHoursOverrideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Doctors' working hours, the one source of the bookable time used by booking,
+ * rescheduling, availability and search. A doctor's weekly template and upcoming
+ * exceptions are compiled into WorkingDay bitmaps when first needed and kept for
+ * the configured TTL; identical days are compiled once and shared across doctors,
+ * so a lookup is a map read whatever the templates look like. Local changes drop
+ * the doctor's compiled days once the surrounding transaction commits.
+ */
+@Service
+public class DoctorWorkingHoursService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorWorkingHoursService.class);
+    private static final int MIN_SLOT_MINUTES = 5;
+    private static final int MAX_SLOT_MINUTES = 240;
+
+    private final DoctorWorkingHoursRepository workingHoursRepository;
+    private final WorkingHoursOverrideRepository overrideRepository;
+    private final List<DoctorWorkingHours.Period> defaultPeriods;
+    private final int defaultSlotMinutes;
+    private final long ttlNanos;
+    private final Map<String, CompiledHours> doctors = new ConcurrentHashMap<>();
+    private final Map<WorkingDay, WorkingDay> compiledDays = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so hours read before a change committed are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DoctorWorkingHoursService(DoctorWorkingHoursRepository workingHoursRepository,
+                                     WorkingHoursOverrideRepository overrideRepository,
+                                     @Value("${app.appointments.working-hours.default-shifts:09:00-17:00}") List<String> defaultShifts,
+                                     @Value("${app.appointments.working-hours.default-breaks:13:00-14:00}") List<String> defaultBreaks,
+                                     @Value("${app.appointments.working-hours.default-slot:30m}") Duration defaultSlot,
+                                     @Value("${app.appointments.working-hours.ttl:10m}") Duration ttl) {
+        this.workingHoursRepository = workingHoursRepository;
+        this.overrideRepository = overrideRepository;
+        this.defaultSlotMinutes = checkSlotMinutes((int) defaultSlot.toMinutes());
+        this.ttlNanos = ttl.toNanos();
+
+        // The default hours apply on every day of the week
+        List<DoctorWorkingHours.Period> periods = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            defaultShifts.forEach(range -> periods.add(period(day, DoctorWorkingHours.Kind.SHIFT, range)));
+            defaultBreaks.forEach(range -> periods.add(period(day, DoctorWorkingHours.Kind.BREAK, range)));
+        }
+        this.defaultPeriods = List.copyOf(periods);
+    }
+
+    /**
+     * The doctor's compiled hours on a date
+     */
+    public WorkingDay workingDay(String doctorId, LocalDate date) {
+        CompiledHours hours = doctors.get(doctorId);
+        if (hours == null || !hours.isFresh(System.nanoTime(), ttlNanos)) {
+            hours = load(doctorId);
+        }
+        return hours.on(date);
+    }
+
+    /**
+     * Load many doctors' hours with two queries, so a search across all doctors
+     * does not pay a round trip per doctor
+     */
+    public void preload(Collection<String> doctorIds) {
+        long now = System.nanoTime();
+        long generation = invalidations.get();
+        List<String> stale = doctorIds.stream()
+            .filter(id -> {
+                CompiledHours hours = doctors.get(id);
+                return hours == null || !hours.isFresh(now, ttlNanos);
+            })
+            .collect(Collectors.toList());
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        Map<String, DoctorWorkingHours> templates = workingHoursRepository.findAllById(stale).stream()
+            .collect(Collectors.toMap(DoctorWorkingHours::getDoctorId, template -> template));
+        Map<String, List<WorkingHoursOverride>> overrides = overrideRepository
+            .findByDoctorIdInAndDateGreaterThanEqual(stale, LocalDate.now()).stream()
+            .collect(Collectors.groupingBy(WorkingHoursOverride::getDoctorId));
+        if (invalidations.get() != generation) {
+            return;
+        }
+        for (String doctorId : stale) {
+            doctors.put(doctorId, compile(templates.get(doctorId), overrides.getOrDefault(doctorId, List.of()), now));
+        }
+        log.debug("Preloaded working hours of {} doctors", stale.size());
+    }
+
+    public WorkingHoursDto getWorkingHours(String doctorId) {
+        DoctorWorkingHours template = workingHoursRepository.findById(doctorId).orElse(null);
+        List<DoctorWorkingHours.Period> periods = template != null ? template.getPeriods() : defaultPeriods;
+        return new WorkingHoursDto(template != null ? template.getSlotMinutes() : defaultSlotMinutes,
+            periods.stream()
+                .map(period -> new WorkingHoursDto.Period(period.getDayOfWeek().name(), period.getKind().name(),
+                    period.getStartTime().toString(), period.getEndTime().toString()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Replace the doctor's weekly template. Existing appointments are left as they are.
+     */
+    @Transactional
+    public WorkingHoursDto saveWorkingHours(String doctorId, WorkingHoursDto request) {
+        int slotMinutes = checkSlotMinutes(request.getSlotMinutes() != null ? request.getSlotMinutes() : defaultSlotMinutes);
+        List<DoctorWorkingHours.Period> periods = new ArrayList<>();
+        for (WorkingHoursDto.Period period : request.getPeriods() != null ? request.getPeriods() : List.<WorkingHoursDto.Period>of()) {
+            DayOfWeek day = parseEnum(DayOfWeek.class, period.getDayOfWeek(), "dayOfWeek");
+            DoctorWorkingHours.Kind kind = parseEnum(DoctorWorkingHours.Kind.class, period.getKind(), "kind");
+            LocalTime[] range = parseRange(period.getStart(), period.getEnd());
+            periods.add(new DoctorWorkingHours.Period(day, kind, range[0], range[1]));
+        }
+
+        DoctorWorkingHours template = workingHoursRepository.findById(doctorId)
+            .orElseGet(() -> new DoctorWorkingHours(doctorId, slotMinutes, List.of()));
+        template.setSlotMinutes(slotMinutes);
+        template.setPeriods(periods);
+        workingHoursRepository.save(template);
+        invalidateAfterCommit(doctorId);
+        return getWorkingHours(doctorId);
+    }
+
+    public List<WorkingHoursOverrideDto> getOverrides(String doctorId) {
+        return overrideRepository.findByDoctorIdAndDateGreaterThanEqualOrderByDateAsc(doctorId, LocalDate.now())
+            .stream()
+            .map(DoctorWorkingHoursService::toDto)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public WorkingHoursOverrideDto addOverride(String doctorId, WorkingHoursOverrideDto request) {
+        LocalDate date;
+        try {
+            date = LocalDate.parse(String.valueOf(request.getDate()));
+        } catch (DateTimeException e) {
+            throw new BadRequestException("date must be yyyy-MM-dd", e);
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new BadRequestException("date must not be in the past");
+        }
+        WorkingHoursOverride.Kind kind = parseEnum(WorkingHoursOverride.Kind.class, request.getKind(), "kind");
+        LocalTime[] range = request.getStart() == null && request.getEnd() == null && kind == WorkingHoursOverride.Kind.CLOSED
+            ? new LocalTime[2]
+            : parseRange(request.getStart(), request.getEnd());
+
+        WorkingHoursOverride saved = overrideRepository.save(
+            new WorkingHoursOverride(doctorId, date, kind, range[0], range[1], request.getReason()));
+        invalidateAfterCommit(doctorId);
+        return toDto(saved);
+    }
+
+    @Transactional
+    public void deleteOverride(String doctorId, Long overrideId) {
+        WorkingHoursOverride override = overrideRepository.findByIdAndDoctorId(overrideId, doctorId)
+            .orElseThrow(() -> new ResourceNotFoundException("Working hours exception not found"));
+        overrideRepository.delete(override);
+        invalidateAfterCommit(doctorId);
+    }
+
+    /**
+     * Drop the doctor's compiled hours, the next lookup reloads them from the database
+     */
+    public void invalidate(String doctorId) {
+        invalidations.incrementAndGet();
+        doctors.remove(doctorId);
+    }
+
+    private void invalidateAfterCommit(String doctorId) {
+        TransactionCallbacks.afterCommit(() -> invalidate(doctorId));
+    }
+
+    private CompiledHours load(String doctorId) {
+        long now = System.nanoTime();
+        long generation = invalidations.get();
+        CompiledHours hours = compile(workingHoursRepository.findById(doctorId).orElse(null),
+            overrideRepository.findByDoctorIdAndDateGreaterThanEqualOrderByDateAsc(doctorId, LocalDate.now()), now);
+        if (invalidations.get() == generation) {
+            doctors.put(doctorId, hours);
+        }
+        return hours;
+    }
+
+    private CompiledHours compile(DoctorWorkingHours template, List<WorkingHoursOverride> overrides, long loadedAt) {
+        List<DoctorWorkingHours.Period> periods = template != null ? template.getPeriods() : defaultPeriods;
+        int slotMinutes = template != null ? template.getSlotMinutes() : defaultSlotMinutes;
+
+        WorkingDay[] week = new WorkingDay[7];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            week[day.ordinal()] = intern(compileDay(periods, day, List.of()), slotMinutes);
+        }
+
+        Map<LocalDate, WorkingDay> byDate = new HashMap<>();
+        overrides.stream()
+            .collect(Collectors.groupingBy(WorkingHoursOverride::getDate))
+            .forEach((date, onDate) ->
+                byDate.put(date, intern(compileDay(periods, date.getDayOfWeek(), onDate), slotMinutes)));
+        return new CompiledHours(week, byDate, loadedAt);
+    }
+
+    // Shifts, less breaks, plus extra hours, less time off
+    private static long[] compileDay(List<DoctorWorkingHours.Period> periods, DayOfWeek day,
+                                     List<WorkingHoursOverride> overrides) {
+        long[] open = MinuteBitmap.newDay();
+        for (DoctorWorkingHours.Period period : periods) {
+            if (period.getDayOfWeek() == day && period.getKind() == DoctorWorkingHours.Kind.SHIFT) {
+                MinuteBitmap.setRange(open, minute(period.getStartTime()), minute(period.getEndTime()));
+            }
+        }
+        for (DoctorWorkingHours.Period period : periods) {
+            if (period.getDayOfWeek() == day && period.getKind() == DoctorWorkingHours.Kind.BREAK) {
+                MinuteBitmap.clearRange(open, minute(period.getStartTime()), minute(period.getEndTime()));
+            }
+        }
+        for (WorkingHoursOverride override : overrides) {
+            if (override.getKind() == WorkingHoursOverride.Kind.OPEN && !override.isWholeDay()) {
+                MinuteBitmap.setRange(open, minute(override.getStartTime()), minute(override.getEndTime()));
+            }
+        }
+        for (WorkingHoursOverride override : overrides) {
+            if (override.getKind() == WorkingHoursOverride.Kind.CLOSED) {
+                MinuteBitmap.clearRange(open, override.isWholeDay() ? 0 : minute(override.getStartTime()),
+                    override.isWholeDay() ? MinuteBitmap.MINUTES_PER_DAY : minute(override.getEndTime()));
+            }
+        }
+        return open;
+    }
+
+    private WorkingDay intern(long[] open, int slotMinutes) {
+        WorkingDay day = new WorkingDay(open, slotMinutes);
+        if (day.isClosed()) {
+            return WorkingDay.CLOSED;
+        }
+        WorkingDay shared = compiledDays.putIfAbsent(day, day);
+        return shared != null ? shared : day;
+    }
+
+    private static int minute(LocalTime time) {
+        return WorkingDay.minuteOfDay(time);
+    }
+
+    private static int checkSlotMinutes(int slotMinutes) {
+        if (slotMinutes < MIN_SLOT_MINUTES || slotMinutes > MAX_SLOT_MINUTES) {
+            throw new BadRequestException("slotMinutes must be between " + MIN_SLOT_MINUTES + " and " + MAX_SLOT_MINUTES);
+        }
+        return slotMinutes;
+    }
+
+    private static DoctorWorkingHours.Period period(DayOfWeek day, DoctorWorkingHours.Kind kind, String range) {
+        String[] times = range.trim().split("-");
+        if (times.length != 2) {
+            throw new IllegalArgumentException("Working hours must be given as HH:mm-HH:mm, got " + range);
+        }
+        LocalTime[] parsed = parseRange(times[0], times[1]);
+        return new DoctorWorkingHours.Period(day, kind, parsed[0], parsed[1]);
+    }
+
+    private static LocalTime[] parseRange(String start, String end) {
+        LocalTime from;
+        LocalTime to;
+        try {
+            from = LocalTime.parse(String.valueOf(start).trim());
+            to = LocalTime.parse(String.valueOf(end).trim());
+        } catch (DateTimeException e) {
+            throw new BadRequestException("start and end must be HH:mm", e);
+        }
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("start must be before end");
+        }
+        return new LocalTime[] {from, to};
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, String.valueOf(value).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + field + ": " + value, e);
+        }
+    }
+
+    private static WorkingHoursOverrideDto toDto(WorkingHoursOverride override) {
+        return new WorkingHoursOverrideDto(override.getId(), override.getDate().toString(), override.getKind().name(),
+            override.getStartTime() != null ? override.getStartTime().toString() : null,
+            override.getEndTime() != null ? override.getEndTime().toString() : null,
+            override.getReason());
+    }
+
+    private static final class CompiledHours {
+        private final WorkingDay[] week;
+        private final Map<LocalDate, WorkingDay> overrides;
+        private final long loadedAt;
+
+        CompiledHours(WorkingDay[] week, Map<LocalDate, WorkingDay> overrides, long loadedAt) {
+            this.week = week;
+            this.overrides = overrides;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isFresh(long now, long ttlNanos) {
+            return now - loadedAt < ttlNanos;
+        }
+
+        WorkingDay on(LocalDate date) {
+            WorkingDay day = overrides.get(date);
+            return day != null ? day : week[date.getDayOfWeek().ordinal()];
+        }
+    }
+}
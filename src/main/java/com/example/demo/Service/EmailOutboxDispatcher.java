@@ -0,0 +1,254 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.EmailOutboxMessage;
+import com.example.demo.respository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the email outbox in the background. The EMERGENCY and ROUTINE lanes each
+ * have their own polling thread and batch size, and channels keep per-lane senders,
+ * so emergency alerts never wait behind a backlog of routine mail. Each due message
+ * is claimed with a conditional update so concurrent dispatchers never send it twice,
+ * then claimed messages are handed to their NotificationChannel in batches and
+ * marked SENT. Failures are retried with exponential backoff
+ * until max-attempts, after which the message is parked as DEAD for manual follow-up.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final Map<String, NotificationChannel> channels = new HashMap<>();
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    private final Duration sentRetention;
+    private final List<LaneWorker> lanes;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 List<NotificationChannel> channels,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${app.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                 @Value("${app.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 @Value("${app.mail.outbox.claim-timeout:5m}") Duration claimTimeout,
+                                 @Value("${app.mail.outbox.sent-retention:7d}") Duration sentRetention,
+                                 @Value("${app.mail.lanes.emergency.batch-size:10}") int emergencyBatchSize,
+                                 @Value("${app.mail.lanes.emergency.poll-interval-ms:250}") long emergencyPollInterval,
+                                 @Value("${app.mail.lanes.routine.batch-size:50}") int routineBatchSize,
+                                 @Value("${app.mail.lanes.routine.poll-interval-ms:1000}") long routinePollInterval) {
+        this.outboxRepository = outboxRepository;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+        this.sentRetention = sentRetention;
+        for (NotificationChannel channel : channels) {
+            this.channels.put(channel.getName(), channel);
+        }
+        this.lanes = List.of(
+            new LaneWorker(EmailOutboxMessage.Lane.EMERGENCY, emergencyBatchSize, emergencyPollInterval, meterRegistry),
+            new LaneWorker(EmailOutboxMessage.Lane.ROUTINE, routineBatchSize, routinePollInterval, meterRegistry));
+
+        Gauge.builder("email.outbox.messages", outboxRepository,
+                      repository -> repository.countByStatus(EmailOutboxMessage.Status.DEAD))
+             .tag("status", "dead")
+             .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lanes.forEach(LaneWorker::start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        lanes.forEach(LaneWorker::stop);
+    }
+
+    /**
+     * Messages left SENDING by a dispatcher that died mid-send go back to their lane
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.release-interval-ms:60000}")
+    public void releaseStaleClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(claimTimeout);
+        int dead = outboxRepository.killStaleClaims(cutoff, "Dispatcher stopped while sending", maxAttempts);
+        if (dead > 0) {
+            logger.error("Gave up on {} outbox emails left in SENDING after their last attempt", dead);
+        }
+        int released = outboxRepository.releaseStaleClaims(cutoff, now, maxAttempts);
+        if (released > 0) {
+            logger.warn("Re-queued {} outbox emails left in SENDING by an interrupted dispatcher", released);
+        }
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 30 3 * * ?}")
+    public void purgeSent() {
+        int purged = outboxRepository.deleteSentBefore(LocalDateTime.now().minus(sentRetention));
+        if (purged > 0) {
+            logger.info("Purged {} delivered outbox emails", purged);
+        }
+    }
+
+    /**
+     * Delay before the given attempt: initial-backoff doubled per attempt, capped at max-backoff
+     */
+    Duration backoff(int attempt) {
+        int doublings = Math.min(attempt - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * Polling thread and metrics for one lane
+     */
+    private final class LaneWorker {
+        private final EmailOutboxMessage.Lane lane;
+        private final int batchSize;
+        private final long pollIntervalMillis;
+        private final ScheduledExecutorService poller;
+
+        private final Counter sentCounter;
+        private final Counter retriedCounter;
+        private final Counter deadCounter;
+        private final Timer timeToSend;
+
+        LaneWorker(EmailOutboxMessage.Lane lane, int batchSize, long pollIntervalMillis, MeterRegistry meterRegistry) {
+            String name = lane.name().toLowerCase();
+            this.lane = lane;
+            this.batchSize = Math.max(1, batchSize);
+            this.pollIntervalMillis = Math.max(10, pollIntervalMillis);
+            this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "outbox-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            this.sentCounter = meterRegistry.counter("email.outbox.delivered", "lane", name, "result", "sent");
+            this.retriedCounter = meterRegistry.counter("email.outbox.delivered", "lane", name, "result", "retry");
+            this.deadCounter = meterRegistry.counter("email.outbox.delivered", "lane", name, "result", "dead");
+            this.timeToSend = Timer.builder("email.outbox.time-to-send")
+                .description("Time from queueing an email to the SMTP server accepting it")
+                .tag("lane", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+            Gauge.builder("email.outbox.queue.depth", outboxRepository,
+                          repository -> repository.countByStatusAndLane(EmailOutboxMessage.Status.PENDING, lane))
+                 .tag("lane", name)
+                 .register(meterRegistry);
+        }
+
+        void start() {
+            poller.scheduleWithFixedDelay(this::dispatchDue, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        void stop() {
+            poller.shutdownNow();
+        }
+
+        private void dispatchDue() {
+            try {
+                List<Long> dueIds;
+                do {
+                    dueIds = outboxRepository.findDueIds(lane, LocalDateTime.now(), PageRequest.of(0, batchSize));
+                    List<Long> claimedIds = new ArrayList<>(dueIds.size());
+                    for (Long id : dueIds) {
+                        if (outboxRepository.claim(id, LocalDateTime.now()) == 1) {
+                            claimedIds.add(id);
+                        }
+                    }
+                    if (!claimedIds.isEmpty()) {
+                        deliver(outboxRepository.findAllById(claimedIds));
+                    }
+                } while (dueIds.size() == batchSize);
+            } catch (RuntimeException e) {
+                // Keep polling; an exception would cancel the scheduled task
+                logger.error("Outbox dispatch failed for the {} lane: {}", lane, e.getMessage(), e);
+            }
+        }
+
+        private void deliver(List<EmailOutboxMessage> messages) {
+            Map<String, List<EmailOutboxMessage>> byChannel = new HashMap<>();
+            for (EmailOutboxMessage message : messages) {
+                byChannel.computeIfAbsent(message.getChannel(), name -> new ArrayList<>()).add(message);
+            }
+
+            // Each channel's results are saved before the next channel runs, so a later
+            // failure cannot leave already delivered messages in SENDING to be sent again
+            for (Map.Entry<String, List<EmailOutboxMessage>> entry : byChannel.entrySet()) {
+                List<EmailOutboxMessage> batch = entry.getValue();
+                NotificationChannel channel = channels.get(entry.getKey());
+                if (channel == null) {
+                    IllegalStateException error = new IllegalStateException("No notification channel named " + entry.getKey());
+                    batch.forEach(message -> recordFailure(message, error, true));
+                    outboxRepository.saveAll(batch);
+                    continue;
+                }
+
+                List<DeliveryResult> results;
+                try {
+                    results = channel.deliver(lane, batch);
+                } catch (RuntimeException e) {
+                    logger.error("{} channel failed on a batch of {} {} outbox emails: {}",
+                                 entry.getKey(), batch.size(), lane, e.getMessage(), e);
+                    batch.forEach(message -> recordFailure(message, e, false));
+                    outboxRepository.saveAll(batch);
+                    continue;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    DeliveryResult result = results.get(i);
+                    EmailOutboxMessage message = batch.get(i);
+                    if (result.isSent()) {
+                        message.markSent(LocalDateTime.now());
+                        sentCounter.increment();
+                        timeToSend.record(Duration.between(message.getCreatedAt(), message.getSentAt()));
+                    } else {
+                        recordFailure(message, result.getError(), result.isPermanent());
+                    }
+                }
+                outboxRepository.saveAll(batch);
+            }
+        }
+
+        private void recordFailure(EmailOutboxMessage message, Exception e, boolean permanent) {
+            LocalDateTime retryAt = permanent || message.getAttempts() + 1 >= maxAttempts
+                ? null
+                : LocalDateTime.now().plus(backoff(message.getAttempts() + 1));
+            message.markFailed(e.getMessage(), retryAt);
+            if (retryAt == null) {
+                deadCounter.increment();
+                logger.error("Giving up on {} outbox email {} to {} after {} attempts",
+                             lane, message.getId(), message.getRecipient(), message.getAttempts(), e);
+            } else {
+                retriedCounter.increment();
+                logger.warn("{} outbox email {} to {} failed (attempt {}), retrying at {}: {}",
+                            lane, message.getId(), message.getRecipient(), message.getAttempts(), retryAt, e.getMessage());
+            }
+        }
+    }
+}
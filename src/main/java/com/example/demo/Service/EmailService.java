@@ -1,18 +1,13 @@
 package com.example.demo.Service;
 
+import com.example.demo.Models.EmailOutboxMessage;
 import com.example.demo.Models.VerificationToken;
 import com.example.demo.dto.PatientRegistrationRequest;
+import com.example.demo.respository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -26,17 +21,14 @@ import java.util.List;
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository outboxRepository;
 
     @Autowired
-    private TemplateEngine templateEngine;
+    private TemplateRenderer templateRenderer;
 
     @Value("${app.base-url}")
     private String baseUrl;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
     /**
      * Main email dispatcher for all email types
      */
@@ -171,7 +163,8 @@ public void sendCriticalConditionAlert(String patientEmail, int criticalRecordsC
             patientEmail,
             "Urgent: Critical Vital Signs Detected",
             "email/critical_condition_alert",
-            variables
+            variables,
+            EmailOutboxMessage.Lane.EMERGENCY
         );
     } catch (Exception e) {
         throw new EmailException("Failed to send critical condition alert to " + patientEmail, e);
@@ -194,7 +187,8 @@ public void sendCriticalConditionDoctorAlert(String doctorEmail, String patientN
             doctorEmail,
             "URGENT: Critical Vital Signs for " + patientName,
             "email/critical_condition_doctor_alert",
-            variables
+            variables,
+            EmailOutboxMessage.Lane.EMERGENCY
         );
     } catch (Exception e) {
         throw new EmailException("Failed to send critical condition doctor alert to " + doctorEmail, e);
@@ -254,25 +248,21 @@ public void sendDoctorAppointmentNotification(String doctorEmail, String doctorN
     }
 }
     /**
-     * Core email sending method
+     * Core email sending method. The message is rendered here and queued in the outbox,
+     * joining the caller's transaction if there is one; EmailOutboxDispatcher delivers it.
+     * Emergency and critical alerts use the EMERGENCY lane, everything else ROUTINE.
      */
-    private void sendEmail(String to, String subject, String templateName, 
-                         Map<String, Object> variables) 
-        throws MessagingException, UnsupportedEncodingException {
-        
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    private void sendEmail(String to, String subject, String templateName,
+                         Map<String, Object> variables) {
+        sendEmail(to, subject, templateName, variables, EmailOutboxMessage.Lane.ROUTINE);
+    }
 
-        Context context = new Context();
-        context.setVariables(variables);
-        String htmlContent = templateEngine.process(templateName, context);
+    private void sendEmail(String to, String subject, String templateName,
+                         Map<String, Object> variables, EmailOutboxMessage.Lane lane) {
 
-        helper.setFrom(fromEmail, "Healthcare Platform");
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
+        String htmlContent = templateRenderer.render(templateName, variables);
 
-        mailSender.send(message);
+        outboxRepository.save(new EmailOutboxMessage(to, subject, templateName, htmlContent, lane));
     }
 
     private String buildVerificationUrl(String token) {
@@ -417,7 +407,8 @@ public void sendEmergencyAlertToDoctor(String doctorEmail,
             doctorEmail,
             "URGENT: Emergency Alert from " + patientName,
             "email/emergency_doctor_alert",
-            variables
+            variables,
+            EmailOutboxMessage.Lane.EMERGENCY
         );
     } catch (Exception e) {
         throw new EmailException("Failed to send emergency alert to doctor " + doctorEmail, e);
@@ -447,7 +438,8 @@ public void sendEmergencyAlertSentConfirmation(String patientEmail,
             patientEmail,
             "Emergency Alert Sent to Dr. " + doctorName,
             "email/emergency_patient_confirmation",
-            variables
+            variables,
+            EmailOutboxMessage.Lane.EMERGENCY
         );
     } catch (Exception e) {
         throw new EmailException("Failed to send emergency confirmation to " + patientEmail, e);
@@ -475,7 +467,8 @@ public void sendEmergencyContactAlert(String emergencyContactEmail,
             emergencyContactEmail,
             "URGENT: Health Alert for " + patientName,
             "email/emergency_contact_alert",
-            variables
+            variables,
+            EmailOutboxMessage.Lane.EMERGENCY
         );
     } catch (Exception e) {
         throw new EmailException("Failed to send emergency contact alert to " + emergencyContactEmail, e);
@@ -511,7 +504,8 @@ public void sendCriticalVitalsEmergencyContactAlert(String emergencyContactEmail
             emergencyContactEmail,
             "URGENT: Critical Health Alert for " + patientName,
             "email/critical_vitals_emergency_contact",
-            variables
+            variables,
+            EmailOutboxMessage.Lane.EMERGENCY
         );
     } catch (Exception e) {
         throw new EmailException("Failed to send critical vitals alert to emergency contact " + emergencyContactEmail, e);
@@ -520,6 +514,46 @@ public void sendCriticalVitalsEmergencyContactAlert(String emergencyContactEmail
 
 
 
+/**
+ * Send several coalesced vitals notifications as one digest
+ * @param recipientName Name for the greeting, null to use a generic one
+ * @param dashboardPath Dashboard link for the recipient, null for emergency contacts
+ * @param uploads Upload events (patientName, recordsCount, time)
+ * @param criticalEvents Critical events (patientName, criticalCount, alerts, time)
+ */
+public void sendVitalsNotificationDigest(String email,
+                                         String recipientName,
+                                         String dashboardPath,
+                                         List<Map<String, Object>> uploads,
+                                         List<Map<String, Object>> criticalEvents) {
+    try {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("recipientName", recipientName);
+        variables.put("uploads", uploads);
+        variables.put("criticalEvents", criticalEvents);
+        variables.put("dashboardUrl", dashboardPath != null ? baseUrl + dashboardPath : null);
+        variables.put("emergencyContact", "Call 911 or your nearest emergency service");
+        variables.put("supportContact", "support@healthcare.com");
+
+        int updates = uploads.size() + criticalEvents.size();
+        String subject = criticalEvents.isEmpty()
+            ? "Vital Signs Update Summary (" + updates + " updates)"
+            : "URGENT: Critical Vital Signs Detected (" + updates + " updates)";
+
+        sendEmail(
+            email,
+            subject,
+            "email/vitals_notification_digest",
+            variables,
+            criticalEvents.isEmpty() ? EmailOutboxMessage.Lane.ROUTINE : EmailOutboxMessage.Lane.EMERGENCY
+        );
+    } catch (Exception e) {
+        throw new EmailException("Failed to send vitals notification digest to " + email, e);
+    }
+}
+
+
+
 /**
  * Send appointment cancellation notification to patient
  */
@@ -678,6 +712,36 @@ public void sendAppointmentConfirmationByDoctor(String patientEmail, String pati
     }
 }
 
+/**
+ * Send a reminder to the patient ahead of a confirmed appointment
+ */
+public void sendAppointmentReminder(String patientEmail, String patientName,
+                                    String doctorName, LocalDateTime appointmentTime,
+                                    Duration duration, String location, String zoomLink) {
+    try {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("patientName", patientName);
+        variables.put("doctorName", doctorName);
+        variables.put("appointmentDate", appointmentTime.toLocalDate());
+        variables.put("appointmentTime", appointmentTime.toLocalTime());
+        variables.put("duration", duration.toMinutes());
+        variables.put("location", location);
+        variables.put("dashboardUrl", baseUrl + "/patient/dashboard");
+        variables.put("isOnline", zoomLink != null && !zoomLink.isBlank());
+        variables.put("zoomLink", zoomLink);
+
+        sendEmail(
+            patientEmail,
+            "Reminder: Your Appointment with Dr. " + doctorName + " on "
+                + appointmentTime.format(DateTimeFormatter.ofPattern("MMMM dd 'at' hh:mm a")),
+            "email/appointment_reminder",
+            variables
+        );
+    } catch (Exception e) {
+        throw new EmailException("Failed to send appointment reminder to " + patientEmail, e);
+    }
+}
+
 /**
  * Send appointment cancellation notification to patient when doctor cancels
  */
@@ -0,0 +1,189 @@
+package com.example.demo.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck): LEVELS wheels of SLOTS buckets,
+ * each level's bucket spanning a full rotation of the level below. A timer is kept
+ * in the coarsest level that still tells it apart from the current tick, and moved
+ * down a level when its bucket comes round, so adding, cancelling and expiring a
+ * timer are O(1) whatever the number of pending timers. Not thread-safe; callers
+ * synchronise.
+ */
+class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Bucket[][] levels = new Bucket[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (Bucket[] level : levels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * How far ahead of the current tick a timer can be set
+     */
+    long rangeMillis() {
+        return ((1L << (SLOT_BITS * LEVELS)) - 1) * tickMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedule task to expire at deadlineMillis, or on the next tick if that has passed
+     */
+    Timeout<T> add(long deadlineMillis, T task) {
+        Timeout<T> timeout = new Timeout<>(Math.max(deadlineMillis / tickMillis, currentTick), task);
+        if (timeout.deadlineTick - currentTick > (1L << (SLOT_BITS * LEVELS)) - 1) {
+            throw new IllegalArgumentException("Deadline is beyond the wheel's range of " + rangeMillis() + " ms");
+        }
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Remove a timer that has not expired yet; cancelling it again is a no-op
+     */
+    void cancel(Timeout<T> timeout) {
+        if (timeout.bucket != null) {
+            timeout.bucket.remove(timeout);
+            size--;
+        }
+    }
+
+    /**
+     * Advance the wheel to nowMillis and return the tasks that expired on the way, in deadline order
+     */
+    List<T> advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        // A timer added at the current tick has not been collected yet
+        expire(levels[0][(int) (currentTick & SLOT_MASK)], expired);
+
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(levels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)]);
+            }
+            expire(levels[0][(int) (currentTick & SLOT_MASK)], expired);
+        }
+        return expired;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        levels[level][(int) ((timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)].append(timeout);
+    }
+
+    // Moves every timer of a coarse bucket that just came round into the finer levels
+    @SuppressWarnings("unchecked")
+    private void cascade(Bucket bucket) {
+        Timeout<T> timeout = (Timeout<T>) bucket.head;
+        while (timeout != null) {
+            Timeout<T> next = (Timeout<T>) timeout.next;
+            bucket.remove(timeout);
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expire(Bucket bucket, List<T> expired) {
+        Timeout<T> timeout = (Timeout<T>) bucket.head;
+        while (timeout != null) {
+            Timeout<T> next = (Timeout<T>) timeout.next;
+            bucket.remove(timeout);
+            size--;
+            expired.add(timeout.task);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Handle of a scheduled task, used to cancel it
+     */
+    static final class Timeout<T> {
+        private final long deadlineTick;
+        private final T task;
+        private Bucket bucket;
+        private Timeout<?> prev;
+        private Timeout<?> next;
+
+        private Timeout(long deadlineTick, T task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        T task() {
+            return task;
+        }
+
+        boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    // Intrusive doubly linked list, so a timer is unlinked without searching its bucket
+    private static final class Bucket {
+        private Timeout<?> head;
+        private Timeout<?> tail;
+
+        void append(Timeout<?> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<?> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.Service;
+
+/**
+ * Helpers for day bitmaps with one bit per minute, bit n of word n / 64 standing for minute n
+ */
+final class MinuteBitmap {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) / 64;
+
+    private MinuteBitmap() {
+    }
+
+    static long[] newDay() {
+        return new long[WORDS_PER_DAY];
+    }
+
+    static void setRange(long[] bits, int from, int to) {
+        for (int minute = from; minute < to; ) {
+            int word = minute >>> 6;
+            int upto = Math.min(to, (word + 1) << 6);
+            bits[word] |= mask(minute, upto);
+            minute = upto;
+        }
+    }
+
+    static void clearRange(long[] bits, int from, int to) {
+        for (int minute = from; minute < to; ) {
+            int word = minute >>> 6;
+            int upto = Math.min(to, (word + 1) << 6);
+            bits[word] &= ~mask(minute, upto);
+            minute = upto;
+        }
+    }
+
+    static boolean anySet(long[] bits, int from, int to) {
+        for (int minute = from; minute < to; ) {
+            int word = minute >>> 6;
+            int upto = Math.min(to, (word + 1) << 6);
+            if ((bits[word] & mask(minute, upto)) != 0) {
+                return true;
+            }
+            minute = upto;
+        }
+        return false;
+    }
+
+    static boolean allSet(long[] bits, int from, int to) {
+        for (int minute = from; minute < to; ) {
+            int word = minute >>> 6;
+            int upto = Math.min(to, (word + 1) << 6);
+            long mask = mask(minute, upto);
+            if ((bits[word] & mask) != mask) {
+                return false;
+            }
+            minute = upto;
+        }
+        return true;
+    }
+
+    /**
+     * First set minute at or after from, -1 if there is none
+     */
+    static int nextSet(long[] bits, int from) {
+        if (from >= MINUTES_PER_DAY) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long current = bits[word] & (-1L << (from & 63));
+        while (current == 0) {
+            if (++word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+    }
+
+    /**
+     * First clear minute at or after from, MINUTES_PER_DAY if the rest of the day is set
+     */
+    static int nextClear(long[] bits, int from) {
+        if (from >= MINUTES_PER_DAY) {
+            return MINUTES_PER_DAY;
+        }
+        int word = from >>> 6;
+        long current = ~bits[word] & (-1L << (from & 63));
+        while (current == 0) {
+            if (++word == bits.length) {
+                return MINUTES_PER_DAY;
+            }
+            current = ~bits[word];
+        }
+        return Math.min(MINUTES_PER_DAY, (word << 6) + Long.numberOfTrailingZeros(current));
+    }
+
+    // Bits [from, to) within the 64-minute word that contains from
+    private static long mask(int from, int to) {
+        int width = to - from;
+        long ones = width == 64 ? -1L : (1L << width) - 1;
+        return ones << (from & 63);
+    }
+}
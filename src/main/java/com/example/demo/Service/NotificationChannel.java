@@ -0,0 +1,25 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.EmailOutboxMessage;
+
+import java.util.List;
+
+/**
+ * A transport that outbox messages are delivered through. EmailOutboxDispatcher routes
+ * each message to the channel whose name matches the message's channel column, so a
+ * new channel (SMS, push) only needs a bean implementing this and rows queued with its
+ * name; existing callers and the email channel are unaffected.
+ */
+public interface NotificationChannel {
+
+    String EMAIL = "email";
+
+    String getName();
+
+    /**
+     * Deliver a batch for one lane and return one result per message, in input order.
+     * Called from that lane's dispatcher thread only; lanes must not share resources
+     * that would let one lane's backlog delay another.
+     */
+    List<DeliveryResult> deliver(EmailOutboxMessage.Lane lane, List<EmailOutboxMessage> messages);
+}
@@ -0,0 +1,209 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.EmailException;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.PendingNotification;
+import com.example.demo.respository.PendingNotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces the vitals upload notifications per recipient. Events are stored instead
+ * of mailed and each recipient's pending events are sent together once the oldest
+ * one is due: routine events wait up to the coalescing window, critical events at
+ * most critical-max-delay (plus one poll interval), and anything already pending for
+ * that recipient goes out with them. A lone event is sent with its usual template,
+ * several are merged into one digest email.
+ */
+@Service
+public class NotificationCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCoalescer.class);
+    private static final TypeReference<List<List<String>>> ALERT_GROUPS = new TypeReference<>() {};
+
+    private final PendingNotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate flushTransaction;
+    private final Duration window;
+    private final Duration criticalMaxDelay;
+
+    public NotificationCoalescer(PendingNotificationRepository notificationRepository,
+                                 EmailService emailService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.notifications.coalesce.window:10m}") Duration window,
+                                 @Value("${app.notifications.coalesce.critical-max-delay:30s}") Duration criticalMaxDelay) {
+        this.notificationRepository = notificationRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.window = window;
+        this.criticalMaxDelay = criticalMaxDelay.compareTo(window) < 0 ? criticalMaxDelay : window;
+    }
+
+    /**
+     * Upload confirmation for the patient and new-readings notice for the doctor
+     */
+    public void vitalsUploaded(Patient patient, Doctor doctor, int recordsCount) {
+        LocalDateTime now = LocalDateTime.now();
+
+        PendingNotification confirmation = event(patient.getEmail(), PendingNotification.Kind.UPLOAD_CONFIRMATION, now);
+        confirmation.setRecordsCount(recordsCount);
+
+        PendingNotification doctorNotice = event(doctor.getEmail(), PendingNotification.Kind.DOCTOR_UPLOAD, now);
+        doctorNotice.setPatientName(patient.getFullName());
+        doctorNotice.setRecordsCount(recordsCount);
+
+        notificationRepository.saveAll(List.of(confirmation, doctorNotice));
+    }
+
+    /**
+     * Critical alerts for the patient, the doctor and the emergency contact if there is one
+     */
+    public void criticalVitalsDetected(Patient patient, Doctor doctor, int criticalCount, List<List<String>> alerts) {
+        LocalDateTime now = LocalDateTime.now();
+        String alertsJson = toJson(alerts);
+        List<PendingNotification> events = new ArrayList<>(3);
+
+        PendingNotification patientAlert = event(patient.getEmail(), PendingNotification.Kind.PATIENT_CRITICAL, now);
+        events.add(patientAlert);
+
+        PendingNotification doctorAlert = event(doctor.getEmail(), PendingNotification.Kind.DOCTOR_CRITICAL, now);
+        events.add(doctorAlert);
+
+        if (patient.getEmergencyContact() != null && patient.getEmergencyContact().getEmail() != null) {
+            PendingNotification contactAlert = event(patient.getEmergencyContact().getEmail(),
+                    PendingNotification.Kind.EMERGENCY_CONTACT_CRITICAL, now);
+            contactAlert.setRecipientName(patient.getEmergencyContact().getName());
+            events.add(contactAlert);
+        }
+
+        for (PendingNotification event : events) {
+            event.setPatientName(patient.getFullName());
+            event.setCriticalCount(criticalCount);
+            event.setAlerts(alertsJson);
+        }
+        notificationRepository.saveAll(events);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.coalesce.poll-interval-ms:5000}")
+    public void flushDue() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String recipient : notificationRepository.findRecipientsDue(now)) {
+            try {
+                flushTransaction.executeWithoutResult(status -> flush(recipient, now));
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush notifications for {}: {}", recipient, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void flush(String recipient, LocalDateTime now) {
+        List<PendingNotification> events = notificationRepository.lockByRecipient(recipient);
+        boolean due = events.stream().anyMatch(event -> !event.getDueAt().isAfter(now));
+        if (!due) {
+            return;
+        }
+
+        try {
+            if (events.size() == 1) {
+                sendSingle(events.get(0));
+            } else {
+                sendDigest(recipient, events);
+            }
+            logger.debug("Flushed {} notifications for {}", events.size(), recipient);
+        } catch (EmailException e) {
+            // Rendering fails the same way on every attempt, so the events are dropped
+            logger.error("Dropping {} notifications for {}: {}", events.size(), recipient, e.getMessage(), e);
+        }
+        notificationRepository.deleteAll(events);
+    }
+
+    private void sendSingle(PendingNotification event) {
+        String recipient = event.getRecipient();
+        switch (event.getKind()) {
+            case UPLOAD_CONFIRMATION ->
+                emailService.sendVitalsUploadConfirmation(recipient, event.getRecordsCount());
+            case DOCTOR_UPLOAD ->
+                emailService.sendDoctorVitalsNotification(recipient, event.getPatientName(), event.getRecordsCount());
+            case PATIENT_CRITICAL ->
+                emailService.sendCriticalConditionAlert(recipient, event.getCriticalCount(), alerts(event));
+            case DOCTOR_CRITICAL ->
+                emailService.sendCriticalConditionDoctorAlert(recipient, event.getPatientName(),
+                        event.getCriticalCount(), alerts(event));
+            case EMERGENCY_CONTACT_CRITICAL ->
+                emailService.sendCriticalVitalsEmergencyContactAlert(recipient, event.getRecipientName(),
+                        event.getPatientName(), alerts(event), event.getCreatedAt());
+        }
+    }
+
+    private void sendDigest(String recipient, List<PendingNotification> events) {
+        List<Map<String, Object>> uploads = new ArrayList<>();
+        List<Map<String, Object>> criticalEvents = new ArrayList<>();
+        String recipientName = null;
+        String dashboardPath = null;
+
+        for (PendingNotification event : events) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("patientName", event.getKind() == PendingNotification.Kind.UPLOAD_CONFIRMATION
+                    || event.getKind() == PendingNotification.Kind.PATIENT_CRITICAL ? null : event.getPatientName());
+            item.put("time", event.getCreatedAt());
+            if (event.getKind().isCritical()) {
+                item.put("criticalCount", event.getCriticalCount());
+                item.put("alerts", alerts(event));
+                criticalEvents.add(item);
+            } else {
+                item.put("recordsCount", event.getRecordsCount());
+                uploads.add(item);
+            }
+
+            switch (event.getKind()) {
+                case UPLOAD_CONFIRMATION, PATIENT_CRITICAL -> dashboardPath = "/patient/dashboard";
+                case DOCTOR_UPLOAD, DOCTOR_CRITICAL -> dashboardPath = "/doctor/dashboard";
+                case EMERGENCY_CONTACT_CRITICAL -> recipientName = event.getRecipientName();
+            }
+        }
+        emailService.sendVitalsNotificationDigest(recipient, recipientName, dashboardPath, uploads, criticalEvents);
+    }
+
+    private PendingNotification event(String recipient, PendingNotification.Kind kind, LocalDateTime now) {
+        Duration delay = kind.isCritical() ? criticalMaxDelay : window;
+        return new PendingNotification(recipient, kind, now, now.plus(delay));
+    }
+
+    private String toJson(List<List<String>> alerts) {
+        try {
+            return objectMapper.writeValueAsString(alerts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise alerts", e);
+        }
+    }
+
+    private List<List<String>> alerts(PendingNotification event) {
+        if (event.getAlerts() == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(event.getAlerts(), ALERT_GROUPS);
+        } catch (JsonProcessingException e) {
+            throw new EmailException("Stored alerts for notification " + event.getId() + " are unreadable", e);
+        }
+    }
+}
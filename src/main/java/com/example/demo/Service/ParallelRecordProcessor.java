@@ -0,0 +1,97 @@
+package com.example.demo.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Applies a function to a range of records on a dedicated fork-join pool and
+ * returns the outcomes in input order, so callers can merge results (errors,
+ * critical rows, alerts) exactly as a sequential loop would.
+ */
+@Component
+public class ParallelRecordProcessor {
+
+    private final ForkJoinPool pool;
+    private final int minRecordsPerTask;
+
+    public ParallelRecordProcessor(@Value("${app.vitals.upload.parallelism:0}") int parallelism,
+                                   @Value("${app.vitals.upload.min-records-per-task:64}") int minRecordsPerTask) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.minRecordsPerTask = Math.max(1, minRecordsPerTask);
+    }
+
+    /**
+     * Map every record, capturing per-record exceptions instead of aborting the range
+     */
+    public <T, R> List<Outcome<R>> mapInOrder(List<T> records, Function<? super T, ? extends R> mapper) {
+        // Pre-sized so tasks write disjoint indices with set() and never resize the backing array
+        List<Outcome<R>> outcomes = new ArrayList<>(Collections.nCopies(records.size(), null));
+
+        if (records.size() <= minRecordsPerTask) {
+            new RangeTask<>(records, mapper, outcomes, 0, records.size()).compute();
+        } else {
+            pool.invoke(new RangeTask<>(records, mapper, outcomes, 0, records.size()));
+        }
+        return outcomes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public static final class Outcome<R> {
+        private final R value;
+        private final RuntimeException error;
+
+        private Outcome(R value, RuntimeException error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        public boolean isFailure() { return error != null; }
+        public R getValue() { return value; }
+        public RuntimeException getError() { return error; }
+    }
+
+    private final class RangeTask<T, R> extends RecursiveAction {
+        private final List<T> records;
+        private final Function<? super T, ? extends R> mapper;
+        private final List<Outcome<R>> outcomes;
+        private final int from;
+        private final int to;
+
+        RangeTask(List<T> records, Function<? super T, ? extends R> mapper, List<Outcome<R>> outcomes, int from, int to) {
+            this.records = records;
+            this.mapper = mapper;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minRecordsPerTask) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        outcomes.set(i, new Outcome<>(mapper.apply(records.get(i)), null));
+                    } catch (RuntimeException e) {
+                        outcomes.set(i, new Outcome<>(null, e));
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask<>(records, mapper, outcomes, from, mid),
+                      new RangeTask<>(records, mapper, outcomes, mid, to));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.Service;
+
+import com.example.demo.Utils.TransactionCallbacks;
+import com.example.demo.dto.DashboardVitalsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, least-recently-used cache of dashboard snapshots keyed by patient userId.
+ * Entries are dropped whenever a patient's vitals or their review state change, and
+ * again after the changing transaction commits so a concurrent reader cannot re-cache
+ * data from before the commit. Entries also expire after the ttl, since the snapshot's
+ * recent-days window moves even when nothing is written. Hit, miss, put and eviction
+ * counts are published as the standard Micrometer cache.* meters (cache=patientDashboard)
+ * under /actuator/metrics.
+ */
+@Component
+public class PatientDashboardCache {
+
+    public static final String CACHE_NAME = "patientDashboard";
+    // Invalidation stamps are kept per stripe of patients, so a write only blocks loads in its own stripe
+    private static final int STRIPES = 1024;
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLongArray stripeInvalidations = new AtomicLongArray(STRIPES);
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public PatientDashboardCache(@Value("${app.vitals.dashboard-cache.max-entries:1000}") int maxEntries,
+                                 @Value("${app.vitals.dashboard-cache.ttl:5m}") Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        this(maxEntries, ttl, meterRegistry, System::nanoTime);
+    }
+
+    PatientDashboardCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+        new Metrics(this).bindTo(meterRegistry);
+    }
+
+    /**
+     * Cached snapshot for the patient, loading and caching it on a miss. A load that
+     * overlaps an invalidation of the same patient (or one sharing its stripe) is
+     * returned but not cached.
+     */
+    public DashboardVitalsDto get(String patientId, Supplier<DashboardVitalsDto> loader) {
+        Entry cached = entries.get(patientId);
+        if (cached != null) {
+            if (nanoClock.getAsLong() - cached.loadedAt < ttlNanos) {
+                hits.increment();
+                return cached.snapshot;
+            }
+            entries.remove(patientId, cached);
+        }
+        misses.increment();
+
+        int stripe = stripe(patientId);
+        long invalidationsBefore = invalidations.get();
+        long loadedAt = nanoClock.getAsLong();
+        DashboardVitalsDto loaded = loader.get();
+        if (stripeInvalidations.get(stripe) <= invalidationsBefore) {
+            entries.put(patientId, new Entry(loaded, loadedAt));
+            puts.increment();
+        }
+        return loaded;
+    }
+
+    public void invalidate(String patientId) {
+        stripeInvalidations.accumulateAndGet(stripe(patientId), invalidations.incrementAndGet(), Math::max);
+        entries.remove(patientId);
+    }
+
+    /**
+     * Invalidate now and once more after the current transaction commits
+     */
+    public void invalidateAfterCommit(String patientId) {
+        invalidate(patientId);
+        TransactionCallbacks.afterCommit(() -> invalidate(patientId));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static int stripe(String patientId) {
+        return (patientId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private record Entry(DashboardVitalsDto snapshot, long loadedAt) {}
+
+    private static class Metrics extends CacheMeterBinder<PatientDashboardCache> {
+
+        Metrics(PatientDashboardCache cache) {
+            super(cache, CACHE_NAME, Collections.emptyList());
+        }
+
+        @Override
+        protected Long size() {
+            return (long) getCache().size();
+        }
+
+        @Override
+        protected long hitCount() {
+            return getCache().hits.sum();
+        }
+
+        @Override
+        protected Long missCount() {
+            return getCache().misses.sum();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            return getCache().evictions.sum();
+        }
+
+        @Override
+        protected long putCount() {
+            return getCache().puts.sum();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        }
+    }
+}
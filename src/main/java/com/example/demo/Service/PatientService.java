@@ -6,7 +6,9 @@ import com.example.demo.Models.VitalSigns;
 import com.example.demo.Models.SystemLog;
 import com.example.demo.respository.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -26,16 +28,23 @@ public class PatientService {
       private final VitalSignsRepository vitalSignsRepository;
     
     private final EmailService emailService;
+    private final DashboardCounterService counterService;
+    private final CalendarFeedService calendarFeedService;
+    private final DoctorScheduleIndex scheduleIndex;
 
     public PatientService(PatientRepository patientRepository, SystemLogService logService,
     AppointmentRepository appointmentRepository, AdminRepository adminRepository, EmailService emailService,
-     VitalSignsRepository vitalSignsRepository) {
+     VitalSignsRepository vitalSignsRepository, DashboardCounterService counterService,
+     CalendarFeedService calendarFeedService, DoctorScheduleIndex scheduleIndex) {
         this.patientRepository = patientRepository;
         this.logService = logService;
         this.adminRepository=adminRepository;
         this.appointmentRepository=appointmentRepository;
         this.emailService=emailService;
          this.vitalSignsRepository=vitalSignsRepository;
+        this.counterService = counterService;
+        this.calendarFeedService = calendarFeedService;
+        this.scheduleIndex = scheduleIndex;
     }
 
     
@@ -64,6 +73,14 @@ public class PatientService {
     
     return allPatientIds.size();
 }
+    /**
+     * True if the doctor has an appointment with the patient or was sent their vitals
+     */
+    public boolean isPatientOfDoctor(String patientId, String doctorId) {
+        return appointmentRepository.existsByDoctor_UserIdAndPatient_UserId(doctorId, patientId)
+            || vitalSignsRepository.existsByDoctor_UserIdAndPatient_UserId(doctorId, patientId);
+    }
+
     public Page<Patient> searchPatients(String query, Pageable pageable) {
         return patientRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(query, query, pageable);
     }
@@ -95,7 +112,13 @@ public void deactivatePatient(String patientId, Admin admin,String reason) {
     adminRepository.save(admin);
 
     // 4. Delete all related entities
+    List<String> affectedDoctorIds = appointmentRepository.findDoctorIdsByPatientUserId(patientId);
     appointmentRepository.deleteByPatientUserId(patientId); // Delete appointments
+    counterService.recompute(affectedDoctorIds);
+    scheduleIndex.appointmentsDeleted(affectedDoctorIds);
+    List<String> affectedCalendars = new ArrayList<>(affectedDoctorIds);
+    affectedCalendars.add(patientId);
+    calendarFeedService.appointmentsDeleted(affectedCalendars);
     
     // 5. Finally deactivate the patient
    patient.deactivate();
@@ -0,0 +1,232 @@
+package com.example.demo.Service;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends batches of messages over a small pool of authenticated SMTP connections.
+ * JavaMailSender opens a new session (connect, STARTTLS, auth) per send call; here a
+ * connection is kept open and reused for up to messages-per-connection messages, or
+ * until it has been idle for idle-timeout. A batch is split across up to
+ * concurrency connections that send in parallel. SmtpNotificationChannel creates one
+ * engine per lane so lanes never share connections or worker threads.
+ */
+public class SmtpDeliveryEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpDeliveryEngine.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final int concurrency;
+    private final int messagesPerConnection;
+    private final long idleTimeoutMillis;
+    private final BlockingQueue<PooledTransport> transports;
+    private final ExecutorService workers;
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+
+    public SmtpDeliveryEngine(JavaMailSenderImpl mailSender, String name, int concurrency,
+                              int messagesPerConnection, Duration idleTimeout) {
+        this.mailSender = mailSender;
+        this.concurrency = Math.max(1, concurrency);
+        this.messagesPerConnection = Math.max(1, messagesPerConnection);
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.transports = new ArrayBlockingQueue<>(this.concurrency);
+        for (int i = 0; i < this.concurrency; i++) {
+            transports.add(new PooledTransport());
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "smtp-" + name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Send every message and return one result per message, in input order
+     */
+    public List<DeliveryResult> deliver(List<MimeMessage> messages) {
+        DeliveryResult[] results = new DeliveryResult[messages.size()];
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+
+        int slices = Math.min(concurrency, messages.size());
+        int sliceSize = (messages.size() + slices - 1) / slices;
+        List<Future<?>> pending = new ArrayList<>(slices);
+        for (int from = 0; from < messages.size(); from += sliceSize) {
+            int sliceFrom = from;
+            int sliceTo = Math.min(messages.size(), from + sliceSize);
+            pending.add(workers.submit(() -> sendSlice(messages, results, sliceFrom, sliceTo)));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for SMTP delivery", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("SMTP delivery worker failed", e.getCause());
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Total SMTP connections opened since startup
+     */
+    public int getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    private void sendSlice(List<MimeMessage> messages, DeliveryResult[] results, int from, int to) {
+        PooledTransport pooled = borrow();
+        try {
+            for (int i = from; i < to; i++) {
+                results[i] = pooled.send(messages.get(i), i == from);
+            }
+        } finally {
+            transports.add(pooled);
+        }
+    }
+
+    private PooledTransport borrow() {
+        try {
+            return transports.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+        for (PooledTransport pooled : transports) {
+            pooled.close();
+        }
+    }
+
+    /**
+     * One SMTP connection, only ever used by the worker that borrowed it
+     */
+    private final class PooledTransport {
+        private Transport transport;
+        private int messagesSent;
+        private long lastUsedAt;
+
+        /**
+         * Send one message. A connection coming back from the pool is probed first; if
+         * a reused connection still fails for a reason other than rejected recipients,
+         * the server probably dropped it, so the message is retried once on a new one.
+         */
+        DeliveryResult send(MimeMessage message, boolean justBorrowed) {
+            boolean retried = false;
+            while (true) {
+                boolean reused = false;
+                try {
+                    reused = ensureConnected(justBorrowed);
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    messagesSent++;
+                    lastUsedAt = System.currentTimeMillis();
+                    return DeliveryResult.sent();
+                } catch (SendFailedException e) {
+                    // Rejected recipients: the connection itself is still fine
+                    lastUsedAt = System.currentTimeMillis();
+                    if (isSet(e.getValidSentAddresses())) {
+                        // Some recipients already accepted it, a retry would send it to them again
+                        messagesSent++;
+                        logger.warn("Message {} delivered only in part, not sent to invalid {} and unsent {}",
+                            messageId(message), Arrays.toString(e.getInvalidAddresses()),
+                            Arrays.toString(e.getValidUnsentAddresses()));
+                        return DeliveryResult.sent();
+                    }
+                    return DeliveryResult.failed(e, isSet(e.getInvalidAddresses()));
+                } catch (MessagingException e) {
+                    close();
+                    if (!reused || retried) {
+                        return DeliveryResult.failed(e, false);
+                    }
+                    logger.debug("Pooled SMTP connection failed ({}), retrying on a new connection", e.getMessage());
+                    retried = true;
+                } catch (RuntimeException e) {
+                    close();
+                    return DeliveryResult.failed(e, false);
+                }
+            }
+        }
+
+        private boolean isSet(Address[] addresses) {
+            return addresses != null && addresses.length > 0;
+        }
+
+        private String messageId(MimeMessage message) {
+            try {
+                return message.getMessageID();
+            } catch (MessagingException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Open a connection unless the current one can be reused, returns true when reusing.
+         * isConnected() costs a NOOP round trip, so only a connection just borrowed is probed.
+         */
+        private boolean ensureConnected(boolean probe) throws MessagingException {
+            boolean expired = transport != null
+                && (messagesSent >= messagesPerConnection
+                    || System.currentTimeMillis() - lastUsedAt > idleTimeoutMillis
+                    || (probe && !transport.isConnected()));
+            if (expired) {
+                close();
+            }
+            if (transport != null) {
+                return true;
+            }
+
+            Transport connecting = mailSender.getSession().getTransport(
+                mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+            String username = StringUtils.hasLength(mailSender.getUsername()) ? mailSender.getUsername() : null;
+            String password = username != null ? mailSender.getPassword() : null;
+            connecting.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+            transport = connecting;
+            messagesSent = 0;
+            lastUsedAt = System.currentTimeMillis();
+            connectionsOpened.incrementAndGet();
+            return false;
+        }
+
+        void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    logger.debug("Error closing SMTP connection: {}", e.getMessage());
+                }
+                transport = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.EmailOutboxMessage;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The production email channel: outbox messages become MIME messages and go out over
+ * a pooled SmtpDeliveryEngine per lane.
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.email.transport", havingValue = "smtp", matchIfMissing = true)
+public class SmtpNotificationChannel implements NotificationChannel {
+
+    private final JavaMailSenderImpl mailSender;
+    private final String fromEmail;
+    private final Map<EmailOutboxMessage.Lane, SmtpDeliveryEngine> engines = new EnumMap<>(EmailOutboxMessage.Lane.class);
+
+    public SmtpNotificationChannel(JavaMailSenderImpl mailSender,
+                                   @Value("${spring.mail.username}") String fromEmail,
+                                   @Value("${app.mail.delivery.messages-per-connection:100}") int messagesPerConnection,
+                                   @Value("${app.mail.delivery.idle-timeout:30s}") Duration idleTimeout,
+                                   @Value("${app.mail.lanes.emergency.concurrency:2}") int emergencyConcurrency,
+                                   @Value("${app.mail.lanes.routine.concurrency:2}") int routineConcurrency) {
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+        engines.put(EmailOutboxMessage.Lane.EMERGENCY, new SmtpDeliveryEngine(
+            mailSender, "emergency", emergencyConcurrency, messagesPerConnection, idleTimeout));
+        engines.put(EmailOutboxMessage.Lane.ROUTINE, new SmtpDeliveryEngine(
+            mailSender, "routine", routineConcurrency, messagesPerConnection, idleTimeout));
+    }
+
+    @Override
+    public String getName() {
+        return EMAIL;
+    }
+
+    @Override
+    public List<DeliveryResult> deliver(EmailOutboxMessage.Lane lane, List<EmailOutboxMessage> messages) {
+        DeliveryResult[] results = new DeliveryResult[messages.size()];
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        List<Integer> positions = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                mimeMessages.add(toMimeMessage(messages.get(i)));
+                positions.add(i);
+            } catch (MessagingException | UnsupportedEncodingException e) {
+                // Malformed address or content fails the same way on every attempt
+                results[i] = DeliveryResult.failed(e, true);
+            }
+        }
+
+        List<DeliveryResult> sent = engines.get(lane).deliver(mimeMessages);
+        for (int i = 0; i < positions.size(); i++) {
+            results[positions.get(i)] = sent.get(i);
+        }
+        return List.of(results);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        engines.values().forEach(SmtpDeliveryEngine::shutdown);
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(fromEmail, "Healthcare Platform");
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), true);
+        return mimeMessage;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateInputException;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the email and PDF templates outside of Spring MVC. Every render is timed
+ * per template name (template.render, with a percentile histogram). When the
+ * Thymeleaf cache is on, the configured template directories are parsed at startup
+ * so the first email or report does not pay for parsing.
+ */
+@Component
+public class TemplateRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateRenderer.class);
+
+    private final SpringTemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final boolean cacheEnabled;
+    private final String prefix;
+    private final String suffix;
+    private final List<String> precompileDirectories;
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    public TemplateRenderer(SpringTemplateEngine templateEngine,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.thymeleaf.cache:true}") boolean cacheEnabled,
+                            @Value("${spring.thymeleaf.prefix:classpath:/templates/}") String prefix,
+                            @Value("${spring.thymeleaf.suffix:.html}") String suffix,
+                            @Value("${app.templates.precompile:email,pdf}") List<String> precompileDirectories) {
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+        this.cacheEnabled = cacheEnabled;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.precompileDirectories = precompileDirectories;
+    }
+
+    public String render(String templateName, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return render(templateName, context);
+    }
+
+    public String render(String templateName, Context context) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            String html = templateEngine.process(templateName, context);
+            success = true;
+            return html;
+        } finally {
+            timer(templateName, success).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Parse every template under the precompile directories into the Thymeleaf cache
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompile() {
+        if (!cacheEnabled) {
+            logger.info("Thymeleaf cache disabled, skipping template precompilation");
+            return;
+        }
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        int parsed = 0;
+        for (String directory : precompileDirectories) {
+            try {
+                for (Resource resource : resolver.getResources(prefix + directory + "/*" + suffix)) {
+                    String fileName = resource.getFilename();
+                    if (fileName != null && precompile(directory + "/" + fileName.substring(0, fileName.length() - suffix.length()))) {
+                        parsed++;
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Could not list templates in {}{}: {}", prefix, directory, e.getMessage());
+            }
+        }
+        logger.info("Precompiled {} templates from {}", parsed, precompileDirectories);
+    }
+
+    /**
+     * Goes through the template manager rather than the engine so the expected
+     * failures from rendering without a model are not logged as errors. The
+     * template is parsed and cached before processing starts.
+     */
+    private boolean precompile(String templateName) {
+        try {
+            templateEngine.getConfiguration().getTemplateManager()
+                .parseAndProcess(new TemplateSpec(templateName, (String) null), new Context(), Writer.nullWriter());
+        } catch (TemplateInputException e) {
+            logger.warn("Failed to parse template {}: {}", templateName, e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            // Parsed and cached; only rendering with an empty model failed
+        }
+        return true;
+    }
+
+    private Timer timer(String templateName, boolean success) {
+        Map<String, Timer> timers = success ? successTimers : errorTimers;
+        return timers.computeIfAbsent(templateName, name -> Timer.builder("template.render")
+            .description("Thymeleaf render time for emails and PDF reports")
+            .tag("template", name)
+            .tag("outcome", success ? "success" : "error")
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.Service;
 
 import com.example.demo.Models.*;
 import com.example.demo.Exceptions.CSVParseException;
+import com.example.demo.Exceptions.UploadCancelledException;
 import org.springframework.data.domain.Page;
 import com.example.demo.dto.*;
 import com.example.demo.respository.*;
@@ -15,18 +16,20 @@ import org.springframework.data.domain.Sort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.core.io.Resource;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 
 @Service
@@ -35,286 +38,233 @@ public class VitalSignsService {
     private static final Logger logger = LoggerFactory.getLogger(VitalSignsService.class);
     private static final int TREND_DAYS = 7;
     private static final int MAX_ALERTS = 5;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_ALERT_GROUPS = 100;
+
+    @Value("${app.vitals.upload.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${app.vitals.timeseries.max-points:500}")
+    private int trendMaxPoints;
 
     private final CSVProcessingService csvProcessingService;
     private final PatientRepository patientRepository;
     private final VitalSignsRepository vitalSignsRepository;
+    private final VitalSignsBatchRepository vitalSignsBatchRepository;
+    private final ParallelRecordProcessor recordProcessor;
     private final DoctorRepository doctorRepository;
-    private final EmailService emailService;
+    private final NotificationCoalescer notificationCoalescer;
     private final SystemLogService logService;
+    private final VitalThresholdService thresholdService;
+    private final VitalTimeSeriesService timeSeriesService;
+    private final VitalDashboardRepository vitalDashboardRepository;
+    private final PatientDashboardCache dashboardCache;
+    private final DashboardCounterService counterService;
 
     @Autowired
     public VitalSignsService(
         CSVProcessingService csvProcessingService,
         PatientRepository patientRepository,
         VitalSignsRepository vitalSignsRepository,
+        VitalSignsBatchRepository vitalSignsBatchRepository,
+        ParallelRecordProcessor recordProcessor,
         DoctorRepository doctorRepository,
-        EmailService emailService,
-        SystemLogService logService
+        NotificationCoalescer notificationCoalescer,
+        SystemLogService logService,
+        VitalThresholdService thresholdService,
+        VitalTimeSeriesService timeSeriesService,
+        VitalDashboardRepository vitalDashboardRepository,
+        PatientDashboardCache dashboardCache,
+        DashboardCounterService counterService
     ) {
         this.csvProcessingService = csvProcessingService;
         this.patientRepository = patientRepository;
         this.vitalSignsRepository = vitalSignsRepository;
+        this.vitalSignsBatchRepository = vitalSignsBatchRepository;
+        this.recordProcessor = recordProcessor;
         this.doctorRepository = doctorRepository;
-        this.emailService = emailService;
+        this.notificationCoalescer = notificationCoalescer;
         this.logService = logService;
+        this.thresholdService = thresholdService;
+        this.timeSeriesService = timeSeriesService;
+        this.vitalDashboardRepository = vitalDashboardRepository;
+        this.dashboardCache = dashboardCache;
+        this.counterService = counterService;
     }
 
+    /**
+     * Ingests an uploaded vitals CSV; every upload runs through here as a background
+     * job. Records are parsed, validated and batch-inserted in fixed-size chunks, so
+     * memory use does not grow with the file size. A parse error rolls back every
+     * chunk already written, so an upload is all-or-nothing. The progress listener may
+     * throw UploadCancelledException to abort, which also rolls the upload back.
+     */
     @Transactional
-    public CSVUploadResponse processCSV(MultipartFile file, String patientId, String doctorId, Admin admin) {
-        if (file == null || file.isEmpty()) {
-            return createErrorResponse("No file provided", file);
-        }
-
+    public CSVUploadResponse processCSVStreaming(InputStreamSource source, String fileName, String patientId,
+                                                 String doctorId, Admin admin,
+                                                 VitalsUploadProgressListener progressListener) {
         Patient patient = patientRepository.findByUserId(patientId)
             .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
 
         Doctor doctor = doctorRepository.findByUserId(doctorId)
             .orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
 
-        try {
-            List<VitalSigns> vitals = csvProcessingService.parseCSV(file.getInputStream());
-            List<String> validationErrors = new ArrayList<>();
-            List<VitalSigns> validRecords = new ArrayList<>();
-            List<VitalSigns> criticalRecords = new ArrayList<>();
-           List< List<String>> alerts=new ArrayList<>();
-            for (int i = 0; i < vitals.size(); i++) {
-                try {
-                    VitalSigns vital = vitals.get(i);
-                    vital.setPatient(patient);
-                    vital.setDoctor(doctor);
-                    validateVitalSigns(vital);
-
-                    boolean critical = isCriticalCondition(vital);
-                            if (critical) {
-                                logger.info("Critical vital detected: {}", vital);
-                                criticalRecords.add(vital);
-                            }   
-
-                    validRecords.add(vital);
-                    alerts.add(checkForAlerts(vital));
-                    
-                } catch (Exception e) {
-                    validationErrors.add(String.format("Row %d: %s", i + 1, e.getMessage()));
-                    logger.warn("CSV validation error at row {}: {}", i + 1, e.getMessage());
-                }
-            }
+        VitalThresholdRules rules = thresholdService.getRules(patientId);
+        ChunkedUploadTally tally = new ChunkedUploadTally();
 
-            if (!validationErrors.isEmpty() && validRecords.isEmpty()) {
-                return new CSVUploadResponse(false, vitals.size(), 0, validationErrors.size(),
-                        "All records failed validation", validationErrors, file.getOriginalFilename());
-            }
+        try (InputStream inputStream = source.getInputStream()) {
+            int totalRecords = csvProcessingService.parseCSVInChunks(inputStream, chunkSize, (chunk, firstRowNumber) -> {
+                processChunk(chunk, firstRowNumber, patient, doctor, rules, tally);
+                progressListener.onChunkProcessed(tally.chunks, tally.processed, tally.saved, tally.failed);
+            });
 
-            List<VitalSigns> savedRecords = vitalSignsRepository.saveAll(validRecords);
-
-            if (!savedRecords.isEmpty()) {
-                try {
-                    emailService.sendVitalsUploadConfirmation(patient.getEmail(), savedRecords.size());
-                    emailService.sendDoctorVitalsNotification(doctor.getEmail(), patient.getFullName(), savedRecords.size());
-
-                    if (!criticalRecords.isEmpty()) {
-                        
-                        emailService.sendCriticalConditionAlert(patient.getEmail(), criticalRecords.size(),alerts);
-                        emailService.sendCriticalConditionDoctorAlert(doctor.getEmail(), patient.getFullName(), criticalRecords.size(), alerts);
-                       emailService.sendCriticalVitalsEmergencyContactAlert(patient.getEmergencyContact().getEmail(), patient.getEmergencyContact().getName(), patient.getFullName(), alerts, LocalDateTime.now());
-                        logService.createLog(admin, "Critical Vitals Detected "+ patientId, SystemLog.Severity.CRITICAL);
-                    }
-                } catch (Exception e) {
-                    logger.error("Failed to send notifications: {}", e.getMessage(), e);
-                }
+            if (tally.saved == 0) {
+                return new CSVUploadResponse(false, totalRecords, 0, tally.failed,
+                        "All records failed validation", tally.errors, fileName);
             }
 
+            dashboardCache.invalidateAfterCommit(patientId);
+            sendUploadNotifications(patient, doctor, admin, tally.saved, tally.critical, tally.alerts);
+
             return new CSVUploadResponse(
-                !savedRecords.isEmpty(),
-                vitals.size(),
-                savedRecords.size(),
-                validationErrors.size(),
-                String.format("Processed %d/%d records successfully", savedRecords.size(), vitals.size()),
-                validationErrors,
-                file.getOriginalFilename()
+                true,
+                totalRecords,
+                tally.saved,
+                tally.failed,
+                String.format("Processed %d/%d records successfully", tally.saved, totalRecords),
+                tally.errors,
+                fileName
             );
 
+        } catch (UploadCancelledException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            logger.info("Vitals upload {} cancelled after {} chunks", fileName, tally.chunks);
+            return createErrorResponse("Upload cancelled: " + e.getMessage(), fileName);
         } catch (CSVParseException e) {
-            logger.error("CSV parsing error: {}", e.getMessage());
-            return createErrorResponse("CSV parsing error: " + e.getMessage(), file);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            logger.error("CSV parsing error after {} chunks: {}", tally.chunks, e.getMessage());
+            return createErrorResponse("CSV parsing error: " + e.getMessage(), fileName);
         } catch (IOException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             logger.error("File processing error: {}", e.getMessage());
-            return createErrorResponse("File processing error: " + e.getMessage(), file);
+            return createErrorResponse("File processing error: " + e.getMessage(), fileName);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             logger.error("Unexpected error processing CSV: {}", e.getMessage(), e);
-            return createErrorResponse("Unexpected error: " + e.getMessage(), file);
+            return createErrorResponse("Unexpected error: " + e.getMessage(), fileName);
         }
     }
 
-  public DashboardVitalsDto getDashboardData(String patientId) {
-    logger.info("Starting dashboard data retrieval for patient: {}", patientId);
-    DashboardVitalsDto dashboardData = new DashboardVitalsDto();
-    
-    // Get total count first (more efficient)
-    int vitalsCount = vitalSignsRepository.countByPatient_UserId(patientId);
-    logger.debug("Total vitals count for patient {}: {}", patientId, vitalsCount);
-    dashboardData.setVitalsCount(vitalsCount);
-    
-    // If no vitals exist, return early
-    if (vitalsCount == 0) {
-        logger.info("No vitals found for patient: {}", patientId);
-        dashboardData.setHasData(false);
-        return dashboardData;
-    }
-    
-    // Get latest vital
-    Optional<VitalSigns> latestVitalOpt = vitalSignsRepository.findTopByPatient_UserIdOrderByTimestampDesc(patientId);
-    if (latestVitalOpt.isEmpty()) {
-        logger.error("Data inconsistency: Count shows {} vitals but none found for patient {}", vitalsCount, patientId);
-        throw new IllegalStateException("No vitals found despite count > 0");
-    }
-    
-    VitalSigns latestVital = latestVitalOpt.get();
-    logger.debug("Latest vital found - ID: {}, Timestamp: {}", latestVital.getId(), latestVital.getTimestamp());
-    dashboardData.setLatestVitals(latestVital);
-    dashboardData.setAlerts(checkForAlerts(latestVital));
-    dashboardData.setHasData(true);
-    
-    // Only look for previous vital if we have more than 1 record
-    if (vitalsCount > 1) {
-        logger.debug("Multiple vitals exist (count={}), searching for previous vital...", vitalsCount);
-        
-        Optional<VitalSigns> previousVitalOpt = vitalSignsRepository.findPreviousVital(
-                patientId, 
-                latestVital.getId()
-        );
-        
-        if (previousVitalOpt.isPresent()) {
-            VitalSigns previousVital = previousVitalOpt.get();
-            logger.debug("Previous vital found - ID: {}, Timestamp: {}", 
-                        previousVital.getId(), previousVital.getTimestamp());
-            dashboardData.setPreviousVitals(previousVital);
-        } else {
-            logger.warn("No previous vital found despite count={}. Latest timestamp: {}, Latest ID: {}", 
-                       vitalsCount, latestVital.getTimestamp(), latestVital.getId());
-            
-            // Additional diagnostic logging
-            List<VitalSigns> allVitals = vitalSignsRepository.findByPatient_UserIdOrderByTimestampDescIdDesc(patientId);
-            logger.debug("All vitals for patient {} ({} records):", patientId, allVitals.size());
-            allVitals.forEach(v -> logger.debug(" - ID: {}, Timestamp: {}", v.getId(), v.getTimestamp()));
-        }
-    } else {
-        logger.debug("Only one vital exists, skipping previous vital search");
-    }
-    
-    // Get trend data
-    LocalDateTime startDate = LocalDateTime.now().minusDays(TREND_DAYS);
-    logger.debug("Fetching trend data since {}", startDate);
-    List<VitalSigns> trendData = vitalSignsRepository.findTrendData(patientId, startDate);
-    logger.debug("Found {} trend records", trendData.size());
-    dashboardData.setTrends(processTrendData(trendData));
-    
-    logger.info("Completed dashboard data retrieval for patient {}", patientId);
-    return dashboardData;
-}
-
-    private VitalTrendsDto processTrendData(List<VitalSigns> vitals) {
-        VitalTrendsDto trends = new VitalTrendsDto();
-
-        for (VitalSigns vital : vitals) {
-            String timestampStr = vital.getTimestamp().toString();
-            trends.getTimestamps().add(timestampStr);
-            trends.getHeartRates().add(vital.getPulseRate());
-            
-            if (vital.getBloodPressure() != null) {
-                trends.getSystolicBP().add(vital.getBloodPressure().getSystolic());
-                trends.getDiastolicBP().add(vital.getBloodPressure().getDiastolic());
+    private void processChunk(List<VitalSigns> chunk, int firstRowNumber, Patient patient, Doctor doctor,
+                              VitalThresholdRules rules, ChunkedUploadTally tally) {
+        // Validation and alert checks are independent per row, so they run in parallel;
+        // outcomes come back in row order and are merged sequentially below.
+        List<ParallelRecordProcessor.Outcome<Integer>> outcomes = recordProcessor.mapInOrder(chunk, vital -> {
+            vital.setPatient(patient);
+            vital.setDoctor(doctor);
+            validateVitalSigns(vital);
+            return rules.evaluate(vital);
+        });
+
+        List<VitalSigns> validRecords = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < outcomes.size(); i++) {
+            int rowNumber = firstRowNumber + i;
+            ParallelRecordProcessor.Outcome<Integer> outcome = outcomes.get(i);
+
+            if (outcome.isFailure()) {
+                tally.failed++;
+                if (tally.errors.size() < MAX_REPORTED_ERRORS) {
+                    tally.errors.add(String.format("Row %d: %s", rowNumber, outcome.getError().getMessage()));
+                }
+                logger.warn("CSV validation error at row {}: {}", rowNumber, outcome.getError().getMessage());
+                continue;
             }
-            
-            trends.getOxygenLevels().add(vital.getOxygenSaturation());
-            trends.getTemperatures().add(vital.getBodyTemperature());
-        }
 
-        return trends;
-    }
-
-    private List<String> checkForAlerts(VitalSigns vital) {
-        List<String> alerts = new ArrayList<>();
-
-        if (vital.getBloodPressure() != null) {
-            if (vital.getBloodPressure().getSystolic() > 140) {
-                alerts.add("High systolic blood pressure (" + vital.getBloodPressure().getSystolic() + " mmHg)");
+            int alertMask = outcome.getValue();
+            VitalSigns vital = chunk.get(i);
+            if (VitalAlert.isCritical(alertMask)) {
+                tally.critical++;
             }
-            if (vital.getBloodPressure().getDiastolic() > 90) {
-                alerts.add("High diastolic blood pressure (" + vital.getBloodPressure().getDiastolic() + " mmHg)");
+            validRecords.add(vital);
+            // Messages are only rendered for the alert groups that end up in the emails
+            if (VitalAlert.hasWarnings(alertMask) && tally.alerts.size() < MAX_ALERT_GROUPS) {
+                tally.alerts.add(VitalAlert.describe(alertMask, vital, MAX_ALERTS));
             }
         }
 
-        if (vital.getPulseRate() > 100) {
-            alerts.add("Elevated heart rate (" + vital.getPulseRate() + " bpm)");
-        } else if (vital.getPulseRate() < 50) {
-            alerts.add("Low heart rate (" + vital.getPulseRate() + " bpm)");
-        }
+        vitalSignsBatchRepository.insertAll(validRecords);
+        timeSeriesService.record(validRecords);
+        counterService.vitalsStored(doctor.getUserId(), patient.getUserId(), validRecords);
 
-        if (vital.getOxygenSaturation() < 92) {
-            alerts.add(String.format("Low oxygen saturation (%.1f%%)", vital.getOxygenSaturation()));
-        }
+        tally.chunks++;
+        tally.processed += chunk.size();
+        tally.saved += validRecords.size();
+        logger.debug("Vitals chunk {} stored: {} processed, {} saved, {} failed so far",
+                tally.chunks, tally.processed, tally.saved, tally.failed);
+    }
 
-        if (vital.getBodyTemperature() > 38) {
-            alerts.add(String.format("High temperature (%.1f°C)", vital.getBodyTemperature()));
-        } else if (vital.getBodyTemperature() < 36) {
-            alerts.add(String.format("Low temperature (%.1f°C)", vital.getBodyTemperature()));
-        }
+    private void sendUploadNotifications(Patient patient, Doctor doctor, Admin admin, int savedCount,
+                                         int criticalCount, List<List<String>> alerts) {
+        try {
+            notificationCoalescer.vitalsUploaded(patient, doctor, savedCount);
 
-        if (vital.getPainLevel() != null &&
-            vital.getPainLevel().ordinal() >= VitalSigns.PainLevel.SEVERE.ordinal()) {
-            alerts.add("Severe pain reported");
+            if (criticalCount > 0) {
+                notificationCoalescer.criticalVitalsDetected(patient, doctor, criticalCount, alerts);
+                logService.createLog(admin, "Critical Vitals Detected " + patient.getUserId(), SystemLog.Severity.CRITICAL);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to send notifications: {}", e.getMessage(), e);
         }
-
-        return alerts.size() > MAX_ALERTS ? alerts.subList(0, MAX_ALERTS) : alerts;
     }
 
-   private boolean isCriticalCondition(VitalSigns vital) {
-    if (vital == null) {
-        logger.warn("Null vital signs object received");
-        return false;
+    // Running totals for a streamed upload; error and alert lists are capped to keep memory bounded
+    private static class ChunkedUploadTally {
+        private int chunks;
+        private int processed;
+        private int saved;
+        private int failed;
+        private int critical;
+        private final List<String> errors = new ArrayList<>();
+        private final List<List<String>> alerts = new ArrayList<>();
     }
 
-    boolean isCritical = false;
-    
-    // Blood Pressure Check
-    if (vital.getBloodPressure() != null) {
-        int systolic = vital.getBloodPressure().getSystolic();
-        int diastolic = vital.getBloodPressure().getDiastolic();
-        
-        if (systolic > 180 || systolic < 90) {
-            logger.warn("Critical systolic BP: {}", systolic);
-            isCritical = true;
-        }
-        if (diastolic > 120 || diastolic < 60) {
-            logger.warn("Critical diastolic BP: {}", diastolic);
-            isCritical = true;
-        }
-    } else {
-        logger.debug("No blood pressure data available");
+    /**
+     * Dashboard figures for a patient, served from the dashboard cache when possible
+     */
+    public DashboardVitalsDto getDashboardData(String patientId) {
+        return dashboardCache.get(patientId, () -> loadDashboardData(patientId));
     }
 
-    // Pulse Rate Check
-    if (vital.getPulseRate() > 120 || vital.getPulseRate() < 50) {
-        logger.warn("Critical pulse rate: {}", vital.getPulseRate());
-        isCritical = true;
-    }
+    /**
+     * Dashboard figures loaded in one query from the time-series store as lightweight
+     * projections rather than VitalSigns entities
+     */
+    private DashboardVitalsDto loadDashboardData(String patientId) {
+        logger.debug("Loading dashboard snapshot for patient: {}", patientId);
+        DashboardVitalsDto dashboardData = vitalDashboardRepository.findSnapshot(
+                patientId, LocalDateTime.now().minusDays(TREND_DAYS), trendMaxPoints);
+
+        if (!dashboardData.isHasData()) {
+            logger.info("No vitals found for patient: {}", patientId);
+            return dashboardData;
+        }
 
-    // Temperature Check
-    if (vital.getBodyTemperature() > 39.0 || vital.getBodyTemperature() < 35.0) {
-        logger.warn("Critical body temperature: {}", vital.getBodyTemperature());
-        isCritical = true;
+        VitalSnapshotDto latestVital = dashboardData.getLatestVitals();
+        int alertMask = thresholdService.getRules(patientId).evaluate(latestVital);
+        dashboardData.setAlerts(VitalAlert.describe(alertMask, latestVital, MAX_ALERTS));
+        return dashboardData;
     }
 
-    // Oxygen Saturation Check
-    if (vital.getOxygenSaturation() < 90) {
-        logger.warn("Critical oxygen saturation: {}", vital.getOxygenSaturation());
-        isCritical = true;
+    /**
+     * Trend series for the last given number of days at the requested resolution
+     * (RAW, HOUR, DAY or AUTO), with at most maxPoints raw readings (0 = configured default)
+     */
+    public VitalTrendsDto getTrends(String patientId, int days, String resolution, int maxPoints) {
+        LocalDateTime now = LocalDateTime.now();
+        return timeSeriesService.getTrends(patientId, now.minusDays(days), now.plusSeconds(1), resolution, maxPoints);
     }
 
-    return isCritical;
-}
-
     public Resource getCSVTemplate() {
         return new ClassPathResource("static/templates/VitalSignsCSV.csv");
     }
@@ -323,7 +273,7 @@ public class VitalSignsService {
         return vitalSignsRepository.existsByPatient_UserId(patientId);
     }
 
-    private CSVUploadResponse createErrorResponse(String message, MultipartFile file) {
+    private CSVUploadResponse createErrorResponse(String message, String fileName) {
         return new CSVUploadResponse(
             false,
             0,
@@ -331,7 +281,7 @@ public class VitalSignsService {
             1,
             message,
             List.of(message),
-            file != null ? file.getOriginalFilename() : null
+            fileName
         );
     }
 
@@ -387,6 +337,7 @@ public class VitalSignsService {
 }
 
     
+    @Transactional
     public VitalSigns markAsReviewed(Long vitalId) throws EntityNotFoundException {
         VitalSigns vitalSigns = vitalSignsRepository.findById(vitalId)
                 .orElseThrow(() -> new EntityNotFoundException("Vital signs not found"));
@@ -395,8 +346,14 @@ public class VitalSignsService {
             throw new IllegalStateException("Cannot mark as reviewed without prescription and feedback");
         }
         
+        boolean wasRequested = vitalSigns.getStatus() == VitalSigns.Status.REQUESTED;
         vitalSigns.setStatus(VitalSigns.Status.REVIEWED);
-       return vitalSignsRepository.save(vitalSigns);
+        VitalSigns saved = vitalSignsRepository.save(vitalSigns);
+        dashboardCache.invalidateAfterCommit(saved.getPatient().getUserId());
+        if (wasRequested) {
+            counterService.vitalsReviewed(saved.getDoctor().getUserId(), saved.getPatient().getUserId());
+        }
+        return saved;
     }
     
 
@@ -404,7 +361,9 @@ public class VitalSignsService {
 
         VitalSigns vitalSigns= vitalSignsRepository.findById(id).orElseThrow(()-> new IllegalArgumentException( "Not Found Vital for Id"));
         vitalSigns.setPrescription(prescription);
-        return vitalSignsRepository.save(vitalSigns);
+        VitalSigns saved = vitalSignsRepository.save(vitalSigns);
+        dashboardCache.invalidateAfterCommit(saved.getPatient().getUserId());
+        return saved;
     }
 
     
@@ -413,6 +372,8 @@ public class VitalSignsService {
 
         VitalSigns vitalSigns= vitalSignsRepository.findById(id).orElseThrow(()-> new IllegalArgumentException( "Not Found Vital for Id"));
         vitalSigns.setFeedback(feedback);
-        return vitalSignsRepository.save(vitalSigns);
+        VitalSigns saved = vitalSignsRepository.save(vitalSigns);
+        dashboardCache.invalidateAfterCommit(saved.getPatient().getUserId());
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.VitalAlert;
+import com.example.demo.Models.VitalMeasurements;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.Models.VitalThresholds;
+
+/**
+ * Immutable, compiled form of a patient's VitalThresholds. Evaluation reads only
+ * primitive fields and returns a VitalAlert bitmask, so checking a reading does not
+ * allocate; messages are rendered later via VitalAlert.describe when needed.
+ */
+public final class VitalThresholdRules {
+
+    public static final VitalThresholdRules DEFAULTS = compile(new VitalThresholds());
+
+    private final int systolicHigh;
+    private final int diastolicHigh;
+    private final int pulseHigh;
+    private final int pulseLow;
+    private final double oxygenLow;
+    private final double temperatureHigh;
+    private final double temperatureLow;
+    private final int painOrdinal;
+    private final int criticalSystolicHigh;
+    private final int criticalSystolicLow;
+    private final int criticalDiastolicHigh;
+    private final int criticalDiastolicLow;
+    private final int criticalPulseHigh;
+    private final int criticalPulseLow;
+    private final double criticalTemperatureHigh;
+    private final double criticalTemperatureLow;
+    private final double criticalOxygenLow;
+
+    private VitalThresholdRules(VitalThresholds t) {
+        this.systolicHigh = t.getSystolicHigh();
+        this.diastolicHigh = t.getDiastolicHigh();
+        this.pulseHigh = t.getPulseHigh();
+        this.pulseLow = t.getPulseLow();
+        this.oxygenLow = t.getOxygenLow();
+        this.temperatureHigh = t.getTemperatureHigh();
+        this.temperatureLow = t.getTemperatureLow();
+        this.painOrdinal = t.getPainLevelAlert().ordinal();
+        this.criticalSystolicHigh = t.getCriticalSystolicHigh();
+        this.criticalSystolicLow = t.getCriticalSystolicLow();
+        this.criticalDiastolicHigh = t.getCriticalDiastolicHigh();
+        this.criticalDiastolicLow = t.getCriticalDiastolicLow();
+        this.criticalPulseHigh = t.getCriticalPulseHigh();
+        this.criticalPulseLow = t.getCriticalPulseLow();
+        this.criticalTemperatureHigh = t.getCriticalTemperatureHigh();
+        this.criticalTemperatureLow = t.getCriticalTemperatureLow();
+        this.criticalOxygenLow = t.getCriticalOxygenLow();
+    }
+
+    public static VitalThresholdRules compile(VitalThresholds thresholds) {
+        return new VitalThresholdRules(thresholds);
+    }
+
+    /**
+     * Evaluate one reading, returns a bitmask of VitalAlert codes (0 = no alerts)
+     */
+    public int evaluate(VitalMeasurements vital) {
+        int mask = 0;
+
+        VitalSigns.BloodPressure bloodPressure = vital.getBloodPressure();
+        if (bloodPressure != null) {
+            int systolic = bloodPressure.getSystolic();
+            int diastolic = bloodPressure.getDiastolic();
+            if (systolic > systolicHigh) mask |= VitalAlert.HIGH_SYSTOLIC.bit();
+            if (diastolic > diastolicHigh) mask |= VitalAlert.HIGH_DIASTOLIC.bit();
+            if (systolic > criticalSystolicHigh || systolic < criticalSystolicLow) {
+                mask |= VitalAlert.CRITICAL_SYSTOLIC.bit();
+            }
+            if (diastolic > criticalDiastolicHigh || diastolic < criticalDiastolicLow) {
+                mask |= VitalAlert.CRITICAL_DIASTOLIC.bit();
+            }
+        }
+
+        int pulse = vital.getPulseRate();
+        if (pulse > pulseHigh) {
+            mask |= VitalAlert.ELEVATED_HEART_RATE.bit();
+        } else if (pulse < pulseLow) {
+            mask |= VitalAlert.LOW_HEART_RATE.bit();
+        }
+        if (pulse > criticalPulseHigh || pulse < criticalPulseLow) {
+            mask |= VitalAlert.CRITICAL_PULSE.bit();
+        }
+
+        double oxygen = vital.getOxygenSaturation();
+        if (oxygen < oxygenLow) mask |= VitalAlert.LOW_OXYGEN_SATURATION.bit();
+        if (oxygen < criticalOxygenLow) mask |= VitalAlert.CRITICAL_OXYGEN_SATURATION.bit();
+
+        double temperature = vital.getBodyTemperature();
+        if (temperature > temperatureHigh) {
+            mask |= VitalAlert.HIGH_TEMPERATURE.bit();
+        } else if (temperature < temperatureLow) {
+            mask |= VitalAlert.LOW_TEMPERATURE.bit();
+        }
+        if (temperature > criticalTemperatureHigh || temperature < criticalTemperatureLow) {
+            mask |= VitalAlert.CRITICAL_TEMPERATURE.bit();
+        }
+
+        if (vital.getPainLevel() != null && vital.getPainLevel().ordinal() >= painOrdinal) {
+            mask |= VitalAlert.SEVERE_PAIN.bit();
+        }
+
+        return mask;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.VitalThresholds;
+import com.example.demo.Utils.TransactionCallbacks;
+import com.example.demo.respository.VitalThresholdsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads per-patient alert thresholds and keeps their compiled rules in memory,
+ * so alert checks during uploads and dashboard loads do not hit the database.
+ */
+@Service
+public class VitalThresholdService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalThresholdService.class);
+
+    private final VitalThresholdsRepository thresholdsRepository;
+    private final PatientDashboardCache dashboardCache;
+    private final Map<String, VitalThresholdRules> rulesCache = new ConcurrentHashMap<>();
+
+    public VitalThresholdService(VitalThresholdsRepository thresholdsRepository, PatientDashboardCache dashboardCache) {
+        this.thresholdsRepository = thresholdsRepository;
+        this.dashboardCache = dashboardCache;
+    }
+
+    public VitalThresholdRules getRules(String patientId) {
+        return rulesCache.computeIfAbsent(patientId, id -> thresholdsRepository.findByPatientId(id)
+            .map(VitalThresholdRules::compile)
+            .orElse(VitalThresholdRules.DEFAULTS));
+    }
+
+    /**
+     * Thresholds in effect for a patient; defaults if none were configured
+     */
+    public VitalThresholds getThresholds(String patientId) {
+        return thresholdsRepository.findByPatientId(patientId)
+            .orElseGet(() -> new VitalThresholds(patientId));
+    }
+
+    @Transactional
+    public VitalThresholds updateThresholds(String patientId, VitalThresholds update) {
+        update.validate();
+
+        VitalThresholds thresholds = thresholdsRepository.findByPatientId(patientId)
+            .orElseGet(() -> new VitalThresholds(patientId));
+        thresholds.copyThresholdsFrom(update);
+        VitalThresholds saved = thresholdsRepository.save(thresholds);
+
+        evictRulesAfterCommit(patientId);
+        dashboardCache.invalidateAfterCommit(patientId);
+        logger.info("Updated vital thresholds for patient {}", patientId);
+        return saved;
+    }
+
+    @Transactional
+    public void resetThresholds(String patientId) {
+        thresholdsRepository.deleteByPatientId(patientId);
+        evictRulesAfterCommit(patientId);
+        dashboardCache.invalidateAfterCommit(patientId);
+        logger.info("Reset vital thresholds to defaults for patient {}", patientId);
+    }
+
+    /**
+     * Evicts again once the change is visible, so rules a concurrent getRules compiled
+     * from the old row before the commit do not stay cached. remove() waits for a
+     * computeIfAbsent in progress on the same key, so no stale load can land after it.
+     */
+    private void evictRulesAfterCommit(String patientId) {
+        rulesCache.remove(patientId);
+        TransactionCallbacks.afterCommit(() -> rulesCache.remove(patientId));
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.VitalRollup;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.dto.VitalSeries;
+import com.example.demo.dto.VitalTrendsDto;
+import com.example.demo.respository.VitalReadingRepository;
+import com.example.demo.respository.VitalRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Time-series view of vital readings used by the dashboard and trend charts.
+ * Readings are appended alongside the vital_signs insert on upload, and the hourly
+ * and daily rollups covering them are refreshed in the same transaction. Trend
+ * queries are answered from raw readings only while they fit in maxPoints,
+ * otherwise from the coarsest-needed rollup.
+ */
+@Service
+public class VitalTimeSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalTimeSeriesService.class);
+
+    private static final long HOUR_SECONDS = VitalRollup.Resolution.HOUR.getSeconds();
+    private static final long HOURS_PER_DAY = 24;
+
+    private final VitalReadingRepository readingRepository;
+    private final VitalRollupRepository rollupRepository;
+
+    @Value("${app.vitals.timeseries.max-points:500}")
+    private int defaultMaxPoints;
+
+    public VitalTimeSeriesService(VitalReadingRepository readingRepository, VitalRollupRepository rollupRepository) {
+        this.readingRepository = readingRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    public void record(List<VitalSigns> vitals) {
+        readingRepository.appendAll(vitals);
+        refreshRollups(vitals);
+    }
+
+    /**
+     * Recompute only the hourly and daily buckets the given readings fall into,
+     * issuing one statement per contiguous run of buckets
+     */
+    private void refreshRollups(List<VitalSigns> vitals) {
+        Map<String, TreeSet<Long>> hoursByPatient = new HashMap<>();
+        for (VitalSigns vital : vitals) {
+            long hour = Math.floorDiv(vital.getTimestamp().toEpochSecond(ZoneOffset.UTC), HOUR_SECONDS);
+            hoursByPatient.computeIfAbsent(vital.getPatient().getUserId(), id -> new TreeSet<>()).add(hour);
+        }
+
+        hoursByPatient.forEach((patientId, hours) -> {
+            TreeSet<Long> days = new TreeSet<>();
+            forEachRun(hours, (first, last) ->
+                rollupRepository.refreshHourly(patientId, hourStart(first), hourStart(last + 1)));
+            hours.forEach(hour -> days.add(Math.floorDiv(hour, HOURS_PER_DAY)));
+            forEachRun(days, (first, last) ->
+                rollupRepository.refreshDaily(patientId, hourStart(first * HOURS_PER_DAY),
+                        hourStart((last + 1) * HOURS_PER_DAY)));
+        });
+    }
+
+    private static void forEachRun(TreeSet<Long> buckets, RunHandler handler) {
+        Long runStart = null;
+        Long previous = null;
+        for (Long bucket : buckets) {
+            if (previous != null && bucket != previous + 1) {
+                handler.onRun(runStart, previous);
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = bucket;
+            }
+            previous = bucket;
+        }
+        if (runStart != null) {
+            handler.onRun(runStart, previous);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RunHandler {
+        void onRun(long first, long last);
+    }
+
+    private static LocalDateTime hourStart(long hourIndex) {
+        return LocalDateTime.ofEpochSecond(hourIndex * HOUR_SECONDS, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Trend series for [from, to). RAW returns individual readings while they fit in
+     * maxPoints; AUTO (or null) picks the finest of RAW, HOUR and DAY that does.
+     * HOUR and DAY are always served from rollups.
+     */
+    public VitalTrendsDto getTrends(String patientId, LocalDateTime from, LocalDateTime to,
+                                    String resolution, int maxPoints) {
+        int limit = maxPoints > 0 ? maxPoints : defaultMaxPoints;
+        String requested = resolution != null ? resolution.toUpperCase() : "AUTO";
+
+        if (requested.equals("HOUR") || requested.equals("DAY")) {
+            return getRollupTrends(patientId, VitalRollup.Resolution.valueOf(requested), from, to);
+        }
+        if (!requested.equals("RAW") && !requested.equals("AUTO")) {
+            throw new IllegalArgumentException("Unknown trend resolution: " + resolution);
+        }
+
+        if (readingRepository.countInRange(patientId, from, to) <= limit) {
+            return toTrends(readingRepository.findRange(patientId, from, to));
+        }
+        long hours = Duration.between(from, to).getSeconds() / HOUR_SECONDS + 1;
+        VitalRollup.Resolution rollup = hours <= limit ? VitalRollup.Resolution.HOUR : VitalRollup.Resolution.DAY;
+        logger.debug("Serving trends for patient {} from {} rollups", patientId, rollup);
+        return getRollupTrends(patientId, rollup, from, to);
+    }
+
+    private VitalTrendsDto getRollupTrends(String patientId, VitalRollup.Resolution resolution,
+                                           LocalDateTime from, LocalDateTime to) {
+        long bucketSeconds = resolution.getSeconds();
+        long start = Math.floorDiv(from.toEpochSecond(ZoneOffset.UTC), bucketSeconds) * bucketSeconds;
+        return rollupRepository.findTrends(patientId, resolution,
+                LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC), to);
+    }
+
+    public static VitalTrendsDto toTrends(VitalSeries series) {
+        VitalTrendsDto trends = new VitalTrendsDto();
+        for (int i = 0; i < series.size(); i++) {
+            trends.addDataPoint(
+                series.getTimestamp(i).toString(),
+                series.getPulseRate(i),
+                series.getSystolic(i),
+                series.getDiastolic(i),
+                series.getOxygenSaturation(i),
+                series.getTemperature(i),
+                series.getRespiratoryRate(i));
+        }
+        return trends;
+    }
+
+    /**
+     * Populate the time-series and rollup tables from existing data the first time they are deployed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (readingRepository.isEmpty()) {
+                int copied = readingRepository.backfillFromVitalSigns();
+                if (copied > 0) {
+                    logger.info("Backfilled {} vital readings into the time-series store", copied);
+                }
+            }
+            if (rollupRepository.isEmpty()) {
+                LocalDateTime from = LocalDateTime.of(1970, 1, 1, 0, 0);
+                LocalDateTime to = LocalDateTime.now().plusDays(1);
+                for (String patientId : rollupRepository.findPatientsWithReadings()) {
+                    rollupRepository.refreshHourly(patientId, from, to);
+                    rollupRepository.refreshDaily(patientId, from, to);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to backfill vital readings: {}", e.getMessage(), e);
+        }
+    }
+}
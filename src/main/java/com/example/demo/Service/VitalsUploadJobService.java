@@ -0,0 +1,228 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.ResourceNotFoundException;
+import com.example.demo.Exceptions.UploadCancelledException;
+import com.example.demo.Models.Admin;
+import com.example.demo.Models.SystemLog;
+import com.example.demo.Models.VitalsUploadJob;
+import com.example.demo.dto.CSVUploadResponse;
+import com.example.demo.respository.VitalsUploadJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs vitals CSV uploads as background jobs. The upload is spooled to a temp file,
+ * a job row is persisted and the work is handed to a bounded worker pool, so the
+ * request thread returns immediately. Progress is written per chunk in its own
+ * transaction so it is visible while the upload transaction is still open.
+ * Each instance keeps a heartbeat on the jobs it holds; unfinished jobs whose
+ * heartbeat stops are failed by whichever instance notices first.
+ */
+@Service
+public class VitalsUploadJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalsUploadJobService.class);
+    private static final int MAX_STORED_ERRORS = 200;
+
+    private final VitalsUploadJobRepository jobRepository;
+    private final VitalSignsService vitalSignsService;
+    private final SystemLogService logService;
+    private final ThreadPoolTaskExecutor uploadExecutor;
+    private final TransactionTemplate progressTransaction;
+    private final Duration abandonAfter;
+    // Jobs queued or running on this instance
+    private final Set<Long> localJobs = ConcurrentHashMap.newKeySet();
+
+    public VitalsUploadJobService(VitalsUploadJobRepository jobRepository,
+                                  VitalSignsService vitalSignsService,
+                                  SystemLogService logService,
+                                  @Qualifier("vitalsUploadExecutor") ThreadPoolTaskExecutor uploadExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.vitals.upload.abandon-after:5m}") Duration abandonAfter) {
+        this.jobRepository = jobRepository;
+        this.vitalSignsService = vitalSignsService;
+        this.logService = logService;
+        this.uploadExecutor = uploadExecutor;
+        this.progressTransaction = new TransactionTemplate(transactionManager);
+        this.progressTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.abandonAfter = abandonAfter;
+    }
+
+    /**
+     * Queue an upload, throws TaskRejectedException when the worker queue is full
+     */
+    public VitalsUploadJob submit(MultipartFile file, String patientId, String doctorId, Admin admin) throws IOException {
+        Path spoolFile = Files.createTempFile("vitals-upload-", ".csv");
+        try {
+            file.transferTo(spoolFile);
+        } catch (IOException e) {
+            deleteQuietly(spoolFile);
+            throw e;
+        }
+
+        VitalsUploadJob job = jobRepository.save(
+            new VitalsUploadJob(patientId, doctorId, file.getOriginalFilename(), file.getSize()));
+        Long jobId = job.getId();
+
+        localJobs.add(jobId);
+        try {
+            uploadExecutor.execute(() -> runJob(jobId, spoolFile, admin));
+        } catch (TaskRejectedException e) {
+            localJobs.remove(jobId);
+            deleteQuietly(spoolFile);
+            job.setStatus(VitalsUploadJob.Status.FAILED);
+            job.setMessage("Upload queue is full, please try again later");
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            throw e;
+        }
+
+        logger.info("Queued vitals upload job {} for patient {} ({} bytes)", jobId, patientId, file.getSize());
+        return job;
+    }
+
+    public VitalsUploadJob getJob(Long jobId, String patientId) {
+        return jobRepository.findByIdAndPatientId(jobId, patientId)
+            .orElseThrow(() -> new ResourceNotFoundException("Upload job not found"));
+    }
+
+    public List<VitalsUploadJob> getRecentJobs(String patientId) {
+        return jobRepository.findTop10ByPatientIdOrderByCreatedAtDesc(patientId);
+    }
+
+    /**
+     * Request cancellation. Queued jobs are cancelled at once; running jobs stop
+     * and roll back at the next chunk boundary.
+     */
+    @Transactional
+    public VitalsUploadJob cancel(Long jobId, String patientId) {
+        getJob(jobId, patientId);
+        if (jobRepository.requestCancel(jobId) > 0) {
+            jobRepository.cancelQueued(jobId, "Upload cancelled before processing started", LocalDateTime.now());
+        }
+        return getJob(jobId, patientId);
+    }
+
+    /**
+     * Keeps this instance's jobs alive and fails the ones another instance left behind
+     */
+    @Scheduled(fixedDelayString = "${app.vitals.upload.heartbeat-interval-ms:30000}")
+    @Transactional
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!localJobs.isEmpty()) {
+            jobRepository.heartbeat(List.copyOf(localJobs), now);
+        }
+        int abandoned = jobRepository.failAbandonedJobs("Upload interrupted by a server restart",
+            now.minus(abandonAfter), now);
+        if (abandoned > 0) {
+            logger.warn("Marked {} abandoned vitals upload jobs as failed", abandoned);
+        }
+    }
+
+    private void runJob(Long jobId, Path spoolFile, Admin admin) {
+        try {
+            VitalsUploadJob job = progressTransaction.execute(status ->
+                jobRepository.markRunning(jobId, LocalDateTime.now()) == 1 ? jobRepository.findById(jobId).orElse(null) : null);
+            if (job == null) {
+                return;
+            }
+
+            CSVUploadResponse response = vitalSignsService.processCSVStreaming(
+                new FileSystemResource(spoolFile),
+                job.getFileName(),
+                job.getPatientId(),
+                job.getDoctorId(),
+                admin,
+                (chunkNumber, processed, saved, failed) -> recordProgress(jobId, chunkNumber, processed, saved, failed)
+            );
+
+            finishJob(jobId, response, admin);
+        } catch (Exception e) {
+            logger.error("Vitals upload job {} failed: {}", jobId, e.getMessage(), e);
+            progressTransaction.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(VitalsUploadJob.Status.FAILED);
+                job.setMessage("Unexpected error: " + e.getMessage());
+                job.setFinishedAt(LocalDateTime.now());
+                jobRepository.save(job);
+            }));
+        } finally {
+            localJobs.remove(jobId);
+            deleteQuietly(spoolFile);
+        }
+    }
+
+    private void recordProgress(Long jobId, int chunkNumber, int processed, int saved, int failed) {
+        Boolean cancelRequested = progressTransaction.execute(status -> {
+            jobRepository.updateProgress(jobId, chunkNumber, processed, saved, failed, LocalDateTime.now());
+            return jobRepository.isCancelRequested(jobId);
+        });
+
+        if (Boolean.TRUE.equals(cancelRequested)) {
+            throw new UploadCancelledException("cancelled by user after " + processed + " records");
+        }
+    }
+
+    private void finishJob(Long jobId, CSVUploadResponse response, Admin admin) {
+        VitalsUploadJob finished = progressTransaction.execute(status -> {
+            VitalsUploadJob job = jobRepository.findById(jobId).orElseThrow();
+            if (response.isSuccess()) {
+                job.setStatus(VitalsUploadJob.Status.COMPLETED);
+            } else if (job.isCancelRequested()) {
+                job.setStatus(VitalsUploadJob.Status.CANCELLED);
+            } else {
+                job.setStatus(VitalsUploadJob.Status.FAILED);
+            }
+            job.setTotalRecords(response.getTotalRecords());
+            job.setRecordsSaved(response.getSuccessfulRecords());
+            job.setRecordsFailed(response.getFailedRecords());
+            job.setMessage(response.getMessage());
+            job.setErrors(joinErrors(response.getErrors()));
+            job.setFinishedAt(LocalDateTime.now());
+            return jobRepository.save(job);
+        });
+
+        if (finished.getStatus() == VitalsUploadJob.Status.COMPLETED) {
+            logService.createLog(admin, "vitals Uploaded:" + finished.getPatientId(), SystemLog.Severity.INFO);
+        } else if (finished.getStatus() == VitalsUploadJob.Status.FAILED) {
+            logService.createLog(admin, "vitals Failed:" + finished.getPatientId(), SystemLog.Severity.ERROR);
+        }
+        logger.info("Vitals upload job {} finished with status {}", jobId, finished.getStatus());
+    }
+
+    private String joinErrors(List<String> errors) {
+        if (errors == null || errors.isEmpty()) {
+            return null;
+        }
+        return String.join("\n", errors.subList(0, Math.min(errors.size(), MAX_STORED_ERRORS)));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled upload {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.Service;
+
+/**
+ * Receives progress updates while a vitals CSV is ingested chunk by chunk
+ */
+@FunctionalInterface
+public interface VitalsUploadProgressListener {
+
+    VitalsUploadProgressListener NONE = (chunkNumber, recordsProcessed, recordsSaved, recordsFailed) -> { };
+
+    void onChunkProcessed(int chunkNumber, int recordsProcessed, int recordsSaved, int recordsFailed);
+}
@@ -0,0 +1,152 @@
+package com.example.demo.Service;
+
+import com.example.demo.dto.TimeSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One day of a doctor's working hours compiled for the scheduling checks: a bitmap
+ * of the bookable minutes (shifts less breaks and time off) and a bitmap of the
+ * slot starts, a grid of slotMinutes that restarts at the beginning of every open
+ * stretch. Immutable, and shared by every doctor and date that compile alike.
+ */
+public final class WorkingDay {
+
+    static final WorkingDay CLOSED = new WorkingDay(MinuteBitmap.newDay(), 0);
+
+    private final long[] open;
+    private final long[] slotStarts;
+    private final int slotMinutes;
+    private final int firstMinute;
+    private final int endMinute;
+    // Closed stretches between firstMinute and endMinute, as from/to pairs
+    private final int[] breaks;
+
+    WorkingDay(long[] open, int slotMinutes) {
+        this.open = open;
+        this.slotMinutes = slotMinutes;
+        this.slotStarts = MinuteBitmap.newDay();
+
+        List<Integer> gaps = new ArrayList<>();
+        int first = -1;
+        int end = -1;
+        for (int from = MinuteBitmap.nextSet(open, 0); from >= 0; ) {
+            int to = MinuteBitmap.nextClear(open, from);
+            if (first < 0) {
+                first = from;
+            } else {
+                gaps.add(end);
+                gaps.add(from);
+            }
+            for (int start = from; start + slotMinutes <= to; start += slotMinutes) {
+                MinuteBitmap.setRange(slotStarts, start, start + 1);
+            }
+            end = to;
+            from = MinuteBitmap.nextSet(open, to);
+        }
+        this.firstMinute = first;
+        this.endMinute = end;
+        this.breaks = gaps.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public boolean isClosed() {
+        return firstMinute < 0;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public Duration getSlotDuration() {
+        return Duration.ofMinutes(slotMinutes);
+    }
+
+    /**
+     * Start of the first shift, null on a day off
+     */
+    public LocalTime getStart() {
+        return isClosed() ? null : LocalTime.MIN.plusMinutes(firstMinute);
+    }
+
+    /**
+     * End of the last shift, null on a day off
+     */
+    public LocalTime getEnd() {
+        return isClosed() ? null : endMinute == MinuteBitmap.MINUTES_PER_DAY ? LocalTime.MAX
+            : LocalTime.MIN.plusMinutes(endMinute);
+    }
+
+    /**
+     * True if [start, end) lies on this day (end may be the following midnight) and is all working time
+     */
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        LocalDate date = start.toLocalDate();
+        int from = minuteOfDay(start.toLocalTime());
+        int to;
+        if (end.toLocalDate().equals(date)) {
+            to = minuteOfDay(end.toLocalTime()) + (end.getSecond() > 0 || end.getNano() > 0 ? 1 : 0);
+        } else if (end.equals(date.plusDays(1).atStartOfDay())) {
+            to = MinuteBitmap.MINUTES_PER_DAY;
+        } else {
+            return false;
+        }
+        return from < to && MinuteBitmap.allSet(open, from, to);
+    }
+
+    boolean isSlotStart(int minute) {
+        return minute >= 0 && minute < MinuteBitmap.MINUTES_PER_DAY && MinuteBitmap.anySet(slotStarts, minute, minute + 1);
+    }
+
+    /**
+     * First slot start at or after minute, -1 if there is none
+     */
+    int nextSlotStart(int minute) {
+        return MinuteBitmap.nextSet(slotStarts, minute);
+    }
+
+    /**
+     * Slot starts on the date, in time order, whose slot of the given duration is all working time
+     */
+    public List<LocalDateTime> slotStarts(LocalDate date, Duration duration) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        int length = (int) duration.toMinutes();
+        for (int minute = nextSlotStart(0); minute >= 0; minute = nextSlotStart(minute + 1)) {
+            if (minute + length <= MinuteBitmap.MINUTES_PER_DAY && MinuteBitmap.allSet(open, minute, minute + length)) {
+                starts.add(date.atStartOfDay().plusMinutes(minute));
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Breaks between the first and the last shift of the date
+     */
+    public List<TimeSlotDto> breaks(LocalDate date) {
+        List<TimeSlotDto> slots = new ArrayList<>(breaks.length / 2);
+        for (int i = 0; i < breaks.length; i += 2) {
+            slots.add(new TimeSlotDto(date.atStartOfDay().plusMinutes(breaks[i]),
+                date.atStartOfDay().plusMinutes(breaks[i + 1])));
+        }
+        return slots;
+    }
+
+    static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof WorkingDay day && slotMinutes == day.slotMinutes && Arrays.equals(open, day.open);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(open) + slotMinutes;
+    }
+}
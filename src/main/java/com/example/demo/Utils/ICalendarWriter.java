@@ -0,0 +1,108 @@
+package com.example.demo.Utils;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes iCalendar (RFC 5545) content line by line straight to an output stream,
+ * so a feed of any size is never held in memory. Text values are escaped and
+ * lines longer than 75 octets are folded, without splitting a UTF-8 character.
+ */
+public class ICalendarWriter implements Flushable {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter UTC_DATE_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer out;
+
+    public ICalendarWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+    }
+
+    public ICalendarWriter begin(String component) throws IOException {
+        return line("BEGIN:" + component);
+    }
+
+    public ICalendarWriter end(String component) throws IOException {
+        return line("END:" + component);
+    }
+
+    /**
+     * A TEXT property; null values are skipped
+     */
+    public ICalendarWriter text(String name, String value) throws IOException {
+        return value == null ? this : line(name + ":" + escape(value));
+    }
+
+    /**
+     * A property whose value is written as is (e.g. STATUS, URI, or already escaped)
+     */
+    public ICalendarWriter raw(String name, String value) throws IOException {
+        return value == null ? this : line(name + ":" + value);
+    }
+
+    /**
+     * A DATE-TIME property in UTC form
+     */
+    public ICalendarWriter dateTime(String name, Instant value) throws IOException {
+        return value == null ? this : line(name + ":" + UTC_DATE_TIME.format(value));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private ICalendarWriter line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int width = utf8Length(codePoint);
+            if (octets + width > MAX_LINE_OCTETS) {
+                // Continuation lines start with a space, which counts towards their 75 octets
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(content, i, Character.charCount(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+        return this;
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case ';' -> escaped.append("\\;");
+                case ',' -> escaped.append("\\,");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * A page of the availability search, earliest slot first. nextCursor is set when
+ * more slots may follow and is passed back as the cursor parameter for the next
+ * page. complete is false when the search stopped at its time budget before
+ * filling the page, the cursor then resumes where it stopped.
+ */
+public class AvailabilitySearchResultDto {
+    private List<AvailableSlotDto> slots;
+    private String nextCursor;
+    private boolean complete;
+
+    public AvailabilitySearchResultDto() {
+    }
+
+    public AvailabilitySearchResultDto(List<AvailableSlotDto> slots, String nextCursor, boolean complete) {
+        this.slots = slots;
+        this.nextCursor = nextCursor;
+        this.complete = complete;
+    }
+
+    public List<AvailableSlotDto> getSlots() { return slots; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isComplete() { return complete; }
+}
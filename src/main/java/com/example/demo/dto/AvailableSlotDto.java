@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One free appointment slot of one doctor, as returned by the availability search
+ */
+public class AvailableSlotDto {
+    private String doctorId;
+    private String doctorName;
+    private String specialization;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+
+    public AvailableSlotDto() {
+    }
+
+    public AvailableSlotDto(String doctorId, String doctorName, String specialization,
+                            LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.specialization = specialization;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    public String getDoctorId() { return doctorId; }
+    public String getDoctorName() { return doctorName; }
+    public String getSpecialization() { return specialization; }
+    public LocalDateTime getStartDateTime() { return startDateTime; }
+    public LocalDateTime getEndDateTime() { return endDateTime; }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.dto;
+
+import com.example.demo.Models.Appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of an appointment that go into a calendar feed event, read with a
+ * constructor expression so a feed never loads whole entities
+ */
+public class CalendarEventDto {
+    private final Long id;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final Appointment.Status status;
+    private final Appointment.Location location;
+    private final String reason;
+    private final String zoomLink;
+    private final LocalDateTime updatedAt;
+    private final String doctorName;
+    private final String patientName;
+
+    public CalendarEventDto(Long id, LocalDateTime startTime, LocalDateTime endTime, Appointment.Status status,
+                            Appointment.Location location, String reason, String zoomLink, LocalDateTime updatedAt,
+                            String doctorFirstName, String doctorLastName,
+                            String patientFirstName, String patientLastName) {
+        this.id = id;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.location = location;
+        this.reason = reason;
+        this.zoomLink = zoomLink;
+        this.updatedAt = updatedAt;
+        this.doctorName = doctorFirstName + " " + doctorLastName;
+        this.patientName = patientFirstName + " " + patientLastName;
+    }
+
+    public Long getId() { return id; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public Appointment.Status getStatus() { return status; }
+    public Appointment.Location getLocation() { return location; }
+    public String getReason() { return reason; }
+    public String getZoomLink() { return zoomLink; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public String getDoctorName() { return doctorName; }
+    public String getPatientName() { return patientName; }
+}
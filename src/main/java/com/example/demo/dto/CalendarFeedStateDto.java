@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of appointments in a calendar feed's window and their latest change,
+ * enough to tell whether the feed changed without rendering it
+ */
+public class CalendarFeedStateDto {
+    private final long events;
+    private final LocalDateTime lastModified;
+
+    public CalendarFeedStateDto(Long events, LocalDateTime lastModified) {
+        this.events = events == null ? 0 : events;
+        this.lastModified = lastModified;
+    }
+
+    public long getEvents() { return events; }
+    public LocalDateTime getLastModified() { return lastModified; }
+}
@@ -1,12 +1,11 @@
 package com.example.demo.dto;
 
 
-import com.example.demo.Models.VitalSigns;
 import java.util.List;
 
 public class DashboardVitalsDto {
-    private VitalSigns latestVitals;
-    private VitalSigns previousVitals; 
+    private VitalSnapshotDto latestVitals;
+    private VitalSnapshotDto previousVitals; 
     private VitalTrendsDto trends;
     private List<String> alerts;
     private boolean hasData;
@@ -16,7 +15,7 @@ public class DashboardVitalsDto {
     public DashboardVitalsDto() {
     }
 
-    public DashboardVitalsDto(VitalSigns latestVitals, 
+    public DashboardVitalsDto(VitalSnapshotDto latestVitals, 
                             VitalTrendsDto trends, 
                             List<String> alerts, 
                             boolean hasData, int vitalsCount) {
@@ -28,19 +27,19 @@ public class DashboardVitalsDto {
     }
 
     // Getters and Setters
-    public VitalSigns getLatestVitals() {
+    public VitalSnapshotDto getLatestVitals() {
         return latestVitals;
     }
 
 
-    public void setLatestVitals(VitalSigns latestVitals) {
+    public void setLatestVitals(VitalSnapshotDto latestVitals) {
         this.latestVitals = latestVitals;
     }
-    public VitalSigns getPreviousVitals() {
+    public VitalSnapshotDto getPreviousVitals() {
         return previousVitals;
     }
     
-    public void setPreviousVitals(VitalSigns previousVitals) {
+    public void setPreviousVitals(VitalSnapshotDto previousVitals) {
         this.previousVitals = previousVitals;
     }
 
@@ -0,0 +1,64 @@
+package com.example.demo.dto;
+
+import com.example.demo.Models.DoctorDashboardCounters;
+
+/**
+ * Every count shown on the doctor dashboard cards: the running counters plus the
+ * time dependent figures of one aggregate query over the doctor's schedule
+ */
+public class DoctorDashboardStatsDto {
+    private final int vitalsRequests;
+    private final int appointmentRequests;
+    private final int upcomingAppointments;
+    private final int telemedicineSessionsToday;
+    private final int unacknowledgedAlerts;
+    private final int totalPatients;
+    private final int appointmentsToday;
+    private final int avgWaitTime;
+    private final int emergencyAlertsCount;
+
+    public DoctorDashboardStatsDto(int vitalsRequests, int appointmentRequests, int upcomingAppointments,
+                                   int telemedicineSessionsToday, int unacknowledgedAlerts, int totalPatients,
+                                   int appointmentsToday, int avgWaitTime, int emergencyAlertsCount) {
+        this.vitalsRequests = vitalsRequests;
+        this.appointmentRequests = appointmentRequests;
+        this.upcomingAppointments = upcomingAppointments;
+        this.telemedicineSessionsToday = telemedicineSessionsToday;
+        this.unacknowledgedAlerts = unacknowledgedAlerts;
+        this.totalPatients = totalPatients;
+        this.appointmentsToday = appointmentsToday;
+        this.avgWaitTime = avgWaitTime;
+        this.emergencyAlertsCount = emergencyAlertsCount;
+    }
+
+    // Shape of the schedule query's row, the sums and the average are null when no appointment matched
+    public DoctorDashboardStatsDto(Long upcomingAppointments, Long telemedicineSessionsToday, Long appointmentsToday,
+                                   Double avgWaitTime) {
+        this(0, 0, count(upcomingAppointments), count(telemedicineSessionsToday), 0, 0, count(appointmentsToday),
+            avgWaitTime != null ? avgWaitTime.intValue() : 0, 0);
+    }
+
+    /**
+     * These schedule figures combined with the doctor's running counters
+     */
+    public DoctorDashboardStatsDto withCounters(DoctorDashboardCounters counters) {
+        return new DoctorDashboardStatsDto((int) counters.getPendingVitalsRequests(),
+            (int) counters.getPendingAppointmentRequests(), upcomingAppointments, telemedicineSessionsToday,
+            (int) counters.getUnacknowledgedAlerts(), (int) counters.getPatients(), appointmentsToday, avgWaitTime,
+            (int) counters.getTotalAlerts());
+    }
+
+    private static int count(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    public int getVitalsRequests() { return vitalsRequests; }
+    public int getAppointmentRequests() { return appointmentRequests; }
+    public int getUpcomingAppointments() { return upcomingAppointments; }
+    public int getTelemedicineSessionsToday() { return telemedicineSessionsToday; }
+    public int getUnacknowledgedAlerts() { return unacknowledgedAlerts; }
+    public int getTotalPatients() { return totalPatients; }
+    public int getAppointmentsToday() { return appointmentsToday; }
+    public int getAvgWaitTime() { return avgWaitTime; }
+    public int getEmergencyAlertsCount() { return emergencyAlertsCount; }
+}
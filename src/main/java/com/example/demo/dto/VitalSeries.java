@@ -0,0 +1,82 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Column-oriented block of vital readings for one patient, in time order. Each
+ * measurement is a primitive array indexed by row, so a scan of n readings costs
+ * a handful of arrays rather than n entity objects.
+ */
+public class VitalSeries {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] epochSeconds;
+    private double[] temperatures;
+    private int[] pulseRates;
+    private int[] respiratoryRates;
+    private int[] systolic;
+    private int[] diastolic;
+    private double[] oxygenLevels;
+    private int[] painLevels;
+    private int size;
+
+    public VitalSeries() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public VitalSeries(int capacity) {
+        int initial = Math.max(1, capacity);
+        epochSeconds = new long[initial];
+        temperatures = new double[initial];
+        pulseRates = new int[initial];
+        respiratoryRates = new int[initial];
+        systolic = new int[initial];
+        diastolic = new int[initial];
+        oxygenLevels = new double[initial];
+        painLevels = new int[initial];
+    }
+
+    public void append(long epochSecond, double temperature, int pulseRate, int respiratoryRate,
+                       int systolicValue, int diastolicValue, double oxygen, int painLevel) {
+        if (size == epochSeconds.length) {
+            grow();
+        }
+        epochSeconds[size] = epochSecond;
+        temperatures[size] = temperature;
+        pulseRates[size] = pulseRate;
+        respiratoryRates[size] = respiratoryRate;
+        systolic[size] = systolicValue;
+        diastolic[size] = diastolicValue;
+        oxygenLevels[size] = oxygen;
+        painLevels[size] = painLevel;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = epochSeconds.length * 2;
+        epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        temperatures = Arrays.copyOf(temperatures, capacity);
+        pulseRates = Arrays.copyOf(pulseRates, capacity);
+        respiratoryRates = Arrays.copyOf(respiratoryRates, capacity);
+        systolic = Arrays.copyOf(systolic, capacity);
+        diastolic = Arrays.copyOf(diastolic, capacity);
+        oxygenLevels = Arrays.copyOf(oxygenLevels, capacity);
+        painLevels = Arrays.copyOf(painLevels, capacity);
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public long getEpochSecond(int i) { return epochSeconds[i]; }
+    public LocalDateTime getTimestamp(int i) { return LocalDateTime.ofEpochSecond(epochSeconds[i], 0, ZoneOffset.UTC); }
+    public double getTemperature(int i) { return temperatures[i]; }
+    public int getPulseRate(int i) { return pulseRates[i]; }
+    public int getRespiratoryRate(int i) { return respiratoryRates[i]; }
+    public int getSystolic(int i) { return systolic[i]; }
+    public int getDiastolic(int i) { return diastolic[i]; }
+    public double getOxygenSaturation(int i) { return oxygenLevels[i]; }
+    public int getPainLevel(int i) { return painLevels[i]; }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import com.example.demo.Models.VitalMeasurements;
+import com.example.demo.Models.VitalSigns;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a single reading for the patient dashboard, built from
+ * the time-series store without loading the VitalSigns entity or its relations.
+ */
+public class VitalSnapshotDto implements VitalMeasurements {
+    private final LocalDateTime timestamp;
+    private final double bodyTemperature;
+    private final int pulseRate;
+    private final int respiratoryRate;
+    private final VitalSigns.BloodPressure bloodPressure;
+    private final double oxygenSaturation;
+    private final VitalSigns.PainLevel painLevel;
+
+    public VitalSnapshotDto(LocalDateTime timestamp, double bodyTemperature, int pulseRate, int respiratoryRate,
+                            int systolic, int diastolic, double oxygenSaturation, VitalSigns.PainLevel painLevel) {
+        this.timestamp = timestamp;
+        this.bodyTemperature = bodyTemperature;
+        this.pulseRate = pulseRate;
+        this.respiratoryRate = respiratoryRate;
+        this.bloodPressure = new VitalSigns.BloodPressure(systolic, diastolic);
+        this.oxygenSaturation = oxygenSaturation;
+        this.painLevel = painLevel;
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public double getBodyTemperature() { return bodyTemperature; }
+    public int getPulseRate() { return pulseRate; }
+    public int getRespiratoryRate() { return respiratoryRate; }
+    public VitalSigns.BloodPressure getBloodPressure() { return bloodPressure; }
+    public double getOxygenSaturation() { return oxygenSaturation; }
+    public VitalSigns.PainLevel getPainLevel() { return painLevel; }
+}
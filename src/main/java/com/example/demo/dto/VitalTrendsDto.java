@@ -14,6 +14,20 @@ public class VitalTrendsDto {
     private List<Double> temperatures = new ArrayList<>();
     private List<Integer> respiratoryRates = new ArrayList<>();
 
+    // RAW for individual readings, otherwise the rollup bucket size (HOUR, DAY);
+    // the min/max lists are only filled for rollups and line up with timestamps
+    private String resolution = "RAW";
+    private List<Integer> minHeartRates = new ArrayList<>();
+    private List<Integer> maxHeartRates = new ArrayList<>();
+    private List<Integer> minSystolicBP = new ArrayList<>();
+    private List<Integer> maxSystolicBP = new ArrayList<>();
+    private List<Integer> minDiastolicBP = new ArrayList<>();
+    private List<Integer> maxDiastolicBP = new ArrayList<>();
+    private List<Double> minOxygenLevels = new ArrayList<>();
+    private List<Double> maxOxygenLevels = new ArrayList<>();
+    private List<Double> minTemperatures = new ArrayList<>();
+    private List<Double> maxTemperatures = new ArrayList<>();
+
     // Getters
     public List<String> getTimestamps() {
         return timestamps;
@@ -43,6 +57,25 @@ public class VitalTrendsDto {
         return respiratoryRates;
     }
 
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public List<Integer> getMinHeartRates() { return minHeartRates; }
+    public List<Integer> getMaxHeartRates() { return maxHeartRates; }
+    public List<Integer> getMinSystolicBP() { return minSystolicBP; }
+    public List<Integer> getMaxSystolicBP() { return maxSystolicBP; }
+    public List<Integer> getMinDiastolicBP() { return minDiastolicBP; }
+    public List<Integer> getMaxDiastolicBP() { return maxDiastolicBP; }
+    public List<Double> getMinOxygenLevels() { return minOxygenLevels; }
+    public List<Double> getMaxOxygenLevels() { return maxOxygenLevels; }
+    public List<Double> getMinTemperatures() { return minTemperatures; }
+    public List<Double> getMaxTemperatures() { return maxTemperatures; }
+
     // Utility Methods
     public boolean isEmpty() {
         return timestamps.isEmpty();
@@ -63,4 +96,21 @@ public class VitalTrendsDto {
         this.temperatures.add(temperature);
         this.respiratoryRates.add(respiratoryRate);
     }
+
+    public void addRange(int minHeartRate, int maxHeartRate,
+                         int minSystolic, int maxSystolic,
+                         int minDiastolic, int maxDiastolic,
+                         double minOxygen, double maxOxygen,
+                         double minTemperature, double maxTemperature) {
+        this.minHeartRates.add(minHeartRate);
+        this.maxHeartRates.add(maxHeartRate);
+        this.minSystolicBP.add(minSystolic);
+        this.maxSystolicBP.add(maxSystolic);
+        this.minDiastolicBP.add(minDiastolic);
+        this.maxDiastolicBP.add(maxDiastolic);
+        this.minOxygenLevels.add(minOxygen);
+        this.maxOxygenLevels.add(maxOxygen);
+        this.minTemperatures.add(minTemperature);
+        this.maxTemperatures.add(maxTemperature);
+    }
 }
\ No newline at end of file
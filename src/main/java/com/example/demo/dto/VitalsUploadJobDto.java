@@ -0,0 +1,71 @@
+package com.example.demo.dto;
+
+import com.example.demo.Models.VitalsUploadJob;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Progress view of a background vitals upload. Count and message fields use the
+ * same names as CSVUploadResponse so clients can render both the same way.
+ */
+public class VitalsUploadJobDto {
+    private Long jobId;
+    private String status;
+    private boolean finished;
+    private boolean success;
+    private String fileName;
+    private int chunksProcessed;
+    private int recordsProcessed;
+    private int totalRecords;
+    private int successfulRecords;
+    private int failedRecords;
+    private String message;
+    private List<String> errors;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public VitalsUploadJobDto() {
+    }
+
+    public static VitalsUploadJobDto from(VitalsUploadJob job) {
+        VitalsUploadJobDto dto = new VitalsUploadJobDto();
+        dto.jobId = job.getId();
+        dto.status = job.getStatus().name();
+        dto.finished = job.getStatus().isTerminal();
+        dto.success = job.getStatus() == VitalsUploadJob.Status.COMPLETED;
+        dto.fileName = job.getFileName();
+        dto.chunksProcessed = job.getChunksProcessed();
+        dto.recordsProcessed = job.getRecordsProcessed();
+        dto.totalRecords = job.getTotalRecords();
+        dto.successfulRecords = job.getRecordsSaved();
+        dto.failedRecords = job.getRecordsFailed();
+        dto.message = job.getMessage();
+        dto.errors = job.getErrors() == null || job.getErrors().isEmpty()
+                ? List.of()
+                : Arrays.asList(job.getErrors().split("\n"));
+        dto.createdAt = job.getCreatedAt();
+        dto.startedAt = job.getStartedAt();
+        dto.finishedAt = job.getFinishedAt();
+        return dto;
+    }
+
+    // Getters
+    public Long getJobId() { return jobId; }
+    public String getStatus() { return status; }
+    public boolean isFinished() { return finished; }
+    public boolean isSuccess() { return success; }
+    public String getFileName() { return fileName; }
+    public int getChunksProcessed() { return chunksProcessed; }
+    public int getRecordsProcessed() { return recordsProcessed; }
+    public int getTotalRecords() { return totalRecords; }
+    public int getSuccessfulRecords() { return successfulRecords; }
+    public int getFailedRecords() { return failedRecords; }
+    public String getMessage() { return message; }
+    public List<String> getErrors() { return errors; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A doctor's weekly working hours as read and written by the doctor. Times are HH:mm,
+ * dayOfWeek is MONDAY..SUNDAY and kind is SHIFT or BREAK.
+ */
+public class WorkingHoursDto {
+    private Integer slotMinutes;
+    private List<Period> periods = new ArrayList<>();
+
+    public WorkingHoursDto() {
+    }
+
+    public WorkingHoursDto(Integer slotMinutes, List<Period> periods) {
+        this.slotMinutes = slotMinutes;
+        this.periods = periods;
+    }
+
+    public Integer getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(Integer slotMinutes) { this.slotMinutes = slotMinutes; }
+    public List<Period> getPeriods() { return periods; }
+    public void setPeriods(List<Period> periods) { this.periods = periods; }
+
+    public static class Period {
+        private String dayOfWeek;
+        private String kind;
+        private String start;
+        private String end;
+
+        public Period() {
+        }
+
+        public Period(String dayOfWeek, String kind, String start, String end) {
+            this.dayOfWeek = dayOfWeek;
+            this.kind = kind;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getDayOfWeek() { return dayOfWeek; }
+        public void setDayOfWeek(String dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+        public String getKind() { return kind; }
+        public void setKind(String kind) { this.kind = kind; }
+        public String getStart() { return start; }
+        public void setStart(String start) { this.start = start; }
+        public String getEnd() { return end; }
+        public void setEnd(String end) { this.end = end; }
+    }
+}
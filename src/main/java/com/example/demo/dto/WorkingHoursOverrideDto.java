@@ -0,0 +1,38 @@
+package com.example.demo.dto;
+
+/**
+ * An exception to a doctor's working hours on one date (yyyy-MM-dd). kind is CLOSED or OPEN;
+ * a CLOSED exception without start and end (HH:mm) is a whole day off.
+ */
+public class WorkingHoursOverrideDto {
+    private Long id;
+    private String date;
+    private String kind;
+    private String start;
+    private String end;
+    private String reason;
+
+    public WorkingHoursOverrideDto() {
+    }
+
+    public WorkingHoursOverrideDto(Long id, String date, String kind, String start, String end, String reason) {
+        this.id = id;
+        this.date = date;
+        this.kind = kind;
+        this.start = start;
+        this.end = end;
+        this.reason = reason;
+    }
+
+    public Long getId() { return id; }
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+    public String getStart() { return start; }
+    public void setStart(String start) { this.start = start; }
+    public String getEnd() { return end; }
+    public void setEnd(String end) { this.end = end; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -6,12 +6,15 @@ import com.example.demo.Models.Doctor;
 import com.example.demo.Models.Patient;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -27,6 +30,12 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
 
         List<Alert> findByDoctorUserIdAndAcknowledgedFalse(String doctorId);
 
+    long countByDoctorUserId(String doctorId);
+
+    long countByDoctorUserIdAndAcknowledgedFalse(String doctorId);
+
+
+    List<Alert> findByDoctorUserIdOrderByTimestampDesc(String doctorId, Pageable pageable);
 
     Page<Alert> findTopByDoctorUserIdOrderByTimestampDesc(
         String doctorId, Pageable pageable);
@@ -36,4 +45,11 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
    List<Alert> findByDoctorAndAcknowledgedFalseOrderByTimestampDesc(Doctor doctor);
     List<Alert> findByDoctorAndAcknowledgedFalse(Doctor doctor);
     List<Alert> findByPatientAndAcknowledgedFalseOrderByTimestampDesc(Patient patient);
+
+    /**
+     * Acknowledge the alerts that are still unacknowledged, returns how many changed
+     */
+    @Modifying
+    @Query("UPDATE Alert a SET a.acknowledged = true WHERE a.id IN :ids AND a.acknowledged = false")
+    int acknowledgeAll(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -3,11 +3,19 @@ package com.example.demo.respository;
 import com.example.demo.Models.Appointment;
 import com.example.demo.Models.Doctor;
 import com.example.demo.Models.Patient;
+import com.example.demo.dto.CalendarEventDto;
+import com.example.demo.dto.CalendarFeedStateDto;
+import com.example.demo.dto.DoctorDashboardStatsDto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.Optional;
@@ -61,12 +69,13 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     int countDistinctPatientsByDoctorUserId(@Param("doctorUserId") String doctorUserId);
 
     // Find appointments that are about to start (for notifications)
-    @Query("SELECT a FROM Appointment a WHERE " +
-           "a.startTime BETWEEN :now AND :reminderTime AND " +
-           "a.status = 'SCHEDULED'")
-    List<Appointment> findUpcomingAppointmentsForReminder(
-        @Param("now") LocalDateTime now,
-        @Param("reminderTime") LocalDateTime reminderTime
+    // (id, startTime) of confirmed appointments starting in (from, to], for the reminder scheduler
+    @Query("SELECT a.id, a.startTime FROM Appointment a WHERE " +
+           "a.startTime > :from AND a.startTime <= :to AND " +
+           "a.status = 'CONFIRMED'")
+    List<Object[]> findUpcomingAppointmentsForReminder(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
     );
 
     // Find overlapping appointments (using Doctor entity)
@@ -110,6 +119,8 @@ List<Appointment> findByDoctorIdAndDate(
 
 
     
+    boolean existsByDoctor_UserIdAndPatient_UserId(String doctorId, String patientId);
+
     // Check for overlapping appointments
     @Query("SELECT COUNT(a) > 0 FROM Appointment a " +
            "WHERE a.doctor.id = :doctorId " +
@@ -155,6 +166,60 @@ List<Appointment> findByDoctorIdAndDate(
 
     List<Appointment> findByPatientUserIdAndStatusIn(String userId, List<Appointment.Status> statuses);
 
+    List<Appointment> findByPatientUserIdAndStatusInAndStartTimeAfter(String userId, List<Appointment.Status> statuses,
+                                                                      LocalDateTime start);
+
+    List<Appointment> findByDoctorUserIdAndLocationAndStatusInAndStartTimeAfterOrderByStartTimeAsc(
+        String doctorUserId, Appointment.Location location, List<Appointment.Status> statuses, LocalDateTime start);
+
+    /**
+     * Locks the next batch of appointments that started before :now while still waiting for the doctor
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.id FROM Appointment a WHERE a.status IN :statuses AND a.startTime <= :now " +
+           "ORDER BY a.startTime, a.id")
+    List<Long> lockStaleIds(@Param("statuses") List<Appointment.Status> statuses,
+                            @Param("now") LocalDateTime now,
+                            Pageable page);
+
+    /**
+     * The time dependent doctor dashboard cards in one round trip, as conditional sums over the doctor's
+     * upcoming and today's appointments. The running counts come from DashboardCounterService.
+     */
+    @Query("SELECT new com.example.demo.dto.DoctorDashboardStatsDto(" +
+           "SUM(CASE WHEN a.status = 'CONFIRMED' AND a.startTime > :now " +
+           "    AND a.location = com.example.demo.Models.Appointment$Location.IN_PERSON THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN a.startTime BETWEEN :startOfDay AND :endOfDay AND a.zoomLink IS NOT NULL THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN a.startTime BETWEEN :startOfDay AND :endOfDay THEN 1 ELSE 0 END), " +
+           "AVG(CASE WHEN a.status = 'COMPLETED' AND a.startTime BETWEEN :startOfDay AND :now " +
+           "    THEN (a.endTime - a.startTime) BY MINUTE END)) " +
+           "FROM Appointment a WHERE a.doctor.userId = :doctorId AND a.startTime >= :startOfDay")
+    DoctorDashboardStatsDto computeScheduleStats(@Param("doctorId") String doctorId,
+                                                 @Param("now") LocalDateTime now,
+                                                 @Param("startOfDay") LocalDateTime startOfDay,
+                                                 @Param("endOfDay") LocalDateTime endOfDay);
+
+    long countByDoctorUserIdAndStatusIn(String doctorUserId, Collection<Appointment.Status> statuses);
+
+    // (patient userId, number of confirmed appointments) for each of the doctor's patients
+    @Query("SELECT a.patient.userId, COUNT(a) FROM Appointment a " +
+           "WHERE a.doctor.userId = :doctorUserId AND a.status = 'CONFIRMED' GROUP BY a.patient.userId")
+    List<Object[]> countConfirmedByPatient(@Param("doctorUserId") String doctorUserId);
+
+    @Query("SELECT DISTINCT a.doctor.userId FROM Appointment a WHERE a.patient.userId = :patientUserId")
+    List<String> findDoctorIdsByPatientUserId(@Param("patientUserId") String patientUserId);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor WHERE a.id IN :ids")
+    List<Appointment> findWithParticipantsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = 'CANCELLED', a.cancellationReason = :reason, a.updatedAt = :now " +
+           "WHERE a.id IN :ids AND a.status IN :statuses")
+    int cancelAll(@Param("ids") Collection<Long> ids,
+                  @Param("statuses") List<Appointment.Status> statuses,
+                  @Param("reason") String reason,
+                  @Param("now") LocalDateTime now);
+
 
      List<Appointment> findByDoctorUserIdAndLocationOrderByStartTimeAsc(String doctorId,Appointment.Location location);
     Appointment findByIdAndDoctorUserId(Long id, String doctorId);
@@ -187,4 +252,58 @@ List<Appointment> findByDoctorUserIdAndStartTimeBetweenAndStatus(
 
 List<Appointment> findByDoctorAndStartTimeBeforeAndLocationAndStatus(Doctor doctor, LocalDateTime date, Appointment.Location location, Appointment.Status status);
 
+// Schedule rows (doctor userId, id, startTime, endTime, status) for several doctors at once, used to warm the schedule index
+@Query("SELECT a.doctor.userId, a.id, a.startTime, a.endTime, a.status FROM Appointment a " +
+       "WHERE a.doctor.userId IN :doctorUserIds " +
+       "AND a.startTime >= :start AND a.startTime < :end")
+List<Object[]> findScheduleRows(
+    @Param("doctorUserIds") Collection<String> doctorUserIds,
+    @Param("start") LocalDateTime start,
+    @Param("end") LocalDateTime end
+);
+
+
+// Calendar feed pages, keyset-paginated on (startTime, id): events of the owner starting after the
+// previous page's last event, with one of the statuses, changed at or after changedSince
+@Query("SELECT new com.example.demo.dto.CalendarEventDto(a.id, a.startTime, a.endTime, a.status, a.location, " +
+       "a.reason, a.zoomLink, a.updatedAt, d.firstName, d.lastName, p.firstName, p.lastName) " +
+       "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+       "WHERE d.userId = :ownerId AND a.status IN :statuses AND a.updatedAt >= :changedSince " +
+       "AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId)) " +
+       "ORDER BY a.startTime, a.id")
+List<CalendarEventDto> findDoctorCalendarEvents(
+    @Param("ownerId") String doctorUserId,
+    @Param("statuses") Collection<Appointment.Status> statuses,
+    @Param("changedSince") LocalDateTime changedSince,
+    @Param("afterStart") LocalDateTime afterStart,
+    @Param("afterId") Long afterId,
+    Pageable pageable
+);
+
+@Query("SELECT new com.example.demo.dto.CalendarEventDto(a.id, a.startTime, a.endTime, a.status, a.location, " +
+       "a.reason, a.zoomLink, a.updatedAt, d.firstName, d.lastName, p.firstName, p.lastName) " +
+       "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+       "WHERE p.userId = :ownerId AND a.status IN :statuses AND a.updatedAt >= :changedSince " +
+       "AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId)) " +
+       "ORDER BY a.startTime, a.id")
+List<CalendarEventDto> findPatientCalendarEvents(
+    @Param("ownerId") String patientUserId,
+    @Param("statuses") Collection<Appointment.Status> statuses,
+    @Param("changedSince") LocalDateTime changedSince,
+    @Param("afterStart") LocalDateTime afterStart,
+    @Param("afterId") Long afterId,
+    Pageable pageable
+);
+
+// Count and latest change of the owner's appointments from windowStart on, answered from the calendar index
+@Query("SELECT new com.example.demo.dto.CalendarFeedStateDto(COUNT(a), MAX(a.updatedAt)) FROM Appointment a " +
+       "WHERE a.doctor.userId = :doctorUserId AND a.startTime >= :windowStart")
+CalendarFeedStateDto findDoctorCalendarState(@Param("doctorUserId") String doctorUserId,
+                                             @Param("windowStart") LocalDateTime windowStart);
+
+@Query("SELECT new com.example.demo.dto.CalendarFeedStateDto(COUNT(a), MAX(a.updatedAt)) FROM Appointment a " +
+       "WHERE a.patient.userId = :patientUserId AND a.startTime >= :windowStart")
+CalendarFeedStateDto findPatientCalendarState(@Param("patientUserId") String patientUserId,
+                                              @Param("windowStart") LocalDateTime windowStart);
+
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.CalendarFeed;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface CalendarFeedRepository extends JpaRepository<CalendarFeed, String> {
+
+    Optional<CalendarFeed> findByToken(String token);
+
+    @Modifying
+    @Query("UPDATE CalendarFeed f SET f.resetAt = :now WHERE f.userId IN :userIds")
+    int markReset(@Param("userIds") Collection<String> userIds, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,43 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.DoctorDashboardCounters;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DoctorDashboardCountersRepository extends JpaRepository<DoctorDashboardCounters, String> {
+
+    /**
+     * Adds the deltas to the doctor's counters, returns 0 if the doctor has no counters row yet
+     */
+    @Modifying
+    @Query("UPDATE DoctorDashboardCounters c SET " +
+           "c.pendingVitalsRequests = c.pendingVitalsRequests + :pendingVitals, " +
+           "c.pendingAppointmentRequests = c.pendingAppointmentRequests + :pendingAppointments, " +
+           "c.unacknowledgedAlerts = c.unacknowledgedAlerts + :unacknowledgedAlerts, " +
+           "c.totalAlerts = c.totalAlerts + :totalAlerts, " +
+           "c.patients = c.patients + :patients " +
+           "WHERE c.doctorId = :doctorId")
+    int add(@Param("doctorId") String doctorId,
+            @Param("pendingVitals") long pendingVitals,
+            @Param("pendingAppointments") long pendingAppointments,
+            @Param("unacknowledgedAlerts") long unacknowledgedAlerts,
+            @Param("totalAlerts") long totalAlerts,
+            @Param("patients") long patients);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM DoctorDashboardCounters c WHERE c.doctorId = :doctorId")
+    Optional<DoctorDashboardCounters> lockByDoctorId(@Param("doctorId") String doctorId);
+
+    @Query("SELECT c.doctorId FROM DoctorDashboardCounters c WHERE c.doctorId > :after ORDER BY c.doctorId")
+    List<String> findDoctorIdsAfter(@Param("after") String after, Pageable page);
+}
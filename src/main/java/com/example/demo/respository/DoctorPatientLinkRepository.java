@@ -0,0 +1,21 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.DoctorPatientLink;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+// Links are read for update so a repeatable-read snapshot never hides another transaction's change
+@Repository
+public interface DoctorPatientLinkRepository extends JpaRepository<DoctorPatientLink, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DoctorPatientLink> findByDoctorIdAndPatientId(String doctorId, String patientId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<DoctorPatientLink> findByDoctorId(String doctorId);
+}
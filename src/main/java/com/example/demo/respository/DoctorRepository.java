@@ -1,6 +1,10 @@
 package com.example.demo.respository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.example.demo.Models.Doctor;
 
@@ -23,5 +27,12 @@ Page<Doctor> findByIsActiveTrue(Pageable pageable);
 
     boolean existsByUserId(String userId);
      Page<Doctor> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName, Pageable pageable);
+
+    /**
+     * Locks the doctor's row so bookings for the same doctor on other instances wait for this transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Doctor d WHERE d.userId = :userId")
+    Optional<Doctor> lockByUserId(@Param("userId") String userId);
 }
 
@@ -0,0 +1,9 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.DoctorWorkingHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DoctorWorkingHoursRepository extends JpaRepository<DoctorWorkingHours, String> {
+}
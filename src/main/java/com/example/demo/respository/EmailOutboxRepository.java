@@ -0,0 +1,60 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    @Query("SELECT m.id FROM EmailOutboxMessage m WHERE m.status = 'PENDING' AND m.lane = :lane " +
+           "AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(@Param("lane") EmailOutboxMessage.Lane lane, @Param("now") LocalDateTime now, Pageable page);
+
+    /**
+     * Move a due message to SENDING, returns 0 if another dispatcher got there first
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'SENDING', m.claimedAt = :now " +
+           "WHERE m.id = :id AND m.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Messages left SENDING by a dispatcher that died mid-send go back to the queue; the
+     * interrupted send counts as an attempt
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'PENDING', m.nextAttemptAt = :now, m.attempts = m.attempts + 1 " +
+           "WHERE m.status = 'SENDING' AND m.claimedAt < :cutoff AND m.attempts + 1 < :maxAttempts")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now,
+                           @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Stale claims that used up their last attempt, so a message that kills its dispatcher ends up DEAD
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'DEAD', m.attempts = m.attempts + 1, m.lastError = :error " +
+           "WHERE m.status = 'SENDING' AND m.claimedAt < :cutoff AND m.attempts + 1 >= :maxAttempts")
+    int killStaleClaims(@Param("cutoff") LocalDateTime cutoff, @Param("error") String error,
+                        @Param("maxAttempts") int maxAttempts);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(EmailOutboxMessage.Status status);
+
+    long countByStatusAndLane(EmailOutboxMessage.Status status, EmailOutboxMessage.Lane lane);
+}
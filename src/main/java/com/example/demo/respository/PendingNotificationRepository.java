@@ -0,0 +1,26 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.PendingNotification;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PendingNotificationRepository extends JpaRepository<PendingNotification, Long> {
+
+    @Query("SELECT DISTINCT n.recipient FROM PendingNotification n WHERE n.dueAt <= :now")
+    List<String> findRecipientsDue(@Param("now") LocalDateTime now);
+
+    /**
+     * Locks the recipient's pending rows so two instances cannot flush the same digest
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM PendingNotification n WHERE n.recipient = :recipient ORDER BY n.createdAt, n.id")
+    List<PendingNotification> lockByRecipient(@Param("recipient") String recipient);
+}
@@ -0,0 +1,22 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.SentAppointmentReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SentAppointmentReminderRepository extends JpaRepository<SentAppointmentReminder, Long> {
+
+    boolean existsByAppointmentIdAndAppointmentStartAndOffsetSeconds(Long appointmentId,
+                                                                     LocalDateTime appointmentStart,
+                                                                     long offsetSeconds);
+
+    @Modifying
+    @Query("DELETE FROM SentAppointmentReminder r WHERE r.appointmentStart < :before")
+    int deleteByAppointmentStartBefore(@Param("before") LocalDateTime before);
+}
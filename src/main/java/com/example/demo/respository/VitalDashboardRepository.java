@@ -0,0 +1,140 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.dto.DashboardVitalsDto;
+import com.example.demo.dto.VitalSnapshotDto;
+import com.example.demo.dto.VitalTrendsDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads everything the patient dashboard shows in a single round-trip: the reading
+ * count, the latest two readings and the trend window. The window is returned raw
+ * while it holds at most maxRawPoints readings, otherwise as hourly rollup averages.
+ * Every branch is bounded by the rollup index, so the cost of the query does not
+ * grow with the length of the patient's history.
+ */
+@Repository
+public class VitalDashboardRepository {
+
+    private static final int PART_COUNT = 0;
+    private static final int PART_LATEST = 1;
+    private static final int PART_RAW_TREND = 2;
+    private static final int PART_HOURLY_TREND = 3;
+
+    private static final String NEVER = "TIMESTAMP '9999-12-31 00:00:00'";
+
+    private static final String READING_COLUMNS =
+        "recorded_at, 1, body_temperature, pulse_rate, respiratory_rate, systolic, diastolic, " +
+        "oxygen_saturation, pain_level, vital_signs_id";
+
+    // The last two non-empty days hold at least two readings, so the latest-two
+    // search never has to look further back than the older of those days
+    private static final String LATEST_LOWER_BOUND =
+        "COALESCE((SELECT MIN(bucket_start) FROM (SELECT bucket_start FROM vital_rollups " +
+        "WHERE patient_id = ? AND resolution = 'DAY' ORDER BY bucket_start DESC LIMIT 2) d), " +
+        "TIMESTAMP '1970-01-01 00:00:00')";
+
+    // Window start when the raw/hourly condition holds, otherwise a bound no row can meet;
+    // this keeps the inactive trend branch an empty index range instead of a filtered scan
+    private static final String WINDOW_START_IF =
+        "(SELECT CASE WHEN COALESCE(SUM(reading_count), 0) %s ? THEN CAST(? AS DATETIME) ELSE " + NEVER + " END " +
+        "FROM vital_rollups WHERE patient_id = ? AND resolution = 'HOUR' AND bucket_start >= ?)";
+
+    private static final String SNAPSHOT_SQL =
+        "SELECT " + PART_COUNT + " AS part, NULL AS recorded_at, COALESCE(SUM(reading_count), 0), " +
+        "NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL AS vital_signs_id " +
+        "FROM vital_rollups WHERE patient_id = ? AND resolution = 'DAY' " +
+        "UNION ALL (SELECT " + PART_LATEST + ", " + READING_COLUMNS + " FROM vital_readings " +
+        "WHERE patient_id = ? AND recorded_at >= " + LATEST_LOWER_BOUND + " ORDER BY recorded_at DESC, vital_signs_id DESC LIMIT 2) " +
+        "UNION ALL SELECT " + PART_RAW_TREND + ", " + READING_COLUMNS + " FROM vital_readings " +
+        "WHERE patient_id = ? AND recorded_at >= " + String.format(WINDOW_START_IF, "<=") + " " +
+        "UNION ALL SELECT " + PART_HOURLY_TREND + ", bucket_start, reading_count, " +
+        "sum_temperature / reading_count, sum_pulse * 1.0 / reading_count, " +
+        "sum_respiratory * 1.0 / reading_count, sum_systolic * 1.0 / reading_count, " +
+        "sum_diastolic * 1.0 / reading_count, sum_oxygen / reading_count, NULL, NULL " +
+        "FROM vital_rollups WHERE patient_id = ? AND resolution = 'HOUR' " +
+        "AND bucket_start >= " + String.format(WINDOW_START_IF, ">") + " " +
+        "ORDER BY part, recorded_at, vital_signs_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VitalDashboardRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Dashboard data without alerts; trends cover readings from windowStart onwards
+     */
+    public DashboardVitalsDto findSnapshot(String patientId, LocalDateTime windowStart, int maxRawPoints) {
+        Timestamp rawStart = Timestamp.valueOf(windowStart);
+        Timestamp hourStart = Timestamp.valueOf(windowStart.withMinute(0).withSecond(0).withNano(0));
+
+        DashboardVitalsDto dashboard = new DashboardVitalsDto();
+        VitalTrendsDto trends = new VitalTrendsDto();
+        List<VitalSnapshotDto> latest = new ArrayList<>(2);
+
+        jdbcTemplate.query(SNAPSHOT_SQL, (RowCallbackHandler) rs -> {
+            switch (rs.getInt(1)) {
+                case PART_COUNT -> dashboard.setVitalsCount((int) rs.getLong(3));
+                case PART_LATEST -> latest.add(toSnapshot(rs));
+                case PART_RAW_TREND -> addTrendPoint(trends, rs, false);
+                case PART_HOURLY_TREND -> {
+                    trends.setResolution("HOUR");
+                    addTrendPoint(trends, rs, true);
+                }
+                default -> throw new IllegalStateException("Unexpected dashboard row part " + rs.getInt(1));
+            }
+        },
+            patientId,
+            patientId, patientId,
+            patientId, maxRawPoints, rawStart, patientId, hourStart,
+            patientId, maxRawPoints, hourStart, patientId, hourStart);
+
+        // Latest rows arrive oldest first
+        if (!latest.isEmpty()) {
+            dashboard.setLatestVitals(latest.get(latest.size() - 1));
+            if (latest.size() > 1) {
+                dashboard.setPreviousVitals(latest.get(0));
+            }
+        }
+        dashboard.setHasData(!latest.isEmpty());
+        dashboard.setTrends(trends);
+        return dashboard;
+    }
+
+    private static VitalSnapshotDto toSnapshot(ResultSet rs) throws SQLException {
+        return new VitalSnapshotDto(
+            rs.getTimestamp(2).toLocalDateTime(),
+            rs.getDouble(4),
+            rs.getInt(5),
+            rs.getInt(6),
+            rs.getInt(7),
+            rs.getInt(8),
+            rs.getDouble(9),
+            VitalSigns.PainLevel.values()[rs.getInt(10)]);
+    }
+
+    private static void addTrendPoint(VitalTrendsDto trends, ResultSet rs, boolean averaged) throws SQLException {
+        trends.addDataPoint(
+            rs.getTimestamp(2).toLocalDateTime().toString(),
+            (int) Math.round(rs.getDouble(5)),
+            (int) Math.round(rs.getDouble(7)),
+            (int) Math.round(rs.getDouble(8)),
+            averaged ? round1(rs.getDouble(9)) : rs.getDouble(9),
+            averaged ? round1(rs.getDouble(4)) : rs.getDouble(4),
+            (int) Math.round(rs.getDouble(6)));
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
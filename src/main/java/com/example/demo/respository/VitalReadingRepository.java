@@ -0,0 +1,134 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.dto.VitalSeries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * JDBC access to the vital_readings time-series table. Reads fill a VitalSeries
+ * column by column straight from the ResultSet; no entities are materialised.
+ * Each row carries the id of the vital_signs row it copies, so readings with the
+ * same timestamp are kept side by side and ties are ordered by that id.
+ */
+@Repository
+public class VitalReadingRepository {
+
+    private static final String COLUMNS =
+        "recorded_at, body_temperature, pulse_rate, respiratory_rate, systolic, diastolic, " +
+        "oxygen_saturation, pain_level";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO vital_readings (patient_id, vital_signs_id, " + COLUMNS + ") " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String RANGE_SQL =
+        "SELECT " + COLUMNS + " FROM vital_readings " +
+        "WHERE patient_id = ? AND recorded_at >= ? AND recorded_at < ? ORDER BY recorded_at, vital_signs_id";
+
+    private static final String COUNT_RANGE_SQL =
+        "SELECT COUNT(*) FROM vital_readings WHERE patient_id = ? AND recorded_at >= ? AND recorded_at < ?";
+
+    private static final String BACKFILL_SQL =
+        "INSERT IGNORE INTO vital_readings (patient_id, vital_signs_id, " + COLUMNS + ") " +
+        "SELECT patient_id, id, timestamp, body_temperature, pulse_rate, respiratory_rate, systolic, diastolic, " +
+        "oxygen_saturation, COALESCE(pain_level, 0) FROM vital_signs WHERE timestamp IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int fetchSize;
+
+    public VitalReadingRepository(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.vitals.upload.jdbc-batch-size:500}") int batchSize,
+                                  @Value("${app.vitals.timeseries.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Append readings for vitals already stored in vital_signs, which must carry their ids
+     */
+    public void appendAll(List<VitalSigns> vitals) {
+        if (vitals.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, vitals, batchSize, this::bindReading);
+    }
+
+    /**
+     * Every reading in [from, to), oldest first
+     */
+    public VitalSeries findRange(String patientId, LocalDateTime from, LocalDateTime to) {
+        VitalSeries series = new VitalSeries();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(RANGE_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, patientId);
+            ps.setTimestamp(2, Timestamp.valueOf(from));
+            ps.setTimestamp(3, Timestamp.valueOf(to));
+            return ps;
+        }, appendTo(series));
+        return series;
+    }
+
+    public long countInRange(String patientId, LocalDateTime from, LocalDateTime to) {
+        Long count = jdbcTemplate.queryForObject(COUNT_RANGE_SQL, Long.class,
+                patientId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return count != null ? count : 0;
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM vital_readings LIMIT 1").isEmpty();
+    }
+
+    /**
+     * Copy every vital_signs row into the time-series table, skipping rows already copied
+     */
+    public int backfillFromVitalSigns() {
+        return jdbcTemplate.update(BACKFILL_SQL);
+    }
+
+    private void bindReading(PreparedStatement ps, VitalSigns vital) throws SQLException {
+        ps.setString(1, vital.getPatient().getUserId());
+        ps.setLong(2, vital.getId());
+        ps.setTimestamp(3, Timestamp.valueOf(vital.getTimestamp()));
+        ps.setDouble(4, vital.getBodyTemperature());
+        ps.setInt(5, vital.getPulseRate());
+        ps.setInt(6, vital.getRespiratoryRate());
+        ps.setInt(7, vital.getBloodPressure().getSystolic());
+        ps.setInt(8, vital.getBloodPressure().getDiastolic());
+        ps.setDouble(9, vital.getOxygenSaturation());
+        ps.setInt(10, vital.getPainLevel() != null ? vital.getPainLevel().ordinal() : 0);
+    }
+
+    private static RowCallbackHandler appendTo(VitalSeries series) {
+        return rs -> appendRow(series, rs);
+    }
+
+    private static void appendRow(VitalSeries series, ResultSet rs) throws SQLException {
+        series.append(
+            epochSecond(rs.getTimestamp(1)),
+            rs.getDouble(2),
+            rs.getInt(3),
+            rs.getInt(4),
+            rs.getInt(5),
+            rs.getInt(6),
+            rs.getDouble(7),
+            rs.getInt(8));
+    }
+
+    private static long epochSecond(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.VitalRollup;
+import com.example.demo.dto.VitalTrendsDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC maintenance and reads for vital_rollups. Hourly buckets are recomputed from
+ * vital_readings and daily buckets from the hourly ones, so refreshing a bucket is
+ * idempotent and re-uploaded readings are never double counted.
+ */
+@Repository
+public class VitalRollupRepository {
+
+    private static final String EPOCH = "TIMESTAMP '1970-01-01 00:00:00'";
+
+    private static final String ROLLUP_COLUMNS =
+        "patient_id, resolution, bucket_start, reading_count, " +
+        "min_temperature, max_temperature, sum_temperature, min_pulse, max_pulse, sum_pulse, " +
+        "min_respiratory, max_respiratory, sum_respiratory, min_systolic, max_systolic, sum_systolic, " +
+        "min_diastolic, max_diastolic, sum_diastolic, min_oxygen, max_oxygen, sum_oxygen";
+
+    private static final String ON_DUPLICATE_REPLACE =
+        " ON DUPLICATE KEY UPDATE reading_count = VALUES(reading_count), " +
+        "min_temperature = VALUES(min_temperature), max_temperature = VALUES(max_temperature), " +
+        "sum_temperature = VALUES(sum_temperature), min_pulse = VALUES(min_pulse), " +
+        "max_pulse = VALUES(max_pulse), sum_pulse = VALUES(sum_pulse), " +
+        "min_respiratory = VALUES(min_respiratory), max_respiratory = VALUES(max_respiratory), " +
+        "sum_respiratory = VALUES(sum_respiratory), min_systolic = VALUES(min_systolic), " +
+        "max_systolic = VALUES(max_systolic), sum_systolic = VALUES(sum_systolic), " +
+        "min_diastolic = VALUES(min_diastolic), max_diastolic = VALUES(max_diastolic), " +
+        "sum_diastolic = VALUES(sum_diastolic), min_oxygen = VALUES(min_oxygen), " +
+        "max_oxygen = VALUES(max_oxygen), sum_oxygen = VALUES(sum_oxygen)";
+
+    private static final String HOURLY_FROM_READINGS =
+        "INSERT INTO vital_rollups (" + ROLLUP_COLUMNS + ") " +
+        "SELECT patient_id, 'HOUR', TIMESTAMPADD(HOUR, TIMESTAMPDIFF(HOUR, " + EPOCH + ", recorded_at), " + EPOCH + ") AS bucket, " +
+        "COUNT(*), MIN(body_temperature), MAX(body_temperature), SUM(body_temperature), " +
+        "MIN(pulse_rate), MAX(pulse_rate), SUM(pulse_rate), " +
+        "MIN(respiratory_rate), MAX(respiratory_rate), SUM(respiratory_rate), " +
+        "MIN(systolic), MAX(systolic), SUM(systolic), MIN(diastolic), MAX(diastolic), SUM(diastolic), " +
+        "MIN(oxygen_saturation), MAX(oxygen_saturation), SUM(oxygen_saturation) " +
+        "FROM vital_readings WHERE patient_id = ? AND recorded_at >= ? AND recorded_at < ? " +
+        "GROUP BY patient_id, bucket" + ON_DUPLICATE_REPLACE;
+
+    private static final String DAILY_FROM_HOURLY =
+        "INSERT INTO vital_rollups (" + ROLLUP_COLUMNS + ") " +
+        "SELECT patient_id, 'DAY', TIMESTAMPADD(DAY, TIMESTAMPDIFF(DAY, " + EPOCH + ", bucket_start), " + EPOCH + ") AS bucket, " +
+        "SUM(reading_count), MIN(min_temperature), MAX(max_temperature), SUM(sum_temperature), " +
+        "MIN(min_pulse), MAX(max_pulse), SUM(sum_pulse), " +
+        "MIN(min_respiratory), MAX(max_respiratory), SUM(sum_respiratory), " +
+        "MIN(min_systolic), MAX(max_systolic), SUM(sum_systolic), " +
+        "MIN(min_diastolic), MAX(max_diastolic), SUM(sum_diastolic), " +
+        "MIN(min_oxygen), MAX(max_oxygen), SUM(sum_oxygen) " +
+        "FROM vital_rollups WHERE patient_id = ? AND resolution = 'HOUR' AND bucket_start >= ? AND bucket_start < ? " +
+        "GROUP BY patient_id, bucket" + ON_DUPLICATE_REPLACE;
+
+    private static final String SELECT_SQL =
+        "SELECT bucket_start, reading_count, " +
+        "min_temperature, max_temperature, sum_temperature, min_pulse, max_pulse, sum_pulse, " +
+        "min_respiratory, max_respiratory, sum_respiratory, min_systolic, max_systolic, sum_systolic, " +
+        "min_diastolic, max_diastolic, sum_diastolic, min_oxygen, max_oxygen, sum_oxygen " +
+        "FROM vital_rollups WHERE patient_id = ? AND resolution = ? AND bucket_start >= ? AND bucket_start < ? " +
+        "ORDER BY bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VitalRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recompute every hourly bucket overlapping [from, to); bounds should be hour-aligned
+     */
+    public int refreshHourly(String patientId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(HOURLY_FROM_READINGS, patientId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Recompute every daily bucket overlapping [from, to); bounds should be day-aligned
+     */
+    public int refreshDaily(String patientId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(DAILY_FROM_HOURLY, patientId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Buckets starting in [from, to), as averages plus per-bucket min/max
+     */
+    public VitalTrendsDto findTrends(String patientId, VitalRollup.Resolution resolution,
+                                     LocalDateTime from, LocalDateTime to) {
+        VitalTrendsDto trends = new VitalTrendsDto();
+        trends.setResolution(resolution.name());
+        jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs -> {
+            long count = rs.getLong(2);
+            trends.addDataPoint(
+                rs.getTimestamp(1).toLocalDateTime().toString(),
+                (int) Math.round((double) rs.getLong(8) / count),
+                (int) Math.round((double) rs.getLong(14) / count),
+                (int) Math.round((double) rs.getLong(17) / count),
+                round1(rs.getDouble(20) / count),
+                round1(rs.getDouble(5) / count),
+                (int) Math.round((double) rs.getLong(11) / count));
+            trends.addRange(
+                rs.getInt(6), rs.getInt(7),
+                rs.getInt(12), rs.getInt(13),
+                rs.getInt(15), rs.getInt(16),
+                rs.getDouble(18), rs.getDouble(19),
+                rs.getDouble(3), rs.getDouble(4));
+        }, patientId, resolution.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return trends;
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM vital_rollups LIMIT 1").isEmpty();
+    }
+
+    /**
+     * Patients with readings, used to build rollups for history stored before they existed
+     */
+    public List<String> findPatientsWithReadings() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT patient_id FROM vital_readings", String.class);
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
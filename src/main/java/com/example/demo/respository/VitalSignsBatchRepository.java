@@ -0,0 +1,103 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.VitalSigns;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk insert path for vital signs. VitalSigns uses IDENTITY ids, which stops
+ * Hibernate from batching inserts, so large uploads are written here with plain
+ * JDBC batches instead (rewritten into multi-row INSERTs by the MySQL driver).
+ * Generated ids are read back onto the vitals so the time-series copy can be keyed by them.
+ */
+@Repository
+public class VitalSignsBatchRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO vital_signs (patient_id, doctor_id, timestamp, body_temperature, pulse_rate, " +
+        "respiratory_rate, systolic, diastolic, category, oxygen_saturation, height, weight, " +
+        "pain_level, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public VitalSignsBatchRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${app.vitals.upload.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insert all vitals in JDBC batches and set their generated ids, returns the number of rows written
+     */
+    public int insertAll(List<VitalSigns> vitals) {
+        for (int from = 0; from < vitals.size(); from += batchSize) {
+            insertBatch(vitals.subList(from, Math.min(from + batchSize, vitals.size())));
+        }
+        return vitals.size();
+    }
+
+    private void insertBatch(List<VitalSigns> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bindVital(ps, batch.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }, keyHolder);
+
+        // The key column is reported as ID by some drivers and GENERATED_KEY by MySQL
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    private void bindVital(PreparedStatement ps, VitalSigns vital) throws SQLException {
+        VitalSigns.BloodPressure bloodPressure = vital.getBloodPressure();
+
+        ps.setString(1, vital.getPatient().getUserId());
+        ps.setString(2, vital.getDoctor().getUserId());
+        ps.setTimestamp(3, Timestamp.valueOf(vital.getTimestamp()));
+        ps.setDouble(4, vital.getBodyTemperature());
+        ps.setInt(5, vital.getPulseRate());
+        ps.setInt(6, vital.getRespiratoryRate());
+        ps.setInt(7, bloodPressure.getSystolic());
+        ps.setInt(8, bloodPressure.getDiastolic());
+        ps.setString(9, bloodPressure.getCategory() != null ? bloodPressure.getCategory().name() : null);
+        ps.setDouble(10, vital.getOxygenSaturation());
+        setNullableDouble(ps, 11, vital.getHeight());
+        setNullableDouble(ps, 12, vital.getWeight());
+        if (vital.getPainLevel() != null) {
+            ps.setInt(13, vital.getPainLevel().ordinal());
+        } else {
+            ps.setNull(13, Types.TINYINT);
+        }
+        ps.setString(14, vital.getStatus().name());
+    }
+
+    private void setNullableDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+}
@@ -89,6 +89,8 @@ default Optional<VitalSigns> findPreviousVital(String patientId, Long currentId)
      */
     boolean existsByPatient_UserId(String patientId);
 
+    boolean existsByDoctor_UserIdAndPatient_UserId(String doctorId, String patientId);
+
     // DOCTOR-SPECIFIC QUERIES
     
     /**
@@ -96,6 +98,12 @@ default Optional<VitalSigns> findPreviousVital(String patientId, Long currentId)
      */
     int countByDoctorUserIdAndStatus(String doctorId, VitalSigns.Status status);
 
+    // (patient userId, number of readings in the status) for each of the doctor's patients
+    @Query("SELECT v.patient.userId, COUNT(v) FROM VitalSigns v " +
+           "WHERE v.doctor.userId = :doctorId AND v.status = :status GROUP BY v.patient.userId")
+    List<Object[]> countByPatientForDoctorAndStatus(@Param("doctorId") String doctorId,
+                                                    @Param("status") VitalSigns.Status status);
+
     // ADDITIONAL QUERIES FOR ROBUSTNESS
     
     /**
@@ -0,0 +1,15 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.VitalThresholds;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface VitalThresholdsRepository extends JpaRepository<VitalThresholds, Long> {
+
+    Optional<VitalThresholds> findByPatientId(String patientId);
+
+    void deleteByPatientId(String patientId);
+}
@@ -0,0 +1,68 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.VitalsUploadJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VitalsUploadJobRepository extends JpaRepository<VitalsUploadJob, Long> {
+
+    Optional<VitalsUploadJob> findByIdAndPatientId(Long id, String patientId);
+
+    List<VitalsUploadJob> findTop10ByPatientIdOrderByCreatedAtDesc(String patientId);
+
+    @Query("SELECT j.cancelRequested FROM VitalsUploadJob j WHERE j.id = :id")
+    boolean isCancelRequested(@Param("id") Long id);
+
+    /**
+     * Moves a queued job to RUNNING, 0 if it was cancelled (or picked up) meanwhile
+     */
+    @Modifying
+    @Query("UPDATE VitalsUploadJob j SET j.status = 'RUNNING', j.startedAt = :now, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND j.status = 'QUEUED'")
+    int markRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Writes only the progress columns, so a cancel committed concurrently is not overwritten
+     */
+    @Modifying
+    @Query("UPDATE VitalsUploadJob j SET j.chunksProcessed = :chunks, j.recordsProcessed = :processed, " +
+           "j.recordsSaved = :saved, j.recordsFailed = :failed, j.heartbeatAt = :now WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("chunks") int chunks, @Param("processed") int processed,
+                       @Param("saved") int saved, @Param("failed") int failed, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE VitalsUploadJob j SET j.cancelRequested = true " +
+           "WHERE j.id = :id AND j.status IN ('QUEUED', 'RUNNING')")
+    int requestCancel(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE VitalsUploadJob j SET j.status = 'CANCELLED', j.message = :message, j.finishedAt = :now " +
+           "WHERE j.id = :id AND j.status = 'QUEUED'")
+    int cancelQueued(@Param("id") Long id, @Param("message") String message, @Param("now") LocalDateTime now);
+
+    /**
+     * Refreshes the heartbeat of the unfinished jobs this instance holds
+     */
+    @Modifying
+    @Query("UPDATE VitalsUploadJob j SET j.heartbeatAt = :now " +
+           "WHERE j.id IN :ids AND j.status IN ('QUEUED', 'RUNNING')")
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Jobs left QUEUED or RUNNING whose instance stopped sending heartbeats can never finish
+     */
+    @Modifying
+    @Query("UPDATE VitalsUploadJob j SET j.status = 'FAILED', j.message = :message, j.finishedAt = :now " +
+           "WHERE j.status IN ('QUEUED', 'RUNNING') AND COALESCE(j.heartbeatAt, j.createdAt) < :cutoff")
+    int failAbandonedJobs(@Param("message") String message, @Param("cutoff") LocalDateTime cutoff,
+                          @Param("now") LocalDateTime now);
+}
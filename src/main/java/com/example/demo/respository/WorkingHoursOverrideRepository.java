@@ -0,0 +1,20 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.WorkingHoursOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WorkingHoursOverrideRepository extends JpaRepository<WorkingHoursOverride, Long> {
+
+    List<WorkingHoursOverride> findByDoctorIdAndDateGreaterThanEqualOrderByDateAsc(String doctorId, LocalDate from);
+
+    List<WorkingHoursOverride> findByDoctorIdInAndDateGreaterThanEqual(Collection<String> doctorIds, LocalDate from);
+
+    Optional<WorkingHoursOverride> findByIdAndDoctorId(Long id, String doctorId);
+}
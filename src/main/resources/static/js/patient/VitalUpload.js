@@ -13,6 +13,11 @@ document.addEventListener('DOMContentLoaded', function() {
     const errorDetails = document.getElementById('errorDetails');
     const dashboardActions = document.getElementById('dashboardActions');
     const uploadAnotherBtn = document.getElementById('uploadAnotherBtn');
+    const processingText = document.getElementById('processingText');
+    const cancelUploadBtn = document.getElementById('cancelUploadBtn');
+    const csrfInput = form.querySelector('input[name="_csrf"]');
+    const POLL_INTERVAL_MS = 1000;
+    let currentJobId = null;
 
     // Update file name display when file is selected
     fileInput.addEventListener('change', function() {
@@ -32,6 +37,22 @@ document.addEventListener('DOMContentLoaded', function() {
         }
     });
 
+    // Cancel a running background upload
+    cancelUploadBtn?.addEventListener('click', async function() {
+        if (!currentJobId) {
+            return;
+        }
+        const body = new URLSearchParams();
+        if (csrfInput) {
+            body.append(csrfInput.name, csrfInput.value);
+        }
+        await fetch(`${form.action.replace(/\/csv$/, '')}/jobs/${currentJobId}/cancel`, {
+            method: 'POST',
+            body: body,
+            headers: { 'Accept': 'application/json' }
+        });
+    });
+
     // Upload another file handler
     uploadAnotherBtn?.addEventListener('click', function() {
         resetForm();
@@ -52,9 +73,9 @@ document.addEventListener('DOMContentLoaded', function() {
             return;
         }
         
-        // Check file size (5MB limit)
-        if (fileInput.files[0].size > 5 * 1024 * 1024) {
-            fileError.textContent = 'File size exceeds 5MB limit';
+        // Check file size (512MB limit)
+        if (fileInput.files[0].size > 512 * 1024 * 1024) {
+            fileError.textContent = 'File size exceeds 512MB limit';
             return;
         }
         
@@ -83,16 +104,40 @@ document.addEventListener('DOMContentLoaded', function() {
                 throw new Error(result.message || `Server returned ${response.status} status`);
             }
             
-            displayUploadResults(result);
+            // The upload is processed in the background; poll the job until it finishes
+            currentJobId = result.jobId;
+            const finalResult = result.jobId ? await pollUploadJob(result.jobId) : result;
+            displayUploadResults(finalResult);
             
         } catch (error) {
             console.error('Upload failed:', error);
             handleUploadError(error);
         } finally {
+            currentJobId = null;
             processingStatus.style.display = 'none';
         }
     });
     
+    async function pollUploadJob(jobId) {
+        const jobUrl = `${form.action.replace(/\/csv$/, '')}/jobs/${jobId}`;
+        while (true) {
+            const response = await fetch(jobUrl, { headers: { 'Accept': 'application/json' } });
+            if (!response.ok) {
+                throw new Error(`Could not read upload progress (status ${response.status})`);
+            }
+            const job = await response.json();
+            if (job.finished) {
+                return job;
+            }
+            if (processingText) {
+                processingText.textContent = job.status === 'QUEUED'
+                    ? 'Waiting for an upload worker...'
+                    : `Processing your file... ${job.recordsProcessed} records so far`;
+            }
+            await new Promise(resolve => setTimeout(resolve, POLL_INTERVAL_MS));
+        }
+    }
+    
     // Helper functions
     
     function resetUploadUI() {
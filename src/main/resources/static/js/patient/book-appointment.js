@@ -5,9 +5,6 @@
         constructor() {
             console.log('AppointmentBooking class initialized');
             this.config = {
-                workingHours: { start: 9, end: 17 },
-                lunchBreak: { start: 13, end: 14 },
-                slotInterval: 30,
                 minDate: new Date().toISOString().split('T')[0]
             };
 
@@ -42,6 +39,7 @@
                 reasonInput: document.getElementById('reason'),
                 availabilityContainer: document.getElementById('availability-container'),
                 occupiedSlots: document.getElementById('occupied-slots'),
+                breakSlots: document.getElementById('break-slots'),
                 availableSlots: document.getElementById('available-slots'),
                 timeError: document.getElementById('timeError'),
                 dateTimeField: document.getElementById('dateTime'),
@@ -158,17 +156,9 @@
             console.log('Displaying availability data:', data);
             this.clearSlots();
 
-            const lunchStart = "13:00";
-            const lunchEnd = "14:00";
-
             if (data?.occupiedSlots) {
                 console.log('Processing occupied slots:', data.occupiedSlots);
                 data.occupiedSlots
-                    .filter(slot => {
-                        const start = this.cleanTimeFormat(slot.startTime);
-                        const end = this.cleanTimeFormat(slot.endTime);
-                        return !(start === lunchStart && end === lunchEnd);
-                    })
                     .forEach(slot => {
                         const startTime = this.cleanTimeFormat(slot.startTime);
                         const endTime = this.cleanTimeFormat(slot.endTime);
@@ -180,9 +170,13 @@
                     });
             }
 
-            this.elements.occupiedSlots.innerHTML += `
-                <div class="occupied-slot lunch-break">1:00 PM - 2:00 PM</div>
-            `;
+            // Breaks come from the doctor's working hours for the day
+            (data?.breakSlots || []).forEach(slot => {
+                const slotElement = document.createElement('div');
+                slotElement.className = 'occupied-slot lunch-break';
+                slotElement.textContent = `${this.formatTime(this.cleanTimeFormat(slot.startTime))} - ${this.formatTime(this.cleanTimeFormat(slot.endTime))}`;
+                this.elements.breakSlots?.appendChild(slotElement);
+            });
 
             if (data?.availableSlots) {
                 console.log('Processing available slots:', data.availableSlots);
@@ -241,13 +235,6 @@
                 return false;
             }
             
-            const [hours] = this.state.selectedTime.split(':');
-            if (parseInt(hours) === 13) {
-                console.log('Lunch time selected - validation failed');
-                this.showError('Cannot book during lunch break (1 PM - 2 PM)', this.elements.timeInput);
-                return false;
-            }
-            
             this.clearErrors(this.elements.timeInput);
             console.log('Time validation passed');
             return true;
@@ -480,6 +467,7 @@
             console.log('Clearing time slots');
             if (this.elements.occupiedSlots) this.elements.occupiedSlots.innerHTML = '';
             if (this.elements.availableSlots) this.elements.availableSlots.innerHTML = '';
+            if (this.elements.breakSlots) this.elements.breakSlots.innerHTML = '';
             this.state.selectedTime = null;
             this.elements.timeInput.value = '';
         }
@@ -2,9 +2,6 @@ class AppointmentRescheduler {
     constructor() {
         console.log('AppointmentRescheduler initialized');
         this.config = {
-            workingHours: { start: 9, end: 17 },
-            lunchBreak: { start: 13, end: 14 },
-            slotInterval: 30,
             minDate: new Date().toISOString().split('T')[0]
         };
 
@@ -37,6 +34,7 @@ class AppointmentRescheduler {
             timeInput: document.getElementById('appointmentTime'),
             availabilityContainer: document.getElementById('availability-container'),
             occupiedSlots: document.getElementById('occupied-slots'),
+            breakSlots: document.getElementById('break-slots'),
             availableSlots: document.getElementById('available-slots'),
             timeError: document.getElementById('timeError'),
             startTimeField: document.getElementById('startTime'),
@@ -144,10 +142,13 @@ class AppointmentRescheduler {
             });
         }
 
-        // Add lunch break
-        this.elements.occupiedSlots.innerHTML += `
-            <div class="occupied-slot lunch-break">1:00 PM - 2:00 PM</div>
-        `;
+        // Breaks come from the doctor's working hours for the day
+        (data?.breakSlots || []).forEach(slot => {
+            const slotElement = document.createElement('div');
+            slotElement.className = 'occupied-slot lunch-break';
+            slotElement.textContent = `${this.formatTime(this.cleanTimeFormat(slot.startTime))} - ${this.formatTime(this.cleanTimeFormat(slot.endTime))}`;
+            this.elements.breakSlots?.appendChild(slotElement);
+        });
 
         // Show available slots
         if (data?.availableSlots) {
@@ -298,6 +299,7 @@ class AppointmentRescheduler {
         console.log('Clearing time slots');
         if (this.elements.occupiedSlots) this.elements.occupiedSlots.innerHTML = '';
         if (this.elements.availableSlots) this.elements.availableSlots.innerHTML = '';
+        if (this.elements.breakSlots) this.elements.breakSlots.innerHTML = '';
         this.state.selectedTime = null;
         if (this.elements.timeInput) this.elements.timeInput.value = '';
         if (this.elements.startTimeField) this.elements.startTimeField.value = '';
@@ -0,0 +1,149 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.dto.AppointmentRequestDTO;
+import com.example.demo.respository.AppointmentRepository;
+import com.example.demo.respository.DoctorRepository;
+import com.example.demo.respository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A few threads race to book every slot of two doctors through the real transactional
+ * AppointmentService. Each (doctor, slot) pair must end up with exactly one booking and
+ * the pending request counter must match. DoctorBookingLocksBenchmark in the jmh
+ * profile measures contention on the lock stripes.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AppointmentService.class, DoctorScheduleIndex.class, DoctorBookingLocks.class, DashboardCounterService.class,
+    AppointmentReminderScheduler.class, DoctorWorkingHoursService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:booking_race;MODE=MySQL;NON_KEYWORDS=USER,VALUE,TIMESTAMP;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class AppointmentBookingConcurrencyTest {
+
+    private static final int THREADS = 6;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void everySlotIsBookedExactlyOnce() throws Exception {
+        Patient patient = patientRepository.save(new Patient("Race", "Patient", "race.patient@example.com",
+            "password123", LocalDate.of(1990, 1, 1), "Street 1", "5550100", User.Gender.OTHER, null,
+            User.BloodType.O_POSITIVE));
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            doctors.add(doctorRepository.save(new Doctor(null, "Race", "Doctor", "race.doctor" + i + "@example.com",
+                "password123", LocalDate.of(1980, 1, 1), "Street 2", "5550101", User.Gender.OTHER, "IN", null,
+                User.BloodType.A_POSITIVE, "ID-" + i, "LIC-" + i, Doctor.Specialization.GENERAL)));
+            counterService.get(doctors.get(i).getUserId());
+        }
+
+        LocalDate day = LocalDate.now().plusDays(2);
+        List<LocalDateTime> slots = appointmentService.getSlotStarts(doctors.get(0).getUserId(), day, Duration.ofMinutes(30));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (LocalDateTime slot : slots) {
+                    for (int d = 0; d < doctors.size(); d++) {
+                        try {
+                            appointmentService.bookAppointment(patient, doctors.get((d + offset) % doctors.size()),
+                                request(slot));
+                            booked.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Map<String, Integer> perSlot = new HashMap<>();
+        for (Doctor doctor : doctors) {
+            for (Appointment appointment : appointmentRepository.findByDoctorUserIdAndStartTimeBetween(
+                    doctor.getUserId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+                perSlot.merge(doctor.getUserId() + "@" + appointment.getStartTime(), 1, Integer::sum);
+            }
+            assertEquals(slots.size(), counterService.get(doctor.getUserId()).getPendingAppointmentRequests(),
+                "pending requests of " + doctor.getUserId());
+        }
+        perSlot.forEach((slot, count) -> assertEquals(1, count, "double booking at " + slot));
+        assertEquals(doctors.size() * slots.size(), perSlot.size());
+        assertEquals(perSlot.size(), booked.get());
+        assertEquals((THREADS - 1) * perSlot.size(), rejected.get());
+    }
+
+    private static AppointmentRequestDTO request(LocalDateTime dateTime) {
+        AppointmentRequestDTO request = new AppointmentRequestDTO();
+        request.setDateTime(dateTime);
+        request.setReason("Concurrency test");
+        request.setLocation(Appointment.Location.IN_PERSON);
+        return request;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.EmailOutboxMessage;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.respository.AppointmentRepository;
+import com.example.demo.respository.DoctorRepository;
+import com.example.demo.respository.EmailOutboxRepository;
+import com.example.demo.respository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sweeps more stale requests than fit in one batch, next to appointments the sweeper
+ * must leave alone, and checks the statuses, the outbox and the doctors' pending
+ * appointment counters afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(ThymeleafAutoConfiguration.class)
+@Import({AppointmentExpirySweeper.class, DoctorScheduleIndex.class, DashboardCounterService.class,
+    EmailService.class, TemplateRenderer.class, AppointmentExpirySweeperTest.Metrics.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:appointment_expiry;MODE=MySQL;NON_KEYWORDS=USER,VALUE,TIMESTAMP;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.appointments.expiry.batch-size=4",
+    "app.appointments.expiry.notify-within=2d"
+})
+class AppointmentExpirySweeperTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private AppointmentExpirySweeper sweeper;
+
+    @Autowired
+    private DashboardCounterService counterService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void staleRequestsAreCancelledInBatchesAndRecentOnesNotified() {
+        Doctor first = doctor(1);
+        Doctor second = doctor(2);
+        Patient recentPatient = patient(1);
+        Patient earlierPatient = patient(2);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        // 10 stale requests over 3 batches of 4: 6 within notify-within, 4 before it
+        List<Appointment> stale = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Doctor doctor = i % 2 == 0 ? first : second;
+            Appointment.Status status = i % 3 == 0 ? Appointment.Status.RESCHEDULED : Appointment.Status.SCHEDULED;
+            stale.add(appointment(recentPatient, doctor, now.minusHours(1 + i), status));
+        }
+        for (int i = 0; i < 4; i++) {
+            Appointment.Status status = i % 2 == 0 ? Appointment.Status.RESCHEDULED : Appointment.Status.SCHEDULED;
+            stale.add(appointment(earlierPatient, first, now.minusDays(5).plusHours(i), status));
+        }
+        List<Appointment> untouched = List.of(
+            appointment(earlierPatient, first, now.minusHours(2).plusMinutes(30), Appointment.Status.CONFIRMED),
+            appointment(earlierPatient, second, now.minusHours(3).plusMinutes(30), Appointment.Status.CANCELLED),
+            appointment(earlierPatient, first, now.plusDays(1), Appointment.Status.SCHEDULED));
+
+        long firstPendingBefore = counterService.get(first.getUserId()).getPendingAppointmentRequests();
+        long secondPendingBefore = counterService.get(second.getUserId()).getPendingAppointmentRequests();
+
+        sweeper.sweep();
+
+        Map<Long, Appointment> stored = appointmentRepository.findAll().stream()
+            .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+        for (Appointment appointment : stale) {
+            Appointment after = stored.get(appointment.getId());
+            assertEquals(Appointment.Status.CANCELLED, after.getStatus(), "appointment " + appointment.getId());
+            assertEquals(AppointmentExpirySweeper.EXPIRY_REASON, after.getCancellationReason());
+        }
+        for (Appointment appointment : untouched) {
+            Appointment after = stored.get(appointment.getId());
+            assertEquals(appointment.getStatus(), after.getStatus(), "appointment " + appointment.getId());
+            assertNull(after.getCancellationReason());
+        }
+
+        // The status recheck in the bulk UPDATE leaves rows that stopped awaiting the doctor alone
+        List<Long> settledIds = untouched.subList(0, 2).stream().map(Appointment::getId).toList();
+        int recancelled = new TransactionTemplate(transactionManager).execute(status -> appointmentRepository
+            .cancelAll(settledIds, List.of(Appointment.Status.SCHEDULED, Appointment.Status.RESCHEDULED),
+                AppointmentExpirySweeper.EXPIRY_REASON, now));
+        assertEquals(0, recancelled);
+
+        List<EmailOutboxMessage> queued = outboxRepository.findAll();
+        assertEquals(6, queued.size());
+        assertTrue(queued.stream().allMatch(message -> message.getRecipient().equals(recentPatient.getEmail())));
+
+        long firstStale = stale.stream().filter(a -> a.getDoctor().getUserId().equals(first.getUserId())).count();
+        assertEquals(firstPendingBefore - firstStale,
+            counterService.get(first.getUserId()).getPendingAppointmentRequests());
+        assertEquals(secondPendingBefore - (stale.size() - firstStale),
+            counterService.get(second.getUserId()).getPendingAppointmentRequests());
+        assertEquals(1, counterService.get(first.getUserId()).getPendingAppointmentRequests());
+        assertEquals(0, counterService.get(second.getUserId()).getPendingAppointmentRequests());
+    }
+
+    private Appointment appointment(Patient patient, Doctor doctor, LocalDateTime start, Appointment.Status status) {
+        Appointment appointment = new Appointment(patient, doctor, start, start.plusMinutes(30), "Expiry",
+            Appointment.Location.IN_PERSON);
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment);
+    }
+
+    private Patient patient(int n) {
+        return patientRepository.save(new Patient("Expiry", "Patient", "expiry.patient" + n + "@example.com",
+            "password123", LocalDate.of(1990, 1, 1), "Street 1", "5550100", User.Gender.OTHER, null,
+            User.BloodType.O_POSITIVE));
+    }
+
+    private Doctor doctor(int n) {
+        return doctorRepository.save(new Doctor(null, "Expiry", "Doctor", "expiry.doctor" + n + "@example.com",
+            "password123", LocalDate.of(1980, 1, 1), "Street 2", "5550101", User.Gender.OTHER, "IN", null,
+            User.BloodType.A_POSITIVE, "ID-" + n, "LIC-" + n, Doctor.Specialization.GENERAL));
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.BadRequestException;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.DoctorWorkingHours;
+import com.example.demo.dto.AvailabilitySearchResultDto;
+import com.example.demo.dto.AvailableSlotDto;
+import com.example.demo.respository.DoctorWorkingHoursRepository;
+import com.example.demo.respository.WorkingHoursOverrideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pages through three doctors on two slot grids (30 minutes on the default hours,
+ * 20 minutes on a morning template) with some slots booked, and checks the pages
+ * against every free slot listed doctor by doctor and sorted by (start, doctor id).
+ */
+class AvailabilitySearchServiceTest {
+
+    private static final int MAX_RANGE_DAYS = 14;
+    private static final int DEFAULT_LIMIT = 5;
+    private static final int MAX_LIMIT = 50;
+    private static final List<String> DOCTOR_IDS = List.of("doctor-a", "doctor-b", "doctor-c");
+
+    private final LocalDate from = LocalDate.now().plusDays(1);
+    private final LocalDate to = from.plusDays(4);
+    private final Set<String> booked = new HashSet<>();
+
+    private DoctorService doctorService;
+    private DoctorWorkingHoursService workingHoursService;
+    private DoctorScheduleIndex scheduleIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<Doctor> doctors = new ArrayList<>();
+        for (String doctorId : DOCTOR_IDS) {
+            Doctor doctor = mock(Doctor.class);
+            when(doctor.getUserId()).thenReturn(doctorId);
+            when(doctor.getFullName()).thenReturn("Dr " + doctorId);
+            when(doctor.getSpecialization()).thenReturn(Doctor.Specialization.GENERAL);
+            doctors.add(doctor);
+        }
+        // Listed out of order, the search sorts by id
+        doctorService = mock(DoctorService.class);
+        when(doctorService.findAllDoctors()).thenReturn(List.of(doctors.get(2), doctors.get(0), doctors.get(1)));
+
+        List<DoctorWorkingHours.Period> mornings = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            mornings.add(new DoctorWorkingHours.Period(day, DoctorWorkingHours.Kind.SHIFT,
+                LocalTime.of(8, 0), LocalTime.of(12, 0)));
+        }
+        DoctorWorkingHours template = new DoctorWorkingHours("doctor-b", 20, mornings);
+        DoctorWorkingHoursRepository workingHoursRepository = mock(DoctorWorkingHoursRepository.class);
+        when(workingHoursRepository.findById(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable("doctor-b".equals(invocation.getArgument(0)) ? template : null));
+        when(workingHoursRepository.findAllById(any())).thenReturn(List.of(template));
+        WorkingHoursOverrideRepository overrideRepository = mock(WorkingHoursOverrideRepository.class);
+        when(overrideRepository.findByDoctorIdAndDateGreaterThanEqualOrderByDateAsc(anyString(), any()))
+            .thenReturn(List.of());
+        when(overrideRepository.findByDoctorIdInAndDateGreaterThanEqual(any(), any())).thenReturn(List.of());
+        workingHoursService = new DoctorWorkingHoursService(workingHoursRepository, overrideRepository,
+            List.of("09:00-17:00"), List.of("13:00-14:00"), Duration.ofMinutes(30), Duration.ofHours(1));
+
+        // Every third slot of doctor-a and every fourth of doctor-b is taken
+        List<AvailableSlotDto> all = freeSlots();
+        for (int i = 0; i < all.size(); i++) {
+            AvailableSlotDto slot = all.get(i);
+            if ((slot.getDoctorId().equals("doctor-a") && i % 3 == 0)
+                    || (slot.getDoctorId().equals("doctor-b") && i % 4 == 0)) {
+                booked.add(key(slot.getDoctorId(), slot.getStartDateTime()));
+            }
+        }
+        scheduleIndex = mock(DoctorScheduleIndex.class);
+        when(scheduleIndex.isFree(anyString(), any(), any(), any())).thenAnswer(invocation ->
+            !booked.contains(key(invocation.getArgument(0), invocation.getArgument(1))));
+    }
+
+    @Test
+    void pagesFollowStartThenDoctorOrderAndResumeAfterTheCursor() {
+        AvailabilitySearchService service = service(Duration.ofMinutes(1));
+        List<AvailableSlotDto> expected = freeSlots();
+
+        List<AvailableSlotDto> found = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            AvailabilitySearchResultDto page = service.search(from, to, null, null, 7, cursor);
+            assertTrue(page.isComplete());
+            assertTrue(page.getSlots().size() <= 7);
+            if (page.getNextCursor() != null) {
+                assertEquals(7, page.getSlots().size());
+            }
+            found.addAll(page.getSlots());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages <= expected.size());
+
+        assertEquals(render(expected), render(found));
+        assertEquals((expected.size() + 6) / 7, pages);
+    }
+
+    @Test
+    void doctorFilterKeepsTheOrderOfTheRemainingDoctors() {
+        AvailabilitySearchResultDto page = service(Duration.ofMinutes(1))
+            .search(from, to, List.of("doctor-c", "doctor-b"), null, MAX_LIMIT, null);
+
+        List<String> expected = render(freeSlots().stream()
+            .filter(slot -> !slot.getDoctorId().equals("doctor-a"))
+            .limit(MAX_LIMIT)
+            .toList());
+        assertEquals(expected, render(page.getSlots()));
+    }
+
+    @Test
+    void exhaustedTimeBudgetReturnsAResumableCursor() {
+        AvailabilitySearchService service = service(Duration.ZERO);
+        List<AvailableSlotDto> expected = freeSlots();
+
+        AvailabilitySearchResultDto first = service.search(from, to, null, null, MAX_LIMIT, null);
+        assertFalse(first.isComplete());
+        assertNotNull(first.getNextCursor());
+
+        // Each call stops after one slot row, and the pages still join up without gaps or repeats
+        List<AvailableSlotDto> found = new ArrayList<>(first.getSlots());
+        String cursor = first.getNextCursor();
+        int calls = 1;
+        while (cursor != null && calls <= expected.size() + 10 * 24 * 60) {
+            AvailabilitySearchResultDto page = service.search(from, to, null, null, MAX_LIMIT, cursor);
+            found.addAll(page.getSlots());
+            cursor = page.getNextCursor();
+            calls++;
+        }
+        assertNull(cursor);
+        assertEquals(render(expected), render(found));
+    }
+
+    @Test
+    void rangeAndLimitAreCapped() {
+        AvailabilitySearchService service = service(Duration.ofMinutes(1));
+
+        assertThrows(BadRequestException.class,
+            () -> service.search(from, from.plusDays(MAX_RANGE_DAYS), null, null, null, null));
+        assertEquals(DEFAULT_LIMIT,
+            service.search(from, from.plusDays(MAX_RANGE_DAYS - 1), null, null, null, null).getSlots().size());
+        assertThrows(BadRequestException.class, () -> service.search(to, from, null, null, null, null));
+        assertThrows(BadRequestException.class, () -> service.search(from, to, null, null, 0, null));
+        assertThrows(BadRequestException.class, () -> service.search(from, to, null, null, MAX_LIMIT + 1, null));
+        assertEquals(MAX_LIMIT, service.search(from, to, null, null, MAX_LIMIT, null).getSlots().size());
+        assertThrows(BadRequestException.class, () -> service.search(from, to, null, null, null, "not a cursor"));
+    }
+
+    private AvailabilitySearchService service(Duration timeBudget) {
+        return new AvailabilitySearchService(doctorService, workingHoursService, scheduleIndex,
+            MAX_RANGE_DAYS, DEFAULT_LIMIT, MAX_LIMIT, timeBudget);
+    }
+
+    // Every free slot in [from, to], listed doctor by doctor and then sorted
+    private List<AvailableSlotDto> freeSlots() {
+        List<AvailableSlotDto> slots = new ArrayList<>();
+        for (String doctorId : DOCTOR_IDS) {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                WorkingDay workingDay = workingHoursService.workingDay(doctorId, day);
+                for (LocalDateTime start : workingDay.slotStarts(day, workingDay.getSlotDuration())) {
+                    if (!booked.contains(key(doctorId, start))) {
+                        slots.add(new AvailableSlotDto(doctorId, "Dr " + doctorId, "GENERAL", start,
+                            start.plus(workingDay.getSlotDuration())));
+                    }
+                }
+            }
+        }
+        slots.sort(Comparator.comparing(AvailableSlotDto::getStartDateTime).thenComparing(AvailableSlotDto::getDoctorId));
+        return slots;
+    }
+
+    private static List<String> render(List<AvailableSlotDto> slots) {
+        return slots.stream()
+            .map(slot -> slot.getStartDateTime() + "-" + slot.getEndDateTime().toLocalTime() + " " + slot.getDoctorId())
+            .toList();
+    }
+
+    private static String key(String doctorId, LocalDateTime start) {
+        return doctorId + "@" + start;
+    }
+}
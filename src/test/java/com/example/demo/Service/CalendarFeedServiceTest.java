@@ -0,0 +1,215 @@
+package com.example.demo.Service;
+
+import com.example.demo.Exceptions.SyncTokenExpiredException;
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.CalendarFeed;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.respository.AppointmentRepository;
+import com.example.demo.respository.DoctorRepository;
+import com.example.demo.respository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A doctor's calendar feed over two months of appointments: the feed is well-formed,
+ * the ETag only changes with the appointments, a sync token returns exactly the
+ * changed events, and deleting appointments invalidates older sync tokens.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CalendarFeedService.class, AppointmentService.class, DoctorScheduleIndex.class, DoctorBookingLocks.class,
+    DashboardCounterService.class, AppointmentReminderScheduler.class, DoctorWorkingHoursService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:calendar_feed;MODE=MySQL;NON_KEYWORDS=USER,VALUE,TIMESTAMP;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.calendar.feed.past-days=730",
+    "app.calendar.feed.sync-overlap=0s"
+})
+class CalendarFeedServiceTest {
+
+    private static final int PATIENTS = 40;
+    private static final int HISTORY_DAYS = 60;
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void etagFollowsTheAppointmentsAndSyncTokensReturnOnlyChanges() throws Exception {
+        Doctor doctor = seed();
+        CalendarFeed feed = calendarFeedService.feedFor(doctor);
+
+        CalendarFeedService.Snapshot full = calendarFeedService.snapshot(feed, null);
+        String calendar = render(full);
+        assertWellFormed(calendar);
+        long listed = appointmentRepository.findByDoctor(doctor).stream()
+            .filter(appointment -> appointment.getStatus() != Appointment.Status.CANCELLED)
+            .count();
+        assertEquals(listed, count(calendar, "BEGIN:VEVENT"), "events in the full feed");
+        assertEquals(full.etag(), calendarFeedService.snapshot(feed, null).etag(), "ETag of an unchanged feed");
+
+        // Changes through the services show up in the ETag and, alone, in the next incremental sync
+        Thread.sleep(5);
+        List<Appointment> requested = appointmentRepository.findByDoctorUserIdAndStatus(doctor.getUserId(),
+            Appointment.Status.SCHEDULED).stream()
+            .filter(appointment -> appointment.getStartTime().isAfter(LocalDateTime.now()))
+            .limit(6)
+            .toList();
+        Map<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < requested.size(); i++) {
+            Long id = requested.get(i).getId();
+            if (i % 2 == 0) {
+                appointmentService.confirmAppointment(id, doctor.getUserId(), "https://zoom.example.com/" + i, doctor);
+                expected.put(id, "CONFIRMED");
+            } else {
+                appointmentService.cancelAppointment(id, doctor.getUserId(), "Unavailable", doctor);
+                expected.put(id, "CANCELLED");
+            }
+        }
+        assertNotEquals(full.etag(), calendarFeedService.snapshot(feed, null).etag(), "ETag after changes");
+
+        String changes = render(calendarFeedService.snapshot(feed, full.nextSyncToken()));
+        assertWellFormed(changes);
+        assertEquals(expected, statusesByAppointment(changes), "events in the incremental sync");
+
+        // Deleting appointments cannot be sent as changes, so older sync tokens are refused
+        String tokenBeforeDelete = calendarFeedService.snapshot(feed, null).nextSyncToken();
+        Thread.sleep(5);
+        String patientId = requested.get(0).getPatient().getUserId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            appointmentRepository.deleteByPatientUserId(patientId);
+            calendarFeedService.appointmentsDeleted(List.of(doctor.getUserId(), patientId));
+        });
+        CalendarFeed afterDelete = calendarFeedService.feedFor(doctor);
+        assertThrows(SyncTokenExpiredException.class, () -> calendarFeedService.snapshot(afterDelete, tokenBeforeDelete));
+        assertThrows(SyncTokenExpiredException.class, () -> calendarFeedService.snapshot(afterDelete, "not-a-token"));
+    }
+
+    // HISTORY_DAYS of appointments and a month ahead, six slots a day, long reasons to exercise line folding
+    private Doctor seed() {
+        SplittableRandom random = new SplittableRandom(42);
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Calendar", "Doctor", "calendar.doctor@example.com",
+            "password123", LocalDate.of(1980, 1, 1), "Street 2", "5550101", User.Gender.OTHER, "IN", null,
+            User.BloodType.A_POSITIVE, "ID-1", "LIC-1", Doctor.Specialization.GENERAL));
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(new Patient("Calendar", "Patient", "calendar.patient" + i + "@example.com",
+                "password123", LocalDate.of(1990, 1, 1), "Street 1", "5550100", User.Gender.OTHER, null,
+                User.BloodType.O_POSITIVE));
+        }
+        patients = patientRepository.saveAll(patients);
+
+        LocalDate today = LocalDate.now();
+        Appointment.Status[] statuses = Appointment.Status.values();
+        List<Appointment> appointments = new ArrayList<>();
+        for (LocalDate day = today.minusDays(HISTORY_DAYS - 1); !day.isAfter(today.plusDays(30)); day = day.plusDays(1)) {
+            for (int slot = 0; slot < 6; slot++) {
+                LocalDateTime start = day.atTime(LocalTime.of(9 + slot, 0));
+                Appointment appointment = new Appointment(patients.get(random.nextInt(PATIENTS)), doctor, start,
+                    start.plusMinutes(30), "Follow-up; blood pressure, medication review — résumé of last visit's " +
+                    "lab results and next steps for the treatment plan",
+                    random.nextBoolean() ? Appointment.Location.IN_PERSON : Appointment.Location.ONLINE);
+                appointment.setStatus(day.isAfter(today) ? Appointment.Status.SCHEDULED
+                    : statuses[random.nextInt(statuses.length)]);
+                appointments.add(appointment);
+            }
+        }
+        appointmentRepository.saveAll(appointments);
+        return doctor;
+    }
+
+    private String render(CalendarFeedService.Snapshot snapshot) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            calendarFeedService.write(snapshot, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void assertWellFormed(String calendar) {
+        assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\n"), "starts with VCALENDAR");
+        assertTrue(calendar.endsWith("END:VCALENDAR\r\n"), "ends with VCALENDAR");
+        assertEquals(count(calendar, "BEGIN:VEVENT"), count(calendar, "END:VEVENT"), "balanced events");
+        for (String line : calendar.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, "folded line: " + line);
+        }
+    }
+
+    // Appointment id to STATUS of every event in the calendar
+    private static Map<Long, String> statusesByAppointment(String calendar) {
+        Map<Long, String> statuses = new HashMap<>();
+        Long id = null;
+        for (String line : calendar.replace("\r\n ", "").split("\r\n")) {
+            if (line.startsWith("UID:appointment-")) {
+                id = Long.valueOf(line.substring("UID:appointment-".length(), line.indexOf('@')));
+            } else if (line.startsWith("STATUS:")) {
+                statuses.put(id, line.substring("STATUS:".length()));
+            }
+        }
+        return statuses;
+    }
+
+    private static long count(String text, String needle) {
+        long count = 0;
+        for (int index = text.indexOf(needle); index >= 0; index = text.indexOf(needle, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Alert;
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.dto.DoctorDashboardStatsDto;
+import com.example.demo.respository.AlertRepository;
+import com.example.demo.respository.AppointmentRepository;
+import com.example.demo.respository.DoctorRepository;
+import com.example.demo.respository.PatientRepository;
+import com.example.demo.respository.VitalSignsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * DoctorDashboardStatsService's counters row plus schedule query must report the
+ * same cards as the previous per-card service calls, for doctors seeded with a month
+ * of appointment history, vitals requests and alerts, before and after appointments
+ * and alerts change through the services.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AppointmentService.class, DoctorScheduleIndex.class, DoctorBookingLocks.class, PatientService.class,
+    AlertService.class, DoctorDashboardStatsService.class, DashboardCounterService.class, AppointmentReminderScheduler.class,
+    CalendarFeedService.class, DoctorWorkingHoursService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:doctor_dashboard_stats;MODE=MySQL;NON_KEYWORDS=USER,VALUE,TIMESTAMP;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class DoctorDashboardStatsServiceTest {
+
+    private static final int PATIENTS = 60;
+    private static final int HISTORY_DAYS = 30;
+
+    @Autowired
+    private DoctorDashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private VitalSignsRepository vitalSignsRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private SystemLogService systemLogService;
+
+    @Test
+    void aggregateQueryMatchesThePerCardCalls() {
+        Doctor doctor = seed(0);
+        seed(1);
+        String doctorId = doctor.getUserId();
+
+        assertSameCards(legacyStats(doctorId), dashboardStatsService.getDashboardStats(doctorId));
+        changeThroughServices(doctor);
+        assertSameCards(legacyStats(doctorId), dashboardStatsService.getDashboardStats(doctorId));
+    }
+
+    private static void assertSameCards(DoctorDashboardStatsDto legacy, DoctorDashboardStatsDto stats) {
+        assertEquals(legacy.getVitalsRequests(), stats.getVitalsRequests(), "vitals requests");
+        assertEquals(legacy.getAppointmentRequests(), stats.getAppointmentRequests(), "appointment requests");
+        assertEquals(legacy.getUpcomingAppointments(), stats.getUpcomingAppointments(), "upcoming appointments");
+        assertEquals(legacy.getTelemedicineSessionsToday(), stats.getTelemedicineSessionsToday(), "telemedicine today");
+        assertEquals(legacy.getUnacknowledgedAlerts(), stats.getUnacknowledgedAlerts(), "unacknowledged alerts");
+        assertEquals(legacy.getTotalPatients(), stats.getTotalPatients(), "patients");
+        assertEquals(legacy.getAppointmentsToday(), stats.getAppointmentsToday(), "appointments today");
+        assertEquals(legacy.getAvgWaitTime(), stats.getAvgWaitTime(), "average wait");
+        assertEquals(legacy.getEmergencyAlertsCount(), stats.getEmergencyAlertsCount(), "alerts");
+    }
+
+    // Confirms, cancels and completes upcoming appointments, raises and acknowledges alerts
+    private void changeThroughServices(Doctor doctor) {
+        String doctorId = doctor.getUserId();
+        List<Appointment> requested = appointmentRepository.findByDoctorUserIdAndStatus(doctorId,
+            Appointment.Status.SCHEDULED).stream()
+            .filter(appointment -> appointment.getStartTime().isAfter(LocalDateTime.now()))
+            .limit(10)
+            .toList();
+        for (int i = 0; i < requested.size(); i++) {
+            Appointment appointment = requested.get(i);
+            if (i % 2 == 0) {
+                appointmentService.confirmAppointment(appointment.getId(), doctorId,
+                    "https://zoom.example.com/confirmed/" + i, doctor);
+            } else {
+                appointmentService.cancelAppointment(appointment.getId(), doctorId, "Unavailable", doctor);
+            }
+        }
+        appointmentRepository.findByDoctorUserIdAndStatus(doctorId, Appointment.Status.CONFIRMED).stream()
+            .limit(3)
+            .forEach(appointment -> appointmentService.completeAppointment(appointment.getId(), doctor));
+
+        Patient patient = requested.get(0).getPatient();
+        for (int i = 0; i < 5; i++) {
+            alertService.createAlert(patient, doctor, "Reading out of range", "VITAL_SIGN");
+        }
+        alertService.getAllUnacknowledgedAlerts(doctorId).stream()
+            .limit(8)
+            .forEach(alert -> alertService.acknowledgeAlert(alert.getId()));
+    }
+
+    // What DoctorDashboardController.showDashboard used to call for its cards
+    private DoctorDashboardStatsDto legacyStats(String doctorId) {
+        alertService.getAllAlertsforDoctor(doctorId);
+        return new DoctorDashboardStatsDto(
+            patientService.getPendingVitalsRequestsCount(doctorId),
+            appointmentService.getPendingRequestsCount(doctorId),
+            appointmentService.getUpcomingAppointmentsCount(doctorId),
+            appointmentService.getTodayTelemedicineSessionsCount(doctorId),
+            alertService.getRequestedCriticalAlerts(doctorId).size(),
+            patientService.getPatientCountForDoctor(doctorId),
+            appointmentService.getTodaysAppointmentsCount(doctorId),
+            appointmentService.getAverageWaitTime(doctorId),
+            alertService.getAllAlertsforDoctor(doctorId).size());
+    }
+
+    // HISTORY_DAYS of appointments and a month ahead, four slots a day, plus vitals requests and alerts
+    private Doctor seed(int n) {
+        SplittableRandom random = new SplittableRandom(42 + n);
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Stats", "Doctor", "stats.doctor" + n + "@example.com",
+            "password123", LocalDate.of(1980, 1, 1), "Street 2", "5550101", User.Gender.OTHER, "IN", null,
+            User.BloodType.A_POSITIVE, "ID-" + n, "LIC-" + n, Doctor.Specialization.GENERAL));
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(new Patient("Stats", "Patient", "stats.patient" + n + "." + i + "@example.com",
+                "password123", LocalDate.of(1990, 1, 1), "Street 1", "5550100", User.Gender.OTHER, null,
+                User.BloodType.O_POSITIVE));
+        }
+        patients = patientRepository.saveAll(patients);
+
+        LocalDate today = LocalDate.now();
+        Appointment.Status[] statuses = Appointment.Status.values();
+        List<Appointment> appointments = new ArrayList<>();
+        for (LocalDate day = today.minusDays(HISTORY_DAYS); !day.isAfter(today.plusDays(30)); day = day.plusDays(1)) {
+            for (int slot = 0; slot < 4; slot++) {
+                LocalDateTime start = day.atTime(LocalTime.of(1 + slot * 6, 15));
+                Appointment appointment = new Appointment(patients.get(random.nextInt(PATIENTS)), doctor, start,
+                    start.plusMinutes(20 + random.nextInt(4) * 10), "checkup",
+                    random.nextBoolean() ? Appointment.Location.IN_PERSON : Appointment.Location.ONLINE);
+                appointment.setStatus(statuses[random.nextInt(statuses.length)]);
+                if (appointment.getLocation() == Appointment.Location.ONLINE && random.nextBoolean()) {
+                    appointment.setZoomLink("https://zoom.example.com/" + n + "/" + appointments.size());
+                }
+                appointments.add(appointment);
+            }
+        }
+        appointmentRepository.saveAll(appointments);
+
+        List<VitalSigns> vitals = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            VitalSigns reading = new VitalSigns(LocalDateTime.now().minusHours(i), 36.8, 72, 16,
+                new VitalSigns.BloodPressure(120, 80), 98, null, null, patients.get(random.nextInt(PATIENTS)), doctor);
+            if (random.nextInt(4) != 0) {
+                reading.setStatus(VitalSigns.Status.REVIEWED);
+            }
+            vitals.add(reading);
+        }
+        vitalSignsRepository.saveAll(vitals);
+
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            alerts.add(new Alert(null, patients.get(random.nextInt(PATIENTS)), doctor, "Reading out of range",
+                LocalDateTime.now().minusHours(i), random.nextInt(5) != 0, "VITAL_SIGN", null, null));
+        }
+        alertRepository.saveAll(alerts);
+        return doctor;
+    }
+}
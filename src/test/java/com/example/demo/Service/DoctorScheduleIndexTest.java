@@ -0,0 +1,199 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.Doctor;
+import com.example.demo.respository.AppointmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorScheduleIndexTest {
+
+    private static final String DOCTOR_ID = "doctor-1";
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    private final AppointmentRepository repository = mock(AppointmentRepository.class);
+    private final DoctorScheduleIndex index = new DoctorScheduleIndex(repository, Duration.ofMinutes(10));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void indexAnswersAvailabilityLikeTheScan() {
+        LocalDate firstDay = LocalDate.of(2030, 1, 1);
+        LocalDate lastDay = firstDay.plusMonths(3);
+        List<Appointment> calendar = denseCalendar(firstDay, lastDay);
+        DoctorScheduleIndex index = new DoctorScheduleIndex(repositoryOf(calendar), Duration.ofHours(1));
+
+        Map<LocalDate, List<Appointment>> bookedByDay = bookedByDay(calendar);
+        for (LocalDate day = firstDay; day.isBefore(lastDay); day = day.plusDays(1)) {
+            assertEquals(scanAvailableSlots(day, bookedByDay.getOrDefault(day, List.of())),
+                indexAvailableSlots(index, day), "slots on " + day);
+        }
+    }
+
+    @Test
+    void cancellingFreesTheSlotAndMovingBackTakesItAgain() {
+        LocalDate day = LocalDate.of(2030, 1, 1);
+        List<Appointment> calendar = denseCalendar(day, day.plusMonths(1));
+        DoctorScheduleIndex index = new DoctorScheduleIndex(repositoryOf(calendar), Duration.ofHours(1));
+        Appointment moved = bookedByDay(calendar).get(day).get(0);
+        assertFalse(index.isFree(DOCTOR_ID, moved.getStartTime(), moved.getEndTime(), null));
+
+        index.apply(DOCTOR_ID, new DoctorScheduleIndex.Entry(moved.getId(), moved.getStartTime(), moved.getEndTime(),
+            Appointment.Status.CANCELLED));
+        assertTrue(index.isFree(DOCTOR_ID, moved.getStartTime(), moved.getEndTime(), null));
+
+        index.apply(DOCTOR_ID, new DoctorScheduleIndex.Entry(moved.getId(), moved.getStartTime(), moved.getEndTime(),
+            Appointment.Status.CONFIRMED));
+        assertFalse(index.isFree(DOCTOR_ID, moved.getStartTime(), moved.getEndTime(), null));
+        assertTrue(index.isFree(DOCTOR_ID, moved.getStartTime(), moved.getEndTime(), moved.getId()));
+    }
+
+    @Test
+    void deletedAppointmentsReloadedBeforeTheCommitAreDroppedAfterIt() {
+        Appointment booked = appointment(1L, Appointment.Status.CONFIRMED);
+        when(repository.findByDoctorUserIdAndStartTimeBetween(eq(DOCTOR_ID), any(), any()))
+            .thenReturn(List.of(booked));
+        assertFalse(index.isFree(DOCTOR_ID, NINE, NINE.plusMinutes(30), null));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.appointmentsDeleted(List.of(DOCTOR_ID));
+
+        // A concurrent lookup still sees the rows until the delete commits
+        assertFalse(index.isFree(DOCTOR_ID, NINE, NINE.plusMinutes(30), null));
+
+        when(repository.findByDoctorUserIdAndStartTimeBetween(eq(DOCTOR_ID), any(), any())).thenReturn(List.of());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(index.isFree(DOCTOR_ID, NINE, NINE.plusMinutes(30), null));
+    }
+
+    @Test
+    void cancelledAppointmentFreesTheSlotOnCommit() {
+        Appointment booked = appointment(1L, Appointment.Status.CONFIRMED);
+        when(repository.findByDoctorUserIdAndStartTimeBetween(eq(DOCTOR_ID), any(), any()))
+            .thenReturn(List.of(booked));
+        assertFalse(index.isFree(DOCTOR_ID, NINE, NINE.plusMinutes(30), null));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.appointmentChanged(appointment(1L, Appointment.Status.CANCELLED));
+        assertFalse(index.isFree(DOCTOR_ID, NINE, NINE.plusMinutes(30), null));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(index.isFree(DOCTOR_ID, NINE, NINE.plusMinutes(30), null));
+    }
+
+    private static AppointmentRepository repositoryOf(List<Appointment> calendar) {
+        AppointmentRepository repository = mock(AppointmentRepository.class);
+        when(repository.findByDoctorUserIdAndStartTimeBetween(anyString(), any(), any()))
+            .thenAnswer(invocation -> {
+                LocalDateTime from = invocation.getArgument(1);
+                LocalDateTime to = invocation.getArgument(2);
+                return calendar.stream()
+                    .filter(a -> !a.getStartTime().isBefore(from) && !a.getStartTime().isAfter(to))
+                    .collect(Collectors.toList());
+            });
+        return repository;
+    }
+
+    private static Map<LocalDate, List<Appointment>> bookedByDay(List<Appointment> calendar) {
+        return calendar.stream()
+            .filter(a -> a.getStatus() != Appointment.Status.CANCELLED)
+            .collect(Collectors.groupingBy(a -> a.getStartTime().toLocalDate()));
+    }
+
+    // About 90% of the 9-17 half-hour slots booked, one in eight of those cancelled
+    private static List<Appointment> denseCalendar(LocalDate firstDay, LocalDate lastDay) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Appointment> calendar = new ArrayList<>();
+        long id = 1;
+        for (LocalDate day = firstDay; day.isBefore(lastDay); day = day.plusDays(1)) {
+            for (LocalTime slot = LocalTime.of(9, 0); slot.isBefore(LocalTime.of(17, 0)); slot = slot.plusMinutes(30)) {
+                if (random.nextInt(10) == 0) {
+                    continue;
+                }
+                LocalDateTime start = LocalDateTime.of(day, slot);
+                Appointment appointment = new Appointment(null, null, start, start.plusMinutes(30), "checkup",
+                    Appointment.Location.IN_PERSON);
+                ReflectionTestUtils.setField(appointment, "id", id++);
+                appointment.setStatus(random.nextInt(8) == 0 ? Appointment.Status.CANCELLED
+                    : Appointment.Status.CONFIRMED);
+                calendar.add(appointment);
+            }
+        }
+        return calendar;
+    }
+
+    // The old calculateAvailableSlots, given what findByDoctorIdAndDate returned for the day
+    private static List<LocalDateTime> scanAvailableSlots(LocalDate day, List<Appointment> booked) {
+        List<LocalDateTime> available = new ArrayList<>();
+        for (LocalDateTime start : candidates(day)) {
+            LocalDateTime end = start.plusMinutes(30);
+            boolean free = booked.stream()
+                .noneMatch(a -> start.isBefore(a.getEndTime()) && end.isAfter(a.getStartTime()));
+            if (free) {
+                available.add(start);
+            }
+        }
+        return available;
+    }
+
+    private static List<LocalDateTime> indexAvailableSlots(DoctorScheduleIndex index, LocalDate day) {
+        List<LocalDateTime> available = new ArrayList<>();
+        for (LocalDateTime start : candidates(day)) {
+            if (index.isFree(DOCTOR_ID, start, start.plusMinutes(30), null)) {
+                available.add(start);
+            }
+        }
+        return available;
+    }
+
+    private static List<LocalDateTime> candidates(LocalDate day) {
+        List<LocalDateTime> candidates = new ArrayList<>();
+        for (LocalTime slot = LocalTime.of(9, 0); slot.isBefore(LocalTime.of(17, 0)); slot = slot.plusMinutes(30)) {
+            if (slot.getHour() != 13) {
+                candidates.add(LocalDateTime.of(day, slot));
+            }
+        }
+        return candidates;
+    }
+
+    private static Appointment appointment(Long id, Appointment.Status status) {
+        Doctor doctor = mock(Doctor.class);
+        when(doctor.getUserId()).thenReturn(DOCTOR_ID);
+        Appointment appointment = mock(Appointment.class);
+        when(appointment.getId()).thenReturn(id);
+        when(appointment.getDoctor()).thenReturn(doctor);
+        when(appointment.getStartTime()).thenReturn(NINE);
+        when(appointment.getEndTime()).thenReturn(NINE.plusMinutes(30));
+        when(appointment.getStatus()).thenReturn(status);
+        return appointment;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.DoctorWorkingHours;
+import com.example.demo.Models.WorkingHoursOverride;
+import com.example.demo.respository.DoctorWorkingHoursRepository;
+import com.example.demo.respository.WorkingHoursOverrideRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compiles randomly generated templates (shifts, breaks and slot lengths per day of
+ * the week, plus dated exceptions) and checks every WorkingDay against the same
+ * template read minute by minute.
+ */
+class DoctorWorkingHoursServiceTest {
+
+    private static final int DOCTORS = 40;
+    private static final int DAYS = 30;
+    private static final int[] SLOT_MINUTES = {10, 15, 20, 30, 45};
+
+    @Test
+    void compiledWorkingDaysMatchTheTemplates() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.of(2030, 1, 7);
+        Fixture fixture = Fixture.random(DOCTORS, today, DAYS, random);
+        DoctorWorkingHoursService service = fixture.service();
+
+        Set<WorkingDay> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String doctorId : fixture.doctorIds()) {
+            for (int d = 0; d < DAYS; d++) {
+                LocalDate date = today.plusDays(d);
+                boolean[] open = openMinutes(fixture.periods(doctorId), fixture.overrides().get(doctorId), date);
+                WorkingDay workingDay = service.workingDay(doctorId, date);
+                distinct.add(workingDay);
+                assertEquals(interpretedSlotStarts(open, fixture.slotMinutes(doctorId), date),
+                    workingDay.slotStarts(date, workingDay.getSlotDuration()), doctorId + " on " + date);
+                for (int probe = 0; probe < 20; probe++) {
+                    int from = random.nextInt(24 * 60 - 1);
+                    int to = from + 1 + random.nextInt(Math.min(240, 24 * 60 - from));
+                    assertEquals(allOpen(open, from, to), workingDay.covers(date.atStartOfDay().plusMinutes(from),
+                        date.atStartOfDay().plusMinutes(to)), doctorId + " covers " + from + "-" + to + " on " + date);
+                }
+            }
+        }
+
+        // Days are compiled per template day and exception date, not per day looked up
+        long exceptionDates = fixture.overrides().values().stream()
+            .mapToLong(list -> list.stream().map(WorkingHoursOverride::getDate).distinct().count())
+            .sum();
+        assertTrue(distinct.size() <= 7L * fixture.templates().size() + 7 + exceptionDates,
+            distinct.size() + " distinct compiled days");
+    }
+
+    @Test
+    void doctorsWithoutATemplateKeepTheOldGrid() {
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        Fixture fixture = Fixture.random(1, date, DAYS, new SplittableRandom(42));
+
+        List<LocalDateTime> legacy = new ArrayList<>();
+        for (LocalTime slot = LocalTime.of(9, 0); slot.isBefore(LocalTime.of(17, 0)); slot = slot.plusMinutes(30)) {
+            if (slot.getHour() != 13) {
+                legacy.add(LocalDateTime.of(date.plusDays(DAYS), slot));
+            }
+        }
+        assertEquals(legacy, fixture.service().workingDay("doctor-0", date.plusDays(DAYS))
+            .slotStarts(date.plusDays(DAYS), Duration.ofMinutes(30)));
+    }
+
+    /**
+     * Doctors with random templates and exceptions, every tenth on the default hours,
+     * served by a DoctorWorkingHoursService over mocked repositories
+     */
+    private record Fixture(List<String> doctorIds, Map<String, DoctorWorkingHours> templates,
+                           Map<String, List<WorkingHoursOverride>> overrides, DoctorWorkingHoursService service) {
+
+        static Fixture random(int doctors, LocalDate today, int days, SplittableRandom random) {
+            List<String> doctorIds = new ArrayList<>();
+            Map<String, DoctorWorkingHours> templates = new HashMap<>();
+            Map<String, List<WorkingHoursOverride>> overrides = new HashMap<>();
+            for (int i = 0; i < doctors; i++) {
+                String doctorId = "doctor-" + i;
+                doctorIds.add(doctorId);
+                if (i % 10 != 0) {
+                    templates.put(doctorId, randomTemplate(doctorId, random));
+                }
+                overrides.put(doctorId, randomOverrides(doctorId, today, days, random));
+            }
+
+            DoctorWorkingHoursRepository workingHoursRepository = mock(DoctorWorkingHoursRepository.class);
+            when(workingHoursRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(templates.get(invocation.<String>getArgument(0))));
+            when(workingHoursRepository.findAllById(any())).thenAnswer(invocation -> {
+                Iterable<String> ids = invocation.getArgument(0);
+                List<DoctorWorkingHours> found = new ArrayList<>();
+                ids.forEach(id -> Optional.ofNullable(templates.get(id)).ifPresent(found::add));
+                return found;
+            });
+            WorkingHoursOverrideRepository overrideRepository = mock(WorkingHoursOverrideRepository.class);
+            when(overrideRepository.findByDoctorIdAndDateGreaterThanEqualOrderByDateAsc(anyString(), any()))
+                .thenAnswer(invocation -> overrides.get(invocation.<String>getArgument(0)));
+            when(overrideRepository.findByDoctorIdInAndDateGreaterThanEqual(any(), any())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                    .flatMap(id -> overrides.get(id).stream())
+                    .collect(Collectors.toList()));
+
+            DoctorWorkingHoursService service = new DoctorWorkingHoursService(workingHoursRepository,
+                overrideRepository, List.of("09:00-17:00"), List.of("13:00-14:00"), Duration.ofMinutes(30),
+                Duration.ofHours(1));
+            service.preload(doctorIds);
+            return new Fixture(doctorIds, templates, overrides, service);
+        }
+
+        List<DoctorWorkingHours.Period> periods(String doctorId) {
+            DoctorWorkingHours template = templates.get(doctorId);
+            if (template != null) {
+                return template.getPeriods();
+            }
+            List<DoctorWorkingHours.Period> defaultPeriods = new ArrayList<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                defaultPeriods.add(new DoctorWorkingHours.Period(day, DoctorWorkingHours.Kind.SHIFT,
+                    LocalTime.of(9, 0), LocalTime.of(17, 0)));
+                defaultPeriods.add(new DoctorWorkingHours.Period(day, DoctorWorkingHours.Kind.BREAK,
+                    LocalTime.of(13, 0), LocalTime.of(14, 0)));
+            }
+            return defaultPeriods;
+        }
+
+        int slotMinutes(String doctorId) {
+            DoctorWorkingHours template = templates.get(doctorId);
+            return template != null ? template.getSlotMinutes() : 30;
+        }
+    }
+
+    // One or two shifts a day with up to two breaks in each, a day off now and then
+    private static DoctorWorkingHours randomTemplate(String doctorId, SplittableRandom random) {
+        List<DoctorWorkingHours.Period> periods = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (random.nextInt(7) == 0) {
+                continue;
+            }
+            int start = 6 * 60 + 15 * random.nextInt(16);
+            int shifts = 1 + random.nextInt(2);
+            for (int s = 0; s < shifts; s++) {
+                int end = start + 180 + 15 * random.nextInt(13);
+                periods.add(period(day, DoctorWorkingHours.Kind.SHIFT, start, Math.min(end, 24 * 60 - 1)));
+                for (int b = random.nextInt(3); b > 0; b--) {
+                    int breakStart = start + 60 + 5 * random.nextInt(24);
+                    periods.add(period(day, DoctorWorkingHours.Kind.BREAK, breakStart,
+                        breakStart + 10 + 5 * random.nextInt(10)));
+                }
+                start = Math.min(end + 30 + 15 * random.nextInt(8), 22 * 60);
+            }
+        }
+        return new DoctorWorkingHours(doctorId, SLOT_MINUTES[random.nextInt(SLOT_MINUTES.length)], periods);
+    }
+
+    // A few days off, shortened days and extra hours over the coming weeks
+    private static List<WorkingHoursOverride> randomOverrides(String doctorId, LocalDate today, int days,
+                                                              SplittableRandom random) {
+        List<WorkingHoursOverride> overrides = new ArrayList<>();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            LocalDate date = today.plusDays(random.nextInt(days));
+            int start = 7 * 60 + 15 * random.nextInt(40);
+            LocalTime from = LocalTime.MIN.plusMinutes(start);
+            LocalTime to = LocalTime.MIN.plusMinutes(Math.min(start + 30 + 15 * random.nextInt(12), 24 * 60 - 1));
+            switch (random.nextInt(3)) {
+                case 0 -> overrides.add(new WorkingHoursOverride(doctorId, date, WorkingHoursOverride.Kind.CLOSED,
+                    null, null, "Day off"));
+                case 1 -> overrides.add(new WorkingHoursOverride(doctorId, date, WorkingHoursOverride.Kind.CLOSED,
+                    from, to, "Training"));
+                default -> overrides.add(new WorkingHoursOverride(doctorId, date, WorkingHoursOverride.Kind.OPEN,
+                    from, to, "Extra clinic"));
+            }
+        }
+        return overrides;
+    }
+
+    private static DoctorWorkingHours.Period period(DayOfWeek day, DoctorWorkingHours.Kind kind, int from, int to) {
+        return new DoctorWorkingHours.Period(day, kind, LocalTime.MIN.plusMinutes(from), LocalTime.MIN.plusMinutes(to));
+    }
+
+    // The template read directly: shifts, less breaks, plus extra hours, less time off
+    private static boolean[] openMinutes(List<DoctorWorkingHours.Period> periods,
+                                         List<WorkingHoursOverride> overrides, LocalDate date) {
+        boolean[] open = new boolean[24 * 60];
+        for (DoctorWorkingHours.Kind kind : DoctorWorkingHours.Kind.values()) {
+            for (DoctorWorkingHours.Period period : periods) {
+                if (period.getDayOfWeek() == date.getDayOfWeek() && period.getKind() == kind) {
+                    Arrays.fill(open, minute(period.getStartTime()), minute(period.getEndTime()),
+                        kind == DoctorWorkingHours.Kind.SHIFT);
+                }
+            }
+        }
+        for (WorkingHoursOverride.Kind kind : new WorkingHoursOverride.Kind[] {
+                WorkingHoursOverride.Kind.OPEN, WorkingHoursOverride.Kind.CLOSED}) {
+            for (WorkingHoursOverride override : overrides) {
+                if (!override.getDate().equals(date) || override.getKind() != kind) {
+                    continue;
+                }
+                if (override.isWholeDay()) {
+                    Arrays.fill(open, kind == WorkingHoursOverride.Kind.OPEN);
+                } else {
+                    Arrays.fill(open, minute(override.getStartTime()), minute(override.getEndTime()),
+                        kind == WorkingHoursOverride.Kind.OPEN);
+                }
+            }
+        }
+        return open;
+    }
+
+    // A slot every slotMinutes from the start of each open stretch, as long as it fits
+    private static List<LocalDateTime> interpretedSlotStarts(boolean[] open, int slotMinutes, LocalDate date) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        int stretchStart = -1;
+        for (int minute = 0; minute < open.length; minute++) {
+            if (!open[minute]) {
+                stretchStart = -1;
+                continue;
+            }
+            if (stretchStart < 0) {
+                stretchStart = minute;
+            }
+            if ((minute - stretchStart) % slotMinutes == 0 && minute + slotMinutes <= open.length
+                    && allOpen(open, minute, minute + slotMinutes)) {
+                starts.add(date.atStartOfDay().plusMinutes(minute));
+            }
+        }
+        return starts;
+    }
+
+    private static boolean allOpen(boolean[] open, int from, int to) {
+        for (int minute = from; minute < to; minute++) {
+            if (!open[minute]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int minute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
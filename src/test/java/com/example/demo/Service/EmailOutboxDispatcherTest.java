@@ -0,0 +1,112 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.EmailOutboxMessage;
+import com.example.demo.respository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+    private final List<List<EmailOutboxMessage>> saved = new CopyOnWriteArrayList<>();
+    private EmailOutboxDispatcher dispatcher;
+
+    @AfterEach
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void aFailingChannelOnlyFailsItsOwnBatchAndDeliveredMessagesAreSaved() {
+        EmailOutboxMessage email = message("email");
+        EmailOutboxMessage sms = message("sms");
+        List<EmailOutboxMessage> claimed = new ArrayList<>(List.of(email, sms));
+        when(repository.findDueIds(eq(EmailOutboxMessage.Lane.ROUTINE), any(), any()))
+            .thenReturn(List.of(1L, 2L)).thenReturn(List.of());
+        when(repository.claim(anyLong(), any())).thenReturn(1);
+        when(repository.findAllById(any())).thenReturn(claimed);
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<EmailOutboxMessage> batch = new ArrayList<>();
+            invocation.<Iterable<EmailOutboxMessage>>getArgument(0).forEach(batch::add);
+            saved.add(batch);
+            return batch;
+        });
+
+        dispatcher = dispatcher(channel("email", false), channel("sms", true));
+        dispatcher.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> saved.size() == 2);
+        assertEquals(EmailOutboxMessage.Status.SENT, email.getStatus());
+        // The thrown batch is retried like any other transient failure, and counts as an attempt
+        assertEquals(EmailOutboxMessage.Status.PENDING, sms.getStatus());
+        assertEquals(1, sms.getAttempts());
+        assertEquals(List.of(List.of(email), List.of(sms)),
+            saved.stream().sorted((a, b) -> a.get(0).getChannel().compareTo(b.get(0).getChannel())).toList());
+    }
+
+    @Test
+    void aChannelThatKeepsThrowingEndsUpDead() {
+        EmailOutboxMessage sms = message("sms");
+        when(repository.findDueIds(eq(EmailOutboxMessage.Lane.ROUTINE), any(), any()))
+            .thenReturn(List.of(1L)).thenReturn(List.of()).thenReturn(List.of(1L)).thenReturn(List.of());
+        when(repository.claim(anyLong(), any())).thenReturn(1);
+        when(repository.findAllById(any())).thenReturn(List.of(sms));
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            saved.add(List.of(sms));
+            return List.of(sms);
+        });
+
+        dispatcher = dispatcher(channel("sms", true));
+        dispatcher.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> saved.size() == 2);
+        assertEquals(EmailOutboxMessage.Status.DEAD, sms.getStatus());
+        assertEquals(2, sms.getAttempts());
+    }
+
+    private EmailOutboxDispatcher dispatcher(NotificationChannel... channels) {
+        return new EmailOutboxDispatcher(repository, List.of(channels), new SimpleMeterRegistry(),
+            2, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMinutes(5), Duration.ofDays(7),
+            10, 10_000, 10, 50);
+    }
+
+    private static EmailOutboxMessage message(String channel) {
+        EmailOutboxMessage message = new EmailOutboxMessage(channel + "@healthcare.test", "Subject", "email/test",
+            "<p>body</p>", EmailOutboxMessage.Lane.ROUTINE);
+        message.setChannel(channel);
+        return message;
+    }
+
+    private static NotificationChannel channel(String name, boolean throwing) {
+        return new NotificationChannel() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public List<DeliveryResult> deliver(EmailOutboxMessage.Lane lane, List<EmailOutboxMessage> messages) {
+                if (throwing) {
+                    throw new IllegalStateException("SMTP delivery worker failed");
+                }
+                return messages.stream().map(message -> DeliveryResult.sent()).toList();
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    private static final int REMINDERS = 20_000;
+    private static final long TICK_MILLIS = 1_000;
+    private static final long SPAN_MILLIS = 48 * 3_600_000L;
+    private static final long STEP_MILLIS = 60_000;
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    @Test
+    void firesEveryPendingReminderOnceAndOnTime() {
+        SplittableRandom random = new SplittableRandom(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, START_MILLIS);
+        List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>(REMINDERS);
+        long[] expected = new long[REMINDERS];
+        for (int i = 0; i < REMINDERS; i++) {
+            expected[i] = START_MILLIS + random.nextLong(SPAN_MILLIS);
+            timeouts.add(wheel.add(expected[i], i));
+        }
+        // A fifth cancelled, a fifth moved to a later time as a reschedule does
+        for (int i = 0; i < REMINDERS; i += 5) {
+            wheel.cancel(timeouts.get(i));
+            expected[i] = -1;
+            wheel.cancel(timeouts.get(i + 1));
+            expected[i + 1] += 3 * 3_600_000L;
+            timeouts.set(i + 1, wheel.add(expected[i + 1], i + 1));
+        }
+        assertEquals(REMINDERS - REMINDERS / 5, wheel.size());
+
+        int[] fired = new int[REMINDERS];
+        for (long now = START_MILLIS; wheel.size() > 0; now += STEP_MILLIS) {
+            for (int i : wheel.advanceTo(now)) {
+                assertTrue(expected[i] / TICK_MILLIS <= now / TICK_MILLIS, "reminder " + i + " fired early");
+                assertTrue(now - expected[i] < STEP_MILLIS + TICK_MILLIS, "reminder " + i + " fired late");
+                fired[i]++;
+            }
+        }
+        for (int i = 0; i < REMINDERS; i++) {
+            assertEquals(expected[i] < 0 ? 0 : 1, fired[i], "times reminder " + i + " fired");
+        }
+    }
+
+    @Test
+    void expiresInDeadlineOrder() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, START_MILLIS);
+        wheel.add(START_MILLIS + 3 * 3_600_000L, "third");
+        wheel.add(START_MILLIS + 5_000, "first");
+        wheel.add(START_MILLIS + 90_000, "second");
+
+        assertEquals(List.of("first", "second", "third"), wheel.advanceTo(START_MILLIS + 4 * 3_600_000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void passedDeadlineFiresOnTheNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, START_MILLIS);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.add(START_MILLIS - 60_000, "cancelled");
+        wheel.add(START_MILLIS - 60_000, "overdue");
+        wheel.cancel(cancelled);
+        wheel.cancel(cancelled);
+
+        assertEquals(List.of("overdue"), wheel.advanceTo(START_MILLIS));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rejectsDeadlinesBeyondItsRange() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, START_MILLIS);
+        wheel.add(START_MILLIS + wheel.rangeMillis(), "last");
+        assertThrows(IllegalArgumentException.class,
+            () -> wheel.add(START_MILLIS + wheel.rangeMillis() + TICK_MILLIS, "too far"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Appointment;
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.dto.AppointmentRequestDTO;
+import com.example.demo.respository.DoctorRepository;
+import com.example.demo.respository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Books appointments through the real AppointmentService with the loadtest profile,
+ * so the confirmation emails go through the outbox, EmailOutboxDispatcher and
+ * CapturingNotificationChannel (with the profile's injected latency and failures)
+ * instead of an SMTP server.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("loadtest")
+@ImportAutoConfiguration(ThymeleafAutoConfiguration.class)
+@Import({AppointmentService.class, DoctorScheduleIndex.class, DoctorBookingLocks.class, DashboardCounterService.class,
+    AppointmentReminderScheduler.class, DoctorWorkingHoursService.class, EmailService.class, TemplateRenderer.class,
+    EmailOutboxDispatcher.class, CapturingNotificationChannel.class, OfflineNotificationFlowTest.Metrics.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:offline_notifications;MODE=MySQL;NON_KEYWORDS=USER,VALUE,TIMESTAMP;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    // Retry injected failures quickly instead of after the production backoff
+    "app.mail.outbox.initial-backoff=100ms",
+    "app.mail.outbox.max-backoff=1s"
+})
+class OfflineNotificationFlowTest {
+
+    private static final AtomicInteger PEOPLE = new AtomicInteger();
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private CapturingNotificationChannel capturingChannel;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @MockBean
+    private UserService userService;
+
+    @BeforeEach
+    void clearCaptured() {
+        capturingChannel.clear();
+    }
+
+    @Test
+    void bookingConfirmationsAreDeliveredThroughTheCapturingChannel() {
+        Patient patient = patient();
+        Doctor doctor = doctor();
+        LocalDateTime start = LocalDate.now().plusDays(2).atTime(10, 0);
+
+        appointmentService.bookAppointment(patient, doctor, request(start));
+
+        await().atMost(Duration.ofSeconds(30)).until(() -> capturingChannel.getCapturedCount() == 2);
+        List<CapturingNotificationChannel.CapturedMessage> captured = capturingChannel.getCaptured();
+        assertTrue(captured.stream().anyMatch(message -> message.getRecipient().equals(patient.getEmail())
+            && message.getSubject().equals("Your Appointment Confirmation")));
+        assertTrue(captured.stream().anyMatch(message -> message.getRecipient().equals(doctor.getEmail())
+            && message.getSubject().contains(patient.getFirstName())));
+        assertTrue(captured.stream().allMatch(message -> message.getBody().contains(doctor.getLastName())));
+    }
+
+    private Patient patient() {
+        int n = PEOPLE.incrementAndGet();
+        return patientRepository.save(new Patient("Offline", "Patient", "offline.patient" + n + "@example.com",
+            "password123", LocalDate.of(1990, 1, 1), "Street 1", "5550100", User.Gender.OTHER, null,
+            User.BloodType.O_POSITIVE));
+    }
+
+    private Doctor doctor() {
+        int n = PEOPLE.incrementAndGet();
+        return doctorRepository.save(new Doctor(null, "Offline", "Doctor", "offline.doctor" + n + "@example.com",
+            "password123", LocalDate.of(1980, 1, 1), "Street 2", "5550101", User.Gender.OTHER, "IN", null,
+            User.BloodType.A_POSITIVE, "ID-" + n, "LIC-" + n, Doctor.Specialization.GENERAL));
+    }
+
+    private static AppointmentRequestDTO request(LocalDateTime dateTime) {
+        AppointmentRequestDTO request = new AppointmentRequestDTO();
+        request.setDateTime(dateTime);
+        request.setReason("Offline flow");
+        request.setLocation(Appointment.Location.IN_PERSON);
+        return request;
+    }
+}
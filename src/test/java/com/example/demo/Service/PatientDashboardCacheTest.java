@@ -0,0 +1,55 @@
+package com.example.demo.Service;
+
+import com.example.demo.dto.DashboardVitalsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PatientDashboardCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PatientDashboardCache cache = new PatientDashboardCache(100, Duration.ofMinutes(5),
+        new SimpleMeterRegistry(), clock::get);
+
+    @Test
+    void invalidatingAnotherPatientDuringALoadStillCaches() {
+        DashboardVitalsDto snapshot = new DashboardVitalsDto();
+        cache.get("patient-a", () -> {
+            cache.invalidate("patient-b");
+            return snapshot;
+        });
+
+        assertSame(snapshot, cache.get("patient-a", DashboardVitalsDto::new));
+    }
+
+    @Test
+    void invalidatingThePatientDuringALoadDoesNotCache() {
+        DashboardVitalsDto stale = new DashboardVitalsDto();
+        cache.get("patient-a", () -> {
+            cache.invalidate("patient-a");
+            return stale;
+        });
+
+        assertNotSame(stale, cache.get("patient-a", DashboardVitalsDto::new));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("patient-a", () -> { loads.incrementAndGet(); return new DashboardVitalsDto(); });
+        clock.addAndGet(Duration.ofMinutes(4).toNanos());
+        cache.get("patient-a", () -> { loads.incrementAndGet(); return new DashboardVitalsDto(); });
+        assertEquals(1, loads.get());
+
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        cache.get("patient-a", () -> { loads.incrementAndGet(); return new DashboardVitalsDto(); });
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.demo.Service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivery results against a local SMTP server that rejects every recipient at
+ * invalid.test with 550, and can drop each connection after a number of messages.
+ */
+class SmtpDeliveryEngineTest {
+
+    private ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool();
+    private final AtomicInteger connectionsAccepted = new AtomicInteger();
+    private final AtomicInteger messagesAccepted = new AtomicInteger();
+    private volatile int messagesBeforeDrop = Integer.MAX_VALUE;
+    private SmtpDeliveryEngine engine;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        sessions.submit(this::acceptLoop);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(serverSocket.getLocalPort());
+        mailSender.getJavaMailProperties().put("mail.smtp.sendpartial", "true");
+        engine = new SmtpDeliveryEngine(mailSender, "test", 1, 100, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        engine.shutdown();
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    @Test
+    void batchesReuseConnectionsUpToTheirMessageLimit() throws Exception {
+        int sent = 0;
+        for (int batch = 0; batch < 5; batch++) {
+            List<MimeMessage> messages = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                messages.add(message("patient" + (batch * 50 + i) + "@healthcare.test"));
+            }
+            sent += (int) engine.deliver(messages).stream().filter(DeliveryResult::isSent).count();
+        }
+
+        assertEquals(250, sent);
+        assertEquals(250, messagesAccepted.get());
+        // 100 messages per connection, plus at most one reopened by the single sender
+        assertTrue(engine.getConnectionsOpened() >= 3 && engine.getConnectionsOpened() <= 4,
+            "connections opened: " + engine.getConnectionsOpened());
+        assertEquals(engine.getConnectionsOpened(), connectionsAccepted.get());
+    }
+
+    @Test
+    void connectionsDroppedByTheServerAreReplacedWithoutFailingMessages() throws Exception {
+        messagesBeforeDrop = 3;
+
+        // Within a batch the drop shows up as a failed send, which is retried on a new connection
+        List<DeliveryResult> first = engine.deliver(messages(9));
+        // The last connection was dropped between batches, the probe on borrow replaces it
+        List<DeliveryResult> second = engine.deliver(messages(2));
+
+        assertTrue(first.stream().allMatch(DeliveryResult::isSent), first.toString());
+        assertTrue(second.stream().allMatch(DeliveryResult::isSent), second.toString());
+        assertEquals(11, messagesAccepted.get());
+        assertEquals(4, engine.getConnectionsOpened());
+        assertEquals(engine.getConnectionsOpened(), connectionsAccepted.get());
+    }
+
+    @Test
+    void partialDeliveryCountsAsSentSoAcceptedRecipientsAreNotMailedAgain() throws Exception {
+        List<DeliveryResult> results = engine.deliver(List.of(message("patient@healthcare.test", "typo@invalid.test")));
+
+        assertTrue(results.get(0).isSent());
+        assertEquals(1, messagesAccepted.get());
+    }
+
+    @Test
+    void onlyRejectedRecipientsFailPermanently() throws Exception {
+        List<DeliveryResult> results = engine.deliver(List.of(
+            message("typo@invalid.test"), message("patient@healthcare.test")));
+
+        assertFalse(results.get(0).isSent());
+        assertTrue(results.get(0).isPermanent());
+        assertTrue(results.get(1).isSent());
+        assertEquals(1, messagesAccepted.get());
+    }
+
+    private List<MimeMessage> messages(int count) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(message("patient" + i + "@healthcare.test"));
+        }
+        return messages;
+    }
+
+    private MimeMessage message(String... to) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("noreply@healthcare.test");
+        helper.setTo(to);
+        helper.setSubject("Appointment reminder");
+        helper.setText("See you tomorrow");
+        return message;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionsAccepted.incrementAndGet();
+                sessions.submit(() -> session(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 fake ESMTP");
+            int messages = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "RCPT" -> reply(out, line.contains("@invalid.test") ? "550 No such user" : "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard message body
+                        }
+                        messagesAccepted.incrementAndGet();
+                        reply(out, "250 OK");
+                        if (++messages == messagesBeforeDrop) {
+                            return;
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
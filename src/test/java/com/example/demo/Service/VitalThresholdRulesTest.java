@@ -0,0 +1,89 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.VitalAlert;
+import com.example.demo.Models.VitalMeasurements;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.Models.VitalThresholds;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VitalThresholdRulesTest {
+
+    private record Reading(double bodyTemperature, int pulseRate, VitalSigns.BloodPressure bloodPressure,
+                           double oxygenSaturation, VitalSigns.PainLevel painLevel) implements VitalMeasurements {
+        public LocalDateTime getTimestamp() { return LocalDateTime.of(2024, 1, 1, 9, 0); }
+        public double getBodyTemperature() { return bodyTemperature; }
+        public int getPulseRate() { return pulseRate; }
+        public int getRespiratoryRate() { return 16; }
+        public VitalSigns.BloodPressure getBloodPressure() { return bloodPressure; }
+        public double getOxygenSaturation() { return oxygenSaturation; }
+        public VitalSigns.PainLevel getPainLevel() { return painLevel; }
+    }
+
+    private static Reading normal() {
+        return new Reading(36.8, 72, new VitalSigns.BloodPressure(120, 80), 98.0, VitalSigns.PainLevel.NONE);
+    }
+
+    @Test
+    void normalReadingRaisesNoAlerts() {
+        assertEquals(0, VitalThresholdRules.DEFAULTS.evaluate(normal()));
+    }
+
+    @Test
+    void defaultsFlagEachVitalAtItsThresholds() {
+        VitalThresholdRules rules = VitalThresholdRules.DEFAULTS;
+
+        assertEquals(VitalAlert.HIGH_SYSTOLIC.bit(),
+            rules.evaluate(new Reading(36.8, 72, new VitalSigns.BloodPressure(141, 80), 98.0, null)));
+        assertEquals(VitalAlert.HIGH_SYSTOLIC.bit() | VitalAlert.HIGH_DIASTOLIC.bit()
+                | VitalAlert.CRITICAL_SYSTOLIC.bit() | VitalAlert.CRITICAL_DIASTOLIC.bit(),
+            rules.evaluate(new Reading(36.8, 72, new VitalSigns.BloodPressure(181, 121), 98.0, null)));
+        assertEquals(VitalAlert.ELEVATED_HEART_RATE.bit(),
+            rules.evaluate(new Reading(36.8, 101, new VitalSigns.BloodPressure(120, 80), 98.0, null)));
+        assertEquals(VitalAlert.LOW_HEART_RATE.bit() | VitalAlert.CRITICAL_PULSE.bit(),
+            rules.evaluate(new Reading(36.8, 45, new VitalSigns.BloodPressure(120, 80), 98.0, null)));
+        assertEquals(VitalAlert.LOW_OXYGEN_SATURATION.bit(),
+            rules.evaluate(new Reading(36.8, 72, new VitalSigns.BloodPressure(120, 80), 91.0, null)));
+        assertEquals(VitalAlert.LOW_OXYGEN_SATURATION.bit() | VitalAlert.CRITICAL_OXYGEN_SATURATION.bit(),
+            rules.evaluate(new Reading(36.8, 72, new VitalSigns.BloodPressure(120, 80), 89.0, null)));
+        assertEquals(VitalAlert.HIGH_TEMPERATURE.bit() | VitalAlert.CRITICAL_TEMPERATURE.bit(),
+            rules.evaluate(new Reading(39.5, 72, new VitalSigns.BloodPressure(120, 80), 98.0, null)));
+        assertEquals(VitalAlert.LOW_TEMPERATURE.bit(),
+            rules.evaluate(new Reading(35.5, 72, new VitalSigns.BloodPressure(120, 80), 98.0, null)));
+        assertEquals(VitalAlert.SEVERE_PAIN.bit(),
+            rules.evaluate(new Reading(36.8, 72, new VitalSigns.BloodPressure(120, 80), 98.0, VitalSigns.PainLevel.SEVERE)));
+        assertEquals(0,
+            rules.evaluate(new Reading(36.8, 72, new VitalSigns.BloodPressure(120, 80), 98.0, VitalSigns.PainLevel.MODERATE)));
+    }
+
+    @Test
+    void compiledRulesFollowThePatientsThresholds() {
+        VitalThresholds thresholds = new VitalThresholds("patient-1");
+        thresholds.setSystolicHigh(130);
+        thresholds.setCriticalSystolicHigh(150);
+        thresholds.setCriticalOxygenLow(95.0);
+        thresholds.setPainLevelAlert(VitalSigns.PainLevel.MODERATE);
+        VitalThresholdRules rules = VitalThresholdRules.compile(thresholds);
+
+        int mask = rules.evaluate(new Reading(36.8, 72, new VitalSigns.BloodPressure(155, 80), 94.0,
+            VitalSigns.PainLevel.MODERATE));
+
+        assertEquals(VitalAlert.HIGH_SYSTOLIC.bit() | VitalAlert.CRITICAL_SYSTOLIC.bit()
+            | VitalAlert.CRITICAL_OXYGEN_SATURATION.bit() | VitalAlert.SEVERE_PAIN.bit(), mask);
+        assertTrue(VitalAlert.isCritical(mask));
+        assertTrue(VitalAlert.hasWarnings(mask));
+        // The same reading against the defaults is only a warning
+        assertFalse(VitalAlert.isCritical(VitalThresholdRules.DEFAULTS.evaluate(
+            new Reading(36.8, 72, new VitalSigns.BloodPressure(155, 80), 94.0, VitalSigns.PainLevel.MODERATE))));
+    }
+
+    @Test
+    void missingBloodPressureIsSkipped() {
+        assertEquals(0, VitalThresholdRules.DEFAULTS.evaluate(new Reading(36.8, 72, null, 98.0, null)));
+    }
+}
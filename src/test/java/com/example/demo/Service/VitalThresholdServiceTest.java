@@ -0,0 +1,68 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.VitalAlert;
+import com.example.demo.Models.VitalMeasurements;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.Models.VitalThresholds;
+import com.example.demo.respository.VitalThresholdsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VitalThresholdServiceTest {
+
+    private final VitalThresholdsRepository repository = mock(VitalThresholdsRepository.class);
+    private final VitalThresholdService service = new VitalThresholdService(repository,
+        new PatientDashboardCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry()));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rulesLoadedBeforeTheCommitAreEvictedAfterIt() {
+        VitalThresholds stored = new VitalThresholds("patient-1");
+        when(repository.findByPatientId("patient-1")).thenReturn(Optional.of(stored));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        VitalThresholds update = new VitalThresholds();
+        update.setCriticalSystolicHigh(150);
+        service.updateThresholds("patient-1", update);
+
+        // A concurrent reader compiles the row as it was before the commit
+        VitalThresholds beforeCommit = new VitalThresholds("patient-1");
+        when(repository.findByPatientId("patient-1")).thenReturn(Optional.of(beforeCommit));
+        VitalThresholdRules stale = service.getRules("patient-1");
+        assertSame(stale, service.getRules("patient-1"));
+
+        when(repository.findByPatientId("patient-1")).thenReturn(Optional.of(stored));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        VitalThresholdRules fresh = service.getRules("patient-1");
+        assertNotSame(stale, fresh);
+        VitalMeasurements reading = mock(VitalMeasurements.class);
+        when(reading.getBloodPressure()).thenReturn(new VitalSigns.BloodPressure(155, 80));
+        when(reading.getPulseRate()).thenReturn(72);
+        when(reading.getOxygenSaturation()).thenReturn(98.0);
+        when(reading.getBodyTemperature()).thenReturn(36.8);
+        assertFalse(VitalAlert.isCritical(stale.evaluate(reading)));
+        assertTrue(VitalAlert.isCritical(fresh.evaluate(reading)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.Service;
+
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.Models.VitalSigns;
+import com.example.demo.dto.DashboardVitalsDto;
+import com.example.demo.respository.DoctorRepository;
+import com.example.demo.respository.PatientRepository;
+import com.example.demo.respository.VitalDashboardRepository;
+import com.example.demo.respository.VitalReadingRepository;
+import com.example.demo.respository.VitalRollupRepository;
+import com.example.demo.respository.VitalSignsBatchRepository;
+import com.example.demo.respository.VitalSignsRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Uploads go through the same write path as VitalSignsService: batch insert into
+ * vital_signs, then the time-series copy and its rollups. Readings that share a
+ * timestamp must all survive, so the dashboard agrees with vital_signs.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({VitalSignsBatchRepository.class, VitalReadingRepository.class, VitalRollupRepository.class,
+    VitalDashboardRepository.class, VitalTimeSeriesService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:vitals_timeseries;MODE=MySQL;NON_KEYWORDS=USER,VALUE,TIMESTAMP;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class VitalTimeSeriesServiceTest {
+
+    @Autowired
+    private VitalSignsBatchRepository batchRepository;
+
+    @Autowired
+    private VitalTimeSeriesService timeSeriesService;
+
+    @Autowired
+    private VitalReadingRepository readingRepository;
+
+    @Autowired
+    private VitalDashboardRepository dashboardRepository;
+
+    @Autowired
+    private VitalSignsRepository vitalSignsRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void readingsWithTheSameTimestampAreAllKept() {
+        Patient patient = patientRepository.save(new Patient("Series", "Patient", "series.patient@example.com",
+            "password123", LocalDate.of(1990, 1, 1), "Street 1", "5550100", User.Gender.OTHER, null,
+            User.BloodType.O_POSITIVE));
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Series", "Doctor", "series.doctor@example.com",
+            "password123", LocalDate.of(1980, 1, 1), "Street 2", "5550101", User.Gender.OTHER, "IN", null,
+            User.BloodType.A_POSITIVE, "ID-1", "LIC-1", Doctor.Specialization.GENERAL));
+        entityManager.flush();
+
+        LocalDateTime recordedAt = LocalDateTime.now().minusHours(2).withSecond(0).withNano(0);
+        upload(List.of(vital(patient, doctor, recordedAt, 70), vital(patient, doctor, recordedAt, 90)));
+        upload(List.of(vital(patient, doctor, recordedAt, 110)));
+
+        String patientId = patient.getUserId();
+        List<VitalSigns> stored = vitalSignsRepository.findByPatient_UserIdOrderByTimestampDescIdDesc(patientId);
+        assertEquals(3, stored.size());
+        assertEquals(3, readingRepository.countInRange(patientId, recordedAt, recordedAt.plusMinutes(1)));
+        assertEquals(List.of(70, 90, 110), VitalTimeSeriesService.toTrends(readingRepository.findRange(patientId,
+            recordedAt.minusDays(1), recordedAt.plusDays(1))).getHeartRates());
+
+        DashboardVitalsDto snapshot = dashboardRepository.findSnapshot(patientId, recordedAt.minusDays(7), 500);
+        assertEquals(stored.size(), snapshot.getVitalsCount());
+        assertEquals(stored.get(0).getPulseRate(), snapshot.getLatestVitals().getPulseRate());
+        assertEquals(stored.get(1).getPulseRate(), snapshot.getPreviousVitals().getPulseRate());
+        assertEquals(3, snapshot.getTrends().getTimestamps().size());
+    }
+
+    private void upload(List<VitalSigns> vitals) {
+        batchRepository.insertAll(vitals);
+        timeSeriesService.record(vitals);
+    }
+
+    private static VitalSigns vital(Patient patient, Doctor doctor, LocalDateTime timestamp, int pulse) {
+        VitalSigns vital = new VitalSigns();
+        vital.setPatient(patient);
+        vital.setDoctor(doctor);
+        vital.setTimestamp(timestamp);
+        vital.setBodyTemperature(36.8);
+        vital.setPulseRate(pulse);
+        vital.setRespiratoryRate(14);
+        vital.setBloodPressure(new VitalSigns.BloodPressure(120, 80));
+        vital.setOxygenSaturation(97.0);
+        return vital;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.respository;
+
+import com.example.demo.dto.DashboardVitalsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the single snapshot query against readings with known values: count, latest
+ * two, and the trend window as raw readings or hourly averages.
+ */
+class VitalDashboardRepositoryTest {
+
+    private static final String PATIENT_ID = "patient-1";
+    private static final int MAX_RAW_POINTS = 500;
+    private static final LocalDateTime END = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private VitalDashboardRepository dashboardRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:dashboard_snapshot;MODE=MySQL;NON_KEYWORDS=TIMESTAMP;DB_CLOSE_DELAY=-1", "sa", ""));
+        createTables(jdbcTemplate);
+        dashboardRepository = new VitalDashboardRepository(jdbcTemplate);
+    }
+
+    @Test
+    void shortHistoryIsReturnedAsRawReadings() {
+        int readings = 300;
+        LocalDateTime start = END.minusMinutes(readings);
+        loadReadings(jdbcTemplate, PATIENT_ID, start, readings);
+        refreshRollups(PATIENT_ID, start);
+
+        DashboardVitalsDto snapshot = dashboardRepository.findSnapshot(PATIENT_ID, END.minusDays(7), MAX_RAW_POINTS);
+
+        assertTrue(snapshot.isHasData());
+        assertEquals(readings, snapshot.getVitalsCount());
+        assertEquals(start.plusMinutes(readings - 1), snapshot.getLatestVitals().getTimestamp());
+        assertEquals(pulse(readings - 1), snapshot.getLatestVitals().getPulseRate());
+        assertEquals(start.plusMinutes(readings - 2), snapshot.getPreviousVitals().getTimestamp());
+        assertEquals(pulse(readings - 2), snapshot.getPreviousVitals().getPulseRate());
+        assertEquals("RAW", snapshot.getTrends().getResolution());
+        assertEquals(readings, snapshot.getTrends().getTimestamps().size());
+        for (int n = 0; n < readings; n++) {
+            assertEquals(pulse(n), snapshot.getTrends().getHeartRates().get(n), "heart rate " + n);
+        }
+    }
+
+    @Test
+    void denseWindowIsReturnedAsHourlyAverages() {
+        int readings = 10_000;
+        LocalDateTime start = END.minusMinutes(readings);
+        loadReadings(jdbcTemplate, PATIENT_ID, start, readings);
+        loadReadings(jdbcTemplate, "patient-2", start, readings);
+        refreshRollups(PATIENT_ID, start);
+
+        DashboardVitalsDto snapshot = dashboardRepository.findSnapshot(PATIENT_ID, END.minusDays(7), MAX_RAW_POINTS);
+
+        Map<LocalDateTime, double[]> hourly = new TreeMap<>();
+        for (int n = 0; n < readings; n++) {
+            double[] sum = hourly.computeIfAbsent(start.plusMinutes(n).truncatedTo(ChronoUnit.HOURS),
+                hour -> new double[2]);
+            sum[0] += pulse(n);
+            sum[1]++;
+        }
+        assertEquals(readings, snapshot.getVitalsCount());
+        assertEquals("HOUR", snapshot.getTrends().getResolution());
+        assertEquals(hourly.size(), snapshot.getTrends().getTimestamps().size());
+        int i = 0;
+        for (Map.Entry<LocalDateTime, double[]> hour : hourly.entrySet()) {
+            assertEquals(hour.getKey().toString(), snapshot.getTrends().getTimestamps().get(i));
+            assertEquals((int) Math.round(hour.getValue()[0] / hour.getValue()[1]),
+                snapshot.getTrends().getHeartRates().get(i), "heart rate at " + hour.getKey());
+            i++;
+        }
+    }
+
+    @Test
+    void latestReadingsAreFoundOutsideTheWindow() {
+        insertReading(jdbcTemplate, PATIENT_ID, END.minusDays(10), 1);
+        insertReading(jdbcTemplate, PATIENT_ID, END.minusDays(3), 2);
+        refreshRollups(PATIENT_ID, END.minusDays(10));
+
+        DashboardVitalsDto snapshot = dashboardRepository.findSnapshot(PATIENT_ID, END.minusDays(7), MAX_RAW_POINTS);
+
+        assertEquals(2, snapshot.getVitalsCount());
+        assertEquals(END.minusDays(3), snapshot.getLatestVitals().getTimestamp());
+        assertEquals(END.minusDays(10), snapshot.getPreviousVitals().getTimestamp());
+        assertEquals(List.of(END.minusDays(3).toString()), snapshot.getTrends().getTimestamps());
+    }
+
+    @Test
+    void patientWithoutReadingsHasNoData() {
+        DashboardVitalsDto snapshot = dashboardRepository.findSnapshot(PATIENT_ID, END.minusDays(7), MAX_RAW_POINTS);
+
+        assertFalse(snapshot.isHasData());
+        assertEquals(0, snapshot.getVitalsCount());
+        assertNull(snapshot.getLatestVitals());
+        assertTrue(snapshot.getTrends().getTimestamps().isEmpty());
+    }
+
+    private void refreshRollups(String patientId, LocalDateTime start) {
+        VitalRollupRepository rollupRepository = new VitalRollupRepository(jdbcTemplate);
+        rollupRepository.refreshHourly(patientId, start.minusHours(1), END.plusHours(1));
+        rollupRepository.refreshDaily(patientId, start.minusDays(1), END.plusDays(1));
+    }
+
+    private static int pulse(int n) {
+        return 60 + n % 40;
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS vital_readings");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS vital_rollups");
+        jdbcTemplate.execute("CREATE TABLE vital_readings (patient_id VARCHAR(36) NOT NULL, " +
+            "recorded_at TIMESTAMP NOT NULL, body_temperature DOUBLE, pulse_rate INT, respiratory_rate INT, " +
+            "systolic INT, diastolic INT, oxygen_saturation DOUBLE, pain_level INT, vital_signs_id BIGINT NOT NULL, " +
+            "PRIMARY KEY (patient_id, recorded_at, vital_signs_id))");
+        jdbcTemplate.execute("CREATE TABLE vital_rollups (patient_id VARCHAR(36) NOT NULL, " +
+            "resolution VARCHAR(8) NOT NULL, bucket_start TIMESTAMP NOT NULL, reading_count BIGINT, " +
+            "min_temperature DOUBLE, max_temperature DOUBLE, sum_temperature DOUBLE, " +
+            "min_pulse INT, max_pulse INT, sum_pulse BIGINT, " +
+            "min_respiratory INT, max_respiratory INT, sum_respiratory BIGINT, " +
+            "min_systolic INT, max_systolic INT, sum_systolic BIGINT, " +
+            "min_diastolic INT, max_diastolic INT, sum_diastolic BIGINT, " +
+            "min_oxygen DOUBLE, max_oxygen DOUBLE, sum_oxygen DOUBLE, " +
+            "PRIMARY KEY (patient_id, resolution, bucket_start))");
+    }
+
+    // One reading a minute from start, values derived from the reading's position
+    private static void loadReadings(JdbcTemplate jdbcTemplate, String patientId, LocalDateTime start, int readings) {
+        int batch = 10_000;
+        for (int offset = 0; offset < readings; offset += batch) {
+            int from = offset;
+            int size = Math.min(batch, readings - offset);
+            jdbcTemplate.batchUpdate("INSERT INTO vital_readings VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, patientId, start.plusMinutes(from + i), from + i);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                });
+        }
+    }
+
+    private static void insertReading(JdbcTemplate jdbcTemplate, String patientId, LocalDateTime recordedAt, int n) {
+        jdbcTemplate.update("INSERT INTO vital_readings VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            ps -> bind(ps, patientId, recordedAt, n));
+    }
+
+    private static void bind(PreparedStatement ps, String patientId, LocalDateTime recordedAt, int n)
+            throws SQLException {
+        ps.setString(1, patientId);
+        ps.setTimestamp(2, Timestamp.valueOf(recordedAt));
+        ps.setDouble(3, 36.0 + (n % 30) / 10.0);
+        ps.setInt(4, pulse(n));
+        ps.setInt(5, 12 + n % 8);
+        ps.setInt(6, 110 + n % 50);
+        ps.setInt(7, 70 + n % 20);
+        ps.setDouble(8, 92.0 + n % 8);
+        ps.setInt(9, n % 6);
+        ps.setLong(10, n);
+    }
+}
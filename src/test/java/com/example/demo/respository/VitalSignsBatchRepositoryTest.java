@@ -0,0 +1,115 @@
+package com.example.demo.respository;
+
+import com.example.demo.Models.Doctor;
+import com.example.demo.Models.Patient;
+import com.example.demo.Models.User;
+import com.example.demo.Models.VitalSigns;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Writes vitals through the JDBC batch path into the schema Hibernate generates and
+ * reads them back as entities, so the hand-written INSERT stays in step with the
+ * VitalSigns mapping.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(VitalSignsBatchRepository.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:vitals_batch;MODE=MySQL;NON_KEYWORDS=USER,VALUE,TIMESTAMP;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "app.vitals.upload.jdbc-batch-size=100"
+})
+class VitalSignsBatchRepositoryTest {
+
+    private static final int ROWS = 1_234;
+
+    @Autowired
+    private VitalSignsBatchRepository batchRepository;
+
+    @Autowired
+    private VitalSignsRepository vitalSignsRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void batchedRowsReadBackAsTheVitalsWritten() {
+        Patient patient = patientRepository.save(new Patient("Batch", "Patient", "batch.patient@example.com",
+            "password123", LocalDate.of(1990, 1, 1), "Street 1", "5550100", User.Gender.OTHER, null,
+            User.BloodType.O_POSITIVE));
+        Doctor doctor = doctorRepository.save(new Doctor(null, "Batch", "Doctor", "batch.doctor@example.com",
+            "password123", LocalDate.of(1980, 1, 1), "Street 2", "5550101", User.Gender.OTHER, "IN", null,
+            User.BloodType.A_POSITIVE, "ID-1", "LIC-1", Doctor.Specialization.GENERAL));
+        entityManager.flush();
+
+        LocalDateTime start = LocalDateTime.now().minusDays(2).withSecond(0).withNano(0);
+        List<VitalSigns> vitals = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            VitalSigns vital = new VitalSigns();
+            vital.setPatient(patient);
+            vital.setDoctor(doctor);
+            vital.setTimestamp(start.plusMinutes(i));
+            vital.setBodyTemperature(36.0 + (i % 30) / 10.0);
+            vital.setPulseRate(60 + i % 40);
+            vital.setRespiratoryRate(12 + i % 8);
+            vital.setBloodPressure(new VitalSigns.BloodPressure(110 + i % 50, 70 + i % 20));
+            vital.setOxygenSaturation(92.0 + i % 8);
+            if (i % 2 == 0) {
+                vital.setHeight(170.0);
+                vital.setWeight(70.5);
+                vital.setPainLevel(VitalSigns.PainLevel.values()[i % 6]);
+            }
+            vitals.add(vital);
+        }
+
+        assertEquals(ROWS, batchRepository.insertAll(vitals));
+        entityManager.clear();
+
+        List<VitalSigns> stored = vitalSignsRepository.findByPatient_UserIdOrderByTimestampDescIdDesc(
+            patient.getUserId());
+        assertEquals(ROWS, stored.size());
+        for (VitalSigns read : stored) {
+            VitalSigns written = vitals.get((int) Duration.between(start, read.getTimestamp()).toMinutes());
+            assertEquals(written.getId(), read.getId());
+            assertEquals(doctor.getUserId(), read.getDoctor().getUserId());
+            assertEquals(written.getBodyTemperature(), read.getBodyTemperature());
+            assertEquals(written.getPulseRate(), read.getPulseRate());
+            assertEquals(written.getRespiratoryRate(), read.getRespiratoryRate());
+            assertEquals(written.getBloodPressure().getSystolic(), read.getBloodPressure().getSystolic());
+            assertEquals(written.getBloodPressure().getDiastolic(), read.getBloodPressure().getDiastolic());
+            assertEquals(written.getBloodPressure().getCategory(), read.getBloodPressure().getCategory());
+            assertEquals(written.getOxygenSaturation(), read.getOxygenSaturation());
+            assertEquals(written.getHeight(), read.getHeight());
+            assertEquals(written.getWeight(), read.getWeight());
+            assertEquals(written.getPainLevel(), read.getPainLevel());
+            assertEquals(written.getStatus(), read.getStatus());
+        }
+        assertNull(stored.get(0).getPainLevel());
+    }
+}